@@ -0,0 +1,108 @@
+/* 
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright Super iPaaS Integration LLC, an IBM Company 2024
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not 
+ * use this file except in compliance with the License. You may obtain a copy 
+ * of the License at 
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0 
+ *   
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations 
+ * under the License.
+ * 
+ */
+
+package org.quartz.benchmarks;
+
+import java.util.Date;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.quartz.CronExpression;
+
+/**
+ * <code>CronExpression</code> evaluation for common expressions and for the
+ * day-of-month / day-of-week special characters (<code>L</code>,
+ * <code>W</code>, <code>#</code>) that take the slower paths, in a zone with
+ * daylight saving time.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CronExpressionBenchmark {
+
+    private static final long START = 1704067200000L; // 2024-01-01T00:00:00Z
+
+    private static final long SPAN = 4L * 365 * 24 * 60 * 60 * 1000;
+
+    @Param({
+        "0 0/5 * * * ?",          // every five minutes
+        "0 15 10 ? * MON-FRI",    // weekdays
+        "0 0 12 1/5 * ?",         // every fifth day of month
+        "0 0 0 L * ?",            // last day of month
+        "0 0 0 L-3 * ?",          // third-to-last day of month
+        "0 0 0 LW * ?",           // last weekday of month
+        "0 0 0 15W * ?",          // weekday nearest the 15th
+        "0 15 10 ? * 6L",         // last Friday of month
+        "0 15 10 ? * 6#3",        // third Friday of month
+        "0 0 12 29 2 ?"           // leap days only
+    })
+    public String expression;
+
+    @Param({"America/New_York"})
+    public String timeZone;
+
+    private CronExpression cron;
+
+    private long time;
+
+    @Setup
+    public void setUp() throws Exception {
+        cron = new CronExpression(expression);
+        cron.setTimeZone(TimeZone.getTimeZone(timeZone));
+        time = START;
+    }
+
+    /**
+     * Next fire time from a start time that walks pseudo-randomly across
+     * four years, so every month, weekday and DST transition is covered.
+     */
+    @Benchmark
+    public Date getTimeAfter() {
+        time = START + Math.floorMod(time * 6364136223846793005L + 1442695040888963407L, SPAN);
+        return cron.getTimeAfter(new Date(time));
+    }
+
+    /**
+     * Successive fire times, as a trigger computes them.
+     */
+    @Benchmark
+    public Date getTimeAfterChained() {
+        Date next = cron.getTimeAfter(new Date(time));
+        time = next == null || next.getTime() > START + SPAN ? START : next.getTime();
+        return next;
+    }
+
+    @Benchmark
+    public boolean isSatisfiedBy() {
+        time = START + Math.floorMod(time * 6364136223846793005L + 1442695040888963407L, SPAN);
+        return cron.isSatisfiedBy(new Date(time));
+    }
+
+    @Benchmark
+    public CronExpression parse() throws Exception {
+        return new CronExpression(expression);
+    }
+}
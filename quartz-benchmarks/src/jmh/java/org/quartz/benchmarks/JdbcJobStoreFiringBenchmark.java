@@ -0,0 +1,195 @@
+/* 
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright Super iPaaS Integration LLC, an IBM Company 2024
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not 
+ * use this file except in compliance with the License. You may obtain a copy 
+ * of the License at 
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0 
+ *   
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations 
+ * under the License.
+ * 
+ */
+
+package org.quartz.benchmarks;
+
+import static org.quartz.JobBuilder.newJob;
+import static org.quartz.TriggerBuilder.newTrigger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.quartz.Job;
+import org.quartz.JobDetail;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobKey;
+import org.quartz.Scheduler;
+import org.quartz.impl.StdSchedulerFactory;
+
+/**
+ * Triggers fired per second by a scheduler using <code>JobStoreTX</code>
+ * against an embedded, in-memory Derby or H2 database, with the schema from
+ * <code>tables_derby.sql</code> or <code>tables_h2.sql</code>.  Each
+ * invocation schedules a batch of one-shot triggers and waits for all their
+ * jobs to run, so the score covers storing, acquiring, firing and
+ * completing them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(JdbcJobStoreFiringBenchmark.BATCH_SIZE)
+public class JdbcJobStoreFiringBenchmark {
+
+    static final int BATCH_SIZE = 100;
+
+    private static final AtomicLong DATABASES = new AtomicLong();
+
+    private static volatile CountDownLatch completed;
+
+    @Param({"derby", "h2"})
+    public String database;
+
+    @Param({"1", "10"})
+    public int batchTriggerAcquisitionMaxCount;
+
+    private String url;
+
+    private Scheduler scheduler;
+
+    private JobKey jobKey;
+
+    private long triggers;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        String name = "quartzBenchmark" + DATABASES.incrementAndGet();
+        String driver;
+        if ("derby".equals(database)) {
+            driver = "org.apache.derby.jdbc.EmbeddedDriver";
+            url = "jdbc:derby:memory:" + name;
+        } else {
+            driver = "org.h2.Driver";
+            url = "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1";
+        }
+        Class.forName(driver);
+        createSchema("derby".equals(database) ? url + ";create=true" : url,
+                "org/quartz/impl/jdbcjobstore/tables_" + database + ".sql");
+
+        Properties properties = new Properties();
+        properties.setProperty("org.quartz.scheduler.instanceName", name);
+        properties.setProperty("org.quartz.scheduler.batchTriggerAcquisitionMaxCount",
+                String.valueOf(batchTriggerAcquisitionMaxCount));
+        properties.setProperty("org.quartz.threadPool.threadCount", "10");
+        properties.setProperty("org.quartz.jobStore.class", "org.quartz.impl.jdbcjobstore.JobStoreTX");
+        properties.setProperty("org.quartz.jobStore.driverDelegateClass",
+                "org.quartz.impl.jdbcjobstore.StdJDBCDelegate");
+        properties.setProperty("org.quartz.jobStore.dataSource", "benchmark");
+        properties.setProperty("org.quartz.dataSource.benchmark.provider", "hikaricp");
+        properties.setProperty("org.quartz.dataSource.benchmark.driver", driver);
+        properties.setProperty("org.quartz.dataSource.benchmark.URL", url);
+        properties.setProperty("org.quartz.dataSource.benchmark.user", "");
+        properties.setProperty("org.quartz.dataSource.benchmark.password", "");
+        properties.setProperty("org.quartz.dataSource.benchmark.maxConnections", "12");
+
+        scheduler = new StdSchedulerFactory(properties).getScheduler();
+        JobDetail job = newJob(CountDownJob.class).withIdentity("job").storeDurably().build();
+        jobKey = job.getKey();
+        scheduler.addJob(job, false);
+        scheduler.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        scheduler.shutdown(true);
+        if ("derby".equals(database)) {
+            try {
+                DriverManager.getConnection(url + ";drop=true").close();
+            } catch (SQLException e) {
+                // reports the drop as an exception
+            }
+        } else {
+            Connection conn = DriverManager.getConnection(url);
+            try {
+                conn.createStatement().execute("SHUTDOWN");
+            } finally {
+                conn.close();
+            }
+        }
+    }
+
+    @Benchmark
+    public void scheduleAndFire() throws Exception {
+        CountDownLatch latch = new CountDownLatch(BATCH_SIZE);
+        completed = latch;
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            scheduler.scheduleJob(newTrigger()
+                    .withIdentity("trigger" + (triggers++))
+                    .forJob(jobKey)
+                    .startNow()
+                    .build());
+        }
+        latch.await();
+    }
+
+    private static void createSchema(String url, String script) throws SQLException, IOException {
+        StringBuilder sql = new StringBuilder();
+        InputStream in = JdbcJobStoreFiringBenchmark.class.getClassLoader().getResourceAsStream(script);
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, "US-ASCII"));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.startsWith("--")) {
+                    sql.append(line).append('\n');
+                }
+            }
+        } finally {
+            in.close();
+        }
+
+        Connection conn = DriverManager.getConnection(url);
+        try {
+            Statement statement = conn.createStatement();
+            for (String command : sql.toString().split(";")) {
+                if (!command.matches("\\s*") && !command.trim().equalsIgnoreCase("COMMIT")) {
+                    statement.addBatch(command);
+                }
+            }
+            statement.executeBatch();
+        } finally {
+            conn.close();
+        }
+    }
+
+    public static class CountDownJob implements Job {
+
+        public void execute(JobExecutionContext context) {
+            completed.countDown();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/* 
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright Super iPaaS Integration LLC, an IBM Company 2024
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not 
+ * use this file except in compliance with the License. You may obtain a copy 
+ * of the License at 
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0 
+ *   
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations 
+ * under the License.
+ * 
+ */
+
+package org.quartz.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.quartz.JobDataMap;
+import org.quartz.impl.jdbcjobstore.CompactJobDataMapCodec;
+import org.quartz.impl.jdbcjobstore.StdJDBCDelegate;
+import org.quartz.simpl.CascadingClassLoadHelper;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writing and reading the <code>JobDataMap</code> BLOB of
+ * <code>StdJDBCDelegate</code>, as a serialized map, as
+ * <code>java.util.Properties</code> (<code>useProperties</code>), and with
+ * the compact binary <code>JobDataMapCodec</code>.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JobDataMapSerializationBenchmark {
+
+    @Param({"serialized", "properties", "compact"})
+    public String format;
+
+    @Param({"4", "32"})
+    public int entries;
+
+    private BenchmarkDelegate delegate;
+
+    private JobDataMap jobDataMap;
+
+    private byte[] blob;
+
+    @Setup
+    public void setUp() throws Exception {
+        CascadingClassLoadHelper loadHelper = new CascadingClassLoadHelper();
+        loadHelper.initialize();
+        delegate = new BenchmarkDelegate();
+        delegate.initialize(LoggerFactory.getLogger(getClass()), "QRTZ_", "benchmark", "benchmark",
+                loadHelper, "properties".equals(format), null);
+        if ("compact".equals(format)) {
+            delegate.setJobDataMapCodec(new CompactJobDataMapCodec());
+        }
+
+        jobDataMap = new JobDataMap();
+        for (int i = 0; i < entries; i++) {
+            jobDataMap.put("key" + i, "value" + i);
+        }
+        blob = delegate.write(jobDataMap);
+    }
+
+    @Benchmark
+    public byte[] write() throws IOException {
+        return delegate.write(jobDataMap);
+    }
+
+    @Benchmark
+    public Map<?, ?> read() throws Exception {
+        return delegate.read(blob);
+    }
+
+    /**
+     * Exposes the JobDataMap encoding of <code>StdJDBCDelegate</code>
+     * without a database.
+     */
+    static class BenchmarkDelegate extends StdJDBCDelegate {
+
+        byte[] write(JobDataMap data) throws IOException {
+            return serializeJobData(data).toByteArray();
+        }
+
+        Map<?, ?> read(byte[] data) throws IOException, ClassNotFoundException {
+            return readJobData(new ByteArrayInputStream(data));
+        }
+    }
+}
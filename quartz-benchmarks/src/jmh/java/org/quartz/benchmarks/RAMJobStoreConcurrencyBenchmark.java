@@ -0,0 +1,184 @@
+/* 
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright Super iPaaS Integration LLC, an IBM Company 2024
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not 
+ * use this file except in compliance with the License. You may obtain a copy 
+ * of the License at 
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0 
+ *   
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations 
+ * under the License.
+ * 
+ */
+
+package org.quartz.benchmarks;
+
+import static org.quartz.JobBuilder.newJob;
+import static org.quartz.SimpleScheduleBuilder.repeatSecondlyForever;
+import static org.quartz.TriggerBuilder.newTrigger;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.Blackhole;
+import org.quartz.JobDetail;
+import org.quartz.JobKey;
+import org.quartz.Trigger.CompletedExecutionInstruction;
+import org.quartz.TriggerKey;
+import org.quartz.impl.matchers.GroupMatcher;
+import org.quartz.simpl.CascadingClassLoadHelper;
+import org.quartz.simpl.ConcurrentRAMJobStore;
+import org.quartz.simpl.RAMJobStore;
+import org.quartz.spi.JobStore;
+import org.quartz.spi.OperableTrigger;
+import org.quartz.spi.TriggerFiredResult;
+
+/**
+ * Client operations against <code>RAMJobStore</code> and
+ * <code>ConcurrentRAMJobStore</code> at 1, 8 and 32 client threads, while a
+ * background thread runs the scheduler's acquire / fire / complete cycle.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RAMJobStoreConcurrencyBenchmark {
+
+    private static final int GROUPS = 16;
+
+    @Param({"RAMJobStore", "ConcurrentRAMJobStore"})
+    public String store;
+
+    @Param({"10000"})
+    public int jobs;
+
+    private JobStore jobStore;
+
+    private Thread schedulerThread;
+
+    private volatile boolean running;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        jobStore = "RAMJobStore".equals(store) ? new RAMJobStore() : new ConcurrentRAMJobStore();
+        CascadingClassLoadHelper loadHelper = new CascadingClassLoadHelper();
+        loadHelper.initialize();
+        jobStore.initialize(loadHelper, new NoOpSchedulerSignaler());
+
+        for (int i = 0; i < jobs; i++) {
+            JobDetail job = newJob(NoOpJob.class).withIdentity("job" + i, "group" + (i % GROUPS)).build();
+            OperableTrigger trigger = (OperableTrigger) newTrigger()
+                    .withIdentity("trigger" + i, "group" + (i % GROUPS))
+                    .forJob(job)
+                    .withSchedule(repeatSecondlyForever().withMisfireHandlingInstructionIgnoreMisfires())
+                    .startNow()
+                    .build();
+            trigger.computeFirstFireTime(null);
+            jobStore.storeJobAndTrigger(job, trigger);
+        }
+
+        running = true;
+        schedulerThread = new Thread(new Runnable() {
+            public void run() {
+                while (running) {
+                    try {
+                        List<OperableTrigger> acquired = jobStore.acquireNextTriggers(Long.MAX_VALUE, 10, 0L);
+                        for (TriggerFiredResult result : jobStore.triggersFired(acquired)) {
+                            jobStore.triggeredJobComplete(result.getTriggerFiredBundle().getTrigger(),
+                                    result.getTriggerFiredBundle().getJobDetail(), CompletedExecutionInstruction.NOOP);
+                        }
+                    } catch (Exception e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+            }
+        }, "benchmark-scheduler");
+        schedulerThread.setDaemon(true);
+        schedulerThread.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        running = false;
+        schedulerThread.join();
+        jobStore.shutdown();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void lookups_1(Blackhole bh) throws Exception {
+        lookups(bh);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void lookups_8(Blackhole bh) throws Exception {
+        lookups(bh);
+    }
+
+    @Benchmark
+    @Threads(32)
+    public void lookups_32(Blackhole bh) throws Exception {
+        lookups(bh);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void storeAndRemove_1() throws Exception {
+        storeAndRemove();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void storeAndRemove_8() throws Exception {
+        storeAndRemove();
+    }
+
+    @Benchmark
+    @Threads(32)
+    public void storeAndRemove_32() throws Exception {
+        storeAndRemove();
+    }
+
+    private void lookups(Blackhole bh) throws Exception {
+        int i = ThreadLocalRandom.current().nextInt(jobs);
+        String group = "group" + (i % GROUPS);
+        bh.consume(jobStore.retrieveJob(new JobKey("job" + i, group)));
+        bh.consume(jobStore.getTriggerState(new TriggerKey("trigger" + i, group)));
+        if (i % 100 == 0) {
+            bh.consume(jobStore.getTriggerKeys(GroupMatcher.triggerGroupEquals(group)));
+        }
+    }
+
+    private void storeAndRemove() throws Exception {
+        int i = ThreadLocalRandom.current().nextInt(jobs);
+        String group = "group" + (i % GROUPS);
+        JobKey jobKey = new JobKey("job" + i, group);
+        TriggerKey triggerKey = new TriggerKey("extra-" + Thread.currentThread().getId() + "-" + i, group);
+        OperableTrigger trigger = (OperableTrigger) newTrigger()
+                .withIdentity(triggerKey)
+                .forJob(jobKey)
+                .startAt(new Date(System.currentTimeMillis() + 3600000L))
+                .build();
+        trigger.computeFirstFireTime(null);
+        jobStore.storeTrigger(trigger, true);
+        jobStore.removeTrigger(triggerKey);
+    }
+}
@@ -0,0 +1,116 @@
+/* 
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright Super iPaaS Integration LLC, an IBM Company 2024
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not 
+ * use this file except in compliance with the License. You may obtain a copy 
+ * of the License at 
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0 
+ *   
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations 
+ * under the License.
+ * 
+ */
+
+package org.quartz.benchmarks;
+
+import static org.quartz.JobBuilder.newJob;
+import static org.quartz.SimpleScheduleBuilder.repeatSecondlyForever;
+import static org.quartz.TriggerBuilder.newTrigger;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.quartz.JobDetail;
+import org.quartz.Trigger.CompletedExecutionInstruction;
+import org.quartz.simpl.CascadingClassLoadHelper;
+import org.quartz.simpl.ConcurrentRAMJobStore;
+import org.quartz.simpl.RAMJobStore;
+import org.quartz.spi.JobStore;
+import org.quartz.spi.OperableTrigger;
+import org.quartz.spi.TriggerFiredBundle;
+import org.quartz.spi.TriggerFiredResult;
+
+/**
+ * The scheduler's acquire / fire / complete cycle against
+ * <code>RAMJobStore</code> and <code>ConcurrentRAMJobStore</code>, with 100
+ * to 100,000 triggers stored, so that the cost of keeping the time-ordered
+ * trigger set shows.  Scores are triggers fired per millisecond.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@OperationsPerInvocation(RAMJobStoreFiringBenchmark.BATCH_SIZE)
+public class RAMJobStoreFiringBenchmark {
+
+    static final int BATCH_SIZE = 10;
+
+    private static final int GROUPS = 16;
+
+    // wide enough that every acquisition gets a full batch, although the
+    // triggers' fire times drift apart as they are fired
+    private static final long TIME_WINDOW = TimeUnit.DAYS.toMillis(365);
+
+    @Param({"RAMJobStore", "ConcurrentRAMJobStore"})
+    public String store;
+
+    @Param({"100", "10000", "100000"})
+    public int triggers;
+
+    private JobStore jobStore;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        jobStore = "RAMJobStore".equals(store) ? new RAMJobStore() : new ConcurrentRAMJobStore();
+        CascadingClassLoadHelper loadHelper = new CascadingClassLoadHelper();
+        loadHelper.initialize();
+        jobStore.initialize(loadHelper, new NoOpSchedulerSignaler());
+
+        for (int i = 0; i < triggers; i++) {
+            JobDetail job = newJob(NoOpJob.class).withIdentity("job" + i, "group" + (i % GROUPS)).build();
+            OperableTrigger trigger = (OperableTrigger) newTrigger()
+                    .withIdentity("trigger" + i, "group" + (i % GROUPS))
+                    .forJob(job)
+                    .withSchedule(repeatSecondlyForever().withMisfireHandlingInstructionIgnoreMisfires())
+                    .startNow()
+                    .build();
+            trigger.computeFirstFireTime(null);
+            jobStore.storeJobAndTrigger(job, trigger);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        jobStore.shutdown();
+    }
+
+    /**
+     * Acquire a batch of triggers, fire them, and complete their jobs.  Every
+     * trigger repeats, so each firing moves it further back in the store.
+     */
+    @Benchmark
+    public int acquireFireComplete() throws Exception {
+        List<OperableTrigger> acquired = jobStore.acquireNextTriggers(Long.MAX_VALUE, BATCH_SIZE, TIME_WINDOW);
+        for (TriggerFiredResult result : jobStore.triggersFired(acquired)) {
+            TriggerFiredBundle bundle = result.getTriggerFiredBundle();
+            jobStore.triggeredJobComplete(bundle.getTrigger(), bundle.getJobDetail(),
+                    CompletedExecutionInstruction.NOOP);
+        }
+        return acquired.size();
+    }
+}
@@ -0,0 +1,94 @@
+/* 
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright Super iPaaS Integration LLC, an IBM Company 2024
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not 
+ * use this file except in compliance with the License. You may obtain a copy 
+ * of the License at 
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0 
+ *   
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations 
+ * under the License.
+ * 
+ */
+
+package org.quartz.benchmarks;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.quartz.simpl.SimpleThreadPool;
+
+/**
+ * Handing runnables from a single dispatching thread, as the scheduler
+ * thread does, to the workers of a <code>SimpleThreadPool</code>, with and
+ * without the lock-free hand-off.  Scores are runnables run per millisecond.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@OperationsPerInvocation(SimpleThreadPoolBenchmark.BATCH_SIZE)
+public class SimpleThreadPoolBenchmark {
+
+    static final int BATCH_SIZE = 100;
+
+    @Param({"1", "10", "50"})
+    public int threads;
+
+    @Param({"false", "true"})
+    public boolean lockFreeHandoff;
+
+    private SimpleThreadPool threadPool;
+
+    private volatile CountDownLatch completed;
+
+    private final Runnable task = new Runnable() {
+        public void run() {
+            completed.countDown();
+        }
+    };
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        threadPool = new SimpleThreadPool(threads, Thread.NORM_PRIORITY);
+        threadPool.setThreadNamePrefix("benchmark-worker");
+        threadPool.setMakeThreadsDaemons(true);
+        threadPool.setLockFreeHandoff(lockFreeHandoff);
+        threadPool.initialize();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        threadPool.shutdown(true);
+    }
+
+    /**
+     * Dispatch a batch, waiting for a free worker before each runnable the
+     * way the scheduler thread does, then wait for the batch to finish.
+     */
+    @Benchmark
+    public void dispatch() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(BATCH_SIZE);
+        completed = latch;
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            threadPool.blockForAvailableThreads();
+            threadPool.runInThread(task);
+        }
+        latch.await();
+    }
+}
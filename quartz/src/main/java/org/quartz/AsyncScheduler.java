@@ -0,0 +1,170 @@
+/* 
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright Super iPaaS Integration LLC, an IBM Company 2024
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not 
+ * use this file except in compliance with the License. You may obtain a copy 
+ * of the License at 
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0 
+ *   
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations 
+ * under the License.
+ * 
+ */
+
+package org.quartz;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import org.quartz.Trigger.TriggerState;
+import org.quartz.impl.matchers.GroupMatcher;
+
+/**
+ * A non-blocking view of a {@link Scheduler}: each method has the same
+ * meaning as the <code>Scheduler</code> method of the same name, but runs it
+ * on a dedicated, bounded I/O executor and returns a
+ * <code>CompletableFuture</code> of its result instead of waiting for the
+ * <code>JobStore</code>.
+ * 
+ * <p>
+ * Futures are completed on the I/O executor's threads, so dependent stages
+ * that do more than a little work should be added with the
+ * <code>...Async</code> methods of <code>CompletableFuture</code>.  When the
+ * executor's queue is full, the returned future fails with a
+ * <code>SchedulerException</code> rather than blocking the caller.
+ * </p>
+ * 
+ * @see org.quartz.impl.StdScheduler#getAsyncScheduler()
+ */
+public interface AsyncScheduler {
+
+    /**
+     * The <code>Scheduler</code> the operations are run on.
+     */
+    Scheduler getScheduler();
+
+    /**
+     * Concurrent calls may be stored together, in a single transaction.
+     * 
+     * @see Scheduler#scheduleJob(JobDetail, Trigger)
+     */
+    CompletableFuture<Date> scheduleJob(JobDetail jobDetail, Trigger trigger);
+
+    /**
+     * @see Scheduler#scheduleJob(Trigger)
+     */
+    CompletableFuture<Date> scheduleJob(Trigger trigger);
+
+    /**
+     * @see Scheduler#scheduleJobs(Map, boolean)
+     */
+    CompletableFuture<Void> scheduleJobs(Map<JobDetail, Set<? extends Trigger>> triggersAndJobs, boolean replace);
+
+    /**
+     * @see Scheduler#unscheduleJob(TriggerKey)
+     */
+    CompletableFuture<Boolean> unscheduleJob(TriggerKey triggerKey);
+
+    /**
+     * @see Scheduler#unscheduleJobs(List)
+     */
+    CompletableFuture<Boolean> unscheduleJobs(List<TriggerKey> triggerKeys);
+
+    /**
+     * @see Scheduler#rescheduleJob(TriggerKey, Trigger)
+     */
+    CompletableFuture<Date> rescheduleJob(TriggerKey triggerKey, Trigger newTrigger);
+
+    /**
+     * @see Scheduler#addJob(JobDetail, boolean)
+     */
+    CompletableFuture<Void> addJob(JobDetail jobDetail, boolean replace);
+
+    /**
+     * @see Scheduler#deleteJob(JobKey)
+     */
+    CompletableFuture<Boolean> deleteJob(JobKey jobKey);
+
+    /**
+     * @see Scheduler#deleteJobs(List)
+     */
+    CompletableFuture<Boolean> deleteJobs(List<JobKey> jobKeys);
+
+    /**
+     * @see Scheduler#triggerJob(JobKey)
+     */
+    CompletableFuture<Void> triggerJob(JobKey jobKey);
+
+    /**
+     * @see Scheduler#triggerJob(JobKey, JobDataMap)
+     */
+    CompletableFuture<Void> triggerJob(JobKey jobKey, JobDataMap data);
+
+    /**
+     * @see Scheduler#pauseJob(JobKey)
+     */
+    CompletableFuture<Void> pauseJob(JobKey jobKey);
+
+    /**
+     * @see Scheduler#resumeJob(JobKey)
+     */
+    CompletableFuture<Void> resumeJob(JobKey jobKey);
+
+    /**
+     * @see Scheduler#pauseTrigger(TriggerKey)
+     */
+    CompletableFuture<Void> pauseTrigger(TriggerKey triggerKey);
+
+    /**
+     * @see Scheduler#resumeTrigger(TriggerKey)
+     */
+    CompletableFuture<Void> resumeTrigger(TriggerKey triggerKey);
+
+    /**
+     * @see Scheduler#getJobDetail(JobKey)
+     */
+    CompletableFuture<JobDetail> getJobDetail(JobKey jobKey);
+
+    /**
+     * @see Scheduler#getTrigger(TriggerKey)
+     */
+    CompletableFuture<Trigger> getTrigger(TriggerKey triggerKey);
+
+    /**
+     * @see Scheduler#getTriggerState(TriggerKey)
+     */
+    CompletableFuture<TriggerState> getTriggerState(TriggerKey triggerKey);
+
+    /**
+     * @see Scheduler#getTriggersOfJob(JobKey)
+     */
+    CompletableFuture<List<? extends Trigger>> getTriggersOfJob(JobKey jobKey);
+
+    /**
+     * @see Scheduler#checkExists(JobKey)
+     */
+    CompletableFuture<Boolean> checkExists(JobKey jobKey);
+
+    /**
+     * @see Scheduler#checkExists(TriggerKey)
+     */
+    CompletableFuture<Boolean> checkExists(TriggerKey triggerKey);
+
+    /**
+     * @see Scheduler#getJobKeys(GroupMatcher)
+     */
+    CompletableFuture<Set<JobKey>> getJobKeys(GroupMatcher<JobKey> matcher);
+
+    /**
+     * @see Scheduler#getTriggerKeys(GroupMatcher)
+     */
+    CompletableFuture<Set<TriggerKey>> getTriggerKeys(GroupMatcher<TriggerKey> matcher);
+}
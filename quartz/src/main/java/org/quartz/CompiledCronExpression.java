@@ -0,0 +1,841 @@
+/* 
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright Super iPaaS Integration LLC, an IBM Company 2024
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not 
+ * use this file except in compliance with the License. You may obtain a copy 
+ * of the License at 
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0 
+ *   
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations 
+ * under the License.
+ * 
+ */
+
+package org.quartz;
+
+import java.util.Iterator;
+import java.util.SimpleTimeZone;
+import java.util.SortedSet;
+import java.util.TimeZone;
+
+/**
+ * The evaluation form of a parsed <code>{@link CronExpression}</code>.
+ * <p>
+ * Each field is held as a bitmask (bit <i>n</i> set if value <i>n</i> is
+ * included), so finding the next included value is a shift and a
+ * <code>numberOfTrailingZeros</code> instead of a <code>TreeSet.tailSet</code>
+ * walk over boxed <code>Integer</code>s. Dates are computed with epoch-day
+ * arithmetic on plain <code>int</code> fields, as <code>java.time</code> does,
+ * rather than a <code>java.util.Calendar</code>.
+ * </p>
+ * <p>
+ * <code>{@link #getTimeAfter(long, TimeZone)}</code> follows the
+ * <code>Calendar</code>-based search <code>CronExpression</code> has always
+ * used step for step, including lenient field overflow and the
+ * <code>Calendar</code> resolution of local times that fall into a daylight
+ * saving gap (moved forward) or overlap (standard time), so the fire times it
+ * computes are the same. Instances are immutable and not tied to a time zone,
+ * and can be shared by any number of threads.
+ * </p>
+ * 
+ * @see CronExpression
+ */
+final class CompiledCronExpression {
+
+    /** Returned by <code>getTimeAfter</code> when there is no later time. */
+    static final long NO_TIME = Long.MIN_VALUE;
+
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+
+    private static final int PASSED = Integer.MIN_VALUE;
+
+    private static final long MAX_OFFSET = 18L * 60 * 60 * 1000;
+
+    private final long seconds;
+    private final long minutes;
+    private final long hours;
+    private final long daysOfMonth;
+    private final long months;
+    private final long daysOfWeek;
+    private final int[] years;
+
+    private final boolean dayOfMSpec;
+    private final boolean dayOfWSpec;
+    private final boolean lastdayOfWeek;
+    private final int nthdayOfWeek;
+    private final boolean lastdayOfMonth;
+    private final boolean nearestWeekday;
+    private final int lastdayOffset;
+
+    private CompiledCronExpression(long seconds, long minutes, long hours,
+            long daysOfMonth, long months, long daysOfWeek, int[] years,
+            boolean dayOfMSpec, boolean dayOfWSpec, boolean lastdayOfWeek,
+            int nthdayOfWeek, boolean lastdayOfMonth, boolean nearestWeekday,
+            int lastdayOffset) {
+        this.seconds = seconds;
+        this.minutes = minutes;
+        this.hours = hours;
+        this.daysOfMonth = daysOfMonth;
+        this.months = months;
+        this.daysOfWeek = daysOfWeek;
+        this.years = years;
+        this.dayOfMSpec = dayOfMSpec;
+        this.dayOfWSpec = dayOfWSpec;
+        this.lastdayOfWeek = lastdayOfWeek;
+        this.nthdayOfWeek = nthdayOfWeek;
+        this.lastdayOfMonth = lastdayOfMonth;
+        this.nearestWeekday = nearestWeekday;
+        this.lastdayOffset = lastdayOffset;
+    }
+
+    /**
+     * Compile the parsed fields of the given expression, or return
+     * <code>null</code> if a field holds a value a bitmask cannot represent,
+     * or no value at all, in which case the expression must be evaluated the
+     * old way. Both only happen for malformed expressions the parser lets
+     * through.
+     */
+    static CompiledCronExpression compile(CronExpression expr) {
+        long[] masks = new long[CronExpression.DAY_OF_WEEK + 1];
+        for (int type = CronExpression.SECOND; type <= CronExpression.DAY_OF_WEEK; type++) {
+            SortedSet<Integer> set = expr.getSet(type);
+            if (set.isEmpty() && !(type == CronExpression.DAY_OF_MONTH && expr.lastdayOfMonth)) {
+                return null;
+            }
+            long mask = 0;
+            for (Integer value : set) {
+                int v = value;
+                if (v == CronExpression.ALL_SPEC_INT || v == CronExpression.NO_SPEC_INT) {
+                    continue;
+                }
+                if (v < 0 || v > 63) {
+                    return null;
+                }
+                mask |= 1L << v;
+            }
+            masks[type] = mask;
+        }
+
+        SortedSet<Integer> yearSet = expr.getSet(CronExpression.YEAR);
+        int[] years = new int[yearSet.size()];
+        Iterator<Integer> itr = yearSet.iterator();
+        for (int i = 0; i < years.length; i++) {
+            years[i] = itr.next();
+        }
+
+        return new CompiledCronExpression(
+                masks[CronExpression.SECOND], masks[CronExpression.MINUTE],
+                masks[CronExpression.HOUR], masks[CronExpression.DAY_OF_MONTH],
+                masks[CronExpression.MONTH], masks[CronExpression.DAY_OF_WEEK], years,
+                !expr.daysOfMonth.contains(CronExpression.NO_SPEC),
+                !expr.daysOfWeek.contains(CronExpression.NO_SPEC),
+                expr.lastdayOfWeek, expr.nthdayOfWeek, expr.lastdayOfMonth,
+                expr.nearestWeekday, expr.lastdayOffset);
+    }
+
+    /**
+     * Whether the given time (milliseconds ignored) satisfies the expression
+     * in the given time zone.
+     */
+    boolean isSatisfiedBy(long time, TimeZone timeZone) {
+        Fields cl = new Fields(timeZone);
+        cl.setTime(time);
+        cl.millis = 0;
+        cl.dirty = true;
+        long originalTime = cl.getTime();
+
+        long timeAfter = getTimeAfter(originalTime - 1000, cl);
+
+        return timeAfter == originalTime;
+    }
+
+    /**
+     * Returns the first time (in milliseconds) <i>after</i> the given time
+     * that satisfies the expression in the given time zone, or
+     * <code>{@link #NO_TIME}</code> if there is none.
+     */
+    long getTimeAfter(long afterTime, TimeZone timeZone) {
+        return getTimeAfter(afterTime, new Fields(timeZone));
+    }
+
+    /** As {@link #getTimeAfter(long, TimeZone)}, reusing the given fields. */
+    private long getTimeAfter(long afterTime, Fields cl) {
+        // move ahead one second, since we're computing the time *after* the
+        // given time
+        afterTime += 1000;
+        // CronTrigger does not deal with milliseconds
+        cl.setTime(afterTime);
+        cl.millis = 0;
+        cl.dirty = true;
+
+        // loop until we've computed the next time
+        while (true) {
+
+            if (cl.getYear() > 2999) { // prevent endless loop...
+                return NO_TIME;
+            }
+
+            int t;
+
+            int sec = cl.getSecond();
+            int min = cl.getMinute();
+
+            // get second.................................................
+            int next = nextValue(seconds, sec);
+            if (next >= 0) {
+                sec = next;
+            } else {
+                sec = firstValue(seconds);
+                min++;
+                cl.setMinute(min);
+            }
+            cl.setSecond(sec);
+
+            min = cl.getMinute();
+            int hr = cl.getHour();
+            t = -1;
+
+            // get minute.................................................
+            next = nextValue(minutes, min);
+            if (next >= 0) {
+                t = min;
+                min = next;
+            } else {
+                min = firstValue(minutes);
+                hr++;
+            }
+            if (min != t) {
+                cl.setSecond(0);
+                cl.setMinute(min);
+                setHour(cl, hr);
+                continue;
+            }
+            cl.setMinute(min);
+
+            hr = cl.getHour();
+            int day = cl.getDayOfMonth();
+            t = -1;
+
+            // get hour...................................................
+            next = nextValue(hours, hr);
+            if (next >= 0) {
+                t = hr;
+                hr = next;
+            } else {
+                hr = firstValue(hours);
+                day++;
+            }
+            if (hr != t) {
+                cl.setSecond(0);
+                cl.setMinute(0);
+                cl.setDayOfMonth(day);
+                setHour(cl, hr);
+                continue;
+            }
+            cl.setHour(hr);
+
+            day = cl.getDayOfMonth();
+            int mon = cl.getMonth() + 1; // 1-based, like the fields
+            t = -1;
+            int tmon = mon;
+
+            // get day...................................................
+            if (dayOfMSpec && !dayOfWSpec) { // get day by day of month rule
+                if (lastdayOfMonth) {
+                    if (!nearestWeekday) {
+                        t = day;
+                        day = lastDayOfMonth(mon, cl.getYear());
+                        day -= lastdayOffset;
+                        if (t > day) {
+                            mon++;
+                            if (mon > 12) {
+                                mon = 1;
+                                tmon = 3333; // ensure test of mon != tmon further below fails
+                                cl.addYear(1);
+                            }
+                            day = 1;
+                        }
+                    } else {
+                        t = day;
+                        day = lastDayOfMonth(mon, cl.getYear());
+                        day -= lastdayOffset;
+                        day = nearestWeekday(cl, day, mon, hr, min, sec);
+                        if (day == PASSED) { // already passed in this month
+                            day = 1;
+                            mon++;
+                        }
+                    }
+                } else if (nearestWeekday) {
+                    t = day;
+                    day = nearestWeekday(cl, firstValue(daysOfMonth), mon, hr, min, sec);
+                    if (day == PASSED) { // already passed in this month
+                        day = firstValue(daysOfMonth);
+                        mon++;
+                    }
+                } else {
+                    next = nextValue(daysOfMonth, day);
+                    if (next >= 0) {
+                        t = day;
+                        day = next;
+                        // make sure we don't over-run a short month, such as february
+                        int lastDay = lastDayOfMonth(mon, cl.getYear());
+                        if (day > lastDay) {
+                            day = firstValue(daysOfMonth);
+                            mon++;
+                        }
+                    } else {
+                        day = firstValue(daysOfMonth);
+                        mon++;
+                    }
+                }
+
+                if (day != t || mon != tmon) {
+                    cl.setSecond(0);
+                    cl.setMinute(0);
+                    cl.setHour(0);
+                    cl.setDayOfMonth(day);
+                    cl.setMonth(mon - 1);
+                    continue;
+                }
+            } else if (dayOfWSpec && !dayOfMSpec) { // get day by day of week rule
+                if (lastdayOfWeek) { // are we looking for the last XXX day of the month?
+                    int dow = firstValue(daysOfWeek); // desired d-o-w
+                    int cDow = cl.getDayOfWeek(); // current d-o-w
+                    int daysToAdd = 0;
+                    if (cDow < dow) {
+                        daysToAdd = dow - cDow;
+                    }
+                    if (cDow > dow) {
+                        daysToAdd = dow + (7 - cDow);
+                    }
+
+                    int lDay = lastDayOfMonth(mon, cl.getYear());
+
+                    if (day + daysToAdd > lDay) { // did we already miss the last one?
+                        cl.setSecond(0);
+                        cl.setMinute(0);
+                        cl.setHour(0);
+                        cl.setDayOfMonth(1);
+                        cl.setMonth(mon); // promoting the month
+                        continue;
+                    }
+
+                    // find date of last occurrence of this day in this month...
+                    while ((day + daysToAdd + 7) <= lDay) {
+                        daysToAdd += 7;
+                    }
+
+                    day += daysToAdd;
+
+                    if (daysToAdd > 0) {
+                        cl.setSecond(0);
+                        cl.setMinute(0);
+                        cl.setHour(0);
+                        cl.setDayOfMonth(day);
+                        cl.setMonth(mon - 1); // not promoting the month
+                        continue;
+                    }
+
+                } else if (nthdayOfWeek != 0) { // are we looking for the Nth XXX day in the month?
+                    int dow = firstValue(daysOfWeek); // desired d-o-w
+                    int cDow = cl.getDayOfWeek(); // current d-o-w
+                    int daysToAdd = 0;
+                    if (cDow < dow) {
+                        daysToAdd = dow - cDow;
+                    } else if (cDow > dow) {
+                        daysToAdd = dow + (7 - cDow);
+                    }
+
+                    boolean dayShifted = daysToAdd > 0;
+
+                    day += daysToAdd;
+                    int weekOfMonth = day / 7;
+                    if (day % 7 > 0) {
+                        weekOfMonth++;
+                    }
+
+                    daysToAdd = (nthdayOfWeek - weekOfMonth) * 7;
+                    day += daysToAdd;
+                    if (daysToAdd < 0 || day > lastDayOfMonth(mon, cl.getYear())) {
+                        cl.setSecond(0);
+                        cl.setMinute(0);
+                        cl.setHour(0);
+                        cl.setDayOfMonth(1);
+                        cl.setMonth(mon); // promoting the month
+                        continue;
+                    } else if (daysToAdd > 0 || dayShifted) {
+                        cl.setSecond(0);
+                        cl.setMinute(0);
+                        cl.setHour(0);
+                        cl.setDayOfMonth(day);
+                        cl.setMonth(mon - 1); // NOT promoting the month
+                        continue;
+                    }
+                } else {
+                    int cDow = cl.getDayOfWeek(); // current d-o-w
+                    int dow = nextValue(daysOfWeek, cDow); // desired d-o-w
+                    if (dow < 0) {
+                        dow = firstValue(daysOfWeek);
+                    }
+
+                    int daysToAdd = 0;
+                    if (cDow < dow) {
+                        daysToAdd = dow - cDow;
+                    }
+                    if (cDow > dow) {
+                        daysToAdd = dow + (7 - cDow);
+                    }
+
+                    int lDay = lastDayOfMonth(mon, cl.getYear());
+
+                    if (day + daysToAdd > lDay) { // will we pass the end of the month?
+                        cl.setSecond(0);
+                        cl.setMinute(0);
+                        cl.setHour(0);
+                        cl.setDayOfMonth(1);
+                        cl.setMonth(mon); // promoting the month
+                        continue;
+                    } else if (daysToAdd > 0) { // are we switching days?
+                        cl.setSecond(0);
+                        cl.setMinute(0);
+                        cl.setHour(0);
+                        cl.setDayOfMonth(day + daysToAdd);
+                        cl.setMonth(mon - 1);
+                        continue;
+                    }
+                }
+            } else {
+                throw new UnsupportedOperationException(
+                        "Support for specifying both a day-of-week AND a day-of-month parameter is not implemented.");
+            }
+            cl.setDayOfMonth(day);
+
+            mon = cl.getMonth() + 1;
+            int year = cl.getYear();
+            t = -1;
+
+            // test for expressions that never generate a valid fire date,
+            // but keep looping...
+            if (year > CronExpression.MAX_YEAR) {
+                return NO_TIME;
+            }
+
+            // get month...................................................
+            next = nextValue(months, mon);
+            if (next >= 0) {
+                t = mon;
+                mon = next;
+            } else {
+                mon = firstValue(months);
+                year++;
+            }
+            if (mon != t) {
+                cl.setSecond(0);
+                cl.setMinute(0);
+                cl.setHour(0);
+                cl.setDayOfMonth(1);
+                cl.setMonth(mon - 1);
+                cl.setYear(year);
+                continue;
+            }
+            cl.setMonth(mon - 1);
+
+            year = cl.getYear();
+            t = -1;
+
+            // get year...................................................
+            int nextYear = nextYear(year);
+            if (nextYear == Integer.MIN_VALUE) {
+                return NO_TIME; // ran out of years...
+            }
+            t = year;
+            year = nextYear;
+
+            if (year != t) {
+                cl.setSecond(0);
+                cl.setMinute(0);
+                cl.setHour(0);
+                cl.setDayOfMonth(1);
+                cl.setMonth(0);
+                cl.setYear(year);
+                continue;
+            }
+            cl.setYear(year);
+
+            return cl.getTime();
+        }
+    }
+
+    /**
+     * The weekday nearest the given day of month (not leaving the month), or
+     * <code>PASSED</code> if that weekday, at the given time of day, is before
+     * the time the search started from.
+     */
+    private static int nearestWeekday(Fields cl, int day, int mon, int hr, int min, int sec) {
+        int year = cl.getYear();
+        long startTime = cl.startTime;
+
+        Fields tcal = cl.scratch();
+        tcal.millis = 0;
+        tcal.setSecond(0);
+        tcal.setMinute(0);
+        tcal.setHour(0);
+        tcal.setDayOfMonth(day);
+        tcal.setMonth(mon - 1);
+        tcal.setYear(year);
+
+        int ldom = lastDayOfMonth(mon, year);
+        int dow = tcal.getDayOfWeek();
+
+        if (dow == java.util.Calendar.SATURDAY && day == 1) {
+            day += 2;
+        } else if (dow == java.util.Calendar.SATURDAY) {
+            day -= 1;
+        } else if (dow == java.util.Calendar.SUNDAY && day == ldom) {
+            day -= 2;
+        } else if (dow == java.util.Calendar.SUNDAY) {
+            day += 1;
+        }
+
+        tcal.setSecond(sec);
+        tcal.setMinute(min);
+        tcal.setHour(hr);
+        tcal.setDayOfMonth(day);
+        tcal.setMonth(mon - 1);
+        if (tcal.getTime() < startTime) {
+            return PASSED;
+        }
+        return day;
+    }
+
+    /**
+     * Advance the fields to the particular hour paying particular attention
+     * to daylight saving problems.
+     */
+    private static void setHour(Fields cl, int hour) {
+        cl.setHour(hour);
+        if (cl.getHour() != hour && hour != 24) {
+            cl.setHour(hour + 1);
+        }
+    }
+
+    /** The smallest value in the mask that is <code>&gt;= from</code>, or -1. */
+    private static int nextValue(long mask, int from) {
+        if (from > 63) {
+            return -1;
+        }
+        long m = from <= 0 ? mask : mask & (-1L << from);
+        return m == 0 ? -1 : Long.numberOfTrailingZeros(m);
+    }
+
+    private static int firstValue(long mask) {
+        return Long.numberOfTrailingZeros(mask);
+    }
+
+    private int nextYear(int from) {
+        for (int year : years) {
+            if (year >= from) {
+                return year;
+            }
+        }
+        return Integer.MIN_VALUE;
+    }
+
+    static boolean isLeapYear(int year) {
+        return ((year % 4 == 0 && year % 100 != 0) || (year % 400 == 0));
+    }
+
+    static int lastDayOfMonth(int monthNum, int year) {
+        switch (monthNum) {
+            case 2:
+                return isLeapYear(year) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            case 1:
+            case 3:
+            case 5:
+            case 7:
+            case 8:
+            case 10:
+            case 12:
+                return 31;
+            default:
+                throw new IllegalArgumentException("Illegal month number: "
+                        + monthNum);
+        }
+    }
+
+    /**
+     * Days since 1970-01-01 of the given proleptic Gregorian date, as
+     * <code>java.time.LocalDate.toEpochDay()</code> computes it.
+     */
+    static long toEpochDay(long year, int month, int day) {
+        long total = 365 * year;
+        if (year >= 0) {
+            total += (year + 3) / 4 - (year + 99) / 100 + (year + 399) / 400;
+        } else {
+            total -= year / -4 - year / -100 + year / -400;
+        }
+        total += ((367 * month - 362) / 12);
+        total += day - 1;
+        if (month > 2) {
+            total--;
+            if (!isLeapYear((int) year)) {
+                total--;
+            }
+        }
+        return total - 719528; // days from year 0 to 1970
+    }
+
+    /*
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     * 
+     * Fields Class.
+     * 
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     */
+
+    /**
+     * <p>
+     * The subset of lenient <code>GregorianCalendar</code> behaviour the
+     * search relies on: setting a field leaves the others as they are and
+     * may put it out of range; reading any field first resolves all of them
+     * to a time (rolling over out of range values) and back.
+     * </p>
+     * 
+     * <p>
+     * A local time in a daylight saving gap resolves with the offset from
+     * before the transition (so moves forward by the gap), and a local time
+     * in an overlap with the offset from after it (standard time), as
+     * <code>GregorianCalendar</code> does for zones obtained by ID. For a
+     * <code>SimpleTimeZone</code> it applies the offset in effect at the
+     * local time taken as standard time, as <code>GregorianCalendar</code>
+     * does for those.
+     * </p>
+     */
+    static final class Fields {
+
+        final TimeZone timeZone;
+
+        private final boolean byStandardTime;
+
+        // a span of time (UTC) known to have no offset transitions
+        private long constantFrom = Long.MAX_VALUE;
+        private long constantTo = Long.MIN_VALUE;
+        private int constantOffset;
+
+        long startTime;
+
+        boolean dirty;
+
+        private long time;
+
+        int year;
+        int month; // 0-based, as Calendar.MONTH
+        int dayOfMonth;
+        int hour;
+        int minute;
+        int second;
+        int millis;
+        private int dayOfWeek; // 1 (Sunday) to 7, as Calendar.DAY_OF_WEEK
+
+        private Fields scratch;
+
+        Fields(TimeZone timeZone) {
+            this.timeZone = timeZone;
+            this.byStandardTime = timeZone instanceof SimpleTimeZone;
+        }
+
+        /**
+         * Another instance for the same zone, created once, for working out a
+         * date without disturbing this one.
+         */
+        Fields scratch() {
+            if (scratch == null) {
+                scratch = new Fields(timeZone);
+            }
+            return scratch;
+        }
+
+        void setTime(long time) {
+            this.time = time;
+            this.startTime = time;
+            computeFields();
+            dirty = false;
+        }
+
+        long getTime() {
+            complete();
+            return time;
+        }
+
+        int getYear() {
+            complete();
+            return year;
+        }
+
+        int getMonth() {
+            complete();
+            return month;
+        }
+
+        int getDayOfMonth() {
+            complete();
+            return dayOfMonth;
+        }
+
+        int getHour() {
+            complete();
+            return hour;
+        }
+
+        int getMinute() {
+            complete();
+            return minute;
+        }
+
+        int getSecond() {
+            complete();
+            return second;
+        }
+
+        int getDayOfWeek() {
+            complete();
+            return dayOfWeek;
+        }
+
+        void setYear(int year) {
+            this.year = year;
+            dirty = true;
+        }
+
+        void setMonth(int month) {
+            this.month = month;
+            dirty = true;
+        }
+
+        void setDayOfMonth(int dayOfMonth) {
+            this.dayOfMonth = dayOfMonth;
+            dirty = true;
+        }
+
+        void setHour(int hour) {
+            this.hour = hour;
+            dirty = true;
+        }
+
+        void setMinute(int minute) {
+            this.minute = minute;
+            dirty = true;
+        }
+
+        void setSecond(int second) {
+            this.second = second;
+            dirty = true;
+        }
+
+        /** As <code>Calendar.add(Calendar.YEAR, amount)</code>. */
+        void addYear(int amount) {
+            complete();
+            year += amount;
+            int monthLength = lastDayOfMonth(month + 1, year);
+            if (dayOfMonth > monthLength) {
+                dayOfMonth = monthLength;
+            }
+            dirty = true;
+        }
+
+        private void complete() {
+            if (dirty) {
+                computeTime();
+                computeFields();
+                dirty = false;
+            }
+        }
+
+        private void computeTime() {
+            long y = year + Math.floorDiv(month, 12);
+            int m = Math.floorMod(month, 12) + 1;
+            long epochDay = toEpochDay(y, m, 1) + dayOfMonth - 1;
+            long wall = epochDay * MILLIS_PER_DAY
+                    + ((hour * 60L + minute) * 60L + second) * 1000L + millis;
+            time = wall - offsetForWallTime(wall);
+        }
+
+        private int offsetForWallTime(long wall) {
+            if (byStandardTime) {
+                return timeZone.getOffset(wall - timeZone.getRawOffset());
+            }
+            if (wall - MAX_OFFSET >= constantFrom && wall + MAX_OFFSET < constantTo) {
+                return constantOffset;
+            }
+            int before = timeZone.getOffset(wall - 2 * MILLIS_PER_DAY);
+            int after = timeZone.getOffset(wall + 2 * MILLIS_PER_DAY);
+            if (before == after) {
+                int offset = timeZone.getOffset(wall - before);
+                if (offset == before) {
+                    // no transition near by, remember that
+                    constantFrom = wall - 2 * MILLIS_PER_DAY;
+                    constantTo = wall + 2 * MILLIS_PER_DAY;
+                    constantOffset = offset;
+                    return offset;
+                }
+                // two transitions close together; resolve against the nearer one
+                after = offset;
+            }
+            if (timeZone.getOffset(wall - after) == after) {
+                return after;
+            }
+            return before;
+        }
+
+        private int offsetAt(long time) {
+            if (time >= constantFrom && time < constantTo) {
+                return constantOffset;
+            }
+            return timeZone.getOffset(time);
+        }
+
+        private void computeFields() {
+            long local = time + offsetAt(time);
+            long epochDay = Math.floorDiv(local, MILLIS_PER_DAY);
+            int millisOfDay = (int) Math.floorMod(local, MILLIS_PER_DAY);
+
+            // civil date from epoch day, as java.time.LocalDate.ofEpochDay()
+            long zeroDay = epochDay + 719528 - 60;
+            long adjust = 0;
+            if (zeroDay < 0) {
+                long adjustCycles = (zeroDay + 1) / 146097 - 1;
+                adjust = adjustCycles * 400;
+                zeroDay += -adjustCycles * 146097;
+            }
+            long yearEst = (400 * zeroDay + 591) / 146097;
+            long doyEst = zeroDay - (365 * yearEst + yearEst / 4 - yearEst / 100 + yearEst / 400);
+            if (doyEst < 0) {
+                yearEst--;
+                doyEst = zeroDay - (365 * yearEst + yearEst / 4 - yearEst / 100 + yearEst / 400);
+            }
+            yearEst += adjust;
+            int marchDoy0 = (int) doyEst;
+            int marchMonth0 = (marchDoy0 * 5 + 2) / 153;
+            month = (marchMonth0 + 2) % 12;
+            dayOfMonth = marchDoy0 - (marchMonth0 * 306 + 5) / 10 + 1;
+            yearEst += marchMonth0 / 10;
+            year = (int) yearEst;
+
+            hour = millisOfDay / 3600000;
+            minute = (millisOfDay / 60000) % 60;
+            second = (millisOfDay / 1000) % 60;
+            millis = millisOfDay % 1000;
+            dayOfWeek = (int) Math.floorMod(epochDay + 4, 7L) + 1;
+        }
+    }
+}
@@ -261,6 +261,7 @@ public final class CronExpression implements Serializable, Cloneable {
     protected transient boolean nearestWeekday = false;
     protected transient int lastdayOffset = 0;
     protected transient boolean expressionParsed = false;
+    private transient CompiledCronExpression compiled;
     
     public static final int MAX_YEAR = Calendar.getInstance().get(Calendar.YEAR) + 100;
 
@@ -308,6 +309,37 @@ public final class CronExpression implements Serializable, Cloneable {
         }
     }
 
+    /**
+     * Constructs a new <CODE>CronExpression</CODE> that shares the parsed
+     * state of an already built one instead of parsing the expression again.
+     * The parsed state is never modified once it has been built, so it is safe
+     * to share; only the time zone is per instance.
+     * 
+     * @see CronExpressionCache
+     */
+    CronExpression(CronExpression parsed, TimeZone timeZone) {
+        this.cronExpression = parsed.cronExpression;
+        this.timeZone = timeZone;
+        shareParsedState(parsed);
+    }
+
+    private void shareParsedState(CronExpression parsed) {
+        seconds = parsed.seconds;
+        minutes = parsed.minutes;
+        hours = parsed.hours;
+        daysOfMonth = parsed.daysOfMonth;
+        months = parsed.months;
+        daysOfWeek = parsed.daysOfWeek;
+        years = parsed.years;
+        lastdayOfWeek = parsed.lastdayOfWeek;
+        nthdayOfWeek = parsed.nthdayOfWeek;
+        lastdayOfMonth = parsed.lastdayOfMonth;
+        nearestWeekday = parsed.nearestWeekday;
+        lastdayOffset = parsed.lastdayOffset;
+        compiled = parsed.compiled;
+        expressionParsed = true;
+    }
+
     /**
      * Indicates whether the given date satisfies the cron expression. Note that
      * milliseconds are ignored, so two Dates falling on different milliseconds
@@ -318,6 +350,10 @@ public final class CronExpression implements Serializable, Cloneable {
      *         expression
      */
     public boolean isSatisfiedBy(Date date) {
+        if (compiled != null) {
+            return compiled.isSatisfiedBy(date.getTime(), getTimeZone());
+        }
+
         Calendar testDateCal = Calendar.getInstance(getTimeZone());
         testDateCal.setTime(date);
         testDateCal.set(Calendar.MILLISECOND, 0);
@@ -400,6 +436,10 @@ public final class CronExpression implements Serializable, Cloneable {
     public void setTimeZone(TimeZone timeZone) {
         this.timeZone = timeZone;
     }
+
+    TimeZone getTimeZoneOrNull() {
+        return timeZone;
+    }
     
     /**
      * Returns the string representation of the <CODE>CronExpression</CODE>
@@ -520,6 +560,8 @@ public final class CronExpression implements Serializable, Cloneable {
                             "Support for specifying both a day-of-week AND a day-of-month parameter is not implemented.", 0);
                 }
             }
+
+            compiled = CompiledCronExpression.compile(this);
         } catch (ParseException pe) {
             throw pe;
         } catch (Exception e) {
@@ -1176,8 +1218,13 @@ public final class CronExpression implements Serializable, Cloneable {
     ////////////////////////////////////////////////////////////////////////////
 
     public Date getTimeAfter(Date afterTime) {
+        if (compiled != null) {
+            long timeAfter = compiled.getTimeAfter(afterTime.getTime(), getTimeZone());
+            return timeAfter == CompiledCronExpression.NO_TIME ? null : new Date(timeAfter);
+        }
 
-        // Computation is based on Gregorian year only.
+        // Only reached for (malformed) expressions that could not be
+        // compiled. Computation is based on Gregorian year only.
         Calendar cl = new java.util.GregorianCalendar(getTimeZone()); 
 
         // move ahead one second, since we're computing the time *after* the
@@ -1654,7 +1701,9 @@ public final class CronExpression implements Serializable, Cloneable {
         
         stream.defaultReadObject();
         try {
-            buildExpression(cronExpression);
+            // deserialized triggers mostly repeat a few expressions, so
+            // share the parsed state of the interned instance
+            shareParsedState(CronExpressionCache.getCronExpression(cronExpression, timeZone));
         } catch (Exception ignore) {
         } // never happens
     }    
@@ -0,0 +1,164 @@
+/* 
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright Super iPaaS Integration LLC, an IBM Company 2024
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not 
+ * use this file except in compliance with the License. You may obtain a copy 
+ * of the License at 
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0 
+ *   
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations 
+ * under the License.
+ * 
+ */
+
+package org.quartz;
+
+import java.text.ParseException;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * An interning cache of parsed <code>{@link CronExpression}</code>s, keyed by
+ * the expression and the ID of its <code>TimeZone</code>.
+ * <p>
+ * Schedules usually repeat a small number of cron strings across many
+ * triggers. Rather than each trigger parsing the string into its own seven
+ * <code>TreeSet</code>s and compiled form, the first request for a given
+ * expression and time zone parses it once, and every later request gets a
+ * new <code>CronExpression</code> sharing that parsed (immutable) state.
+ * The returned instances are distinct, so calling
+ * <code>setTimeZone(..)</code> on one does not affect any other.
+ * </p>
+ * <p>
+ * The cache holds at most <code>{@link #MAX_ENTRIES}</code> entries; once it is
+ * full, expressions not already in it are parsed without being cached.
+ * </p>
+ * 
+ * @see CronScheduleBuilder#cronSchedule(String, TimeZone)
+ * @since 2.5.0
+ */
+public final class CronExpressionCache {
+
+    /*
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     * 
+     * Data members.
+     * 
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     */
+
+    /** The maximum number of distinct expression / time zone pairs cached. */
+    public static final int MAX_ENTRIES = 4096;
+
+    private static final ConcurrentMap<Key, CronExpression> cache =
+        new ConcurrentHashMap<Key, CronExpression>();
+
+    /*
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     * 
+     * Constructors.
+     * 
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     */
+
+    private CronExpressionCache() {
+    }
+
+    /*
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     * 
+     * Interface.
+     * 
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     */
+
+    /**
+     * Get a new <code>CronExpression</code> for the given expression and time
+     * zone, sharing the parsed state of any previous request for the same
+     * expression and time zone.
+     * 
+     * @param cronExpression
+     *            the cron expression string.
+     * @param timeZone
+     *            the time zone the expression is resolved in, or
+     *            <code>null</code> for the default time zone.
+     * @throws ParseException
+     *             if the expression is invalid.
+     */
+    public static CronExpression getCronExpression(String cronExpression, TimeZone timeZone)
+        throws ParseException {
+        if (cronExpression == null) {
+            throw new IllegalArgumentException("cronExpression cannot be null");
+        }
+
+        Key key = new Key(cronExpression.toUpperCase(Locale.US),
+                timeZone == null ? null : timeZone.getID());
+
+        CronExpression parsed = cache.get(key);
+        if (parsed == null) {
+            parsed = new CronExpression(cronExpression);
+            parsed.setTimeZone(timeZone);
+            if (cache.size() < MAX_ENTRIES) {
+                CronExpression existing = cache.putIfAbsent(key, parsed);
+                if (existing != null) {
+                    parsed = existing;
+                }
+            }
+        }
+
+        // only share the cached TimeZone when it is the same zone, a custom
+        // zone may reuse the ID of a different one
+        TimeZone tz = parsed.getTimeZoneOrNull();
+        if (timeZone != null && !timeZone.equals(tz)) {
+            tz = timeZone;
+        }
+        return new CronExpression(parsed, tz);
+    }
+
+    /**
+     * The number of expression / time zone pairs currently cached.
+     */
+    public static int size() {
+        return cache.size();
+    }
+
+    /**
+     * Remove all cached expressions.  Expressions already handed out are not
+     * affected.
+     */
+    public static void clear() {
+        cache.clear();
+    }
+
+    private static final class Key {
+        private final String expression;
+        private final String timeZoneId;
+
+        Key(String expression, String timeZoneId) {
+            this.expression = expression;
+            this.timeZoneId = timeZoneId;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * expression.hashCode() + (timeZoneId == null ? 0 : timeZoneId.hashCode());
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return expression.equals(other.expression)
+                    && (timeZoneId == null ? other.timeZoneId == null : timeZoneId.equals(other.timeZoneId));
+        }
+    }
+}
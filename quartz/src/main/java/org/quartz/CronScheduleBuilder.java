@@ -104,8 +104,30 @@ public class CronScheduleBuilder extends ScheduleBuilder<CronTrigger> {
      * @see CronExpression
      */
     public static CronScheduleBuilder cronSchedule(String cronExpression) {
+        return cronSchedule(cronExpression, null);
+    }
+
+    /**
+     * Create a CronScheduleBuilder with the given cron-expression string and
+     * time zone - the expression is presumed to be valid (and hence only a
+     * RuntimeException will be thrown if it is not).
+     * 
+     * <p>The parsed expression is shared with every other schedule built from
+     * the same expression and time zone, see {@link CronExpressionCache}.</p>
+     * 
+     * @param cronExpression
+     *            the cron expression string to base the schedule on.
+     * @param timeZone
+     *            the time-zone for the schedule, or <code>null</code> for the
+     *            default time-zone.
+     * @return the new CronScheduleBuilder
+     * @throws RuntimeException
+     *             wrapping a ParseException if the expression is invalid
+     * @see CronExpression
+     */
+    public static CronScheduleBuilder cronSchedule(String cronExpression, TimeZone timeZone) {
         try {
-            return cronSchedule(new CronExpression(cronExpression));
+            return cronSchedule(CronExpressionCache.getCronExpression(cronExpression, timeZone));
         } catch (ParseException e) {
             // all methods of construction ensure the expression is valid by
             // this point...
@@ -128,13 +150,13 @@ public class CronScheduleBuilder extends ScheduleBuilder<CronTrigger> {
      */
     public static CronScheduleBuilder cronScheduleNonvalidatedExpression(
             String cronExpression) throws ParseException {
-        return cronSchedule(new CronExpression(cronExpression));
+        return cronSchedule(CronExpressionCache.getCronExpression(cronExpression, null));
     }
 
     private static CronScheduleBuilder cronScheduleNoParseException(
             String presumedValidCronExpression) {
         try {
-            return cronSchedule(new CronExpression(presumedValidCronExpression));
+            return cronSchedule(CronExpressionCache.getCronExpression(presumedValidCronExpression, null));
         } catch (ParseException e) {
             // all methods of construction ensure the expression is valid by
             // this point...
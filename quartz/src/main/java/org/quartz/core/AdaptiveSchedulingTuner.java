@@ -0,0 +1,281 @@
+
+/* 
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright Super iPaaS Integration LLC, an IBM Company 2024
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not 
+ * use this file except in compliance with the License. You may obtain a copy 
+ * of the License at 
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0 
+ *   
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations 
+ * under the License.
+ * 
+ */
+
+package org.quartz.core;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.quartz.spi.ThreadPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * Adjusts the trigger acquisition batch size, the batch time window and the
+ * idle wait time of a scheduler's loops at runtime, within configured
+ * bounds, to suit its current load.
+ * </p>
+ * 
+ * <p>
+ * The scheduling loops report how long each acquisition took and how many of
+ * the requested triggers it returned, how long they waited for a free thread
+ * of their pool, and how late each trigger fired.  Once per interval these
+ * observations are weighed:
+ * </p>
+ * <ul>
+ * <li>If the loops spend most of their time waiting for a free thread, the
+ * pool is saturated: larger batches would only hold acquired triggers while
+ * they wait for threads, so nothing is changed, however late triggers
+ * fire.</li>
+ * <li>Otherwise, if triggers fire later than the target, or most
+ * acquisitions return a full batch, the loops are falling behind: the batch
+ * size is doubled, the time window widened, and the idle wait halved.</li>
+ * <li>If most acquisitions find no trigger, the load is light: the batch
+ * size and time window are halved, and the idle wait doubled, so the
+ * <code>JobStore</code> is polled less often.</li>
+ * <li>Otherwise, if batches are mostly left unused, the batch size and time
+ * window are halved.</li>
+ * </ul>
+ * 
+ * <p>
+ * Every change is logged, and the most recent ones are kept for the
+ * scheduler's MBean.
+ * </p>
+ */
+class AdaptiveSchedulingTuner {
+
+    /**
+     * The share of the scheduling loops' time spent waiting for a free thread
+     * above which their pool is considered saturated.  Measured as time
+     * rather than as busy threads, as a loop only acquires triggers once a
+     * thread is free, so a small pool never looks fully busy.
+     */
+    static final double SATURATED_THREAD_WAIT = 0.5;
+
+    private static final int MAX_DECISIONS = 20;
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final QuartzSchedulerResources resources;
+
+    private final List<QuartzSchedulerThread> threads;
+
+    private final long interval;
+
+    private final long targetFireLateness;
+
+    private final int minBatchSize;
+
+    private final int maxBatchSize;
+
+    private final long minBatchTimeWindow;
+
+    private final long maxBatchTimeWindow;
+
+    private final long minIdleWaitTime;
+
+    private final long maxIdleWaitTime;
+
+    private volatile long idleWaitTime;
+
+    // observations since the last adjustment, guarded by this
+    private int acquisitions;
+    private int fullAcquisitions;
+    private int emptyAcquisitions;
+    private long acquiredTriggers;
+    private long acquisitionNanos;
+    private long threadWaitNanos;
+    private int firedTriggers;
+    private long fireLateness;
+
+    private long lastAdjustment;
+
+    private final LinkedList<String> decisions = new LinkedList<String>();
+
+    /**
+     * @param threads the scheduling loops whose idle wait time to adjust.
+     * @param idleWaitTime their current idle wait time.
+     */
+    AdaptiveSchedulingTuner(QuartzSchedulerResources resources, List<QuartzSchedulerThread> threads,
+            long idleWaitTime) {
+        this.resources = resources;
+        this.threads = threads;
+        this.interval = resources.getAdaptiveTuningInterval();
+        this.targetFireLateness = resources.getAdaptiveTuningTargetFireLateness();
+        this.minBatchSize = Math.max(1, resources.getAdaptiveTuningMinBatchSize());
+        this.maxBatchSize = Math.max(minBatchSize, resources.getAdaptiveTuningMaxBatchSize());
+        this.minBatchTimeWindow = Math.max(0, resources.getAdaptiveTuningMinBatchTimeWindow());
+        this.maxBatchTimeWindow = Math.max(minBatchTimeWindow, resources.getAdaptiveTuningMaxBatchTimeWindow());
+        this.minIdleWaitTime = resources.getAdaptiveTuningMinIdleWaitTime();
+        this.maxIdleWaitTime = Math.max(minIdleWaitTime, resources.getAdaptiveTuningMaxIdleWaitTime());
+        this.idleWaitTime = idleWaitTime;
+        this.lastAdjustment = System.currentTimeMillis();
+    }
+
+    /**
+     * Record an acquisition of triggers by a scheduling loop.
+     * 
+     * @param requested the most triggers it could have returned.
+     * @param acquired how many it returned.
+     */
+    synchronized void triggersAcquired(int requested, int acquired, long nanos) {
+        acquisitions++;
+        if (acquired == 0) {
+            emptyAcquisitions++;
+        } else if (acquired >= requested) {
+            fullAcquisitions++;
+        }
+        acquiredTriggers += acquired;
+        acquisitionNanos += nanos;
+    }
+
+    /**
+     * Wait for the given pool to have a thread available, as a scheduling
+     * loop does before acquiring triggers, recording how long that took.
+     * 
+     * @return the number of available threads.
+     * @see ThreadPool#blockForAvailableThreads()
+     */
+    int blockForAvailableThreads(ThreadPool threadPool) {
+        long start = System.nanoTime();
+        int availableThreads = threadPool.blockForAvailableThreads();
+        waitedForThreads(System.nanoTime() - start);
+        return availableThreads;
+    }
+
+    /**
+     * Record that a scheduling loop waited the given time for a free thread.
+     */
+    synchronized void waitedForThreads(long nanos) {
+        threadWaitNanos += nanos;
+    }
+
+    /**
+     * Record that a trigger fired the given number of milliseconds after its
+     * scheduled fire time.
+     */
+    synchronized void triggerFired(long lateness) {
+        firedTriggers++;
+        fireLateness += Math.max(0, lateness);
+    }
+
+    /**
+     * Adjust the tuned values if an interval has passed since they were last
+     * adjusted.
+     */
+    void adjustIfDue(long now) {
+        synchronized (this) {
+            if (now - lastAdjustment < interval) {
+                return;
+            }
+        }
+        adjust(now);
+    }
+
+    synchronized void adjust(long now) {
+        long elapsed = Math.max(1, now - lastAdjustment);
+        lastAdjustment = now;
+        if (acquisitions == 0) {
+            threadWaitNanos = 0;
+            return;
+        }
+
+        long meanLateness = (firedTriggers == 0) ? 0 : fireLateness / firedTriggers;
+        double threadWait = Math.min(1.0,
+                threadWaitNanos / 1000000.0 / (elapsed * Math.max(1, threads.size())));
+        double meanAcquisitionMillis = acquisitionNanos / 1000000.0 / acquisitions;
+        boolean late = meanLateness > targetFireLateness;
+        boolean saturated = threadWait >= SATURATED_THREAD_WAIT;
+
+        int batchSize = resources.getMaxBatchSize();
+        long batchTimeWindow = resources.getBatchTimeWindow();
+        long idleWait = idleWaitTime;
+        int newBatchSize = batchSize;
+        long newBatchTimeWindow = batchTimeWindow;
+        long newIdleWait = idleWait;
+        if (saturated) {
+            // the pool is the bottleneck, not acquisition
+        } else if (late || fullAcquisitions * 2 > acquisitions) {
+            newBatchSize = batchSize * 2;
+            newBatchTimeWindow = batchTimeWindow + Math.max(1, (maxBatchTimeWindow - batchTimeWindow) / 2);
+            newIdleWait = idleWait / 2;
+        } else if (emptyAcquisitions * 2 > acquisitions) {
+            newBatchSize = batchSize / 2;
+            newBatchTimeWindow = batchTimeWindow / 2;
+            newIdleWait = idleWait * 2;
+        } else if (acquiredTriggers * 4 < (long) acquisitions * batchSize) {
+            newBatchSize = batchSize / 2;
+            newBatchTimeWindow = batchTimeWindow / 2;
+        }
+        newBatchSize = (int) clamp(newBatchSize, minBatchSize, maxBatchSize);
+        newBatchTimeWindow = clamp(newBatchTimeWindow, minBatchTimeWindow, maxBatchTimeWindow);
+        newIdleWait = clamp(newIdleWait, minIdleWaitTime, maxIdleWaitTime);
+
+        if (newBatchSize != batchSize || newBatchTimeWindow != batchTimeWindow || newIdleWait != idleWait) {
+            resources.setMaxBatchSize(newBatchSize);
+            resources.setBatchTimeWindow(newBatchTimeWindow);
+            if (newIdleWait != idleWait) {
+                idleWaitTime = newIdleWait;
+                for (QuartzSchedulerThread thread : threads) {
+                    thread.setIdleWaitTime(newIdleWait);
+                }
+            }
+
+            String decision = new Date(now) + ": batchTriggerAcquisitionMaxCount " + batchSize + " -> " + newBatchSize
+                    + ", batchTriggerAcquisitionFireAheadTimeWindow " + batchTimeWindow + " -> " + newBatchTimeWindow
+                    + ", idleWaitTime " + idleWait + " -> " + newIdleWait
+                    + " (fire lateness " + meanLateness + " ms, waiting for threads " + Math.round(threadWait * 100)
+                    + "% of the time, acquisition " + Math.round(meanAcquisitionMillis * 10) / 10.0 + " ms, "
+                    + fullAcquisitions + " full and " + emptyAcquisitions + " empty of " + acquisitions
+                    + " acquisitions)";
+            log.info("Adaptive tuning: " + decision);
+            decisions.addFirst(decision);
+            if (decisions.size() > MAX_DECISIONS) {
+                decisions.removeLast();
+            }
+        }
+
+        acquisitions = 0;
+        fullAcquisitions = 0;
+        emptyAcquisitions = 0;
+        acquiredTriggers = 0;
+        acquisitionNanos = 0;
+        threadWaitNanos = 0;
+        firedTriggers = 0;
+        fireLateness = 0;
+    }
+
+    private static long clamp(long value, long min, long max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    long getIdleWaitTime() {
+        return idleWaitTime;
+    }
+
+    /**
+     * The most recent changes made, most recent first.
+     */
+    synchronized List<String> getDecisions() {
+        return new ArrayList<String>(decisions);
+    }
+}
@@ -0,0 +1,205 @@
+
+/* 
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright Super iPaaS Integration LLC, an IBM Company 2024
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not 
+ * use this file except in compliance with the License. You may obtain a copy 
+ * of the License at 
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0 
+ *   
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations 
+ * under the License.
+ * 
+ */
+
+package org.quartz.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.quartz.JobDetail;
+import org.quartz.Trigger.CompletedExecutionInstruction;
+import org.quartz.spi.BatchingJobStore;
+import org.quartz.spi.JobStore;
+import org.quartz.spi.OperableTrigger;
+import org.quartz.spi.TriggeredJobCompletion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * Records the completion of jobs with the <code>JobStore</code> on behalf of
+ * the worker threads that ran them, so that a worker can return to the pool
+ * as soon as its job is done, and so that completions arriving close
+ * together share one <code>{@link BatchingJobStore#triggeredJobsComplete(List)}</code>
+ * transaction (and one acquisition of the trigger lock).
+ * </p>
+ * 
+ * <p>
+ * A single writer thread takes the queued completions, in the order they
+ * were queued, once either the first has waited for the batch window or
+ * enough have queued to fill a batch.  Each completion is recorded exactly
+ * as <code>JobStore.triggeredJobComplete</code> would record it, so a
+ * <code>DisallowConcurrentExecution</code> job's triggers are unblocked, and
+ * a <code>PersistJobDataAfterExecution</code> job's data is stored, in the
+ * same transaction that completes its execution.  The only difference is
+ * that they happen up to one batch window later.  If a batch fails, its
+ * completions are recorded one by one, with the usual retries.
+ * </p>
+ */
+class JobCompletionAggregator implements Runnable {
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final JobStore jobStore;
+
+    private final long windowMillis;
+
+    private final int maxBatchSize;
+
+    private final Object lock = new Object();
+
+    private List<TriggeredJobCompletion> pending = new ArrayList<TriggeredJobCompletion>();
+
+    private long firstPendingTime;
+
+    private boolean halted = false;
+
+    private final Thread writer;
+
+    JobCompletionAggregator(JobStore jobStore, String schedulerName, long windowMillis, int maxBatchSize,
+            boolean makeThreadDaemon) {
+        if (!(jobStore instanceof BatchingJobStore)) {
+            throw new IllegalArgumentException("JobStore does not support batched writes: " + jobStore.getClass());
+        }
+        this.jobStore = jobStore;
+        this.windowMillis = windowMillis;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.writer = new Thread(this, schedulerName + "_JobCompletionAggregator");
+        this.writer.setDaemon(makeThreadDaemon);
+    }
+
+    void start() {
+        writer.start();
+    }
+
+    /**
+     * Queue the completion of the given trigger's job, to be recorded as
+     * <code>JobStore.triggeredJobComplete</code> would.  Once the aggregator
+     * is shut down, completions are recorded right away instead.
+     */
+    void triggeredJobComplete(OperableTrigger trigger, JobDetail jobDetail,
+            CompletedExecutionInstruction triggerInstCode) {
+        synchronized (lock) {
+            if (!halted) {
+                if (pending.isEmpty()) {
+                    firstPendingTime = System.currentTimeMillis();
+                }
+                pending.add(new TriggeredJobCompletion(trigger, jobDetail, triggerInstCode));
+                if (pending.size() == 1 || pending.size() == maxBatchSize) {
+                    lock.notifyAll();
+                }
+                return;
+            }
+        }
+        jobStore.triggeredJobComplete(trigger, jobDetail, triggerInstCode);
+    }
+
+    /**
+     * Stop queueing completions, and wait for the writer to record those
+     * already queued.
+     */
+    void shutdown() {
+        synchronized (lock) {
+            halted = true;
+            lock.notifyAll();
+        }
+        boolean interrupted = false;
+        while (writer.isAlive()) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                // the completions must be recorded before the JobStore shuts down
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public void run() {
+        while (true) {
+            List<TriggeredJobCompletion> batch = takeBatch();
+            if (batch == null) {
+                return;
+            }
+            record(batch);
+        }
+    }
+
+    /**
+     * Wait for the next batch to be due, and take it off the queue.
+     * 
+     * @return null once the aggregator is shut down and nothing is queued.
+     */
+    private List<TriggeredJobCompletion> takeBatch() {
+        synchronized (lock) {
+            while (true) {
+                long wait = 0; // until notified
+                if (!pending.isEmpty()) {
+                    wait = firstPendingTime + windowMillis - System.currentTimeMillis();
+                    if (halted || wait <= 0 || pending.size() >= maxBatchSize) {
+                        break;
+                    }
+                } else if (halted) {
+                    return null;
+                }
+                try {
+                    lock.wait(wait);
+                } catch (InterruptedException ignore) {
+                }
+            }
+
+            List<TriggeredJobCompletion> batch;
+            if (pending.size() <= maxBatchSize) {
+                batch = pending;
+                pending = new ArrayList<TriggeredJobCompletion>();
+            } else {
+                List<TriggeredJobCompletion> taken = pending.subList(0, maxBatchSize);
+                batch = new ArrayList<TriggeredJobCompletion>(taken);
+                taken.clear();
+                // the rest have waited at least as long as the batch just taken
+                firstPendingTime = System.currentTimeMillis() - windowMillis;
+            }
+            return batch;
+        }
+    }
+
+    private void record(List<TriggeredJobCompletion> batch) {
+        if (batch.size() > 1) {
+            try {
+                ((BatchingJobStore) jobStore).triggeredJobsComplete(batch);
+                return;
+            } catch (Exception e) {
+                log.debug("Recording " + batch.size() + " job completions together failed, recording them one by one: "
+                        + e.getMessage());
+            }
+        }
+
+        for (TriggeredJobCompletion completion : batch) {
+            try {
+                jobStore.triggeredJobComplete(completion.getTrigger(), completion.getJobDetail(),
+                        completion.getTriggerInstCode());
+            } catch (RuntimeException e) {
+                log.error("Couldn't record the completion of trigger '" + completion.getTrigger().getKey()
+                        + "': " + e.getMessage(), e);
+            }
+        }
+    }
+}
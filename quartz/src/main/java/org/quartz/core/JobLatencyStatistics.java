@@ -0,0 +1,75 @@
+package org.quartz.core;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.quartz.utils.counter.LatencyHistogram;
+
+/**
+ * Latency histograms of the executions of the jobs of one job group: how
+ * late their triggers fired compared to the scheduled fire time, how long the
+ * fired jobs waited before starting to execute, and how long they ran.
+ * 
+ * @see SampledStatistics#getJobLatencyStatistics()
+ */
+public class JobLatencyStatistics {
+
+    private final LatencyHistogram fireLateness = new LatencyHistogram();
+
+    private final LatencyHistogram dispatchDelay = new LatencyHistogram();
+
+    private final LatencyHistogram executionTime = new LatencyHistogram();
+
+    /**
+     * Record a job that is about to execute, given the time its trigger was
+     * scheduled to fire, the time it actually fired (was handed to the job
+     * store's <code>triggersFired</code>) and the current time.
+     */
+    void recordExecutionStart(Date scheduledFireTime, Date fireTime, long now) {
+        if (fireTime == null) {
+            return;
+        }
+        if (scheduledFireTime != null) {
+            fireLateness.record(TimeUnit.MILLISECONDS.toNanos(fireTime.getTime() - scheduledFireTime.getTime()));
+        }
+        dispatchDelay.record(TimeUnit.MILLISECONDS.toNanos(now - fireTime.getTime()));
+    }
+
+    /**
+     * Record the run time of a job that has executed, in milliseconds, or a
+     * negative value if the job did not run.
+     */
+    void recordExecutionTime(long millis) {
+        if (millis >= 0) {
+            executionTime.record(TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+    }
+
+    /**
+     * How late triggers fired, compared to their scheduled fire times.
+     */
+    public LatencyHistogram getFireLateness() {
+        return fireLateness;
+    }
+
+    /**
+     * How long fired jobs waited, from firing until they started to execute
+     * (mostly waiting for a worker thread).
+     */
+    public LatencyHistogram getDispatchDelay() {
+        return dispatchDelay;
+    }
+
+    /**
+     * How long jobs took to execute.
+     */
+    public LatencyHistogram getExecutionTime() {
+        return executionTime;
+    }
+
+    void reset() {
+        fireLateness.reset();
+        dispatchDelay.reset();
+        executionTime.reset();
+    }
+}
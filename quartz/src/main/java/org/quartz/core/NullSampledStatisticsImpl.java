@@ -1,5 +1,8 @@
 package org.quartz.core;
 
+import java.util.Collections;
+import java.util.Map;
+
 public class NullSampledStatisticsImpl implements SampledStatistics {
     public long getJobsCompletedMostRecentSample() {
         return 0;
@@ -13,6 +16,10 @@ public class NullSampledStatisticsImpl implements SampledStatistics {
         return 0;
     }
 
+    public Map<String, JobLatencyStatistics> getJobLatencyStatistics() {
+        return Collections.emptyMap();
+    }
+
     public void shutdown() {
         // nothing to do
     }
@@ -50,10 +50,12 @@ import org.quartz.JobExecutionContext;
 import org.quartz.JobExecutionException;
 import org.quartz.JobKey;
 import org.quartz.JobListener;
+import org.quartz.JobPersistenceException;
 import org.quartz.ListenerManager;
 import org.quartz.Matcher;
 import org.quartz.ObjectAlreadyExistsException;
 import org.quartz.Scheduler;
+import org.quartz.SchedulerConfigException;
 import org.quartz.SchedulerContext;
 import org.quartz.SchedulerException;
 import org.quartz.SchedulerListener;
@@ -70,11 +72,15 @@ import org.quartz.impl.SchedulerRepository;
 import org.quartz.impl.matchers.GroupMatcher;
 import org.quartz.listeners.SchedulerListenerSupport;
 import org.quartz.simpl.PropertySettingJobFactory;
+import org.quartz.spi.BatchingJobStore;
 import org.quartz.spi.JobFactory;
 import org.quartz.spi.OperableTrigger;
 import org.quartz.spi.SchedulerPlugin;
 import org.quartz.spi.SchedulerSignaler;
+import org.quartz.spi.ShardedJobStore;
 import org.quartz.spi.ThreadExecutor;
+import org.quartz.spi.ThreadPool;
+import org.quartz.spi.TriggerShard;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -150,6 +156,8 @@ public class QuartzScheduler implements RemotableQuartzScheduler {
 
     private QuartzSchedulerThread schedThread;
 
+    private List<QuartzSchedulerThread> schedThreads;
+
     private ThreadGroup threadGroup;
 
     private SchedulerContext context = new SchedulerContext();
@@ -170,6 +178,12 @@ public class QuartzScheduler implements RemotableQuartzScheduler {
 
     private SchedulerSignaler signaler;
 
+    private TriggerWriteCoalescer triggerWriteCoalescer;
+
+    private JobCompletionAggregator jobCompletionAggregator;
+
+    private AdaptiveSchedulingTuner adaptiveTuner;
+
     private Random random = new Random();
 
     private ArrayList<Object> holdToPreventGC = new ArrayList<Object>(5);
@@ -213,11 +227,22 @@ public class QuartzScheduler implements RemotableQuartzScheduler {
             addInternalJobListener((JobListener)resources.getJobStore());
         }
 
-        this.schedThread = new QuartzSchedulerThread(this, resources);
+        this.schedThreads = createSchedulerThreads();
+        this.schedThread = schedThreads.get(0);
+        for (QuartzSchedulerThread thread : schedThreads) {
+            if (idleWaitTime > 0) {
+                thread.setIdleWaitTime(idleWaitTime);
+            }
+        }
+        if (resources.isAdaptiveTuning()) {
+            adaptiveTuner = new AdaptiveSchedulingTuner(resources, schedThreads, schedThread.getIdleWaitTime());
+            for (QuartzSchedulerThread thread : schedThreads) {
+                thread.setAdaptiveTuner(adaptiveTuner);
+            }
+        }
         ThreadExecutor schedThreadExecutor = resources.getThreadExecutor();
-        schedThreadExecutor.execute(this.schedThread);
-        if (idleWaitTime > 0) {
-            this.schedThread.setIdleWaitTime(idleWaitTime);
+        for (QuartzSchedulerThread thread : schedThreads) {
+            schedThreadExecutor.execute(thread);
         }
 
         jobMgr = new ExecutingJobsManager();
@@ -225,11 +250,75 @@ public class QuartzScheduler implements RemotableQuartzScheduler {
         errLogger = new ErrorLogger();
         addInternalSchedulerListener(errLogger);
 
-        signaler = new SchedulerSignalerImpl(this, this.schedThread);
+        signaler = new SchedulerSignalerImpl(this, this.schedThreads);
+
+        if (resources.getTriggerWriteCoalescingWindow() > 0) {
+            if (resources.getJobStore() instanceof BatchingJobStore) {
+                triggerWriteCoalescer = new TriggerWriteCoalescer(resources.getJobStore(),
+                        resources.getTriggerWriteCoalescingWindow(), resources.getTriggerWriteCoalescingMaxCount());
+            } else {
+                getLog().warn("The JobStore " + resources.getJobStore().getClass().getName()
+                        + " can not store triggers in batches; triggerWriteCoalescingWindow is ignored.");
+            }
+        }
+
+        if (resources.getJobCompletionBatchWindow() > 0) {
+            if (resources.getJobStore() instanceof BatchingJobStore) {
+                jobCompletionAggregator = new JobCompletionAggregator(resources.getJobStore(), resources.getName(),
+                        resources.getJobCompletionBatchWindow(), resources.getJobCompletionBatchMaxCount(),
+                        resources.getMakeSchedulerThreadDaemon());
+                jobCompletionAggregator.start();
+            } else {
+                getLog().warn("The JobStore " + resources.getJobStore().getClass().getName()
+                        + " can not record job completions in batches; jobCompletionBatchWindow is ignored.");
+            }
+        }
         
         getLog().info("Quartz Scheduler v" + getVersion() + " created.");
     }
 
+    /**
+     * Create the scheduling loop, or one loop per trigger shard when more
+     * than one is configured, or named thread pools are, and the
+     * <code>JobStore</code> can acquire the triggers of a shard.  Each named
+     * thread pool gets a loop of its own, so its triggers are only acquired
+     * when it has threads available to run their jobs.
+     */
+    private List<QuartzSchedulerThread> createSchedulerThreads() throws SchedulerException {
+        List<QuartzSchedulerThread> threads = new ArrayList<QuartzSchedulerThread>();
+        int loops = resources.getSchedulingLoops();
+        List<ThreadPool> pools = new ArrayList<ThreadPool>(resources.getNamedThreadPools().values());
+        if ((loops > 1 || !pools.isEmpty()) && !(resources.getJobStore() instanceof ShardedJobStore)) {
+            getLog().warn("The JobStore " + resources.getJobStore().getClass().getName()
+                    + " can not acquire the triggers of a shard; running a single scheduling loop"
+                    + (pools.isEmpty() ? "." : ", which acquires triggers for every thread pool."));
+            threads.add(new QuartzSchedulerThread(this, resources));
+            return threads;
+        }
+        if (loops <= 1 && pools.isEmpty()) {
+            threads.add(new QuartzSchedulerThread(this, resources));
+            return threads;
+        }
+
+        List<Matcher<JobKey>> poolRoutes = new ArrayList<Matcher<JobKey>>(pools.size());
+        for (String name : resources.getNamedThreadPools().keySet()) {
+            poolRoutes.add(resources.getThreadPoolRoute(name));
+        }
+        List<TriggerShard> shards;
+        try {
+            shards = TriggerShards.create(loops, resources.getSchedulingLoopTriggerGroups(), poolRoutes);
+        } catch (IllegalArgumentException e) {
+            throw new SchedulerConfigException(e.getMessage(), e);
+        }
+        for (TriggerShard shard : shards) {
+            getLog().info("Scheduling loop " + shard.getIndex() + " fires the triggers of " + shard);
+            ThreadPool pool = (shard.getIndex() < loops)
+                ? resources.getThreadPool() : pools.get(shard.getIndex() - loops);
+            threads.add(new QuartzSchedulerThread(this, resources, shard, pool));
+        }
+        return threads;
+    }
+
     public void initialize() throws SchedulerException {
         
         try {
@@ -543,7 +632,9 @@ public class QuartzScheduler implements RemotableQuartzScheduler {
             resources.getJobStore().schedulerResumed();
         }
 
-        schedThread.togglePause(false);
+        for (QuartzSchedulerThread thread : schedThreads) {
+            thread.togglePause(false);
+        }
 
         getLog().info(
                 "Scheduler " + resources.getUniqueIdentifier() + " started.");
@@ -582,7 +673,9 @@ public class QuartzScheduler implements RemotableQuartzScheduler {
      */
     public void standby() {
         resources.getJobStore().schedulerPaused();
-        schedThread.togglePause(true);
+        for (QuartzSchedulerThread thread : schedThreads) {
+            thread.togglePause(true);
+        }
         getLog().info(
                 "Scheduler " + resources.getUniqueIdentifier() + " paused.");
         notifySchedulerListenersInStandbyMode();        
@@ -627,6 +720,33 @@ public class QuartzScheduler implements RemotableQuartzScheduler {
         return resources.getThreadPool().getPoolSize();
     }
 
+    public boolean isAdaptiveTuningEnabled() {
+        return adaptiveTuner != null;
+    }
+
+    public int getMaxBatchSize() {
+        return resources.getMaxBatchSize();
+    }
+
+    public long getBatchTimeWindow() {
+        return resources.getBatchTimeWindow();
+    }
+
+    public long getIdleWaitTime() {
+        return schedThread.getIdleWaitTime();
+    }
+
+    /**
+     * The most recent adjustments made by adaptive tuning, most recent
+     * first; empty if it is not enabled.
+     */
+    public List<String> getAdaptiveTuningDecisions() {
+        if (adaptiveTuner == null) {
+            return new ArrayList<String>();
+        }
+        return adaptiveTuner.getDecisions();
+    }
+
     /**
      * <p>
      * Halts the <code>QuartzScheduler</code>'s firing of <code>{@link org.quartz.Trigger}s</code>,
@@ -692,7 +812,14 @@ public class QuartzScheduler implements RemotableQuartzScheduler {
 
         standby();
 
-        schedThread.halt(waitForJobsToComplete);
+        for (QuartzSchedulerThread thread : schedThreads) {
+            thread.halt(false);
+        }
+        if (waitForJobsToComplete) {
+            for (QuartzSchedulerThread thread : schedThreads) {
+                thread.halt(true);
+            }
+        }
         
         notifySchedulerListenersShuttingdown();
         
@@ -711,6 +838,13 @@ public class QuartzScheduler implements RemotableQuartzScheduler {
         }
         
         resources.getThreadPool().shutdown(waitForJobsToComplete);
+        for (ThreadPool pool : resources.getNamedThreadPools().values()) {
+            pool.shutdown(waitForJobsToComplete);
+        }
+
+        if (jobCompletionAggregator != null) {
+            jobCompletionAggregator.shutdown();
+        }
         
         closed = true;
 
@@ -899,7 +1033,7 @@ public class QuartzScheduler implements RemotableQuartzScheduler {
                     "Based on configured schedule, the given trigger '" + trigger.getKey() + "' will never fire.");
         }
 
-        resources.getJobStore().storeTrigger(trig, false);
+        storeNewTrigger(trig);
         notifySchedulerThread(trigger.getNextFireTime().getTime());
         notifySchedulerListenersSchduled(trigger);
 
@@ -1160,7 +1294,7 @@ public class QuartzScheduler implements RemotableQuartzScheduler {
         boolean collision = true;
         while (collision) {
             try {
-                resources.getJobStore().storeTrigger(trig, false);
+                storeNewTrigger(trig);
                 collision = false;
             } catch (ObjectAlreadyExistsException oaee) {
                 trig.setKey(new TriggerKey(newTriggerId(), Scheduler.DEFAULT_GROUP));
@@ -1184,7 +1318,7 @@ public class QuartzScheduler implements RemotableQuartzScheduler {
         boolean collision = true;
         while (collision) {
             try {
-                resources.getJobStore().storeTrigger(trig, false);
+                storeNewTrigger(trig);
                 collision = false;
             } catch (ObjectAlreadyExistsException oaee) {
                 trig.setKey(new TriggerKey(newTriggerId(), Scheduler.DEFAULT_GROUP));
@@ -1195,6 +1329,18 @@ public class QuartzScheduler implements RemotableQuartzScheduler {
         notifySchedulerListenersSchduled(trig);
     }
     
+    /**
+     * Store a new trigger, together with those stored concurrently when
+     * trigger writes are coalesced.
+     */
+    private void storeNewTrigger(OperableTrigger trig) throws JobPersistenceException {
+        if (triggerWriteCoalescer != null) {
+            triggerWriteCoalescer.storeTrigger(trig);
+        } else {
+            resources.getJobStore().storeTrigger(trig, false);
+        }
+    }
+    
     /**
      * <p>
      * Pause the <code>{@link Trigger}</code> with the given name.
@@ -1784,11 +1930,19 @@ J     *
     }
 
     protected void notifyJobStoreJobComplete(OperableTrigger trigger, JobDetail detail, CompletedExecutionInstruction instCode) {
-        resources.getJobStore().triggeredJobComplete(trigger, detail, instCode);
+        if (jobCompletionAggregator != null) {
+            jobCompletionAggregator.triggeredJobComplete(trigger, detail, instCode);
+        } else {
+            resources.getJobStore().triggeredJobComplete(trigger, detail, instCode);
+        }
     }
 
     protected void notifyJobStoreJobVetoed(OperableTrigger trigger, JobDetail detail, CompletedExecutionInstruction instCode) {
-        resources.getJobStore().triggeredJobComplete(trigger, detail, instCode);
+        if (jobCompletionAggregator != null) {
+            jobCompletionAggregator.triggeredJobComplete(trigger, detail, instCode);
+        } else {
+            resources.getJobStore().triggeredJobComplete(trigger, detail, instCode);
+        }
     }
 
     protected void notifySchedulerThread(long candidateNewNextFireTime) {
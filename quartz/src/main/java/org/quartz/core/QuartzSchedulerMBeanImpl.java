@@ -43,6 +43,7 @@ import org.quartz.Trigger.TriggerState;
 import org.quartz.TriggerKey;
 import org.quartz.core.jmx.JobDetailSupport;
 import org.quartz.core.jmx.JobExecutionContextSupport;
+import org.quartz.core.jmx.JobLatencyStatisticsSupport;
 import org.quartz.core.jmx.QuartzSchedulerMBean;
 import org.quartz.core.jmx.TriggerSupport;
 import org.quartz.impl.matchers.GroupMatcher;
@@ -998,6 +999,30 @@ public class QuartzSchedulerMBeanImpl extends StandardMBean implements
         return this.sampledStatistics.getJobsScheduledMostRecentSample();
     }
 
+    public TabularData getJobGroupLatencies() {
+        return JobLatencyStatisticsSupport.toTabularData(this.sampledStatistics.getJobLatencyStatistics());
+    }
+
+    public boolean isAdaptiveTuningEnabled() {
+        return scheduler.isAdaptiveTuningEnabled();
+    }
+
+    public int getBatchTriggerAcquisitionMaxCount() {
+        return scheduler.getMaxBatchSize();
+    }
+
+    public long getBatchTriggerAcquisitionFireAheadTimeWindow() {
+        return scheduler.getBatchTimeWindow();
+    }
+
+    public long getIdleWaitTime() {
+        return scheduler.getIdleWaitTime();
+    }
+
+    public List<String> getAdaptiveTuningDecisions() {
+        return scheduler.getAdaptiveTuningDecisions();
+    }
+
     public Map<String, Long> getPerformanceMetrics() {
         Map<String, Long> result = new HashMap<String, Long>();
         result.put("JobsCompleted", Long
@@ -20,8 +20,14 @@
 package org.quartz.core;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
+import org.quartz.JobKey;
+import org.quartz.Matcher;
 import org.quartz.management.ManagementRESTServiceConfiguration;
 import org.quartz.spi.JobStore;
 import org.quartz.spi.SchedulerPlugin;
@@ -70,6 +76,10 @@ public class QuartzSchedulerResources {
 
     private ThreadPool threadPool;
 
+    private Map<String, ThreadPool> namedThreadPools = new LinkedHashMap<String, ThreadPool>();
+
+    private Map<String, Matcher<JobKey>> threadPoolRoutes = new HashMap<String, Matcher<JobKey>>();
+
     private JobStore jobStore;
 
     private JobRunShellFactory jobRunShellFactory;
@@ -90,9 +100,41 @@ public class QuartzSchedulerResources {
 
     private ThreadExecutor threadExecutor;
 
-    private long batchTimeWindow = 0;
+    private volatile long batchTimeWindow = 0;
+
+    private volatile int maxBatchSize = 1;
+
+    private boolean batchTriggerAcquisitionPipelined = false;
+
+    private long triggerWriteCoalescingWindow = 0;
+
+    private int triggerWriteCoalescingMaxCount = 100;
+
+    private long jobCompletionBatchWindow = 0;
+
+    private int jobCompletionBatchMaxCount = 100;
+
+    private int schedulingLoops = 1;
+
+    private Map<Integer, List<String>> schedulingLoopTriggerGroups = new HashMap<Integer, List<String>>();
+
+    private boolean adaptiveTuning = false;
+
+    private long adaptiveTuningInterval = 10000;
+
+    private long adaptiveTuningTargetFireLateness = 1000;
+
+    private int adaptiveTuningMinBatchSize = 1;
+
+    private int adaptiveTuningMaxBatchSize = 1;
+
+    private long adaptiveTuningMinBatchTimeWindow = 0;
+
+    private long adaptiveTuningMaxBatchTimeWindow = 0;
 
-    private int maxBatchSize = 1;
+    private long adaptiveTuningMinIdleWaitTime = 1000;
+
+    private long adaptiveTuningMaxIdleWaitTime = 30000;
 
     private boolean interruptJobsOnShutdown = false;
     private boolean interruptJobsOnShutdownWithWait = false;
@@ -342,6 +384,64 @@ public class QuartzSchedulerResources {
         this.threadPool = threadPool;
     }
 
+    /**
+     * <p>
+     * Add a named <code>{@link ThreadPool}</code>, to run the jobs matched by
+     * the given <code>Matcher</code> instead of the main one.  A job matched
+     * by more than one named pool runs in the first pool added.
+     * </p>
+     * 
+     * @exception IllegalArgumentException
+     *              if any argument is null, or a pool of that name was
+     *              already added.
+     */
+    public void addThreadPool(String name, ThreadPool threadPool, Matcher<JobKey> jobMatcher) {
+        if (name == null || threadPool == null || jobMatcher == null) {
+            throw new IllegalArgumentException("Thread pool name, pool and job matcher cannot be null.");
+        }
+        if (namedThreadPools.containsKey(name)) {
+            throw new IllegalArgumentException("Thread pool '" + name + "' already added.");
+        }
+
+        namedThreadPools.put(name, threadPool);
+        threadPoolRoutes.put(name, jobMatcher);
+    }
+
+    /**
+     * <p>
+     * Get the named <code>{@link ThreadPool}</code>s, by name, in the order
+     * they were added.
+     * </p>
+     */
+    public Map<String, ThreadPool> getNamedThreadPools() {
+        return Collections.unmodifiableMap(namedThreadPools);
+    }
+
+    /**
+     * <p>
+     * Get the <code>Matcher</code> of the jobs routed to the named
+     * <code>{@link ThreadPool}</code>.
+     * </p>
+     */
+    public Matcher<JobKey> getThreadPoolRoute(String name) {
+        return threadPoolRoutes.get(name);
+    }
+
+    /**
+     * <p>
+     * Get the <code>{@link ThreadPool}</code> to run the job with the given
+     * key in: the first named pool it is routed to, or else the main one.
+     * </p>
+     */
+    public ThreadPool getThreadPool(JobKey jobKey) {
+        for (Map.Entry<String, ThreadPool> pool : namedThreadPools.entrySet()) {
+            if (threadPoolRoutes.get(pool.getKey()).isMatch(jobKey)) {
+                return pool.getValue();
+            }
+        }
+        return threadPool;
+    }
+
     /**
      * <p>
      * Get the <code>{@link JobStore}</code> for the <code>{@link QuartzScheduler}</code>
@@ -556,6 +656,171 @@ public class QuartzSchedulerResources {
     public void setMaxBatchSize(int maxBatchSize) {
       this.maxBatchSize = maxBatchSize;
     }
+
+    /**
+     * Whether the <code>QuartzSchedulerThread</code> acquires the next batch
+     * of triggers while the current batch is waiting to fire and being
+     * dispatched.
+     */
+    public boolean isBatchTriggerAcquisitionPipelined() {
+        return batchTriggerAcquisitionPipelined;
+    }
+
+    public void setBatchTriggerAcquisitionPipelined(boolean batchTriggerAcquisitionPipelined) {
+        this.batchTriggerAcquisitionPipelined = batchTriggerAcquisitionPipelined;
+    }
+
+    /**
+     * How many milliseconds the new triggers stored by concurrent
+     * <code>triggerJob</code> and <code>scheduleJob(Trigger)</code> calls are
+     * gathered for, to be stored together.  0 stores each on its own.
+     */
+    public long getTriggerWriteCoalescingWindow() {
+        return triggerWriteCoalescingWindow;
+    }
+
+    public void setTriggerWriteCoalescingWindow(long triggerWriteCoalescingWindow) {
+        this.triggerWriteCoalescingWindow = triggerWriteCoalescingWindow;
+    }
+
+    public int getTriggerWriteCoalescingMaxCount() {
+        return triggerWriteCoalescingMaxCount;
+    }
+
+    public void setTriggerWriteCoalescingMaxCount(int triggerWriteCoalescingMaxCount) {
+        this.triggerWriteCoalescingMaxCount = triggerWriteCoalescingMaxCount;
+    }
+
+    /**
+     * How many milliseconds the completions of executed jobs are gathered
+     * for, to be recorded in the <code>JobStore</code> together by a single
+     * writer thread.  0 has each worker thread record its own.
+     */
+    public long getJobCompletionBatchWindow() {
+        return jobCompletionBatchWindow;
+    }
+
+    public void setJobCompletionBatchWindow(long jobCompletionBatchWindow) {
+        this.jobCompletionBatchWindow = jobCompletionBatchWindow;
+    }
+
+    public int getJobCompletionBatchMaxCount() {
+        return jobCompletionBatchMaxCount;
+    }
+
+    public void setJobCompletionBatchMaxCount(int jobCompletionBatchMaxCount) {
+        this.jobCompletionBatchMaxCount = jobCompletionBatchMaxCount;
+    }
+
+    /**
+     * How many scheduling loops acquire and fire triggers, each for its own
+     * trigger groups.  Defaults to 1, a single loop firing all triggers.
+     */
+    public int getSchedulingLoops() {
+        return schedulingLoops;
+    }
+
+    public void setSchedulingLoops(int schedulingLoops) {
+        this.schedulingLoops = schedulingLoops;
+    }
+
+    /**
+     * The trigger groups (or group prefixes, ending with <code>*</code>)
+     * given to scheduling loops, by loop index.  The groups given to no loop
+     * are spread over the other loops by hash.
+     */
+    public Map<Integer, List<String>> getSchedulingLoopTriggerGroups() {
+        return schedulingLoopTriggerGroups;
+    }
+
+    public void setSchedulingLoopTriggerGroups(Map<Integer, List<String>> schedulingLoopTriggerGroups) {
+        this.schedulingLoopTriggerGroups = schedulingLoopTriggerGroups;
+    }
+
+    /**
+     * Whether the batch size, batch time window and idle wait time are
+     * adjusted at runtime to the observed load, within the adaptive tuning
+     * bounds.  Defaults to false.
+     */
+    public boolean isAdaptiveTuning() {
+        return adaptiveTuning;
+    }
+
+    public void setAdaptiveTuning(boolean adaptiveTuning) {
+        this.adaptiveTuning = adaptiveTuning;
+    }
+
+    /**
+     * How often, in milliseconds, adaptive tuning weighs its observations
+     * and adjusts the tuned values.
+     */
+    public long getAdaptiveTuningInterval() {
+        return adaptiveTuningInterval;
+    }
+
+    public void setAdaptiveTuningInterval(long adaptiveTuningInterval) {
+        this.adaptiveTuningInterval = adaptiveTuningInterval;
+    }
+
+    /**
+     * The mean fire lateness, in milliseconds, above which adaptive tuning
+     * considers the scheduling loops to be falling behind.
+     */
+    public long getAdaptiveTuningTargetFireLateness() {
+        return adaptiveTuningTargetFireLateness;
+    }
+
+    public void setAdaptiveTuningTargetFireLateness(long adaptiveTuningTargetFireLateness) {
+        this.adaptiveTuningTargetFireLateness = adaptiveTuningTargetFireLateness;
+    }
+
+    public int getAdaptiveTuningMinBatchSize() {
+        return adaptiveTuningMinBatchSize;
+    }
+
+    public void setAdaptiveTuningMinBatchSize(int adaptiveTuningMinBatchSize) {
+        this.adaptiveTuningMinBatchSize = adaptiveTuningMinBatchSize;
+    }
+
+    public int getAdaptiveTuningMaxBatchSize() {
+        return adaptiveTuningMaxBatchSize;
+    }
+
+    public void setAdaptiveTuningMaxBatchSize(int adaptiveTuningMaxBatchSize) {
+        this.adaptiveTuningMaxBatchSize = adaptiveTuningMaxBatchSize;
+    }
+
+    public long getAdaptiveTuningMinBatchTimeWindow() {
+        return adaptiveTuningMinBatchTimeWindow;
+    }
+
+    public void setAdaptiveTuningMinBatchTimeWindow(long adaptiveTuningMinBatchTimeWindow) {
+        this.adaptiveTuningMinBatchTimeWindow = adaptiveTuningMinBatchTimeWindow;
+    }
+
+    public long getAdaptiveTuningMaxBatchTimeWindow() {
+        return adaptiveTuningMaxBatchTimeWindow;
+    }
+
+    public void setAdaptiveTuningMaxBatchTimeWindow(long adaptiveTuningMaxBatchTimeWindow) {
+        this.adaptiveTuningMaxBatchTimeWindow = adaptiveTuningMaxBatchTimeWindow;
+    }
+
+    public long getAdaptiveTuningMinIdleWaitTime() {
+        return adaptiveTuningMinIdleWaitTime;
+    }
+
+    public void setAdaptiveTuningMinIdleWaitTime(long adaptiveTuningMinIdleWaitTime) {
+        this.adaptiveTuningMinIdleWaitTime = adaptiveTuningMinIdleWaitTime;
+    }
+
+    public long getAdaptiveTuningMaxIdleWaitTime() {
+        return adaptiveTuningMaxIdleWaitTime;
+    }
+
+    public void setAdaptiveTuningMaxIdleWaitTime(long adaptiveTuningMaxIdleWaitTime) {
+        this.adaptiveTuningMaxIdleWaitTime = adaptiveTuningMaxIdleWaitTime;
+    }
     
     public boolean isInterruptJobsOnShutdown() {
         return interruptJobsOnShutdown;
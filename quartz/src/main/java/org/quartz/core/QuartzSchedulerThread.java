@@ -22,16 +22,27 @@ package org.quartz.core;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.quartz.JobPersistenceException;
 import org.quartz.SchedulerException;
 import org.quartz.Trigger;
 import org.quartz.Trigger.CompletedExecutionInstruction;
+import org.quartz.spi.AcquiredTriggers;
+import org.quartz.spi.FusedFiringJobStore;
 import org.quartz.spi.JobStore;
 import org.quartz.spi.OperableTrigger;
+import org.quartz.spi.ShardedJobStore;
+import org.quartz.spi.ThreadPool;
 import org.quartz.spi.TriggerFiredBundle;
 import org.quartz.spi.TriggerFiredResult;
+import org.quartz.spi.TriggerShard;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -41,6 +52,14 @@ import org.slf4j.LoggerFactory;
  * s that are registered with the <code>{@link QuartzScheduler}</code>.
  * </p>
  *
+ * <p>
+ * If <code>{@link QuartzSchedulerResources#isBatchTriggerAcquisitionPipelined()}</code>
+ * is set, the next batch of triggers is acquired on a helper thread while the
+ * current batch is waiting for its fire time and being dispatched. A
+ * prefetched batch is released, and acquired again, if the schedule changed in
+ * a way that could put an earlier trigger ahead of it.
+ * </p>
+ *
  * @see QuartzScheduler
  * @see org.quartz.Job
  * @see Trigger
@@ -66,17 +85,30 @@ public class QuartzSchedulerThread extends Thread {
 
     private boolean paused;
 
+    // pipelined acquisition - only the scheduler thread touches the future,
+    // the prefetch signal fields are guarded by sigLock
+    private ExecutorService prefetchExecutor;
+    private Future<List<OperableTrigger>> prefetchedTriggers;
+    private boolean prefetchSignaled;
+    private long prefetchSignaledNextFireTime;
+
     private AtomicBoolean halted;
 
+    private final TriggerShard shard;
+
+    private final ThreadPool threadPool;
+
     private Random random = new Random(System.currentTimeMillis());
 
     // When the scheduler finds there is no current trigger to fire, how long
     // it should wait until checking again...
     private static long DEFAULT_IDLE_WAIT_TIME = 30L * 1000L;
 
-    private long idleWaitTime = DEFAULT_IDLE_WAIT_TIME;
+    private volatile long idleWaitTime = DEFAULT_IDLE_WAIT_TIME;
+
+    private volatile int idleWaitVariablness = 7 * 1000;
 
-    private int idleWaitVariablness = 7 * 1000;
+    private volatile AdaptiveSchedulingTuner tuner;
 
     private final Logger log = LoggerFactory.getLogger(getClass());
 
@@ -107,9 +139,31 @@ public class QuartzSchedulerThread extends Thread {
      * </p>
      */
     QuartzSchedulerThread(QuartzScheduler qs, QuartzSchedulerResources qsRsrcs, boolean setDaemon, int threadPrio) {
-        super(qs.getSchedulerThreadGroup(), qsRsrcs.getThreadName());
+        this(qs, qsRsrcs, setDaemon, threadPrio, null, qsRsrcs.getThreadPool());
+    }
+
+    /**
+     * <p>
+     * Construct a new <code>QuartzSchedulerThread</code> for the given
+     * <code>QuartzScheduler</code>, that only acquires and fires the triggers
+     * of the given shard, as one of several scheduling loops, and only
+     * acquires them when the given <code>ThreadPool</code> has threads
+     * available to run their jobs.
+     * </p>
+     */
+    QuartzSchedulerThread(QuartzScheduler qs, QuartzSchedulerResources qsRsrcs, TriggerShard shard,
+            ThreadPool threadPool) {
+        this(qs, qsRsrcs, qsRsrcs.getMakeSchedulerThreadDaemon(), Thread.NORM_PRIORITY, shard, threadPool);
+    }
+
+    private QuartzSchedulerThread(QuartzScheduler qs, QuartzSchedulerResources qsRsrcs, boolean setDaemon,
+            int threadPrio, TriggerShard shard, ThreadPool threadPool) {
+        super(qs.getSchedulerThreadGroup(),
+                (shard == null) ? qsRsrcs.getThreadName() : qsRsrcs.getThreadName() + "-" + shard.getIndex());
         this.qs = qs;
         this.qsRsrcs = qsRsrcs;
+        this.shard = shard;
+        this.threadPool = threadPool;
         this.setDaemon(setDaemon);
         if(qsRsrcs.isThreadsInheritInitializersClassLoadContext()) {
             log.info("QuartzSchedulerThread Inheriting ContextClassLoader of thread: " + Thread.currentThread().getName());
@@ -118,6 +172,11 @@ public class QuartzSchedulerThread extends Thread {
 
         this.setPriority(threadPrio);
 
+        if (qsRsrcs.isBatchTriggerAcquisitionPipelined()) {
+            prefetchExecutor = Executors.newSingleThreadExecutor(new PrefetchThreadFactory(
+                    qs.getSchedulerThreadGroup(), getName() + "_Prefetcher", setDaemon));
+        }
+
         // start the underlying thread, but put this object into the 'paused'
         // state
         // so processing doesn't start yet...
@@ -138,6 +197,18 @@ public class QuartzSchedulerThread extends Thread {
         idleWaitVariablness = (int) (waitTime * 0.2);
     }
 
+    long getIdleWaitTime() {
+        return idleWaitTime;
+    }
+
+    /**
+     * Report acquisitions and fire lateness to the given tuner, and let it
+     * adjust the tuned values once per interval.
+     */
+    void setAdaptiveTuner(AdaptiveSchedulingTuner tuner) {
+        this.tuner = tuner;
+    }
+
     private long getRandomizedIdleWaitTime() {
         return idleWaitTime - random.nextInt(idleWaitVariablness);
     }
@@ -214,10 +285,27 @@ public class QuartzSchedulerThread extends Thread {
         synchronized(sigLock) {
             signaled = true;
             signaledNextFireTime = candidateNewNextFireTime;
+            notePrefetchScheduleChange(candidateNewNextFireTime);
             sigLock.notifyAll();
         }
     }
 
+    /**
+     * Remember the earliest fire time signaled since the current prefetch
+     * was started, zero meaning "unknown, possibly earlier than anything".
+     */
+    private void notePrefetchScheduleChange(long candidateNewNextFireTime) {
+        synchronized(sigLock) {
+            if (!prefetchSignaled) {
+                prefetchSignaled = true;
+                prefetchSignaledNextFireTime = candidateNewNextFireTime;
+            } else if (prefetchSignaledNextFireTime != 0
+                    && (candidateNewNextFireTime == 0 || candidateNewNextFireTime < prefetchSignaledNextFireTime)) {
+                prefetchSignaledNextFireTime = candidateNewNextFireTime;
+            }
+        }
+    }
+
     public void clearSignaledSchedulingChange() {
         synchronized(sigLock) {
             signaled = false;
@@ -251,6 +339,10 @@ public class QuartzSchedulerThread extends Thread {
                 // check if we're supposed to pause...
                 synchronized (sigLock) {
                     while (paused && !halted.get()) {
+                        if (prefetchedTriggers != null) {
+                            // release them outside of sigLock, see below
+                            break;
+                        }
                         try {
                             // wait until togglePause(false) is called...
                             sigLock.wait(1000L);
@@ -267,6 +359,12 @@ public class QuartzSchedulerThread extends Thread {
                     }
                 }
 
+                // don't hold on to prefetched triggers while paused
+                if (prefetchedTriggers != null && isPaused()) {
+                    releasePrefetchedTriggers();
+                    continue;
+                }
+
                 // wait a bit, if reading from job store is consistently
                 // failing (e.g. DB is down or restarting)..
                 if (acquiresFailed > 1) {
@@ -277,7 +375,13 @@ public class QuartzSchedulerThread extends Thread {
                     }
                 }
 
-                int availThreadCount = qsRsrcs.getThreadPool().blockForAvailableThreads();
+                AdaptiveSchedulingTuner tuner = this.tuner;
+                if (tuner != null) {
+                    tuner.adjustIfDue(System.currentTimeMillis());
+                }
+
+                int availThreadCount = (tuner != null)
+                    ? tuner.blockForAvailableThreads(threadPool) : threadPool.blockForAvailableThreads();
                 synchronized (sigLock) {
                     if (halted.get()) {
                         break;
@@ -285,42 +389,67 @@ public class QuartzSchedulerThread extends Thread {
                 }
                 if(availThreadCount > 0) { // will always be true, due to semantics of blockForAvailableThreads...
 
-                    List<OperableTrigger> triggers;
+                    List<OperableTrigger> triggers = null;
+                    List<TriggerFiredResult> firedResults = null;
 
                     long now = System.currentTimeMillis();
 
-                    clearSignaledSchedulingChange();
-                    try {
-                        triggers = qsRsrcs.getJobStore().acquireNextTriggers(
-                                now + idleWaitTime, Math.min(availThreadCount, qsRsrcs.getMaxBatchSize()), qsRsrcs.getBatchTimeWindow());
-                        acquiresFailed = 0;
-                        if (log.isDebugEnabled())
-                            log.debug("batch acquisition of " + (triggers == null ? 0 : triggers.size()) + " triggers");
-                    } catch (JobPersistenceException jpe) {
-                        if (acquiresFailed == 0) {
-                            qs.notifySchedulerListenersError(
-                                "An error occurred while scanning for the next triggers to fire.",
-                                jpe);
-                        }
-                        if (acquiresFailed < Integer.MAX_VALUE)
-                            acquiresFailed++;
-                        continue;
-                    } catch (RuntimeException e) {
-                        if (acquiresFailed == 0) {
-                            getLog().error("quartzSchedulerThreadLoop: RuntimeException "
-                                    +e.getMessage(), e);
+                    if (prefetchedTriggers != null) {
+                        triggers = takePrefetchedTriggers();
+                    }
+                    if (triggers == null) {
+                        clearSignaledSchedulingChange();
+                        try {
+                            JobStore jobStore = qsRsrcs.getJobStore();
+                            int maxCount = Math.min(availThreadCount, qsRsrcs.getMaxBatchSize());
+                            long acquireStart = System.nanoTime();
+                            if (jobStore instanceof FusedFiringJobStore && ((FusedFiringJobStore) jobStore).isFusedFiring()) {
+                                // triggers this close to due would be fired right away
+                                AcquiredTriggers acquired = ((FusedFiringJobStore) jobStore).acquireAndFireNextTriggers(
+                                        now + idleWaitTime, maxCount, qsRsrcs.getBatchTimeWindow(), now + 2, shard);
+                                triggers = acquired.getTriggers();
+                                firedResults = acquired.getFiredResults();
+                            } else {
+                                triggers = acquireNextTriggers(jobStore,
+                                        now + idleWaitTime, maxCount, qsRsrcs.getBatchTimeWindow());
+                            }
+                            acquiresFailed = 0;
+                            if (tuner != null) {
+                                tuner.triggersAcquired(maxCount, (triggers == null) ? 0 : triggers.size(),
+                                        System.nanoTime() - acquireStart);
+                            }
+                            if (log.isDebugEnabled())
+                                log.debug("batch acquisition of " + (triggers == null ? 0 : triggers.size()) + " triggers");
+                        } catch (JobPersistenceException jpe) {
+                            if (acquiresFailed == 0) {
+                                qs.notifySchedulerListenersError(
+                                    "An error occurred while scanning for the next triggers to fire.",
+                                    jpe);
+                            }
+                            if (acquiresFailed < Integer.MAX_VALUE)
+                                acquiresFailed++;
+                            continue;
+                        } catch (RuntimeException e) {
+                            if (acquiresFailed == 0) {
+                                getLog().error("quartzSchedulerThreadLoop: RuntimeException "
+                                        +e.getMessage(), e);
+                            }
+                            if (acquiresFailed < Integer.MAX_VALUE)
+                                acquiresFailed++;
+                            continue;
                         }
-                        if (acquiresFailed < Integer.MAX_VALUE)
-                            acquiresFailed++;
-                        continue;
                     }
 
                     if (triggers != null && !triggers.isEmpty()) {
 
+                        if (prefetchExecutor != null) {
+                            startPrefetch(Math.min(availThreadCount - triggers.size(), qsRsrcs.getMaxBatchSize()));
+                        }
+
                         now = System.currentTimeMillis();
                         long triggerTime = triggers.get(0).getNextFireTime().getTime();
                         long timeUntilTrigger = triggerTime - now;
-                        while(timeUntilTrigger > 2) {
+                        while(timeUntilTrigger > 2 && firedResults == null) {
                             synchronized (sigLock) {
                                 if (halted.get()) {
                                     break;
@@ -360,7 +489,10 @@ public class QuartzSchedulerThread extends Thread {
                         synchronized(sigLock) {
                             goAhead = !halted.get();
                         }
-                        if(goAhead) {
+                        if (firedResults != null) {
+                            // already fired, together with their acquisition
+                            bndles = firedResults;
+                        } else if(goAhead) {
                             try {
                                 List<TriggerFiredResult> res = qsRsrcs.getJobStore().triggersFired(triggers);
                                 if(res != null)
@@ -374,9 +506,20 @@ public class QuartzSchedulerThread extends Thread {
                                 for (int i = 0; i < triggers.size(); i++) {
                                     qsRsrcs.getJobStore().releaseAcquiredTrigger(triggers.get(i));
                                 }
+                                releasePrefetchedTriggers();
                                 continue;
                             }
 
+                            // repeating triggers may now be due before the
+                            // prefetched batch, treat them as a schedule change
+                            if (prefetchedTriggers != null) {
+                                for (TriggerFiredResult result : bndles) {
+                                    TriggerFiredBundle bndle = result.getTriggerFiredBundle();
+                                    if (bndle != null && bndle.getNextFireTime() != null) {
+                                        notePrefetchScheduleChange(bndle.getNextFireTime().getTime());
+                                    }
+                                }
+                            }
                         }
 
                         for (int i = 0; i < bndles.size(); i++) {
@@ -398,6 +541,10 @@ public class QuartzSchedulerThread extends Thread {
                                 continue;
                             }
 
+                            if (tuner != null && bndle.getScheduledFireTime() != null) {
+                                tuner.triggerFired(bndle.getFireTime().getTime() - bndle.getScheduledFireTime().getTime());
+                            }
+
                             JobRunShell shell = null;
                             try {
                                 shell = qsRsrcs.getJobRunShellFactory().createJobRunShell(bndle);
@@ -407,7 +554,9 @@ public class QuartzSchedulerThread extends Thread {
                                 continue;
                             }
 
-                            if (qsRsrcs.getThreadPool().runInThread(shell) == false) {
+                            // jobs routed to a named pool run there, even if
+                            // the job store cannot shard loops by pool
+                            if (qsRsrcs.getThreadPool(bndle.getJobDetail().getKey()).runInThread(shell) == false) {
                                 // this case should never happen, as it is indicative of the
                                 // scheduler being shutdown or a bug in the thread pool or
                                 // a thread pool being used concurrently - which the docs
@@ -448,6 +597,11 @@ public class QuartzSchedulerThread extends Thread {
             }
         } // while (!halted)
 
+        if (prefetchExecutor != null) {
+            releasePrefetchedTriggers();
+            prefetchExecutor.shutdown();
+        }
+
         // drop references to scheduler stuff to aid garbage collection...
         qs = null;
         qsRsrcs = null;
@@ -484,11 +638,129 @@ public class QuartzSchedulerThread extends Thread {
                 qsRsrcs.getJobStore().releaseAcquiredTrigger(trigger);
             }
             triggers.clear();
+            // the prefetched batch was acquired behind the ones just released
+            releasePrefetchedTriggers();
             return true;
         }
         return false;
     }
 
+    /**
+     * Acquire the batch following the one currently held, on the prefetch
+     * thread, honoring the same time window as a synchronous acquisition.
+     */
+    private void startPrefetch(final int maxCount) {
+        if (maxCount <= 0) {
+            return;
+        }
+
+        synchronized(sigLock) {
+            prefetchSignaled = false;
+            prefetchSignaledNextFireTime = 0;
+        }
+
+        final JobStore jobStore = qsRsrcs.getJobStore();
+        final long timeWindow = qsRsrcs.getBatchTimeWindow();
+        final long noLaterThanOffset = idleWaitTime;
+        prefetchedTriggers = prefetchExecutor.submit(new Callable<List<OperableTrigger>>() {
+            public List<OperableTrigger> call() throws JobPersistenceException {
+                return acquireNextTriggers(jobStore,
+                        System.currentTimeMillis() + noLaterThanOffset, maxCount, timeWindow);
+            }
+        });
+    }
+
+    /**
+     * Acquire the next triggers of this loop's shard, or of all triggers if
+     * this is the only loop.
+     */
+    private List<OperableTrigger> acquireNextTriggers(JobStore jobStore, long noLaterThan, int maxCount,
+            long timeWindow) throws JobPersistenceException {
+        if (shard != null) {
+            return ((ShardedJobStore) jobStore).acquireNextTriggers(noLaterThan, maxCount, timeWindow, shard);
+        }
+        return jobStore.acquireNextTriggers(noLaterThan, maxCount, timeWindow);
+    }
+
+    /**
+     * Hand over the prefetched batch, or <code>null</code> if there is nothing
+     * usable and the caller should acquire synchronously.
+     */
+    private List<OperableTrigger> takePrefetchedTriggers() {
+        List<OperableTrigger> triggers = awaitPrefetchedTriggers();
+        if (triggers == null || triggers.isEmpty()) {
+            return null;
+        }
+
+        long firstFireTime = triggers.get(0).getNextFireTime().getTime();
+        boolean stale;
+        synchronized(sigLock) {
+            stale = prefetchSignaled
+                    && (prefetchSignaledNextFireTime == 0 || prefetchSignaledNextFireTime < firstFireTime);
+            if (stale) {
+                // only worth it if there is time left to acquire again, see
+                // isCandidateNewTimeEarlierWithinReason()
+                long diff = firstFireTime - System.currentTimeMillis();
+                if (diff < (qsRsrcs.getJobStore().supportsPersistence() ? 70L : 7L))
+                    stale = false;
+            }
+            if (!stale) {
+                // anything signaled since the prefetch started is accounted for
+                clearSignaledSchedulingChange();
+            }
+        }
+
+        if (stale) {
+            if (log.isDebugEnabled())
+                log.debug("releasing " + triggers.size() + " prefetched triggers due to a schedule change");
+            for (OperableTrigger trigger : triggers) {
+                qsRsrcs.getJobStore().releaseAcquiredTrigger(trigger);
+            }
+            return null;
+        }
+
+        if (log.isDebugEnabled())
+            log.debug("pipelined batch acquisition of " + triggers.size() + " triggers");
+        return triggers;
+    }
+
+    private void releasePrefetchedTriggers() {
+        List<OperableTrigger> triggers = awaitPrefetchedTriggers();
+        if (triggers == null) {
+            return;
+        }
+        for (OperableTrigger trigger : triggers) {
+            try {
+                qsRsrcs.getJobStore().releaseAcquiredTrigger(trigger);
+            } catch (RuntimeException e) {
+                getLog().error("Failed to release prefetched trigger " + trigger.getKey(), e);
+            }
+        }
+    }
+
+    /**
+     * Wait for the pending prefetch, if any, to complete. The acquisition
+     * cannot be abandoned half way, so interrupts are ignored here.
+     */
+    private List<OperableTrigger> awaitPrefetchedTriggers() {
+        Future<List<OperableTrigger>> future = prefetchedTriggers;
+        prefetchedTriggers = null;
+        if (future == null) {
+            return null;
+        }
+
+        while (true) {
+            try {
+                return future.get();
+            } catch (InterruptedException ignore) {
+            } catch (ExecutionException e) {
+                // the synchronous acquisition that follows reports the problem
+                getLog().debug("Prefetching the next triggers failed.", e.getCause());
+                return null;
+            }
+        }
+    }
+
     private boolean isCandidateNewTimeEarlierWithinReason(long oldTime, boolean clearSignal) {
 
         // So here's the deal: We know due to being signaled that 'the schedule'
@@ -540,4 +812,23 @@ public class QuartzSchedulerThread extends Thread {
         return log;
     }
 
+    private static class PrefetchThreadFactory implements ThreadFactory {
+
+        private final ThreadGroup threadGroup;
+        private final String threadName;
+        private final boolean daemon;
+
+        PrefetchThreadFactory(ThreadGroup threadGroup, String threadName, boolean daemon) {
+            this.threadGroup = threadGroup;
+            this.threadName = threadName;
+            this.daemon = daemon;
+        }
+
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(threadGroup, r, threadName);
+            t.setDaemon(daemon);
+            return t;
+        }
+    }
+
 } // end of QuartzSchedulerThread
@@ -1,8 +1,14 @@
 package org.quartz.core;
 
+import java.util.Map;
+
 public interface SampledStatistics {
     long getJobsScheduledMostRecentSample();
     long getJobsExecutingMostRecentSample();
     long getJobsCompletedMostRecentSample();
+    /**
+     * Latency histograms of the executions of jobs, by job group.
+     */
+    Map<String, JobLatencyStatistics> getJobLatencyStatistics();
     void shutdown();
 }
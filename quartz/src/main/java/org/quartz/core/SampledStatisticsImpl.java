@@ -1,6 +1,9 @@
 package org.quartz.core;
 
+import java.util.Collections;
+import java.util.Map;
 import java.util.Timer;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.quartz.JobDetail;
 import org.quartz.JobExecutionContext;
@@ -34,6 +37,8 @@ public class SampledStatisticsImpl extends SchedulerListenerSupport implements S
     private final SampledCounter jobsScheduledCount;
     private final SampledCounter jobsExecutingCount;
     private final SampledCounter jobsCompletedCount;
+    private final ConcurrentHashMap<String, JobLatencyStatistics> jobLatencyStatistics =
+        new ConcurrentHashMap<String, JobLatencyStatistics>();
     
     SampledStatisticsImpl(QuartzScheduler scheduler) {
         this.scheduler = scheduler;
@@ -62,6 +67,9 @@ public class SampledStatisticsImpl extends SchedulerListenerSupport implements S
         jobsScheduledCount.getAndReset();
         jobsExecutingCount.getAndReset();
         jobsCompletedCount.getAndReset();
+        for (JobLatencyStatistics statistics : jobLatencyStatistics.values()) {
+            statistics.reset();
+        }
     }
     
     public long getJobsCompletedMostRecentSample() {
@@ -76,6 +84,23 @@ public class SampledStatisticsImpl extends SchedulerListenerSupport implements S
         return jobsScheduledCount.getMostRecentSample().getCounterValue();
     }
 
+    public Map<String, JobLatencyStatistics> getJobLatencyStatistics() {
+        return Collections.unmodifiableMap(jobLatencyStatistics);
+    }
+
+    private JobLatencyStatistics getJobLatencyStatistics(JobExecutionContext context) {
+        String group = context.getJobDetail().getKey().getGroup();
+        JobLatencyStatistics statistics = jobLatencyStatistics.get(group);
+        if (statistics == null) {
+            JobLatencyStatistics created = new JobLatencyStatistics();
+            statistics = jobLatencyStatistics.putIfAbsent(group, created);
+            if (statistics == null) {
+                statistics = created;
+            }
+        }
+        return statistics;
+    }
+
     public String getName() {
         return NAME;
     }
@@ -91,11 +116,14 @@ public class SampledStatisticsImpl extends SchedulerListenerSupport implements S
 
     public void jobToBeExecuted(JobExecutionContext context) {
         jobsExecutingCount.increment();
+        getJobLatencyStatistics(context).recordExecutionStart(
+            context.getScheduledFireTime(), context.getFireTime(), System.currentTimeMillis());
     }
 
     public void jobWasExecuted(JobExecutionContext context,
             JobExecutionException jobException) {
         jobsCompletedCount.increment();
+        getJobLatencyStatistics(context).recordExecutionTime(context.getJobRunTime());
     }
 
     @Override
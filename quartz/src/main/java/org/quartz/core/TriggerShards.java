@@ -0,0 +1,182 @@
+
+/* 
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright Super iPaaS Integration LLC, an IBM Company 2024
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not 
+ * use this file except in compliance with the License. You may obtain a copy 
+ * of the License at 
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0 
+ *   
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations 
+ * under the License.
+ * 
+ */
+
+package org.quartz.core;
+
+import static org.quartz.impl.matchers.AndMatcher.and;
+import static org.quartz.impl.matchers.NotMatcher.not;
+import static org.quartz.impl.matchers.OrMatcher.or;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.quartz.JobKey;
+import org.quartz.Matcher;
+import org.quartz.TriggerKey;
+import org.quartz.impl.matchers.GroupMatcher;
+import org.quartz.spi.TriggerShard;
+
+/**
+ * <p>
+ * Divides the triggers of a scheduler between its scheduling loops, by
+ * trigger group.
+ * </p>
+ * 
+ * <p>
+ * A loop can be given trigger groups of its own: group names, or group name
+ * prefixes ending with <code>*</code>.  A group given to more than one loop
+ * belongs to the first of them.  All other groups are spread over the loops
+ * that were given none, by the hash of the group name; if every loop was
+ * given groups, the first loop takes all other groups as well.
+ * </p>
+ * 
+ * <p>
+ * When jobs are routed to named thread pools, each pool gets a loop of its
+ * own after the others, acquiring the triggers of every group whose job is
+ * routed to it; a job routed to more than one pool belongs to the first of
+ * them.  The other loops then only acquire the triggers of jobs routed to
+ * no pool.
+ * </p>
+ */
+class TriggerShards {
+
+    private TriggerShards() {
+    }
+
+    /**
+     * Create the shards of the given number of scheduling loops.
+     * 
+     * @param loopTriggerGroups the trigger groups given to each loop, by loop
+     *          index, for the loops that were given any.
+     */
+    static List<TriggerShard> create(int loops, Map<Integer, List<String>> loopTriggerGroups) {
+        return create(loops, loopTriggerGroups, Collections.<Matcher<JobKey>>emptyList());
+    }
+
+    /**
+     * Create the shards of the given number of scheduling loops, followed by
+     * one for each of the given thread pool routes.
+     * 
+     * @param loopTriggerGroups the trigger groups given to each loop, by loop
+     *          index, for the loops that were given any.
+     * @param poolRoutes the jobs routed to each named thread pool, in order.
+     */
+    static List<TriggerShard> create(int loops, Map<Integer, List<String>> loopTriggerGroups,
+            List<Matcher<JobKey>> poolRoutes) {
+        for (Integer i : loopTriggerGroups.keySet()) {
+            if (i < 0 || i >= loops) {
+                throw new IllegalArgumentException("Trigger groups given to scheduling loop " + i
+                        + ", but there are only " + loops + " loops.");
+            }
+        }
+
+        List<Matcher<TriggerKey>> given = new ArrayList<Matcher<TriggerKey>>(loops);
+        List<Integer> hashed = new ArrayList<Integer>();
+        Matcher<TriggerKey> claimed = null;
+        for (int i = 0; i < loops; i++) {
+            List<String> groups = loopTriggerGroups.get(i);
+            if (groups == null || groups.isEmpty()) {
+                given.add(null);
+                hashed.add(i);
+                continue;
+            }
+            Matcher<TriggerKey> matcher = groupsMatcher(groups);
+            given.add((claimed == null) ? matcher : and(matcher, not(claimed)));
+            claimed = (claimed == null) ? matcher : or(claimed, matcher);
+        }
+
+        List<Matcher<JobKey>> routed = new ArrayList<Matcher<JobKey>>(poolRoutes.size());
+        Matcher<JobKey> anyRouted = null;
+        for (Matcher<JobKey> route : poolRoutes) {
+            routed.add((anyRouted == null) ? route : and(route, not(anyRouted)));
+            anyRouted = (anyRouted == null) ? route : or(anyRouted, route);
+        }
+        Matcher<JobKey> unrouted = (anyRouted == null) ? null : not(anyRouted);
+
+        int shardCount = loops + routed.size();
+        List<TriggerShard> shards = new ArrayList<TriggerShard>(shardCount);
+        for (int i = 0; i < loops; i++) {
+            Matcher<TriggerKey> matcher = given.get(i);
+            if (matcher == null) {
+                Matcher<TriggerKey> hash = new GroupHashMatcher(hashed.indexOf(i), hashed.size());
+                matcher = (claimed == null) ? hash : and(hash, not(claimed));
+            } else if (i == 0 && hashed.isEmpty()) {
+                matcher = or(matcher, not(claimed));
+            }
+            shards.add(new TriggerShard(i, shardCount, matcher, unrouted));
+        }
+        for (int i = 0; i < routed.size(); i++) {
+            shards.add(new TriggerShard(loops + i, shardCount, GroupMatcher.anyTriggerGroup(), routed.get(i)));
+        }
+        return shards;
+    }
+
+    private static Matcher<TriggerKey> groupsMatcher(List<String> groups) {
+        Matcher<TriggerKey> matcher = null;
+        for (String group : groups) {
+            Matcher<TriggerKey> groupMatcher = group.endsWith("*")
+                ? GroupMatcher.triggerGroupStartsWith(group.substring(0, group.length() - 1))
+                : GroupMatcher.triggerGroupEquals(group);
+            matcher = (matcher == null) ? groupMatcher : or(matcher, groupMatcher);
+        }
+        return matcher;
+    }
+
+    /**
+     * Matches the triggers whose group name hashes to the given bucket.
+     */
+    static class GroupHashMatcher implements Matcher<TriggerKey> {
+
+        private static final long serialVersionUID = 4125374640651924262L;
+
+        private final int bucket;
+
+        private final int buckets;
+
+        GroupHashMatcher(int bucket, int buckets) {
+            this.bucket = bucket;
+            this.buckets = buckets;
+        }
+
+        public boolean isMatch(TriggerKey key) {
+            return (key.getGroup().hashCode() & Integer.MAX_VALUE) % buckets == bucket;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * bucket + buckets;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof GroupHashMatcher)) {
+                return false;
+            }
+            GroupHashMatcher other = (GroupHashMatcher) obj;
+            return bucket == other.bucket && buckets == other.buckets;
+        }
+
+        @Override
+        public String toString() {
+            return "group hash " + bucket + " of " + buckets;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+
+/* 
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright Super iPaaS Integration LLC, an IBM Company 2024
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not 
+ * use this file except in compliance with the License. You may obtain a copy 
+ * of the License at 
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0 
+ *   
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations 
+ * under the License.
+ * 
+ */
+
+package org.quartz.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.quartz.JobPersistenceException;
+import org.quartz.spi.BatchingJobStore;
+import org.quartz.spi.JobStore;
+import org.quartz.spi.OperableTrigger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * Groups the new triggers that concurrent callers store within a short
+ * window into one <code>{@link BatchingJobStore#storeTriggers(List)}</code>
+ * call, so that they share one transaction and one acquisition of the
+ * trigger lock, rather than taking one each.
+ * </p>
+ * 
+ * <p>
+ * The first caller of a window waits for it to pass (or for the batch to
+ * fill up) and then stores the batch; the others wait for it to be stored.
+ * Every caller gets the outcome of its own trigger.  If the batch as a whole
+ * fails, its triggers are stored one by one.
+ * </p>
+ */
+class TriggerWriteCoalescer {
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final JobStore jobStore;
+
+    private final long windowMillis;
+
+    private final int maxBatchSize;
+
+    private final Object lock = new Object();
+
+    private List<PendingWrite> pending = new ArrayList<PendingWrite>();
+
+    TriggerWriteCoalescer(JobStore jobStore, long windowMillis, int maxBatchSize) {
+        if (!(jobStore instanceof BatchingJobStore)) {
+            throw new IllegalArgumentException("JobStore does not support batched writes: " + jobStore.getClass());
+        }
+        this.jobStore = jobStore;
+        this.windowMillis = windowMillis;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+    }
+
+    /**
+     * Store the given new trigger, as
+     * <code>JobStore.storeTrigger(newTrigger, false)</code> would, together
+     * with the triggers other threads are storing at the same time.
+     */
+    void storeTrigger(OperableTrigger newTrigger) throws JobPersistenceException {
+        PendingWrite write = new PendingWrite(newTrigger);
+        List<PendingWrite> batch = null;
+        synchronized (lock) {
+            pending.add(write);
+            if (pending.size() == 1) {
+                long deadline = System.currentTimeMillis() + windowMillis;
+                long wait = windowMillis;
+                while (pending.size() < maxBatchSize && wait > 0) {
+                    try {
+                        lock.wait(wait);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    }
+                    wait = deadline - System.currentTimeMillis();
+                }
+                batch = pending;
+                pending = new ArrayList<PendingWrite>();
+            } else if (pending.size() >= maxBatchSize) {
+                lock.notifyAll();
+            }
+        }
+
+        if (batch != null) {
+            store(batch);
+        }
+        write.await();
+    }
+
+    private void store(List<PendingWrite> batch) {
+        if (batch.size() > 1) {
+            List<OperableTrigger> triggers = new ArrayList<OperableTrigger>(batch.size());
+            for (PendingWrite write : batch) {
+                triggers.add(write.trigger);
+            }
+            try {
+                List<JobPersistenceException> results = ((BatchingJobStore) jobStore).storeTriggers(triggers);
+                for (int i = 0; i < batch.size(); i++) {
+                    batch.get(i).complete(results.get(i));
+                }
+                return;
+            } catch (JobPersistenceException e) {
+                log.debug("Storing " + batch.size() + " triggers together failed, storing them one by one: "
+                        + e.getMessage());
+            } catch (RuntimeException e) {
+                log.debug("Storing " + batch.size() + " triggers together failed, storing them one by one: "
+                        + e.getMessage());
+            }
+        }
+
+        for (PendingWrite write : batch) {
+            try {
+                jobStore.storeTrigger(write.trigger, false);
+                write.complete(null);
+            } catch (JobPersistenceException e) {
+                write.complete(e);
+            } catch (RuntimeException e) {
+                write.complete(new JobPersistenceException("Couldn't store trigger '" + write.trigger.getKey()
+                        + "': " + e.getMessage(), e));
+            }
+        }
+    }
+
+    private static class PendingWrite {
+        private final OperableTrigger trigger;
+        private final CountDownLatch stored = new CountDownLatch(1);
+        private volatile JobPersistenceException failure;
+
+        PendingWrite(OperableTrigger trigger) {
+            this.trigger = trigger;
+        }
+
+        void complete(JobPersistenceException failure) {
+            this.failure = failure;
+            stored.countDown();
+        }
+
+        void await() throws JobPersistenceException {
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    stored.await();
+                    break;
+                } catch (InterruptedException e) {
+                    // the trigger is stored or not by now regardless
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+}
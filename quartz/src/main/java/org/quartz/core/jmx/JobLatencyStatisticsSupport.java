@@ -0,0 +1,100 @@
+package org.quartz.core.jmx;
+
+import static javax.management.openmbean.SimpleType.LONG;
+import static javax.management.openmbean.SimpleType.STRING;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.CompositeDataSupport;
+import javax.management.openmbean.CompositeType;
+import javax.management.openmbean.OpenDataException;
+import javax.management.openmbean.OpenType;
+import javax.management.openmbean.TabularData;
+import javax.management.openmbean.TabularDataSupport;
+import javax.management.openmbean.TabularType;
+
+import org.quartz.core.JobLatencyStatistics;
+import org.quartz.utils.counter.LatencyHistogram;
+
+public class JobLatencyStatisticsSupport {
+    private static final String COMPOSITE_TYPE_NAME = "JobLatencyStatistics";
+    private static final String COMPOSITE_TYPE_DESCRIPTION = "Job Group Latencies (milliseconds)";
+    private static final String[] HISTOGRAM_NAMES = new String[] {
+            "fireLateness", "dispatchDelay", "executionTime" };
+    private static final String[] STATISTIC_NAMES = new String[] {
+            "Count", "Mean", "P50", "P90", "P99", "Max" };
+    private static final String[] ITEM_NAMES;
+    private static final OpenType[] ITEM_TYPES;
+    private static final CompositeType COMPOSITE_TYPE;
+    private static final String TABULAR_TYPE_NAME = "JobLatencyStatisticsArray";
+    private static final String TABULAR_TYPE_DESCRIPTION = "Array of composite JobLatencyStatistics";
+    private static final String[] INDEX_NAMES = new String[] { "jobGroup" };
+    private static final TabularType TABULAR_TYPE;
+
+    static {
+        ITEM_NAMES = new String[1 + HISTOGRAM_NAMES.length * STATISTIC_NAMES.length];
+        ITEM_TYPES = new OpenType[ITEM_NAMES.length];
+        ITEM_NAMES[0] = "jobGroup";
+        ITEM_TYPES[0] = STRING;
+        int i = 1;
+        for (String histogram : HISTOGRAM_NAMES) {
+            for (String statistic : STATISTIC_NAMES) {
+                ITEM_NAMES[i] = histogram + statistic;
+                ITEM_TYPES[i] = LONG;
+                i++;
+            }
+        }
+        try {
+            COMPOSITE_TYPE = new CompositeType(COMPOSITE_TYPE_NAME,
+                    COMPOSITE_TYPE_DESCRIPTION, ITEM_NAMES, ITEM_NAMES,
+                    ITEM_TYPES);
+            TABULAR_TYPE = new TabularType(TABULAR_TYPE_NAME,
+                    TABULAR_TYPE_DESCRIPTION, COMPOSITE_TYPE, INDEX_NAMES);
+        } catch (OpenDataException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * @return composite data
+     */
+    public static CompositeData toCompositeData(String jobGroup,
+            JobLatencyStatistics statistics) {
+        Object[] values = new Object[ITEM_NAMES.length];
+        values[0] = jobGroup;
+        int i = 1;
+        for (LatencyHistogram histogram : new LatencyHistogram[] {
+                statistics.getFireLateness(), statistics.getDispatchDelay(),
+                statistics.getExecutionTime() }) {
+            values[i++] = histogram.getCount();
+            values[i++] = histogram.getMean(TimeUnit.MILLISECONDS);
+            values[i++] = histogram.getPercentile(0.5, TimeUnit.MILLISECONDS);
+            values[i++] = histogram.getPercentile(0.9, TimeUnit.MILLISECONDS);
+            values[i++] = histogram.getPercentile(0.99, TimeUnit.MILLISECONDS);
+            values[i++] = histogram.getMax(TimeUnit.MILLISECONDS);
+        }
+        try {
+            return new CompositeDataSupport(COMPOSITE_TYPE, ITEM_NAMES, values);
+        } catch (OpenDataException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * @return array of job group latencies
+     */
+    public static TabularData toTabularData(
+            Map<String, JobLatencyStatistics> statistics) {
+        List<CompositeData> list = new ArrayList<CompositeData>();
+        for (Map.Entry<String, JobLatencyStatistics> entry : statistics.entrySet()) {
+            list.add(toCompositeData(entry.getKey(), entry.getValue()));
+        }
+        TabularData td = new TabularDataSupport(TABULAR_TYPE);
+        td.putAll(list.toArray(new CompositeData[list.size()]));
+        return td;
+    }
+}
@@ -60,6 +60,45 @@ public interface QuartzSchedulerMBean {
 
     Map<String, Long> getPerformanceMetrics();
 
+    /**
+     * Latency histograms by job group, in milliseconds: how late triggers
+     * fired compared to their scheduled fire time (fireLateness), how long
+     * fired jobs waited before starting to execute (dispatchDelay), and how
+     * long they ran (executionTime).  Only collected while sampled statistics
+     * are enabled.
+     * 
+     * @return TabularData of CompositeData:JobLatencyStatistics
+     */
+    TabularData getJobGroupLatencies();
+
+    /**
+     * Whether the batch size, batch time window and idle wait time are
+     * adjusted at runtime to the observed load.
+     */
+    boolean isAdaptiveTuningEnabled();
+
+    /**
+     * The current most triggers acquired at once.
+     */
+    int getBatchTriggerAcquisitionMaxCount();
+
+    /**
+     * The current time window, in milliseconds, within which triggers are
+     * acquired and fired ahead of their scheduled fire time.
+     */
+    long getBatchTriggerAcquisitionFireAheadTimeWindow();
+
+    /**
+     * The current idle wait time, in milliseconds.
+     */
+    long getIdleWaitTime();
+
+    /**
+     * The most recent adjustments made by adaptive tuning, most recent
+     * first, with the observations that led to them.
+     */
+    List<String> getAdaptiveTuningDecisions();
+
     /**
      * @return TabularData of CompositeData:JobExecutionContext
      * @throws Exception
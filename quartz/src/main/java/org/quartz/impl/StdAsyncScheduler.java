@@ -0,0 +1,475 @@
+/* 
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright Super iPaaS Integration LLC, an IBM Company 2024
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not 
+ * use this file except in compliance with the License. You may obtain a copy 
+ * of the License at 
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0 
+ *   
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations 
+ * under the License.
+ * 
+ */
+
+package org.quartz.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.quartz.AsyncScheduler;
+import org.quartz.JobDataMap;
+import org.quartz.JobDetail;
+import org.quartz.JobKey;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.Trigger;
+import org.quartz.Trigger.TriggerState;
+import org.quartz.TriggerKey;
+import org.quartz.impl.matchers.GroupMatcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * An <code>AsyncScheduler</code> that runs the operations of a
+ * <code>Scheduler</code> on its own fixed-size pool of daemon threads, with
+ * a bounded queue.
+ * </p>
+ * 
+ * <p>
+ * Calls of <code>scheduleJob(JobDetail, Trigger)</code> that arrive while
+ * earlier ones are still waiting for a thread are stored together, with a
+ * single <code>scheduleJobs</code> call, so a burst of them takes a few
+ * transactions rather than one each.  If that fails, for example because
+ * one of the jobs already exists, each of them is retried on its own, so
+ * that every future gets the outcome of its own call.
+ * </p>
+ * 
+ * @see StdScheduler#getAsyncScheduler()
+ */
+public class StdAsyncScheduler implements AsyncScheduler {
+
+    /*
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     * 
+     * Constants.
+     * 
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     */
+
+    public static final int DEFAULT_THREAD_COUNT = 4;
+
+    public static final int DEFAULT_QUEUE_SIZE = 1000;
+
+    public static final int DEFAULT_MAX_BATCH_SIZE = 100;
+
+    /*
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     * 
+     * Data members.
+     * 
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     */
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final Scheduler scheduler;
+
+    private final ThreadPoolExecutor executor;
+
+    private final int maxBatchSize;
+
+    private final ConcurrentLinkedQueue<PendingSchedule> pendingSchedules = new ConcurrentLinkedQueue<PendingSchedule>();
+
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+
+    private final Runnable drainPendingSchedules = new Runnable() {
+        public void run() {
+            try {
+                storePendingSchedules();
+            } finally {
+                drainScheduled.set(false);
+            }
+            // calls that arrived while the flag was still set
+            if (!pendingSchedules.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+    };
+
+    /*
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     * 
+     * Constructors.
+     * 
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     */
+
+    public StdAsyncScheduler(Scheduler scheduler) throws SchedulerException {
+        this(scheduler, DEFAULT_THREAD_COUNT, DEFAULT_QUEUE_SIZE, DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    /**
+     * @param threadCount the number of threads running operations
+     * @param queueSize the number of operations that may wait for a thread
+     * @param maxBatchSize the most <code>scheduleJob</code> calls stored
+     *          together
+     */
+    public StdAsyncScheduler(Scheduler scheduler, int threadCount, int queueSize, int maxBatchSize)
+        throws SchedulerException {
+        if (threadCount < 1 || queueSize < 1 || maxBatchSize < 1) {
+            throw new IllegalArgumentException(
+                "threadCount, queueSize and maxBatchSize must be positive.");
+        }
+        this.scheduler = scheduler;
+        this.maxBatchSize = maxBatchSize;
+
+        final String threadNamePrefix = scheduler.getSchedulerName() + "_AsyncIO-";
+        executor = new ThreadPoolExecutor(threadCount, threadCount, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(queueSize), new ThreadFactory() {
+                    private final AtomicInteger threadNumber = new AtomicInteger();
+
+                    public Thread newThread(Runnable r) {
+                        Thread t = new Thread(r, threadNamePrefix + threadNumber.incrementAndGet());
+                        t.setDaemon(true);
+                        return t;
+                    }
+                });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /*
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     * 
+     * Interface.
+     * 
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     */
+
+    public Scheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Stop accepting operations.  Those already queued are still run.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    public CompletableFuture<Date> scheduleJob(JobDetail jobDetail, Trigger trigger) {
+        PendingSchedule pending = new PendingSchedule(jobDetail, trigger);
+        pendingSchedules.add(pending);
+        scheduleDrain();
+        return pending.future;
+    }
+
+    public CompletableFuture<Date> scheduleJob(final Trigger trigger) {
+        return submit(new Callable<Date>() {
+            public Date call() throws SchedulerException {
+                return scheduler.scheduleJob(trigger);
+            }
+        });
+    }
+
+    public CompletableFuture<Void> scheduleJobs(final Map<JobDetail, Set<? extends Trigger>> triggersAndJobs,
+            final boolean replace) {
+        return submit(new Callable<Void>() {
+            public Void call() throws SchedulerException {
+                scheduler.scheduleJobs(triggersAndJobs, replace);
+                return null;
+            }
+        });
+    }
+
+    public CompletableFuture<Boolean> unscheduleJob(final TriggerKey triggerKey) {
+        return submit(new Callable<Boolean>() {
+            public Boolean call() throws SchedulerException {
+                return scheduler.unscheduleJob(triggerKey);
+            }
+        });
+    }
+
+    public CompletableFuture<Boolean> unscheduleJobs(final List<TriggerKey> triggerKeys) {
+        return submit(new Callable<Boolean>() {
+            public Boolean call() throws SchedulerException {
+                return scheduler.unscheduleJobs(triggerKeys);
+            }
+        });
+    }
+
+    public CompletableFuture<Date> rescheduleJob(final TriggerKey triggerKey, final Trigger newTrigger) {
+        return submit(new Callable<Date>() {
+            public Date call() throws SchedulerException {
+                return scheduler.rescheduleJob(triggerKey, newTrigger);
+            }
+        });
+    }
+
+    public CompletableFuture<Void> addJob(final JobDetail jobDetail, final boolean replace) {
+        return submit(new Callable<Void>() {
+            public Void call() throws SchedulerException {
+                scheduler.addJob(jobDetail, replace);
+                return null;
+            }
+        });
+    }
+
+    public CompletableFuture<Boolean> deleteJob(final JobKey jobKey) {
+        return submit(new Callable<Boolean>() {
+            public Boolean call() throws SchedulerException {
+                return scheduler.deleteJob(jobKey);
+            }
+        });
+    }
+
+    public CompletableFuture<Boolean> deleteJobs(final List<JobKey> jobKeys) {
+        return submit(new Callable<Boolean>() {
+            public Boolean call() throws SchedulerException {
+                return scheduler.deleteJobs(jobKeys);
+            }
+        });
+    }
+
+    public CompletableFuture<Void> triggerJob(final JobKey jobKey) {
+        return triggerJob(jobKey, null);
+    }
+
+    public CompletableFuture<Void> triggerJob(final JobKey jobKey, final JobDataMap data) {
+        return submit(new Callable<Void>() {
+            public Void call() throws SchedulerException {
+                scheduler.triggerJob(jobKey, data);
+                return null;
+            }
+        });
+    }
+
+    public CompletableFuture<Void> pauseJob(final JobKey jobKey) {
+        return submit(new Callable<Void>() {
+            public Void call() throws SchedulerException {
+                scheduler.pauseJob(jobKey);
+                return null;
+            }
+        });
+    }
+
+    public CompletableFuture<Void> resumeJob(final JobKey jobKey) {
+        return submit(new Callable<Void>() {
+            public Void call() throws SchedulerException {
+                scheduler.resumeJob(jobKey);
+                return null;
+            }
+        });
+    }
+
+    public CompletableFuture<Void> pauseTrigger(final TriggerKey triggerKey) {
+        return submit(new Callable<Void>() {
+            public Void call() throws SchedulerException {
+                scheduler.pauseTrigger(triggerKey);
+                return null;
+            }
+        });
+    }
+
+    public CompletableFuture<Void> resumeTrigger(final TriggerKey triggerKey) {
+        return submit(new Callable<Void>() {
+            public Void call() throws SchedulerException {
+                scheduler.resumeTrigger(triggerKey);
+                return null;
+            }
+        });
+    }
+
+    public CompletableFuture<JobDetail> getJobDetail(final JobKey jobKey) {
+        return submit(new Callable<JobDetail>() {
+            public JobDetail call() throws SchedulerException {
+                return scheduler.getJobDetail(jobKey);
+            }
+        });
+    }
+
+    public CompletableFuture<Trigger> getTrigger(final TriggerKey triggerKey) {
+        return submit(new Callable<Trigger>() {
+            public Trigger call() throws SchedulerException {
+                return scheduler.getTrigger(triggerKey);
+            }
+        });
+    }
+
+    public CompletableFuture<TriggerState> getTriggerState(final TriggerKey triggerKey) {
+        return submit(new Callable<TriggerState>() {
+            public TriggerState call() throws SchedulerException {
+                return scheduler.getTriggerState(triggerKey);
+            }
+        });
+    }
+
+    public CompletableFuture<List<? extends Trigger>> getTriggersOfJob(final JobKey jobKey) {
+        return submit(new Callable<List<? extends Trigger>>() {
+            public List<? extends Trigger> call() throws SchedulerException {
+                return scheduler.getTriggersOfJob(jobKey);
+            }
+        });
+    }
+
+    public CompletableFuture<Boolean> checkExists(final JobKey jobKey) {
+        return submit(new Callable<Boolean>() {
+            public Boolean call() throws SchedulerException {
+                return scheduler.checkExists(jobKey);
+            }
+        });
+    }
+
+    public CompletableFuture<Boolean> checkExists(final TriggerKey triggerKey) {
+        return submit(new Callable<Boolean>() {
+            public Boolean call() throws SchedulerException {
+                return scheduler.checkExists(triggerKey);
+            }
+        });
+    }
+
+    public CompletableFuture<Set<JobKey>> getJobKeys(final GroupMatcher<JobKey> matcher) {
+        return submit(new Callable<Set<JobKey>>() {
+            public Set<JobKey> call() throws SchedulerException {
+                return scheduler.getJobKeys(matcher);
+            }
+        });
+    }
+
+    public CompletableFuture<Set<TriggerKey>> getTriggerKeys(final GroupMatcher<TriggerKey> matcher) {
+        return submit(new Callable<Set<TriggerKey>>() {
+            public Set<TriggerKey> call() throws SchedulerException {
+                return scheduler.getTriggerKeys(matcher);
+            }
+        });
+    }
+
+    /*
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     * 
+     * Implementation.
+     * 
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     */
+
+    private <T> CompletableFuture<T> submit(final Callable<T> operation) {
+        final CompletableFuture<T> future = new CompletableFuture<T>();
+        try {
+            executor.execute(new Runnable() {
+                public void run() {
+                    try {
+                        future.complete(operation.call());
+                    } catch (Throwable t) {
+                        future.completeExceptionally(t);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(rejected(e));
+        }
+        return future;
+    }
+
+    private SchedulerException rejected(RejectedExecutionException e) {
+        return new SchedulerException(executor.isShutdown()
+                ? "The asynchronous scheduler has been shut down."
+                : "Too many asynchronous scheduler operations are waiting.", e);
+    }
+
+    /**
+     * Make sure one task is queued or running to store the pending
+     * <code>scheduleJob</code> calls.
+     */
+    private void scheduleDrain() {
+        if (!drainScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(drainPendingSchedules);
+        } catch (RejectedExecutionException e) {
+            drainScheduled.set(false);
+            SchedulerException se = rejected(e);
+            PendingSchedule pending;
+            while ((pending = pendingSchedules.poll()) != null) {
+                pending.future.completeExceptionally(se);
+            }
+        }
+    }
+
+    private void storePendingSchedules() {
+        List<PendingSchedule> batch = new ArrayList<PendingSchedule>();
+        List<PendingSchedule> alone = new ArrayList<PendingSchedule>();
+        Map<JobDetail, Set<? extends Trigger>> triggersAndJobs = new LinkedHashMap<JobDetail, Set<? extends Trigger>>();
+        Set<JobKey> jobKeys = new HashSet<JobKey>();
+
+        PendingSchedule pending;
+        while (batch.size() < maxBatchSize && (pending = pendingSchedules.poll()) != null) {
+            JobDetail job = pending.jobDetail;
+            Trigger trigger = pending.trigger;
+            // scheduleJobs() does not check these, and takes one set of
+            // triggers per job, so leave them to scheduleJob()
+            if (job == null || job.getKey() == null || job.getJobClass() == null || trigger == null
+                    || (trigger.getJobKey() != null && !trigger.getJobKey().equals(job.getKey()))
+                    || !jobKeys.add(job.getKey())) {
+                alone.add(pending);
+            } else {
+                triggersAndJobs.put(job, Collections.singleton(trigger));
+                batch.add(pending);
+            }
+        }
+
+        if (batch.size() > 1) {
+            try {
+                scheduler.scheduleJobs(triggersAndJobs, false);
+                for (PendingSchedule scheduled : batch) {
+                    scheduled.future.complete(scheduled.trigger.getNextFireTime());
+                }
+                batch.clear();
+            } catch (Throwable t) {
+                log.debug("Scheduling " + batch.size() + " jobs together failed, scheduling them one by one: "
+                        + t.getMessage());
+            }
+        }
+        alone.addAll(batch);
+
+        for (PendingSchedule schedule : alone) {
+            try {
+                schedule.future.complete(scheduler.scheduleJob(schedule.jobDetail, schedule.trigger));
+            } catch (Throwable t) {
+                schedule.future.completeExceptionally(t);
+            }
+        }
+    }
+
+    private static class PendingSchedule {
+        private final JobDetail jobDetail;
+        private final Trigger trigger;
+        private final CompletableFuture<Date> future = new CompletableFuture<Date>();
+
+        PendingSchedule(JobDetail jobDetail, Trigger trigger) {
+            this.jobDetail = jobDetail;
+            this.trigger = trigger;
+        }
+    }
+}
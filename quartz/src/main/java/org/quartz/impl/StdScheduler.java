@@ -23,6 +23,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import org.quartz.AsyncScheduler;
 import org.quartz.Calendar;
 import org.quartz.JobDataMap;
 import org.quartz.JobDetail;
@@ -65,6 +66,8 @@ public class StdScheduler implements Scheduler {
 
     private QuartzScheduler sched;
 
+    private StdAsyncScheduler asyncScheduler;
+
     /*
      * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
      * 
@@ -196,6 +199,7 @@ public class StdScheduler implements Scheduler {
      */
     public void shutdown() {
         sched.shutdown();
+        shutdownAsyncScheduler();
     }
 
     /**
@@ -205,6 +209,27 @@ public class StdScheduler implements Scheduler {
      */
     public void shutdown(boolean waitForJobsToComplete) {
         sched.shutdown(waitForJobsToComplete);
+        shutdownAsyncScheduler();
+    }
+
+    /**
+     * <p>
+     * Returns a non-blocking view of this <code>Scheduler</code>, which runs
+     * its operations on a small pool of I/O threads that is created on first
+     * use, and stopped when the <code>Scheduler</code> is shut down.
+     * </p>
+     */
+    public synchronized AsyncScheduler getAsyncScheduler() throws SchedulerException {
+        if (asyncScheduler == null) {
+            asyncScheduler = new StdAsyncScheduler(this);
+        }
+        return asyncScheduler;
+    }
+
+    private synchronized void shutdownAsyncScheduler() {
+        if (asyncScheduler != null) {
+            asyncScheduler.shutdown();
+        }
     }
 
     /**
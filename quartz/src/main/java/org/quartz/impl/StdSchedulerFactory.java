@@ -18,7 +18,9 @@
 
 package org.quartz.impl;
 
+import org.quartz.JobKey;
 import org.quartz.JobListener;
+import org.quartz.Matcher;
 import org.quartz.Scheduler;
 import org.quartz.SchedulerConfigException;
 import org.quartz.SchedulerException;
@@ -34,9 +36,12 @@ import org.quartz.impl.jdbcjobstore.JobStoreSupport;
 import org.quartz.impl.jdbcjobstore.Semaphore;
 import org.quartz.impl.jdbcjobstore.TablePrefixAware;
 import org.quartz.impl.matchers.EverythingMatcher;
+import org.quartz.impl.matchers.GroupMatcher;
+import org.quartz.impl.matchers.OrMatcher;
 import org.quartz.management.ManagementRESTServiceConfiguration;
 import org.quartz.simpl.RAMJobStore;
 import org.quartz.simpl.SimpleThreadPool;
+import org.quartz.simpl.VirtualThreadPool;
 import org.quartz.spi.ClassLoadHelper;
 import org.quartz.spi.InstanceIdGenerator;
 import org.quartz.spi.JobFactory;
@@ -65,10 +70,17 @@ import java.io.InputStream;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.security.AccessControlException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
 
 /**
  * <p>
@@ -147,6 +159,40 @@ public class StdSchedulerFactory implements SchedulerFactory {
 
     public static final String PROP_SCHED_MAX_BATCH_SIZE = "org.quartz.scheduler.batchTriggerAcquisitionMaxCount";
 
+    public static final String PROP_SCHED_BATCH_PIPELINED = "org.quartz.scheduler.batchTriggerAcquisitionPipelined";
+
+    public static final String PROP_SCHED_TRIGGER_WRITE_COALESCING_WINDOW = "org.quartz.scheduler.triggerWriteCoalescingWindow";
+
+    public static final String PROP_SCHED_TRIGGER_WRITE_COALESCING_MAX_COUNT = "org.quartz.scheduler.triggerWriteCoalescingMaxCount";
+
+    public static final String PROP_SCHED_JOB_COMPLETION_BATCH_WINDOW = "org.quartz.scheduler.jobCompletionBatchWindow";
+
+    public static final String PROP_SCHED_JOB_COMPLETION_BATCH_MAX_COUNT = "org.quartz.scheduler.jobCompletionBatchMaxCount";
+
+    public static final String PROP_SCHED_SCHEDULING_LOOPS = "org.quartz.scheduler.schedulingLoops";
+
+    public static final String PROP_SCHED_SCHEDULING_LOOP_PREFIX = "org.quartz.scheduler.schedulingLoop";
+
+    public static final String PROP_SCHED_SCHEDULING_LOOP_TRIGGER_GROUPS = "triggerGroups";
+
+    public static final String PROP_SCHED_ADAPTIVE_TUNING = "org.quartz.scheduler.adaptiveTuning.enabled";
+
+    public static final String PROP_SCHED_ADAPTIVE_TUNING_INTERVAL = "org.quartz.scheduler.adaptiveTuning.interval";
+
+    public static final String PROP_SCHED_ADAPTIVE_TUNING_TARGET_FIRE_LATENESS = "org.quartz.scheduler.adaptiveTuning.targetFireLateness";
+
+    public static final String PROP_SCHED_ADAPTIVE_TUNING_MIN_BATCH_SIZE = "org.quartz.scheduler.adaptiveTuning.batchTriggerAcquisitionMaxCount.min";
+
+    public static final String PROP_SCHED_ADAPTIVE_TUNING_MAX_BATCH_SIZE = "org.quartz.scheduler.adaptiveTuning.batchTriggerAcquisitionMaxCount.max";
+
+    public static final String PROP_SCHED_ADAPTIVE_TUNING_MIN_BATCH_TIME_WINDOW = "org.quartz.scheduler.adaptiveTuning.batchTriggerAcquisitionFireAheadTimeWindow.min";
+
+    public static final String PROP_SCHED_ADAPTIVE_TUNING_MAX_BATCH_TIME_WINDOW = "org.quartz.scheduler.adaptiveTuning.batchTriggerAcquisitionFireAheadTimeWindow.max";
+
+    public static final String PROP_SCHED_ADAPTIVE_TUNING_MIN_IDLE_WAIT_TIME = "org.quartz.scheduler.adaptiveTuning.idleWaitTime.min";
+
+    public static final String PROP_SCHED_ADAPTIVE_TUNING_MAX_IDLE_WAIT_TIME = "org.quartz.scheduler.adaptiveTuning.idleWaitTime.max";
+
     public static final String PROP_SCHED_JMX_EXPORT = "org.quartz.scheduler.jmx.export";
 
     public static final String PROP_SCHED_JMX_OBJECT_NAME = "org.quartz.scheduler.jmx.objectName";
@@ -197,6 +243,10 @@ public class StdSchedulerFactory implements SchedulerFactory {
 
     public static final String PROP_THREAD_POOL_CLASS = "org.quartz.threadPool.class";
 
+    public static final String PROP_THREAD_POOL_NAMED_CLASS = "class";
+
+    public static final String PROP_THREAD_POOL_NAMED_JOB_GROUPS = "jobGroups";
+
     public static final String PROP_JOB_STORE_PREFIX = "org.quartz.jobStore";
 
     public static final String PROP_JOB_STORE_LOCK_HANDLER_PREFIX = PROP_JOB_STORE_PREFIX + ".lockHandler";
@@ -692,6 +742,54 @@ public class StdSchedulerFactory implements SchedulerFactory {
 
         long batchTimeWindow = cfg.getLongProperty(PROP_SCHED_BATCH_TIME_WINDOW, 0L);
         int maxBatchSize = cfg.getIntProperty(PROP_SCHED_MAX_BATCH_SIZE, 1);
+        boolean batchPipelined = cfg.getBooleanProperty(PROP_SCHED_BATCH_PIPELINED, false);
+        long triggerWriteCoalescingWindow = cfg.getLongProperty(PROP_SCHED_TRIGGER_WRITE_COALESCING_WINDOW, 0L);
+        int triggerWriteCoalescingMaxCount = cfg.getIntProperty(PROP_SCHED_TRIGGER_WRITE_COALESCING_MAX_COUNT, 100);
+        long jobCompletionBatchWindow = cfg.getLongProperty(PROP_SCHED_JOB_COMPLETION_BATCH_WINDOW, 0L);
+        int jobCompletionBatchMaxCount = cfg.getIntProperty(PROP_SCHED_JOB_COMPLETION_BATCH_MAX_COUNT, 100);
+
+        int schedulingLoops = cfg.getIntProperty(PROP_SCHED_SCHEDULING_LOOPS, 1);
+        Map<Integer, List<String>> schedulingLoopTriggerGroups = new HashMap<Integer, List<String>>();
+        Properties schedulingLoopProps = cfg.getPropertyGroup(PROP_SCHED_SCHEDULING_LOOP_PREFIX, true);
+        for (String key : schedulingLoopProps.stringPropertyNames()) {
+            String suffix = "." + PROP_SCHED_SCHEDULING_LOOP_TRIGGER_GROUPS;
+            int loop = -1;
+            if (key.endsWith(suffix)) {
+                try {
+                    loop = Integer.parseInt(key.substring(0, key.length() - suffix.length()));
+                } catch (NumberFormatException ignore) {
+                }
+            }
+            if (loop < 0 || loop >= schedulingLoops) {
+                throw new SchedulerConfigException("Invalid scheduling loop property '"
+                        + PROP_SCHED_SCHEDULING_LOOP_PREFIX + "." + key + "' for " + schedulingLoops + " loops.");
+            }
+            List<String> groups = new ArrayList<String>();
+            for (String group : schedulingLoopProps.getProperty(key).split(",")) {
+                if (group.trim().length() > 0) {
+                    groups.add(group.trim());
+                }
+            }
+            schedulingLoopTriggerGroups.put(loop, groups);
+        }
+
+        boolean adaptiveTuning = cfg.getBooleanProperty(PROP_SCHED_ADAPTIVE_TUNING, false);
+        long adaptiveTuningInterval = cfg.getLongProperty(PROP_SCHED_ADAPTIVE_TUNING_INTERVAL, 10000L);
+        long adaptiveTuningTargetFireLateness = cfg.getLongProperty(PROP_SCHED_ADAPTIVE_TUNING_TARGET_FIRE_LATENESS, 1000L);
+        int adaptiveTuningMinBatchSize = cfg.getIntProperty(PROP_SCHED_ADAPTIVE_TUNING_MIN_BATCH_SIZE, 1);
+        int adaptiveTuningMaxBatchSize = cfg.getIntProperty(PROP_SCHED_ADAPTIVE_TUNING_MAX_BATCH_SIZE, -1);
+        long adaptiveTuningMinBatchTimeWindow = cfg.getLongProperty(PROP_SCHED_ADAPTIVE_TUNING_MIN_BATCH_TIME_WINDOW, 0L);
+        long adaptiveTuningMaxBatchTimeWindow = cfg.getLongProperty(PROP_SCHED_ADAPTIVE_TUNING_MAX_BATCH_TIME_WINDOW, batchTimeWindow);
+        long adaptiveTuningMaxIdleWaitTime = cfg.getLongProperty(PROP_SCHED_ADAPTIVE_TUNING_MAX_IDLE_WAIT_TIME,
+                (idleWaitTime > 0) ? idleWaitTime : 30000L);
+        long adaptiveTuningMinIdleWaitTime = cfg.getLongProperty(PROP_SCHED_ADAPTIVE_TUNING_MIN_IDLE_WAIT_TIME,
+                Math.min(1000L, adaptiveTuningMaxIdleWaitTime));
+        if(adaptiveTuningMinIdleWaitTime < 1000) {
+            throw new SchedulerException(PROP_SCHED_ADAPTIVE_TUNING_MIN_IDLE_WAIT_TIME + " of less than 1000ms is not legal.");
+        }
+        if(adaptiveTuningInterval <= 0) {
+            throw new SchedulerException(PROP_SCHED_ADAPTIVE_TUNING_INTERVAL + " must be positive.");
+        }
 
         boolean interruptJobsOnShutdown = cfg.getBooleanProperty(PROP_SCHED_INTERRUPT_JOBS_ON_SHUTDOWN, false);
         boolean interruptJobsOnShutdownWithWait = cfg.getBooleanProperty(PROP_SCHED_INTERRUPT_JOBS_ON_SHUTDOWN_WITH_WAIT, false);
@@ -855,7 +953,21 @@ public class StdSchedulerFactory implements SchedulerFactory {
                     + tpClass + "' could not be instantiated.", e);
             throw initException;
         }
-        tProps = cfg.getPropertyGroup(PROP_THREAD_POOL_PREFIX, true);
+        // named thread pools are configured by "<name>." properties, which
+        // the default pool must not be given
+        Set<String> namedPoolNames = new TreeSet<String>();
+        for (String key : cfg.getPropertyGroup(PROP_THREAD_POOL_PREFIX, true).stringPropertyNames()) {
+            if (key.indexOf('.') > 0) {
+                namedPoolNames.add(key.substring(0, key.indexOf('.')));
+            }
+        }
+        String[] namedPoolPrefixes = new String[namedPoolNames.size()];
+        int namedPoolIndex = 0;
+        for (String poolName : namedPoolNames) {
+            namedPoolPrefixes[namedPoolIndex++] = PROP_THREAD_POOL_PREFIX + "." + poolName + ".";
+        }
+
+        tProps = cfg.getPropertyGroup(PROP_THREAD_POOL_PREFIX, true, namedPoolPrefixes);
         try {
             setBeanProps(tp, tProps);
         } catch (Exception e) {
@@ -864,6 +976,54 @@ public class StdSchedulerFactory implements SchedulerFactory {
             throw initException;
         }
 
+        Map<String, ThreadPool> namedPools = new LinkedHashMap<String, ThreadPool>();
+        Map<String, Matcher<JobKey>> namedPoolRoutes = new HashMap<String, Matcher<JobKey>>();
+        for (String poolName : namedPoolNames) {
+            Properties pp = cfg.getPropertyGroup(PROP_THREAD_POOL_PREFIX + "." + poolName, true);
+
+            String poolClass = pp.getProperty(PROP_THREAD_POOL_NAMED_CLASS, SimpleThreadPool.class.getName());
+            pp.remove(PROP_THREAD_POOL_NAMED_CLASS);
+            String jobGroups = pp.getProperty(PROP_THREAD_POOL_NAMED_JOB_GROUPS, "");
+            pp.remove(PROP_THREAD_POOL_NAMED_JOB_GROUPS);
+
+            Matcher<JobKey> route = null;
+            for (String group : jobGroups.split(",")) {
+                group = group.trim();
+                if (group.length() == 0) {
+                    continue;
+                }
+                Matcher<JobKey> groupMatcher = group.endsWith("*")
+                    ? GroupMatcher.jobGroupStartsWith(group.substring(0, group.length() - 1))
+                    : GroupMatcher.jobGroupEquals(group);
+                route = (route == null) ? groupMatcher : OrMatcher.or(route, groupMatcher);
+            }
+            if (route == null) {
+                initException = new SchedulerConfigException("No job groups routed to ThreadPool '"
+                        + poolName + "', set " + PROP_THREAD_POOL_PREFIX + "." + poolName + "."
+                        + PROP_THREAD_POOL_NAMED_JOB_GROUPS);
+                throw initException;
+            }
+
+            ThreadPool pool = null;
+            try {
+                pool = (ThreadPool) loadHelper.loadClass(poolClass).newInstance();
+            } catch (Exception e) {
+                initException = new SchedulerException("ThreadPool class '"
+                        + poolClass + "' could not be instantiated.", e);
+                throw initException;
+            }
+            try {
+                setBeanProps(pool, pp);
+            } catch (Exception e) {
+                initException = new SchedulerException("ThreadPool '" + poolName + "' of class '"
+                        + poolClass + "' props could not be configured.", e);
+                throw initException;
+            }
+
+            namedPools.put(poolName, pool);
+            namedPoolRoutes.put(poolName, route);
+        }
+
         // Get JobStore Properties
         // ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
 
@@ -1291,6 +1451,23 @@ public class StdSchedulerFactory implements SchedulerFactory {
             rsrcs.setThreadsInheritInitializersClassLoadContext(threadsInheritInitalizersClassLoader);
             rsrcs.setBatchTimeWindow(batchTimeWindow);
             rsrcs.setMaxBatchSize(maxBatchSize);
+            rsrcs.setBatchTriggerAcquisitionPipelined(batchPipelined);
+            rsrcs.setTriggerWriteCoalescingWindow(triggerWriteCoalescingWindow);
+            rsrcs.setTriggerWriteCoalescingMaxCount(triggerWriteCoalescingMaxCount);
+            rsrcs.setJobCompletionBatchWindow(jobCompletionBatchWindow);
+            rsrcs.setJobCompletionBatchMaxCount(jobCompletionBatchMaxCount);
+            rsrcs.setSchedulingLoops(schedulingLoops);
+            rsrcs.setSchedulingLoopTriggerGroups(schedulingLoopTriggerGroups);
+            rsrcs.setAdaptiveTuning(adaptiveTuning);
+            rsrcs.setAdaptiveTuningInterval(adaptiveTuningInterval);
+            rsrcs.setAdaptiveTuningTargetFireLateness(adaptiveTuningTargetFireLateness);
+            rsrcs.setAdaptiveTuningMinBatchSize(adaptiveTuningMinBatchSize);
+            rsrcs.setAdaptiveTuningMaxBatchSize((adaptiveTuningMaxBatchSize > 0)
+                ? adaptiveTuningMaxBatchSize : Math.max(maxBatchSize, tp.getPoolSize()));
+            rsrcs.setAdaptiveTuningMinBatchTimeWindow(adaptiveTuningMinBatchTimeWindow);
+            rsrcs.setAdaptiveTuningMaxBatchTimeWindow(adaptiveTuningMaxBatchTimeWindow);
+            rsrcs.setAdaptiveTuningMinIdleWaitTime(adaptiveTuningMinIdleWaitTime);
+            rsrcs.setAdaptiveTuningMaxIdleWaitTime(adaptiveTuningMaxIdleWaitTime);
             rsrcs.setInterruptJobsOnShutdown(interruptJobsOnShutdown);
             rsrcs.setInterruptJobsOnShutdownWithWait(interruptJobsOnShutdownWithWait);
             rsrcs.setJMXExport(jmxExport);
@@ -1321,8 +1498,33 @@ public class StdSchedulerFactory implements SchedulerFactory {
                 if(threadsInheritInitalizersClassLoader)
                     ((SimpleThreadPool)tp).setThreadsInheritContextClassLoaderOfInitializingThread(threadsInheritInitalizersClassLoader);
             }
+            else if(tp instanceof VirtualThreadPool) {
+                if(threadsInheritInitalizersClassLoader)
+                    ((VirtualThreadPool)tp).setThreadsInheritContextClassLoaderOfInitializingThread(threadsInheritInitalizersClassLoader);
+            }
             tp.initialize();
             tpInited = true;
+
+            for (Map.Entry<String, ThreadPool> namedPool : namedPools.entrySet()) {
+                ThreadPool pool = namedPool.getValue();
+                SchedulerDetailsSetter.setDetails(pool, schedName, schedInstId);
+                if(pool instanceof SimpleThreadPool) {
+                    SimpleThreadPool simplePool = (SimpleThreadPool) pool;
+                    if (simplePool.getThreadNamePrefix() == null)
+                        simplePool.setThreadNamePrefix(schedName + "_" + namedPool.getKey() + "_Worker");
+                    if(threadsInheritInitalizersClassLoader)
+                        simplePool.setThreadsInheritContextClassLoaderOfInitializingThread(threadsInheritInitalizersClassLoader);
+                }
+                else if(pool instanceof VirtualThreadPool) {
+                    VirtualThreadPool virtualPool = (VirtualThreadPool) pool;
+                    if (virtualPool.getThreadNamePrefix() == null)
+                        virtualPool.setThreadNamePrefix(schedName + "_" + namedPool.getKey() + "_Worker");
+                    if(threadsInheritInitalizersClassLoader)
+                        virtualPool.setThreadsInheritContextClassLoaderOfInitializingThread(threadsInheritInitalizersClassLoader);
+                }
+                rsrcs.addThreadPool(namedPool.getKey(), pool, namedPoolRoutes.get(namedPool.getKey()));
+                pool.initialize();
+            }
     
             rsrcs.setJobStore(js);
     
@@ -1389,15 +1591,15 @@ public class StdSchedulerFactory implements SchedulerFactory {
             return scheduler;
         }
         catch(SchedulerException e) {
-            shutdownFromInstantiateException(tp, qs, tpInited, qsInited);
+            shutdownFromInstantiateException(tp, namedPools, qs, tpInited, qsInited);
             throw e;
         }
         catch(RuntimeException re) {
-            shutdownFromInstantiateException(tp, qs, tpInited, qsInited);
+            shutdownFromInstantiateException(tp, namedPools, qs, tpInited, qsInited);
             throw re;
         }
         catch(Error re) {
-            shutdownFromInstantiateException(tp, qs, tpInited, qsInited);
+            shutdownFromInstantiateException(tp, namedPools, qs, tpInited, qsInited);
             throw re;
         }
     }
@@ -1426,12 +1628,17 @@ public class StdSchedulerFactory implements SchedulerFactory {
         setBeanProps(cp.getDataSource(), copyProps);
     }
 
-    private void shutdownFromInstantiateException(ThreadPool tp, QuartzScheduler qs, boolean tpInited, boolean qsInited) {
+    private void shutdownFromInstantiateException(ThreadPool tp, Map<String, ThreadPool> namedPools,
+            QuartzScheduler qs, boolean tpInited, boolean qsInited) {
         try {
             if(qsInited)
                 qs.shutdown(false);
-            else if(tpInited)
+            else if(tpInited) {
                 tp.shutdown(false);
+                for (ThreadPool pool : namedPools.values()) {
+                    pool.shutdown(false);
+                }
+            }
         } catch (Exception e) {
             getLog().error("Got another exception while shutting down after instantiation exception", e);
         }
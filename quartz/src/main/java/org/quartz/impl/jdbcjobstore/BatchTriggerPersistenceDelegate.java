@@ -0,0 +1,57 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright Super iPaaS Integration LLC, an IBM Company 2024
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.quartz.impl.jdbcjobstore;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import org.quartz.JobDetail;
+import org.quartz.spi.OperableTrigger;
+
+/**
+ * A {@link TriggerPersistenceDelegate} that can also write the extended
+ * properties of many triggers at once, as a single JDBC batch.  The
+ * <code>StdJDBCDelegate</code> only uses these methods if the driver supports
+ * batch updates, and when storing jobs and triggers in bulk.
+ * 
+ * @since 2.5.0
+ */
+public interface BatchTriggerPersistenceDelegate extends TriggerPersistenceDelegate {
+
+    /**
+     * Insert the extended properties of each of the given triggers, sending
+     * all of the inserts in one batch.
+     * 
+     * @param states the state of each trigger, in order
+     * @param jobDetails the job of each trigger, in order
+     * @return the number of rows inserted for each trigger, in order
+     */
+    public int[] insertExtendedTriggerProperties(Connection conn, List<OperableTrigger> triggers, List<String> states, List<JobDetail> jobDetails) throws SQLException, IOException;
+
+    /**
+     * Update the extended properties of each of the given triggers, sending
+     * all of the updates in one batch.
+     * 
+     * @param states the state of each trigger, in order
+     * @param jobDetails the job of each trigger, in order
+     * @return the number of rows updated for each trigger, in order
+     */
+    public int[] updateExtendedTriggerProperties(Connection conn, List<OperableTrigger> triggers, List<String> states, List<JobDetail> jobDetails) throws SQLException, IOException;
+}
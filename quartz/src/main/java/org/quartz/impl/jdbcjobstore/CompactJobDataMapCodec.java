@@ -0,0 +1,397 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright Super iPaaS Integration LLC, an IBM Company 2024
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.quartz.impl.jdbcjobstore;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.UTFDataFormatException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.Map;
+
+/**
+ * <p>
+ * A <code>{@link JobDataMapCodec}</code> writing a compact tagged binary
+ * form.  Each value is a one byte tag followed by its payload, with
+ * variable length integers for numbers, lengths and counts.
+ * </p>
+ * 
+ * <p>
+ * Strings, the boxed primitives, <code>Date</code>s, byte arrays and the
+ * common <code>java.util</code> lists, sets and maps (whose elements are
+ * encoded the same way) take a few bytes each, with no class descriptors,
+ * and decode without reflection.  Any other value is written with
+ * <code>java.io</code> serialization inside the compact form, so every map
+ * that can be serialized can also be encoded.  Values decode to the exact
+ * class they were written with.
+ * </p>
+ */
+public class CompactJobDataMapCodec implements JobDataMapCodec {
+
+    /*
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     * 
+     * Constants.
+     * 
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     */
+
+    public static final int FORMAT_ID = 2;
+
+    private static final int TAG_NULL = 0;
+    private static final int TAG_STRING = 1;
+    private static final int TAG_TRUE = 2;
+    private static final int TAG_FALSE = 3;
+    private static final int TAG_INTEGER = 4;
+    private static final int TAG_LONG = 5;
+    private static final int TAG_DOUBLE = 6;
+    private static final int TAG_FLOAT = 7;
+    private static final int TAG_SHORT = 8;
+    private static final int TAG_BYTE = 9;
+    private static final int TAG_CHARACTER = 10;
+    private static final int TAG_DATE = 11;
+    private static final int TAG_BYTES = 12;
+    private static final int TAG_ARRAY_LIST = 13;
+    private static final int TAG_LINKED_LIST = 14;
+    private static final int TAG_HASH_SET = 15;
+    private static final int TAG_LINKED_HASH_SET = 16;
+    private static final int TAG_HASH_MAP = 17;
+    private static final int TAG_LINKED_HASH_MAP = 18;
+    private static final int TAG_SERIALIZED = 127;
+
+    /*
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     * 
+     * Interface.
+     * 
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     */
+
+    public int getFormatId() {
+        return FORMAT_ID;
+    }
+
+    public int getFormatVersion() {
+        return 1;
+    }
+
+    public void encode(Map<?, ?> data, OutputStream out) throws IOException {
+        DataOutputStream dos = new DataOutputStream(out);
+        writeVarInt(dos, data.size());
+        for (Map.Entry<?, ?> entry : data.entrySet()) {
+            if (!(entry.getKey() instanceof String)) {
+                throw new IOException("JobDataMap keys must be Strings, offending key: " + entry.getKey());
+            }
+            writeString(dos, (String) entry.getKey());
+            writeValue(dos, entry.getValue());
+        }
+        dos.flush();
+    }
+
+    public Map<?, ?> decode(InputStream in, int formatVersion) throws IOException, ClassNotFoundException {
+        if (formatVersion != 1) {
+            throw new IOException("Unsupported compact JobDataMap format version: " + formatVersion);
+        }
+        DataInputStream dis = new DataInputStream(in);
+        int size = readVarInt(dis);
+        Map<String, Object> data = new HashMap<String, Object>(Math.max(16, size * 4 / 3 + 1));
+        for (int i = 0; i < size; i++) {
+            String key = readString(dis);
+            data.put(key, readValue(dis));
+        }
+        return data;
+    }
+
+    /*
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     * 
+     * Encoding.
+     * 
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     */
+
+    private void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(TAG_NULL);
+            return;
+        }
+
+        // exact classes only, so that every value decodes to what was written
+        Class<?> type = value.getClass();
+        if (type == String.class) {
+            out.writeByte(TAG_STRING);
+            writeString(out, (String) value);
+        } else if (type == Boolean.class) {
+            out.writeByte(((Boolean) value) ? TAG_TRUE : TAG_FALSE);
+        } else if (type == Integer.class) {
+            out.writeByte(TAG_INTEGER);
+            writeVarLong(out, zigZag((Integer) value));
+        } else if (type == Long.class) {
+            out.writeByte(TAG_LONG);
+            writeVarLong(out, zigZag((Long) value));
+        } else if (type == Double.class) {
+            out.writeByte(TAG_DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (type == Float.class) {
+            out.writeByte(TAG_FLOAT);
+            out.writeFloat((Float) value);
+        } else if (type == Short.class) {
+            out.writeByte(TAG_SHORT);
+            writeVarLong(out, zigZag((Short) value));
+        } else if (type == Byte.class) {
+            out.writeByte(TAG_BYTE);
+            out.writeByte((Byte) value);
+        } else if (type == Character.class) {
+            out.writeByte(TAG_CHARACTER);
+            writeVarInt(out, (Character) value);
+        } else if (type == Date.class) {
+            out.writeByte(TAG_DATE);
+            writeVarLong(out, zigZag(((Date) value).getTime()));
+        } else if (type == byte[].class) {
+            byte[] bytes = (byte[]) value;
+            out.writeByte(TAG_BYTES);
+            writeVarInt(out, bytes.length);
+            out.write(bytes);
+        } else if (type == ArrayList.class) {
+            writeCollection(out, TAG_ARRAY_LIST, (Collection<?>) value);
+        } else if (type == LinkedList.class) {
+            writeCollection(out, TAG_LINKED_LIST, (Collection<?>) value);
+        } else if (type == HashSet.class) {
+            writeCollection(out, TAG_HASH_SET, (Collection<?>) value);
+        } else if (type == LinkedHashSet.class) {
+            writeCollection(out, TAG_LINKED_HASH_SET, (Collection<?>) value);
+        } else if (type == HashMap.class) {
+            writeMap(out, TAG_HASH_MAP, (Map<?, ?>) value);
+        } else if (type == LinkedHashMap.class) {
+            writeMap(out, TAG_LINKED_HASH_MAP, (Map<?, ?>) value);
+        } else {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            ObjectOutputStream oos = new ObjectOutputStream(baos);
+            oos.writeObject(value);
+            oos.flush();
+            out.writeByte(TAG_SERIALIZED);
+            writeVarInt(out, baos.size());
+            baos.writeTo(out);
+        }
+    }
+
+    private void writeCollection(DataOutputStream out, int tag, Collection<?> values) throws IOException {
+        out.writeByte(tag);
+        writeVarInt(out, values.size());
+        for (Object value : values) {
+            writeValue(out, value);
+        }
+    }
+
+    private void writeMap(DataOutputStream out, int tag, Map<?, ?> map) throws IOException {
+        out.writeByte(tag);
+        writeVarInt(out, map.size());
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            writeValue(out, entry.getKey());
+            writeValue(out, entry.getValue());
+        }
+    }
+
+    /**
+     * Write the char count and then the chars as modified UTF-8 (as
+     * <code>DataOutput.writeUTF</code> does, without its length limit), which
+     * also keeps unpaired surrogates intact.
+     */
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        int length = s.length();
+        writeVarInt(out, length);
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            if (c >= 0x0001 && c <= 0x007F) {
+                out.write(c);
+            } else if (c <= 0x07FF) {
+                out.write(0xC0 | (c >> 6));
+                out.write(0x80 | (c & 0x3F));
+            } else {
+                out.write(0xE0 | (c >> 12));
+                out.write(0x80 | ((c >> 6) & 0x3F));
+                out.write(0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        writeVarLong(out, value & 0xFFFFFFFFL);
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    /*
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     * 
+     * Decoding.
+     * 
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     */
+
+    private Object readValue(DataInputStream in) throws IOException, ClassNotFoundException {
+        int tag = in.readUnsignedByte();
+        switch (tag) {
+            case TAG_NULL:
+                return null;
+            case TAG_STRING:
+                return readString(in);
+            case TAG_TRUE:
+                return Boolean.TRUE;
+            case TAG_FALSE:
+                return Boolean.FALSE;
+            case TAG_INTEGER:
+                return Integer.valueOf((int) unZigZag(readVarLong(in)));
+            case TAG_LONG:
+                return Long.valueOf(unZigZag(readVarLong(in)));
+            case TAG_DOUBLE:
+                return Double.valueOf(in.readDouble());
+            case TAG_FLOAT:
+                return Float.valueOf(in.readFloat());
+            case TAG_SHORT:
+                return Short.valueOf((short) unZigZag(readVarLong(in)));
+            case TAG_BYTE:
+                return Byte.valueOf(in.readByte());
+            case TAG_CHARACTER:
+                return Character.valueOf((char) readVarInt(in));
+            case TAG_DATE:
+                return new Date(unZigZag(readVarLong(in)));
+            case TAG_BYTES: {
+                byte[] bytes = new byte[readVarInt(in)];
+                in.readFully(bytes);
+                return bytes;
+            }
+            case TAG_ARRAY_LIST: {
+                int size = readVarInt(in);
+                return readElements(in, size, new ArrayList<Object>(size));
+            }
+            case TAG_LINKED_LIST:
+                return readElements(in, readVarInt(in), new LinkedList<Object>());
+            case TAG_HASH_SET: {
+                int size = readVarInt(in);
+                return readElements(in, size, new HashSet<Object>(Math.max(16, size * 4 / 3 + 1)));
+            }
+            case TAG_LINKED_HASH_SET: {
+                int size = readVarInt(in);
+                return readElements(in, size, new LinkedHashSet<Object>(Math.max(16, size * 4 / 3 + 1)));
+            }
+            case TAG_HASH_MAP: {
+                int size = readVarInt(in);
+                return readEntries(in, size, new HashMap<Object, Object>(Math.max(16, size * 4 / 3 + 1)));
+            }
+            case TAG_LINKED_HASH_MAP: {
+                int size = readVarInt(in);
+                return readEntries(in, size, new LinkedHashMap<Object, Object>(Math.max(16, size * 4 / 3 + 1)));
+            }
+            case TAG_SERIALIZED: {
+                byte[] bytes = new byte[readVarInt(in)];
+                in.readFully(bytes);
+                ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes));
+                try {
+                    return ois.readObject();
+                } finally {
+                    ois.close();
+                }
+            }
+            default:
+                throw new IOException("Unknown compact JobDataMap value tag: " + tag);
+        }
+    }
+
+    private Collection<Object> readElements(DataInputStream in, int size, Collection<Object> values)
+        throws IOException, ClassNotFoundException {
+        for (int i = 0; i < size; i++) {
+            values.add(readValue(in));
+        }
+        return values;
+    }
+
+    private Map<Object, Object> readEntries(DataInputStream in, int size, Map<Object, Object> map)
+        throws IOException, ClassNotFoundException {
+        for (int i = 0; i < size; i++) {
+            Object key = readValue(in);
+            map.put(key, readValue(in));
+        }
+        return map;
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = readVarInt(in);
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            int b = in.readUnsignedByte();
+            if (b < 0x80) {
+                chars[i] = (char) b;
+            } else if ((b & 0xE0) == 0xC0) {
+                chars[i] = (char) (((b & 0x1F) << 6) | (in.readUnsignedByte() & 0x3F));
+            } else if ((b & 0xF0) == 0xE0) {
+                chars[i] = (char) (((b & 0x0F) << 12) | ((in.readUnsignedByte() & 0x3F) << 6)
+                        | (in.readUnsignedByte() & 0x3F));
+            } else {
+                throw new UTFDataFormatException("Malformed string in compact JobDataMap");
+            }
+        }
+        return new String(chars);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        long value = readVarLong(in);
+        if (value > Integer.MAX_VALUE) {
+            throw new IOException("Malformed length in compact JobDataMap");
+        }
+        return (int) value;
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable length number in compact JobDataMap");
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -137,6 +137,8 @@ public interface Constants {
 
     String COL_CALENDAR = "CALENDAR";
 
+    String COL_CALENDAR_VERSION = "CALENDAR_VERSION";
+
     // TABLE_LOCKS columns names
     String COL_LOCK_NAME = "LOCK_NAME";
 
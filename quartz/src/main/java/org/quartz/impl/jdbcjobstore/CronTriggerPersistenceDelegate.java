@@ -21,6 +21,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.List;
 import java.util.TimeZone;
 
 import org.quartz.CronScheduleBuilder;
@@ -30,7 +31,7 @@ import org.quartz.TriggerKey;
 import org.quartz.impl.triggers.CronTriggerImpl;
 import org.quartz.spi.OperableTrigger;
 
-public class CronTriggerPersistenceDelegate implements TriggerPersistenceDelegate, StdJDBCConstants {
+public class CronTriggerPersistenceDelegate implements BatchTriggerPersistenceDelegate, StdJDBCConstants {
 
     protected String tablePrefix;
     protected String schedNameLiteral;
@@ -65,16 +66,11 @@ public class CronTriggerPersistenceDelegate implements TriggerPersistenceDelegat
 
     public int insertExtendedTriggerProperties(Connection conn, OperableTrigger trigger, String state, JobDetail jobDetail) throws SQLException, IOException {
 
-        CronTrigger cronTrigger = (CronTrigger)trigger;
-        
         PreparedStatement ps = null;
         
         try {
             ps = conn.prepareStatement(Util.rtp(INSERT_CRON_TRIGGER, tablePrefix, schedNameLiteral));
-            ps.setString(1, trigger.getKey().getName());
-            ps.setString(2, trigger.getKey().getGroup());
-            ps.setString(3, cronTrigger.getCronExpression());
-            ps.setString(4, cronTrigger.getTimeZone().getID());
+            setInsertParameters(ps, trigger);
 
             return ps.executeUpdate();
         } finally {
@@ -82,6 +78,33 @@ public class CronTriggerPersistenceDelegate implements TriggerPersistenceDelegat
         }
     }
 
+    public int[] insertExtendedTriggerProperties(Connection conn, List<OperableTrigger> triggers, List<String> states, List<JobDetail> jobDetails) throws SQLException, IOException {
+
+        PreparedStatement ps = null;
+        
+        try {
+            ps = conn.prepareStatement(Util.rtp(INSERT_CRON_TRIGGER, tablePrefix, schedNameLiteral));
+            for (OperableTrigger trigger : triggers) {
+                setInsertParameters(ps, trigger);
+                ps.addBatch();
+            }
+
+            return ps.executeBatch();
+        } finally {
+            Util.closeStatement(ps);
+        }
+    }
+
+    private void setInsertParameters(PreparedStatement ps, OperableTrigger trigger) throws SQLException {
+
+        CronTrigger cronTrigger = (CronTrigger)trigger;
+
+        ps.setString(1, trigger.getKey().getName());
+        ps.setString(2, trigger.getKey().getGroup());
+        ps.setString(3, cronTrigger.getCronExpression());
+        ps.setString(4, cronTrigger.getTimeZone().getID());
+    }
+
     public TriggerPropertyBundle loadExtendedTriggerProperties(Connection conn, TriggerKey triggerKey) throws SQLException {
 
         PreparedStatement ps = null;
@@ -97,10 +120,9 @@ public class CronTriggerPersistenceDelegate implements TriggerPersistenceDelegat
                 String cronExpr = rs.getString(COL_CRON_EXPRESSION);
                 String timeZoneId = rs.getString(COL_TIME_ZONE_ID);
 
-                CronScheduleBuilder cb = CronScheduleBuilder.cronSchedule(cronExpr);
-              
-                if (timeZoneId != null) 
-                    cb.inTimeZone(TimeZone.getTimeZone(timeZoneId));
+                TimeZone timeZone = (timeZoneId != null) ? TimeZone.getTimeZone(timeZoneId) : null;
+
+                CronScheduleBuilder cb = CronScheduleBuilder.cronSchedule(cronExpr, timeZone);
                 
                 return new TriggerPropertyBundle(cb, null, null);
             }
@@ -114,21 +136,43 @@ public class CronTriggerPersistenceDelegate implements TriggerPersistenceDelegat
 
     public int updateExtendedTriggerProperties(Connection conn, OperableTrigger trigger, String state, JobDetail jobDetail) throws SQLException, IOException {
 
-        CronTrigger cronTrigger = (CronTrigger)trigger;
-        
         PreparedStatement ps = null;
-
+        
         try {
             ps = conn.prepareStatement(Util.rtp(UPDATE_CRON_TRIGGER, tablePrefix, schedNameLiteral));
-            ps.setString(1, cronTrigger.getCronExpression());
-            ps.setString(2, cronTrigger.getTimeZone().getID());
-            ps.setString(3, trigger.getKey().getName());
-            ps.setString(4, trigger.getKey().getGroup());
-            
+            setUpdateParameters(ps, trigger);
+
             return ps.executeUpdate();
         } finally {
             Util.closeStatement(ps);
         }
     }
 
+    public int[] updateExtendedTriggerProperties(Connection conn, List<OperableTrigger> triggers, List<String> states, List<JobDetail> jobDetails) throws SQLException, IOException {
+
+        PreparedStatement ps = null;
+        
+        try {
+            ps = conn.prepareStatement(Util.rtp(UPDATE_CRON_TRIGGER, tablePrefix, schedNameLiteral));
+            for (OperableTrigger trigger : triggers) {
+                setUpdateParameters(ps, trigger);
+                ps.addBatch();
+            }
+
+            return ps.executeBatch();
+        } finally {
+            Util.closeStatement(ps);
+        }
+    }
+
+    private void setUpdateParameters(PreparedStatement ps, OperableTrigger trigger) throws SQLException {
+
+        CronTrigger cronTrigger = (CronTrigger)trigger;
+
+        ps.setString(1, cronTrigger.getCronExpression());
+        ps.setString(2, cronTrigger.getTimeZone().getID());
+        ps.setString(3, trigger.getKey().getName());
+        ps.setString(4, trigger.getKey().getGroup());
+    }
+
 }
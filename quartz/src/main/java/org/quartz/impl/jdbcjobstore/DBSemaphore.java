@@ -53,6 +53,8 @@ public abstract class DBSemaphore implements Semaphore, Constants,
     private String expandedSQL;
     private String expandedInsertSQL;
 
+    private volatile JobStoreStatistics statistics;
+
     /*
      * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
      * 
@@ -111,7 +113,12 @@ public abstract class DBSemaphore implements Semaphore, Constants,
         }
         if (!isLockOwner(lockName)) {
 
+            long start = System.nanoTime();
             executeSQL(conn, lockName, expandedSQL, expandedInsertSQL);
+            JobStoreStatistics stats = statistics;
+            if (stats != null) {
+                stats.lockObtained(lockName, System.nanoTime() - start);
+            }
             
             if(log.isDebugEnabled()) {
                 log.debug(
@@ -162,6 +169,25 @@ public abstract class DBSemaphore implements Semaphore, Constants,
         return getThreadLocks().contains(lockName);
     }
 
+    /**
+     * Record how long obtaining locks takes, and how often it is retried,
+     * in the given statistics.
+     */
+    void setStatistics(JobStoreStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    /**
+     * Called by {@link #executeSQL(Connection, String, String, String)}
+     * implementations each time they are about to try obtaining a lock again.
+     */
+    protected void lockRetried(String lockName) {
+        JobStoreStatistics stats = statistics;
+        if (stats != null) {
+            stats.lockRetried();
+        }
+    }
+
     /**
      * This Semaphore implementation does use the database.
      */
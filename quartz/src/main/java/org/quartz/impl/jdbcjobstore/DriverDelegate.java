@@ -22,6 +22,7 @@ import java.io.IOException;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.quartz.Calendar;
@@ -143,6 +144,28 @@ public interface DriverDelegate {
      */
     boolean hasMisfiredTriggersInState(Connection conn, String state1, 
         long ts, int count, List<TriggerKey> resultList) throws SQLException;
+
+    /**
+     * <p>
+     * Get the names of the triggers in the given state that have misfired -
+     * according to the given timestamp - reading them through a cursor that
+     * fetches at most <code>fetchSize</code> rows from the database at a time
+     * and stops after the row beyond <code>count</code>, rather than letting
+     * the driver materialize every misfired trigger.
+     * </p>
+     * 
+     * @param conn the DB Connection
+     * @param count the most misfired triggers to return, negative for all
+     * @param fetchSize the number of rows to fetch at a time, or 0 for the
+     *      driver's default
+     * @param resultList Output parameter.  A List of 
+     *      <code>{@link org.quartz.utils.Key}</code> objects.  Must not be null.
+     *          
+     * @return Whether there are more misfired triggers left to find beyond
+     *         the given count.
+     */
+    boolean hasMisfiredTriggersInState(Connection conn, String state1, 
+        long ts, int count, int fetchSize, List<TriggerKey> resultList) throws SQLException;
     
     /**
      * <p>
@@ -253,6 +276,58 @@ public interface DriverDelegate {
     int updateJobDetail(Connection conn, JobDetail job)
         throws IOException, SQLException;
 
+    /**
+     * <p>
+     * Insert the job detail records of the given jobs, sending the inserts in
+     * batches.
+     * </p>
+     * 
+     * @param conn
+     *          the DB Connection
+     * @param jobs
+     *          the jobs to insert
+     * @return the number of rows inserted for each job, in order
+     * @throws IOException
+     *           if there were problems serializing a JobDataMap
+     */
+    int[] insertJobDetails(Connection conn, List<JobDetail> jobs)
+        throws IOException, SQLException;
+
+    /**
+     * <p>
+     * Update the job detail records of the given jobs, sending the updates in
+     * batches.
+     * </p>
+     * 
+     * @param conn
+     *          the DB Connection
+     * @param jobs
+     *          the jobs to update
+     * @return the number of rows updated for each job, in order
+     * @throws IOException
+     *           if there were problems serializing a JobDataMap
+     */
+    int[] updateJobDetails(Connection conn, List<JobDetail> jobs)
+        throws IOException, SQLException;
+
+    /**
+     * <p>
+     * Insert the job detail records of the given jobs, or update them where
+     * they already exist, without checking the existence of each job with a
+     * separate query.
+     * </p>
+     * 
+     * @param conn
+     *          the DB Connection
+     * @param jobs
+     *          the jobs to insert or update
+     * @return the number of rows written for each job, in order
+     * @throws IOException
+     *           if there were problems serializing a JobDataMap
+     */
+    int[] upsertJobDetails(Connection conn, List<JobDetail> jobs)
+        throws IOException, SQLException;
+
     /**
      * <p>
      * Get the names of all of the triggers associated with the given job.
@@ -304,6 +379,20 @@ public interface DriverDelegate {
     boolean jobExists(Connection conn, JobKey jobKey)
         throws SQLException;
 
+    /**
+     * <p>
+     * Select which of the given jobs exist, using as few statements as
+     * possible.
+     * </p>
+     * 
+     * @param conn
+     *          the DB Connection
+     * 
+     * @return the keys of the jobs that exist
+     */
+    Set<JobKey> selectExistingJobKeys(Connection conn, List<JobKey> jobKeys)
+        throws SQLException;
+
     /**
      * <p>
      * Update the job data map for the given job.
@@ -411,6 +500,44 @@ public interface DriverDelegate {
     int updateTrigger(Connection conn, OperableTrigger trigger, String state,
         JobDetail jobDetail) throws SQLException, IOException;
 
+    /**
+     * <p>
+     * Insert the base and extended data of the given triggers, sending the
+     * inserts in batches.
+     * </p>
+     * 
+     * @param conn
+     *          the DB Connection
+     * @param triggers
+     *          the triggers to insert
+     * @param states
+     *          the state that each trigger should be stored in, in order
+     * @param jobDetails
+     *          the job of each trigger, in order
+     * @return the number of base rows inserted for each trigger, in order
+     */
+    int[] insertTriggers(Connection conn, List<OperableTrigger> triggers, List<String> states,
+        List<JobDetail> jobDetails) throws SQLException, IOException;
+
+    /**
+     * <p>
+     * Update the base and extended data of the given triggers, sending the
+     * updates in batches.
+     * </p>
+     * 
+     * @param conn
+     *          the DB Connection
+     * @param triggers
+     *          the triggers to update
+     * @param states
+     *          the state that each trigger should be stored in, in order
+     * @param jobDetails
+     *          the job of each trigger, in order
+     * @return the number of base rows updated for each trigger, in order
+     */
+    int[] updateTriggers(Connection conn, List<OperableTrigger> triggers, List<String> states,
+        List<JobDetail> jobDetails) throws SQLException, IOException;
+
     /**
      * <p>
      * Check whether or not a trigger exists.
@@ -423,6 +550,20 @@ public interface DriverDelegate {
      */
     boolean triggerExists(Connection conn, TriggerKey triggerKey) throws SQLException;
 
+    /**
+     * <p>
+     * Select which of the given triggers exist, using as few statements as
+     * possible.
+     * </p>
+     * 
+     * @param conn
+     *          the DB Connection
+     * 
+     * @return the keys of the triggers that exist
+     */
+    Set<TriggerKey> selectExistingTriggerKeys(Connection conn, List<TriggerKey> triggerKeys)
+        throws SQLException;
+
     /**
      * <p>
      * Update the state for a given trigger.
@@ -457,6 +598,27 @@ public interface DriverDelegate {
     int updateTriggerStateFromOtherState(Connection conn,
         TriggerKey triggerKey, String newState, String oldState) throws SQLException;
 
+    /**
+     * <p>
+     * Update each of the given triggers to the given new state, if it is in
+     * the given old state, sending all of the updates in one batch.
+     * </p>
+     * 
+     * @param conn
+     *          the DB connection
+     * 
+     * @param newState
+     *          the new state for the triggers
+     * @param oldState
+     *          the old state the triggers must be in
+     * @return the number of rows updated for each trigger key, in order, or
+     *         <code>{@link java.sql.Statement#SUCCESS_NO_INFO}</code> where
+     *         the driver does not report it
+     * @throws SQLException
+     */
+    int[] updateTriggerStatesFromOtherState(Connection conn,
+        List<TriggerKey> triggerKeys, String newState, String oldState) throws SQLException;
+
     /**
      * <p>
      * Update the given trigger to the given new state, if it is one of the
@@ -685,6 +847,20 @@ public interface DriverDelegate {
      */
     String selectTriggerState(Connection conn, TriggerKey triggerKey) throws SQLException;
 
+    /**
+     * <p>
+     * Select the state values of the given triggers, using as few statements
+     * as possible.
+     * </p>
+     * 
+     * @param conn
+     *          the DB Connection
+     * 
+     * @return a state for each of the given keys, <code>STATE_DELETED</code>
+     *         for the triggers that no longer exist
+     */
+    Map<TriggerKey, String> selectTriggerStates(Connection conn, List<TriggerKey> triggerKeys) throws SQLException;
+
     /**
      * <p>
      * Select a trigger' status (state and next fire time).
@@ -844,6 +1020,38 @@ public interface DriverDelegate {
     Calendar selectCalendar(Connection conn, String calendarName)
         throws ClassNotFoundException, IOException, SQLException;
 
+    /**
+     * <p>
+     * Select the version stamp of a calendar, without reading (or
+     * deserializing) the calendar itself.
+     * </p>
+     * 
+     * @param conn
+     *          the DB Connection
+     * @param calendarName
+     *          the name of the calendar
+     * @return the version of the calendar, or <code>null</code> if no
+     *         calendar with the given name exists
+     */
+    Long selectCalendarVersion(Connection conn, String calendarName)
+        throws SQLException;
+
+    /**
+     * <p>
+     * Update the version stamp of a calendar.
+     * </p>
+     * 
+     * @param conn
+     *          the DB Connection
+     * @param calendarName
+     *          the name of the calendar
+     * @param version
+     *          the new version of the calendar
+     * @return the number of rows updated
+     */
+    int updateCalendarVersion(Connection conn, String calendarName,
+        long version) throws SQLException;
+
     /**
      * <p>
      * Check whether or not a calendar is referenced by any triggers.
@@ -883,6 +1091,21 @@ public interface DriverDelegate {
      */
     int selectNumCalendars(Connection conn) throws SQLException;
 
+    /**
+     * <p>
+     * Select a token that changes whenever jobs, triggers, calendars or
+     * paused trigger groups are added or removed, or triggers are paused,
+     * resumed or put in the error state.  Trigger state changes caused by
+     * firing triggers (and other changes, such as replacing a job) do not
+     * change the token.
+     * </p>
+     * 
+     * @param conn
+     *          the DB Connection
+     * @return the change token
+     */
+    String selectSchedulingDataChangeToken(Connection conn) throws SQLException;
+
     /**
      * <p>
      * Select all of the stored calendars.
@@ -969,6 +1192,79 @@ public interface DriverDelegate {
     public List<TriggerKey> selectTriggerToAcquire(Connection conn, long noLaterThan, long noEarlierThan, int maxCount)
         throws SQLException;
 
+    /**
+     * <p>
+     * Whether the database can claim triggers to acquire with
+     * <code>SELECT ... FOR UPDATE SKIP LOCKED</code>, see
+     * {@link #selectTriggerToAcquireSkipLocked(Connection, long, long, int)}.
+     * </p>
+     */
+    public boolean supportsSkipLocked(Connection conn) throws SQLException;
+
+    /**
+     * <p>
+     * Select the next triggers which will fire between the two given timestamps,
+     * in the same order as <code>selectTriggerToAcquire</code>, locking their rows
+     * until the end of the transaction and skipping the rows other transactions
+     * hold locks on.  Concurrent transactions therefore claim disjoint triggers
+     * without any other lock.  Only available if
+     * {@link #supportsSkipLocked(Connection)}.
+     * </p>
+     * 
+     * @param conn
+     *          the DB Connection
+     * @param noLaterThan
+     *          highest value of <code>getNextFireTime()</code> of the triggers (exclusive)
+     * @param noEarlierThan 
+     *          lowest value of <code>getNextFireTime()</code> of the triggers (inclusive)
+     * @param maxCount 
+     *          maximum number of trigger keys to claim.
+     *          
+     * @return A (never null, possibly empty) list of the identifiers of the claimed triggers.
+     */
+    public List<TriggerKey> selectTriggerToAcquireSkipLocked(Connection conn, long noLaterThan, long noEarlierThan, int maxCount)
+        throws SQLException;
+
+    /**
+     * <p>
+     * Claim the given trigger to acquire with
+     * <code>SELECT ... FOR UPDATE SKIP LOCKED</code>, locking its row until
+     * the end of the transaction, unless another transaction holds a lock on
+     * it or it is no longer waiting.  Only available if
+     * {@link #supportsSkipLocked(Connection)}.
+     * </p>
+     * 
+     * @param conn
+     *          the DB Connection
+     * @param triggerKey
+     *          the key of the trigger to claim
+     *          
+     * @return true if the trigger was claimed.
+     */
+    public boolean selectTriggerToAcquireSkipLocked(Connection conn, TriggerKey triggerKey)
+        throws SQLException;
+
+    /**
+     * <p>
+     * Select the next triggers which will fire between the two given timestamps,
+     * in the same order as <code>selectTriggerToAcquire</code>, together with the
+     * key of the job each of them fires.
+     * </p>
+     * 
+     * @param conn
+     *          the DB Connection
+     * @param noLaterThan
+     *          highest value of <code>getNextFireTime()</code> of the triggers (exclusive)
+     * @param noEarlierThan 
+     *          lowest value of <code>getNextFireTime()</code> of the triggers (inclusive)
+     * @param maxCount 
+     *          maximum number of triggers in the returned map.
+     *          
+     * @return A (never null, possibly empty) ordered map of trigger keys to job keys.
+     */
+    public Map<TriggerKey, JobKey> selectTriggerJobKeysToAcquire(Connection conn, long noLaterThan, long noEarlierThan, int maxCount)
+        throws SQLException;
+
     /**
      * <p>
      * Insert a fired trigger.
@@ -985,6 +1281,26 @@ public interface DriverDelegate {
     int insertFiredTrigger(Connection conn, OperableTrigger trigger,
         String state, JobDetail jobDetail) throws SQLException;
 
+    /**
+     * <p>
+     * Insert a fired trigger record for each of the given triggers, sending
+     * all of the inserts in one batch.
+     * </p>
+     * 
+     * @param conn
+     *          the DB Connection
+     * @param triggers
+     *          the triggers
+     * @param state
+     *          the state that the triggers should be stored in
+     * @param jobDetails
+     *          the job of each trigger, in order, or <code>null</code> if
+     *          not known yet
+     * @return the number of rows inserted for each trigger, in order
+     */
+    int[] insertFiredTriggers(Connection conn, List<OperableTrigger> triggers,
+        String state, List<JobDetail> jobDetails) throws SQLException;
+
     /**
      * <p>
      * Update a fired trigger record.  Will update the fields  
@@ -1002,6 +1318,25 @@ public interface DriverDelegate {
     int updateFiredTrigger(Connection conn, OperableTrigger trigger,
         String state, JobDetail jobDetail) throws SQLException;
 
+    /**
+     * <p>
+     * Update the fired trigger record of each of the given triggers, sending
+     * all of the updates in one batch.
+     * </p>
+     * 
+     * @param conn
+     *          the DB Connection
+     * @param triggers
+     *          the triggers
+     * @param state
+     *          the state that the triggers should be stored in
+     * @param jobDetails
+     *          the job of each trigger, in order, or <code>null</code>
+     * @return the number of rows updated for each trigger, in order
+     */
+    int[] updateFiredTriggers(Connection conn, List<OperableTrigger> triggers,
+        String state, List<JobDetail> jobDetails) throws SQLException;
+
     /**
      * <p>
      * Select the states of all fired-trigger records for a given trigger, or
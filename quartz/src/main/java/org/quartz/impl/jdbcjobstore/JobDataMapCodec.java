@@ -0,0 +1,63 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright Super iPaaS Integration LLC, an IBM Company 2024
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.quartz.impl.jdbcjobstore;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
+
+/**
+ * <p>
+ * Encodes the <code>{@link org.quartz.JobDataMap}</code>s of jobs and
+ * triggers into the bytes stored in their <code>JOB_DATA</code> BLOB, and
+ * decodes them back.
+ * </p>
+ * 
+ * <p>
+ * The <code>StdJDBCDelegate</code> writes a short header ahead of the encoded
+ * bytes, holding the codec's format id and version, so that BLOBs written by
+ * any known codec (or by an older version of one) can still be read after
+ * the configured codec changes.  BLOBs without a header are read as before
+ * codecs existed, as serialized objects or as properties depending on
+ * <code>useProperties</code>.
+ * </p>
+ * 
+ * @see CompactJobDataMapCodec
+ * @see SerializedJobDataMapCodec
+ */
+public interface JobDataMapCodec {
+
+    /**
+     * The id identifying this codec's format in the BLOB header, between 0
+     * and 255.  Ids below 16 are reserved for the codecs shipped with Quartz.
+     */
+    public int getFormatId();
+
+    /**
+     * The version of the format that {@link #encode(Map, OutputStream)}
+     * writes, between 0 and 255.
+     */
+    public int getFormatVersion();
+
+    public void encode(Map<?, ?> data, OutputStream out) throws IOException;
+
+    /**
+     * Decode a map written by this codec with the given format version.
+     */
+    public Map<?, ?> decode(InputStream in, int formatVersion) throws IOException, ClassNotFoundException;
+}
@@ -0,0 +1,161 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright Super iPaaS Integration LLC, an IBM Company 2024
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.quartz.impl.jdbcjobstore;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.quartz.utils.counter.LatencyHistogram;
+
+/**
+ * <p>
+ * Timings of a {@link JobStoreSupport}: how long, and how often, its main
+ * operations took, how long they waited for database row locks, and how
+ * often locks and transactions had to be retried.  This tells whether slow
+ * firing comes from lock contention, from the database round trips, or
+ * from elsewhere in the scheduler.
+ * </p>
+ * 
+ * @see JobStoreSupport#getStatistics()
+ */
+public class JobStoreStatistics {
+
+    public static final String ACQUIRE_NEXT_TRIGGERS = "acquireNextTriggers";
+
+    public static final String TRIGGERS_FIRED = "triggersFired";
+
+    public static final String ACQUIRE_AND_FIRE_NEXT_TRIGGERS = "acquireAndFireNextTriggers";
+
+    public static final String TRIGGERED_JOB_COMPLETE = "triggeredJobComplete";
+
+    public static final String TRIGGERED_JOBS_COMPLETE = "triggeredJobsComplete";
+
+    public static final String RELEASE_ACQUIRED_TRIGGER = "releaseAcquiredTrigger";
+
+    public static final String STORE_TRIGGER = "storeTrigger";
+
+    public static final String STORE_TRIGGERS = "storeTriggers";
+
+    public static final String RECOVER_MISFIRES = "recoverMisfires";
+
+    public static final String CLUSTER_CHECKIN = "clusterCheckin";
+
+    private final ConcurrentMap<String, LatencyHistogram> operations = new ConcurrentHashMap<String, LatencyHistogram>();
+
+    private final ConcurrentMap<String, LatencyHistogram> lockWaits = new ConcurrentHashMap<String, LatencyHistogram>();
+
+    private final AtomicLong lockRetries = new AtomicLong();
+
+    private final AtomicLong transactionRetries = new AtomicLong();
+
+    void operationCompleted(String operation, long nanos) {
+        histogram(operations, operation).record(nanos);
+    }
+
+    void lockObtained(String lockName, long nanos) {
+        histogram(lockWaits, lockName).record(nanos);
+    }
+
+    void lockRetried() {
+        lockRetries.incrementAndGet();
+    }
+
+    void transactionRetried() {
+        transactionRetries.incrementAndGet();
+    }
+
+    private static LatencyHistogram histogram(ConcurrentMap<String, LatencyHistogram> histograms, String name) {
+        LatencyHistogram histogram = histograms.get(name);
+        if (histogram == null) {
+            LatencyHistogram created = new LatencyHistogram();
+            histogram = histograms.putIfAbsent(name, created);
+            if (histogram == null) {
+                histogram = created;
+            }
+        }
+        return histogram;
+    }
+
+    /**
+     * The latencies of the operations that have been performed, by operation
+     * name (for example {@link #ACQUIRE_NEXT_TRIGGERS}).  The count of each
+     * histogram is the number of calls.
+     */
+    public Map<String, LatencyHistogram> getOperationLatencies() {
+        return Collections.unmodifiableMap(new TreeMap<String, LatencyHistogram>(operations));
+    }
+
+    /**
+     * The latency of the given operation, or <code>null</code> if it has not
+     * been performed.
+     */
+    public LatencyHistogram getOperationLatency(String operation) {
+        return operations.get(operation);
+    }
+
+    /**
+     * The time spent waiting to obtain database row locks, by lock name.
+     * Locks a thread already held are not counted.
+     */
+    public Map<String, LatencyHistogram> getLockWaits() {
+        return Collections.unmodifiableMap(new TreeMap<String, LatencyHistogram>(lockWaits));
+    }
+
+    /**
+     * The number of times obtaining a database row lock failed and was
+     * retried.
+     */
+    public long getLockRetryCount() {
+        return lockRetries.get();
+    }
+
+    /**
+     * The number of times a transaction that must not be lost, such as
+     * marking a fired job complete, failed and was retried.
+     */
+    public long getTransactionRetryCount() {
+        return transactionRetries.get();
+    }
+
+    /**
+     * Forget everything recorded so far.
+     */
+    public void reset() {
+        operations.clear();
+        lockWaits.clear();
+        lockRetries.set(0L);
+        transactionRetries.set(0L);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, LatencyHistogram> entry : getOperationLatencies().entrySet()) {
+            sb.append(entry.getKey()).append(": ").append(entry.getValue()).append("; ");
+        }
+        for (Map.Entry<String, LatencyHistogram> entry : getLockWaits().entrySet()) {
+            sb.append("lock ").append(entry.getKey()).append(": ").append(entry.getValue()).append("; ");
+        }
+        sb.append("lock retries: ").append(getLockRetryCount());
+        sb.append("; transaction retries: ").append(getTransactionRetryCount());
+        return sb.toString();
+    }
+}
@@ -23,14 +23,24 @@ import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Proxy;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.quartz.Calendar;
 import org.quartz.Job;
@@ -52,13 +62,19 @@ import org.quartz.impl.matchers.GroupMatcher;
 import org.quartz.impl.matchers.StringMatcher;
 import org.quartz.impl.matchers.StringMatcher.StringOperatorName;
 import org.quartz.impl.triggers.SimpleTriggerImpl;
+import org.quartz.spi.AcquiredTriggers;
+import org.quartz.spi.BatchingJobStore;
 import org.quartz.spi.ClassLoadHelper;
+import org.quartz.spi.FusedFiringJobStore;
 import org.quartz.spi.JobStore;
 import org.quartz.spi.OperableTrigger;
 import org.quartz.spi.SchedulerSignaler;
+import org.quartz.spi.ShardedJobStore;
 import org.quartz.spi.ThreadExecutor;
 import org.quartz.spi.TriggerFiredBundle;
 import org.quartz.spi.TriggerFiredResult;
+import org.quartz.spi.TriggerShard;
+import org.quartz.spi.TriggeredJobCompletion;
 import org.quartz.utils.DBConnectionManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -72,7 +88,8 @@ import org.slf4j.LoggerFactory;
  * @author <a href="mailto:jeff@binaryfeed.org">Jeffrey Wescott</a>
  * @author James House
  */
-public abstract class JobStoreSupport implements JobStore, Constants {
+public abstract class JobStoreSupport implements JobStore, BatchingJobStore, FusedFiringJobStore, ShardedJobStore,
+    Constants {
 
     /*
      * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
@@ -107,11 +124,16 @@ public abstract class JobStoreSupport implements JobStore, Constants {
     protected String delegateClassName;
 
     protected String delegateInitString;
+
+    protected String jobDataMapCodec;
     
     protected Class<? extends DriverDelegate> delegateClass = StdJDBCDelegate.class;
 
     protected HashMap<String, Calendar> calendarCache = new HashMap<String, Calendar>();
 
+    private final ConcurrentHashMap<String, VersionedCalendar> versionedCalendarCache =
+        new ConcurrentHashMap<String, VersionedCalendar>();
+
     private DriverDelegate delegate;
 
     private long misfireThreshold = 60000L; // one minute
@@ -144,6 +166,46 @@ public abstract class JobStoreSupport implements JobStore, Constants {
     
     private boolean acquireTriggersWithinLock = false;
     
+    private boolean acquireTriggersSkipLocked = false;
+
+    private volatile Boolean skipLockedAcquisition = null;
+
+    private boolean fuseAcquireAndFire = false;
+    
+    private int triggerAccessPartitions = 1;
+
+    private boolean triggerAccessPartitionAffinity = false;
+
+    private final AtomicInteger nextAcquirePartition = new AtomicInteger();
+
+    private boolean bulkMisfireRecovery = false;
+
+    private int misfireRecoveryBatchSize = 1000;
+
+    private int misfireRecoveryParallelism = 0;
+
+    private ForkJoinPool misfireRecoveryPool = null;
+
+    private final MisfireRecoveryStatistics misfireRecoveryStatistics = new MisfireRecoveryStatistics();
+
+    private final JobStoreStatistics statistics = new JobStoreStatistics();
+
+    private int readCacheSize = 0;
+
+    private long readCacheTimeToLive = 5000L;
+
+    private long readCacheChangeCheckInterval = 1000L;
+
+    private SchedulingDataCache readCache = null;
+
+    private final AtomicLong lastChangeTokenCheck = new AtomicLong();
+
+    private volatile String changeToken = null;
+
+    private boolean useCalendarVersions = false;
+
+    private long calendarCacheMaxStaleness = 0L;
+    
     private long dbRetryInterval = 15000L; // 15 secs
     
     private boolean makeThreadsDaemons = false;
@@ -349,6 +411,84 @@ public abstract class JobStoreSupport implements JobStore, Constants {
         this.maxToRecoverAtATime = maxToRecoverAtATime;
     }
 
+    /**
+     * Whether misfired triggers are recovered in bulk.
+     * 
+     * @see #setBulkMisfireRecovery(boolean)
+     */
+    public boolean isBulkMisfireRecovery() {
+        return bulkMisfireRecovery;
+    }
+
+    /**
+     * <p>
+     * Whether misfired triggers should be recovered in bulk: batches of up to
+     * <code>misfireRecoveryBatchSize</code> misfired triggers are read through
+     * a cursor, their new fire times are computed in parallel, and they are
+     * written back with batched updates.  Each run of the misfire handler
+     * recovers one batch (within one transaction) instead of
+     * <code>maxMisfiresToHandleAtATime</code> triggers, and recovery at start-up
+     * works through every batch.  The default is <code>false</code>.
+     * </p>
+     */
+    @SuppressWarnings("UnusedDeclaration") /* called reflectively */
+    public void setBulkMisfireRecovery(boolean bulkMisfireRecovery) {
+        this.bulkMisfireRecovery = bulkMisfireRecovery;
+    }
+
+    /**
+     * Get the number of misfired triggers recovered per batch in bulk mode.
+     * 
+     * @see #setBulkMisfireRecovery(boolean)
+     */
+    public int getMisfireRecoveryBatchSize() {
+        return misfireRecoveryBatchSize;
+    }
+
+    /**
+     * Set the number of misfired triggers recovered per batch (and
+     * transaction) when recovering in bulk.  The default is 1000.
+     */
+    @SuppressWarnings("UnusedDeclaration") /* called reflectively */
+    public void setMisfireRecoveryBatchSize(int misfireRecoveryBatchSize) {
+        this.misfireRecoveryBatchSize = misfireRecoveryBatchSize;
+    }
+
+    /**
+     * Get the number of threads computing new fire times in bulk mode.
+     * 
+     * @see #setMisfireRecoveryParallelism(int)
+     */
+    public int getMisfireRecoveryParallelism() {
+        return (misfireRecoveryParallelism > 0)
+            ? misfireRecoveryParallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Set the number of threads that compute the new fire times of misfired
+     * triggers when recovering in bulk.  The default of 0 uses one thread per
+     * available processor; 1 computes them on the misfire handling thread.
+     */
+    @SuppressWarnings("UnusedDeclaration") /* called reflectively */
+    public void setMisfireRecoveryParallelism(int misfireRecoveryParallelism) {
+        this.misfireRecoveryParallelism = misfireRecoveryParallelism;
+    }
+
+    /**
+     * Get the progress of bulk misfire recovery.
+     */
+    public MisfireRecoveryStatistics getMisfireRecoveryStatistics() {
+        return misfireRecoveryStatistics;
+    }
+
+    /**
+     * Get the timings of the operations of this <code>JobStore</code>, and of
+     * the database locks they obtain.
+     */
+    public JobStoreStatistics getStatistics() {
+        return statistics;
+    }
+
     /**
      * @return Returns the dbRetryInterval.
      */
@@ -483,6 +623,221 @@ public abstract class JobStoreSupport implements JobStore, Constants {
         this.acquireTriggersWithinLock = acquireTriggersWithinLock;
     }
 
+    /**
+     * Whether triggers are acquired by claiming their rows with
+     * <code>SELECT ... FOR UPDATE SKIP LOCKED</code>, without taking the
+     * <code>TRIGGER_ACCESS</code> lock.
+     * 
+     * @see #setAcquireTriggersSkipLocked(boolean)
+     */
+    public boolean isAcquireTriggersSkipLocked() {
+        return acquireTriggersSkipLocked;
+    }
+
+    /**
+     * Whether triggers should be acquired by claiming their rows with
+     * <code>SELECT ... FOR UPDATE SKIP LOCKED</code> rather than within the
+     * <code>TRIGGER_ACCESS</code> lock, so that the nodes of a cluster
+     * acquire disjoint triggers in parallel.  This takes precedence over
+     * <code>acquireTriggersWithinLock</code>, and only applies if the driver
+     * delegate supports it for the database in use (see
+     * {@link DriverDelegate#supportsSkipLocked(Connection)}); otherwise
+     * triggers are acquired as usual.
+     */
+    @SuppressWarnings("UnusedDeclaration") /* called reflectively */
+    public void setAcquireTriggersSkipLocked(boolean acquireTriggersSkipLocked) {
+        this.acquireTriggersSkipLocked = acquireTriggersSkipLocked;
+    }
+
+    /**
+     * Whether triggers that are already due when they are acquired are fired
+     * in the same transaction.
+     * 
+     * @see #setFuseAcquireAndFire(boolean)
+     */
+    public boolean isFuseAcquireAndFire() {
+        return fuseAcquireAndFire;
+    }
+
+    /**
+     * Whether the scheduler should fire the triggers it acquires in the same
+     * transaction, under the same lock, when the first of them is already
+     * due - as it is whenever triggers fire on time or late - rather than
+     * taking the <code>TRIGGER_ACCESS</code> lock and committing once to
+     * acquire them and once more to fire them.  Has no effect when
+     * triggers are acquired with <code>SKIP LOCKED</code>, as there is no
+     * lock to share.
+     */
+    @SuppressWarnings("UnusedDeclaration") /* called reflectively */
+    public void setFuseAcquireAndFire(boolean fuseAcquireAndFire) {
+        this.fuseAcquireAndFire = fuseAcquireAndFire;
+    }
+
+    public boolean isFusedFiring() {
+        return isFuseAcquireAndFire();
+    }
+
+    /**
+     * Get the number of <code>TRIGGER_ACCESS</code> lock partitions.
+     * 
+     * @see #setTriggerAccessPartitions(int)
+     */
+    public int getTriggerAccessPartitions() {
+        return triggerAccessPartitions;
+    }
+
+    /**
+     * Set the number of lock rows that trigger access is spread over.  With
+     * more than one partition each trigger belongs to the partition of its
+     * job's key, and acquiring, firing and completing triggers only locks
+     * the partitions involved rather than the single
+     * <code>TRIGGER_ACCESS</code> row.  Every node of a cluster must use the
+     * same value.  Defaults to 1 (not partitioned).
+     */
+    @SuppressWarnings("UnusedDeclaration") /* called reflectively */
+    public void setTriggerAccessPartitions(int triggerAccessPartitions) {
+        this.triggerAccessPartitions = triggerAccessPartitions;
+    }
+
+    /**
+     * Whether this node prefers the partition chosen by its instance id when
+     * acquiring triggers, rather than taking the partitions round-robin.
+     */
+    public boolean isTriggerAccessPartitionAffinity() {
+        return triggerAccessPartitionAffinity;
+    }
+
+    @SuppressWarnings("UnusedDeclaration") /* called reflectively */
+    public void setTriggerAccessPartitionAffinity(boolean triggerAccessPartitionAffinity) {
+        this.triggerAccessPartitionAffinity = triggerAccessPartitionAffinity;
+    }
+
+    protected boolean isTriggerAccessPartitioned() {
+        return triggerAccessPartitions > 1;
+    }
+
+    /**
+     * Get the maximum number of read-only query results cached.
+     * 
+     * @see #setReadCacheSize(int)
+     */
+    public int getReadCacheSize() {
+        return readCacheSize;
+    }
+
+    /**
+     * <p>
+     * Set the maximum number of results of read-only queries (such as
+     * <code>retrieveJob</code>, <code>getTriggerState</code> or
+     * <code>getJobKeys</code>) to keep in memory, so that repeated management
+     * queries need not take a pooled connection.  The least recently used
+     * results are evicted first.  Results are dropped when this store changes
+     * jobs, triggers or calendars, after <code>readCacheTimeToLive</code>,
+     * and when the change token checked every
+     * <code>readCacheChangeCheckInterval</code> changes.  The default of 0
+     * disables the cache.
+     * </p>
+     */
+    @SuppressWarnings("UnusedDeclaration") /* called reflectively */
+    public void setReadCacheSize(int readCacheSize) {
+        this.readCacheSize = readCacheSize;
+    }
+
+    /**
+     * Get the number of milliseconds a cached query result is used for.
+     * 
+     * @see #setReadCacheTimeToLive(long)
+     */
+    public long getReadCacheTimeToLive() {
+        return readCacheTimeToLive;
+    }
+
+    /**
+     * Set the number of milliseconds a cached query result is used for.  This
+     * bounds how stale a result can be, in particular for trigger states and
+     * fire times changed by firing triggers, which do not drop the cache.
+     * The default is 5000.
+     */
+    @SuppressWarnings("UnusedDeclaration") /* called reflectively */
+    public void setReadCacheTimeToLive(long readCacheTimeToLive) {
+        this.readCacheTimeToLive = readCacheTimeToLive;
+    }
+
+    /**
+     * Get the number of milliseconds between checks of the change token.
+     * 
+     * @see #setReadCacheChangeCheckInterval(long)
+     */
+    public long getReadCacheChangeCheckInterval() {
+        return readCacheChangeCheckInterval;
+    }
+
+    /**
+     * Set the number of milliseconds between checks of the change token (see
+     * {@link DriverDelegate#selectSchedulingDataChangeToken(Connection)}),
+     * which drop the read cache when jobs, triggers or calendars were added
+     * or removed, or triggers paused or resumed, by another scheduler (such
+     * as another node of a cluster).  The token is made of row counts, so it
+     * does not see changes made elsewhere that keep them: a rescheduled or
+     * replaced trigger, a replaced job or calendar, or job data stored after
+     * execution.  Those are only seen once the cached result expires after
+     * <code>readCacheTimeToLive</code>.  The default is 1000; 0 disables the
+     * check.
+     */
+    @SuppressWarnings("UnusedDeclaration") /* called reflectively */
+    public void setReadCacheChangeCheckInterval(long readCacheChangeCheckInterval) {
+        this.readCacheChangeCheckInterval = readCacheChangeCheckInterval;
+    }
+
+    /**
+     * Whether calendars carry a version stamp that lets clustered nodes cache
+     * them.
+     * 
+     * @see #setUseCalendarVersions(boolean)
+     */
+    public boolean isUseCalendarVersions() {
+        return useCalendarVersions;
+    }
+
+    /**
+     * Whether every write of a calendar should stamp the
+     * <code>CALENDAR_VERSION</code> column of its row, so that clustered
+     * nodes may cache deserialized calendars and only re-read one when its
+     * version has changed.  Requires the <code>CALENDAR_VERSION</code> column,
+     * and every node of the cluster must use the same value.  Defaults to
+     * <code>false</code>, in which case clustered nodes read the calendar
+     * from the database every time it is needed.
+     */
+    @SuppressWarnings("UnusedDeclaration") /* called reflectively */
+    public void setUseCalendarVersions(boolean useCalendarVersions) {
+        this.useCalendarVersions = useCalendarVersions;
+    }
+
+    /**
+     * Get the number of milliseconds for which a cached calendar is used
+     * without checking its version.
+     * 
+     * @see #setCalendarCacheMaxStaleness(long)
+     */
+    public long getCalendarCacheMaxStaleness() {
+        return calendarCacheMaxStaleness;
+    }
+
+    /**
+     * Set the number of milliseconds for which a clustered node uses a cached
+     * calendar without checking its version in the database.  Only used when
+     * <code>useCalendarVersions</code> is set.  Defaults to 0, in which case
+     * the version is checked every time the calendar is needed.
+     */
+    @SuppressWarnings("UnusedDeclaration") /* called reflectively */
+    public void setCalendarCacheMaxStaleness(long calendarCacheMaxStaleness) {
+        this.calendarCacheMaxStaleness = calendarCacheMaxStaleness;
+    }
+
+    protected boolean isCalendarCacheVersioned() {
+        return isClustered() && isUseCalendarVersions();
+    }
+
     
     /**
      * <p>
@@ -536,6 +891,25 @@ public abstract class JobStoreSupport implements JobStore, Constants {
         return delegateInitString;
     }
 
+    /**
+     * <p>
+     * Set the class name of the <code>{@link JobDataMapCodec}</code> that the
+     * driver delegate writes JobDataMaps with, for example
+     * <code>org.quartz.impl.jdbcjobstore.CompactJobDataMapCodec</code>.  This
+     * is passed to the delegate as its <code>jobDataMapCodec</code> init
+     * setting.  If not set, JobDataMaps are written as serialized objects
+     * (or properties, see <code>useProperties</code>) without a codec header.
+     * </p>
+     */
+    @SuppressWarnings("UnusedDeclaration") /* called reflectively */
+    public void setJobDataMapCodec(String jobDataMapCodec) {
+        this.jobDataMapCodec = jobDataMapCodec;
+    }
+
+    public String getJobDataMapCodec() {
+        return jobDataMapCodec;
+    }
+
     public String getSelectWithLockSQL() {
         return selectWithLockSQL;
     }
@@ -652,6 +1026,20 @@ public abstract class JobStoreSupport implements JobStore, Constants {
         
         this.schedSignaler = signaler;
 
+        if (triggerAccessPartitions < 1) {
+            throw new SchedulerConfigException(
+                "triggerAccessPartitions must be at least 1, was " + triggerAccessPartitions);
+        }
+
+        if (misfireRecoveryBatchSize < 1) {
+            throw new SchedulerConfigException(
+                "misfireRecoveryBatchSize must be at least 1, was " + misfireRecoveryBatchSize);
+        }
+
+        if (readCacheSize > 0) {
+            readCache = new SchedulingDataCache(readCacheSize, readCacheTimeToLive);
+        }
+
         // If the user hasn't specified an explicit lock handler, then 
         // choose one based on CMT/Clustered/UseDBLocks.
         if (getLockHandler() == null) {
@@ -679,6 +1067,9 @@ public abstract class JobStoreSupport implements JobStore, Constants {
             }
         }
 
+        if (getLockHandler() instanceof DBSemaphore) {
+            ((DBSemaphore) getLockHandler()).setStatistics(statistics);
+        }
     }
    
     /**
@@ -743,6 +1134,13 @@ public abstract class JobStoreSupport implements JobStore, Constants {
             }
         }
 
+        synchronized (this) {
+            if (misfireRecoveryPool != null) {
+                misfireRecoveryPool.shutdown();
+                misfireRecoveryPool = null;
+            }
+        }
+
         try {
             DBConnectionManager.getInstance().shutdown(getDataSource());
         } catch (SQLException sqle) {
@@ -820,8 +1218,36 @@ public abstract class JobStoreSupport implements JobStore, Constants {
         return conn;
     }
 
+    /**
+     * <p>
+     * Obtain the given lock.  When trigger access is partitioned,
+     * <code>TRIGGER_ACCESS</code> stands for every partition lock, and these
+     * are obtained in ascending order, as is any other set of partition locks,
+     * so that threads taking several of them can not deadlock each other.
+     * </p>
+     */
+    protected boolean obtainLock(Connection conn, String lockName) throws LockException {
+        if (!isTriggerAccessPartitioned() || !LOCK_TRIGGER_ACCESS.equals(lockName)) {
+            return getLockHandler().obtainLock(conn, lockName);
+        }
+
+        int obtained = 0;
+        try {
+            for (; obtained < triggerAccessPartitions; obtained++) {
+                getLockHandler().obtainLock(conn, getTriggerAccessLockName(obtained));
+            }
+        } finally {
+            if (obtained < triggerAccessPartitions) {
+                releaseTriggerAccessPartitions(obtained);
+            }
+        }
+        return true;
+    }
+
     protected void releaseLock(String lockName, boolean doIt) {
-        if (doIt) {
+        if (doIt && isTriggerAccessPartitioned() && LOCK_TRIGGER_ACCESS.equals(lockName)) {
+            releaseTriggerAccessPartitions(triggerAccessPartitions);
+        } else if (doIt) {
             try {
                 getLockHandler().releaseLock(lockName);
             } catch (LockException le) {
@@ -830,6 +1256,55 @@ public abstract class JobStoreSupport implements JobStore, Constants {
         }
     }
 
+    private void releaseTriggerAccessPartitions(int count) {
+        for (int partition = count - 1; partition >= 0; partition--) {
+            releaseLock(getTriggerAccessLockName(partition), true);
+        }
+    }
+
+    /**
+     * Get the name of the lock row guarding the given trigger access partition.
+     */
+    protected String getTriggerAccessLockName(int partition) {
+        return LOCK_TRIGGER_ACCESS + "_" + partition;
+    }
+
+    /**
+     * Get the trigger access partition of the triggers of the given job.  
+     * Partitioning by job rather than by trigger keeps the updates that span
+     * all of a job's triggers (such as blocking the triggers of a job that
+     * disallows concurrent execution) within a single partition.
+     */
+    protected int getTriggerAccessPartition(JobKey jobKey) {
+        return (jobKey.hashCode() & Integer.MAX_VALUE) % triggerAccessPartitions;
+    }
+
+    /**
+     * Get the lock guarding the triggers of the given job: its partition lock
+     * when trigger access is partitioned, otherwise <code>TRIGGER_ACCESS</code>.
+     */
+    protected String getTriggerAccessLockName(JobKey jobKey) {
+        return isTriggerAccessPartitioned()
+            ? getTriggerAccessLockName(getTriggerAccessPartition(jobKey))
+            : LOCK_TRIGGER_ACCESS;
+    }
+
+    /**
+     * Get the lock guarding all of the given triggers: their partition lock if
+     * they share one, otherwise <code>TRIGGER_ACCESS</code>.
+     */
+    protected String getTriggerAccessLockName(List<OperableTrigger> triggers) {
+        String lockName = null;
+        for (OperableTrigger trigger : triggers) {
+            String triggerLockName = getTriggerAccessLockName(trigger.getJobKey());
+            if (lockName != null && !lockName.equals(triggerLockName)) {
+                return LOCK_TRIGGER_ACCESS;
+            }
+            lockName = triggerLockName;
+        }
+        return (lockName != null) ? lockName : LOCK_TRIGGER_ACCESS;
+    }
+
     /**
      * Recover any failed or misfired jobs and clean up the data store as
      * appropriate.
@@ -837,13 +1312,17 @@ public abstract class JobStoreSupport implements JobStore, Constants {
      * @throws JobPersistenceException if jobs could not be recovered
      */
     protected void recoverJobs() throws JobPersistenceException {
-        executeInNonManagedTXLock(
-            LOCK_TRIGGER_ACCESS,
-            new VoidTransactionCallback() {
-                public void executeVoid(Connection conn) throws JobPersistenceException {
-                    recoverJobs(conn);
-                }
-            }, null);
+        try {
+            executeInNonManagedTXLock(
+                LOCK_TRIGGER_ACCESS,
+                new VoidTransactionCallback() {
+                    public void executeVoid(Connection conn) throws JobPersistenceException {
+                        recoverJobs(conn);
+                    }
+                }, null);
+        } finally {
+            schedulingDataChanged();
+        }
     }
     
     /**
@@ -951,6 +1430,10 @@ public abstract class JobStoreSupport implements JobStore, Constants {
         Connection conn, boolean recovering)
         throws JobPersistenceException, SQLException {
 
+        if (isBulkMisfireRecovery()) {
+            return recoverMisfiredJobsInBulk(conn, recovering);
+        }
+
         // If recovering, we want to handle all of the misfired
         // triggers right away.
         int maxMisfiresToHandleAtATime = 
@@ -999,31 +1482,198 @@ public abstract class JobStoreSupport implements JobStore, Constants {
                 hasMoreMisfiredTriggers, misfiredTriggers.size(), earliestNewTime);
     }
 
-    protected boolean updateMisfiredTrigger(Connection conn,
-            TriggerKey triggerKey, String newStateIfNotComplete, boolean forceState)
-        throws JobPersistenceException {
-        try {
+    /**
+     * <p>
+     * Recover misfired triggers a batch at a time: the keys of up to
+     * <code>misfireRecoveryBatchSize</code> misfired triggers are read through
+     * a cursor, the triggers and their calendars are loaded (each calendar
+     * once), the new fire times are computed in parallel, and the triggers are
+     * written back with batched updates.  When recovering at start-up every
+     * batch is processed, otherwise only the first.
+     * </p>
+     */
+    protected RecoverMisfiredJobsResult recoverMisfiredJobsInBulk(
+        Connection conn, boolean recovering)
+        throws JobPersistenceException, SQLException {
 
-            OperableTrigger trig = retrieveTrigger(conn, triggerKey);
+        int batchSize = getMisfireRecoveryBatchSize();
+        int processed = 0;
+        long earliestNewTime = Long.MAX_VALUE;
+        boolean hasMoreMisfiredTriggers;
+        do {
+            long start = System.currentTimeMillis();
 
-            long misfireTime = System.currentTimeMillis();
-            if (getMisfireThreshold() > 0) {
-                misfireTime -= getMisfireThreshold();
+            List<TriggerKey> misfiredTriggers = new ArrayList<TriggerKey>(batchSize);
+            hasMoreMisfiredTriggers = getDelegate().hasMisfiredTriggersInState(
+                conn, STATE_WAITING, getMisfireTime(), batchSize, batchSize, misfiredTriggers);
+            if (misfiredTriggers.isEmpty()) {
+                break;
             }
 
-            if (trig.getNextFireTime().getTime() > misfireTime) {
-                return false;
+            List<OperableTrigger> triggers = new ArrayList<OperableTrigger>(misfiredTriggers.size());
+            Map<String, Calendar> calendars = new HashMap<String, Calendar>();
+            for (TriggerKey triggerKey: misfiredTriggers) {
+                OperableTrigger trig = retrieveTrigger(conn, triggerKey);
+                if (trig == null) {
+                    continue;
+                }
+                String calName = trig.getCalendarName();
+                if (calName != null && !calendars.containsKey(calName)) {
+                    calendars.put(calName, retrieveCalendar(conn, calName));
+                }
+                triggers.add(trig);
+            }
+            if (triggers.isEmpty()) {
+                break;
             }
 
-            doUpdateOfMisfiredTrigger(conn, trig, forceState, newStateIfNotComplete, false);
+            for (OperableTrigger trig: triggers) {
+                schedSignaler.notifyTriggerListenersMisfired(trig);
+            }
 
-            return true;
+            updateMisfiredTriggersAfterMisfire(triggers, calendars);
 
-        } catch (Exception e) {
-            throw new JobPersistenceException(
-                    "Couldn't update misfired trigger '" + triggerKey + "': " + e.getMessage(), e);
-        }
-    }
+            storeMisfiredTriggers(conn, triggers, recovering);
+
+            for (OperableTrigger trig: triggers) {
+                if (trig.getNextFireTime() == null) {
+                    schedSignaler.notifySchedulerListenersFinalized(trig);
+                } else if (trig.getNextFireTime().getTime() < earliestNewTime) {
+                    earliestNewTime = trig.getNextFireTime().getTime();
+                }
+            }
+
+            processed += triggers.size();
+            misfireRecoveryStatistics.batchRecovered(triggers.size(), System.currentTimeMillis() - start);
+            getLog().info(
+                "Handled " + triggers.size() + " trigger(s) that missed their scheduled fire-time in "
+                    + (System.currentTimeMillis() - start) + " ms; " + misfireRecoveryStatistics + ".");
+        } while (recovering && hasMoreMisfiredTriggers);
+
+        if (processed == 0) {
+            getLog().debug(
+                "Found 0 triggers that missed their scheduled fire-time.");
+            return RecoverMisfiredJobsResult.NO_OP;
+        }
+
+        return new RecoverMisfiredJobsResult(
+                hasMoreMisfiredTriggers, processed, earliestNewTime);
+    }
+
+    /**
+     * Apply the misfire instructions of the given triggers, on the misfire
+     * recovery pool unless there is a single thread or only a few triggers.
+     */
+    private void updateMisfiredTriggersAfterMisfire(List<OperableTrigger> triggers,
+            Map<String, Calendar> calendars) {
+        MisfireUpdateTask task = new MisfireUpdateTask(triggers, calendars, 0, triggers.size());
+        if (getMisfireRecoveryParallelism() < 2 || triggers.size() <= MisfireUpdateTask.THRESHOLD) {
+            task.compute();
+        } else {
+            getMisfireRecoveryPool().invoke(task);
+        }
+    }
+
+    private synchronized ForkJoinPool getMisfireRecoveryPool() {
+        if (misfireRecoveryPool == null) {
+            misfireRecoveryPool = new ForkJoinPool(getMisfireRecoveryParallelism());
+        }
+        return misfireRecoveryPool;
+    }
+
+    /**
+     * Write back the given misfired triggers with batched updates, moving
+     * them to the state <code>storeTrigger</code> would (looking up paused
+     * groups, jobs and blocked jobs once each).
+     */
+    private void storeMisfiredTriggers(Connection conn, List<OperableTrigger> triggers,
+            boolean recovering) throws JobPersistenceException {
+        try {
+            boolean allGroupsPaused = getDelegate().isTriggerGroupPaused(conn, ALL_GROUPS_PAUSED);
+            Map<String, Boolean> pausedGroups = new HashMap<String, Boolean>();
+            Map<JobKey, JobDetail> jobs = new HashMap<JobKey, JobDetail>();
+            Map<JobKey, Boolean> blockedJobs = new HashMap<JobKey, Boolean>();
+
+            List<String> states = new ArrayList<String>(triggers.size());
+            List<JobDetail> triggerJobs = new ArrayList<JobDetail>(triggers.size());
+            for (OperableTrigger trig: triggers) {
+                String state = (trig.getNextFireTime() == null) ? STATE_COMPLETE : STATE_WAITING;
+
+                String group = trig.getKey().getGroup();
+                Boolean paused = pausedGroups.get(group);
+                if (paused == null) {
+                    paused = getDelegate().isTriggerGroupPaused(conn, group);
+                    if (!paused && allGroupsPaused) {
+                        getDelegate().insertPausedTriggerGroup(conn, group);
+                        paused = Boolean.TRUE;
+                    }
+                    pausedGroups.put(group, paused);
+                }
+                if (paused && state.equals(STATE_WAITING)) {
+                    state = STATE_PAUSED;
+                }
+
+                JobDetail job = jobs.get(trig.getJobKey());
+                if (job == null) {
+                    job = retrieveJob(conn, trig.getJobKey());
+                    if (job == null) {
+                        throw new JobPersistenceException("The job ("
+                                + trig.getJobKey()
+                                + ") referenced by the trigger does not exist.");
+                    }
+                    jobs.put(job.getKey(), job);
+                }
+
+                if (job.isConcurrentExectionDisallowed() && !recovering && !state.equals(STATE_COMPLETE)) {
+                    Boolean blocked = blockedJobs.get(job.getKey());
+                    if (blocked == null) {
+                        blocked = STATE_BLOCKED.equals(checkBlockedState(conn, job.getKey(), STATE_WAITING));
+                        blockedJobs.put(job.getKey(), blocked);
+                    }
+                    if (blocked) {
+                        state = paused ? STATE_PAUSED_BLOCKED : STATE_BLOCKED;
+                    }
+                }
+
+                states.add(state);
+                triggerJobs.add(job);
+            }
+
+            getDelegate().updateTriggers(conn, triggers, states, triggerJobs);
+        } catch (IOException e) {
+            throw new JobPersistenceException("Couldn't store misfired triggers: "
+                    + e.getMessage(), e);
+        } catch (SQLException e) {
+            throw new JobPersistenceException("Couldn't store misfired triggers: "
+                    + e.getMessage(), e);
+        }
+    }
+
+    protected boolean updateMisfiredTrigger(Connection conn,
+            TriggerKey triggerKey, String newStateIfNotComplete, boolean forceState)
+        throws JobPersistenceException {
+        try {
+
+            OperableTrigger trig = retrieveTrigger(conn, triggerKey);
+
+            long misfireTime = System.currentTimeMillis();
+            if (getMisfireThreshold() > 0) {
+                misfireTime -= getMisfireThreshold();
+            }
+
+            if (trig.getNextFireTime().getTime() > misfireTime) {
+                return false;
+            }
+
+            doUpdateOfMisfiredTrigger(conn, trig, forceState, newStateIfNotComplete, false);
+
+            return true;
+
+        } catch (Exception e) {
+            throw new JobPersistenceException(
+                    "Couldn't update misfired trigger '" + triggerKey + "': " + e.getMessage(), e);
+        }
+    }
 
     private void doUpdateOfMisfiredTrigger(Connection conn, OperableTrigger trig, boolean forceState, String newStateIfNotComplete, boolean recovering) throws JobPersistenceException {
         Calendar cal = null;
@@ -1061,7 +1711,7 @@ public abstract class JobStoreSupport implements JobStore, Constants {
     public void storeJobAndTrigger(final JobDetail newJob,
             final OperableTrigger newTrigger) 
         throws JobPersistenceException {
-        executeInLock(
+        executeWriteInLock(
             (isLockOnInsert()) ? LOCK_TRIGGER_ACCESS : null,
             new VoidTransactionCallback() {
                 public void executeVoid(Connection conn) throws JobPersistenceException {
@@ -1089,7 +1739,7 @@ public abstract class JobStoreSupport implements JobStore, Constants {
      */
     public void storeJob(final JobDetail newJob,
         final boolean replaceExisting) throws JobPersistenceException {
-        executeInLock(
+        executeWriteInLock(
             (isLockOnInsert() || replaceExisting) ? LOCK_TRIGGER_ACCESS : null,
             new VoidTransactionCallback() {
                 public void executeVoid(Connection conn) throws JobPersistenceException {
@@ -1158,16 +1808,150 @@ public abstract class JobStoreSupport implements JobStore, Constants {
      */
     public void storeTrigger(final OperableTrigger newTrigger,
         final boolean replaceExisting) throws JobPersistenceException {
-        executeInLock(
-            (isLockOnInsert() || replaceExisting) ? LOCK_TRIGGER_ACCESS : null,
-            new VoidTransactionCallback() {
-                public void executeVoid(Connection conn) throws JobPersistenceException {
-                    storeTrigger(conn, newTrigger, null, replaceExisting,
-                        STATE_WAITING, false, false);
-                }
-            });
+        long start = System.nanoTime();
+        try {
+            executeWriteInLock(
+                (isLockOnInsert() || replaceExisting) ? LOCK_TRIGGER_ACCESS : null,
+                new VoidTransactionCallback() {
+                    public void executeVoid(Connection conn) throws JobPersistenceException {
+                        storeTrigger(conn, newTrigger, null, replaceExisting,
+                            STATE_WAITING, false, false);
+                    }
+                });
+        } finally {
+            statistics.operationCompleted(JobStoreStatistics.STORE_TRIGGER, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * <p>
+     * Store the given new triggers in a single transaction.  A trigger that
+     * already exists, or whose job does not, is reported and skipped; any
+     * other failure rolls back the whole batch.
+     * </p>
+     * 
+     * <p>
+     * Which of the triggers already exist is found with one multi-row query,
+     * and the others are inserted with JDBC batches, as
+     * {@link #storeJobsAndTriggers(Connection, Map, boolean)} does.
+     * </p>
+     * 
+     * @see org.quartz.spi.BatchingJobStore#storeTriggers(List)
+     */
+    public List<JobPersistenceException> storeTriggers(final List<OperableTrigger> newTriggers)
+        throws JobPersistenceException {
+        long start = System.nanoTime();
+        try {
+            return executeWriteInLock(
+                isLockOnInsert() ? LOCK_TRIGGER_ACCESS : null,
+                new TransactionCallback<List<JobPersistenceException>>() {
+                    public List<JobPersistenceException> execute(Connection conn) throws JobPersistenceException {
+                        return storeTriggers(conn, newTriggers);
+                    }
+                });
+        } finally {
+            statistics.operationCompleted(JobStoreStatistics.STORE_TRIGGERS, System.nanoTime() - start);
+        }
     }
     
+    /**
+     * <p>
+     * Insert the given new triggers, reporting and skipping those that
+     * already exist or whose job does not.
+     * </p>
+     */
+    protected List<JobPersistenceException> storeTriggers(Connection conn, List<OperableTrigger> newTriggers)
+        throws JobPersistenceException {
+
+        List<JobPersistenceException> results = new ArrayList<JobPersistenceException>(newTriggers.size());
+        List<TriggerKey> triggerKeys = new ArrayList<TriggerKey>(newTriggers.size());
+        for (OperableTrigger newTrigger : newTriggers) {
+            triggerKeys.add(newTrigger.getKey());
+        }
+
+        try {
+            Set<TriggerKey> existingTriggers = new HashSet<TriggerKey>(
+                    getDelegate().selectExistingTriggerKeys(conn, triggerKeys));
+
+            boolean allGroupsPaused = getDelegate().isTriggerGroupPaused(conn, ALL_GROUPS_PAUSED);
+            Map<String, Boolean> pausedGroups = new HashMap<String, Boolean>();
+            Map<JobKey, Boolean> blockedJobs = new HashMap<JobKey, Boolean>();
+            Map<JobKey, JobDetail> jobs = new HashMap<JobKey, JobDetail>();
+
+            List<OperableTrigger> inserts = new ArrayList<OperableTrigger>();
+            List<String> insertStates = new ArrayList<String>();
+            List<JobDetail> insertJobs = new ArrayList<JobDetail>();
+
+            for (OperableTrigger newTrigger : newTriggers) {
+                JobKey jobKey = newTrigger.getJobKey();
+                if (!jobs.containsKey(jobKey)) {
+                    jobs.put(jobKey, retrieveJob(conn, jobKey));
+                }
+                JobDetail job = jobs.get(jobKey);
+                if (job == null) {
+                    results.add(new JobPersistenceException("The job (" + jobKey
+                            + ") referenced by the trigger does not exist."));
+                    continue;
+                }
+                // a trigger given twice exists by the time the second is stored
+                if (!existingTriggers.add(newTrigger.getKey())) {
+                    results.add(new ObjectAlreadyExistsException(newTrigger));
+                    continue;
+                }
+
+                inserts.add(newTrigger);
+                insertStates.add(getNewTriggerState(conn, newTrigger, job, allGroupsPaused, pausedGroups, blockedJobs));
+                insertJobs.add(job);
+                results.add(null);
+            }
+
+            getDelegate().insertTriggers(conn, inserts, insertStates, insertJobs);
+        } catch (IOException e) {
+            throw new JobPersistenceException("Couldn't store triggers: "
+                    + e.getMessage(), e);
+        } catch (SQLException e) {
+            throw new JobPersistenceException("Couldn't store triggers: "
+                    + e.getMessage(), e);
+        }
+        return results;
+    }
+
+    /**
+     * <p>
+     * The state to store a new trigger of the given job in: paused if its
+     * group is (pausing the group if all groups are), and blocked if its job
+     * disallows concurrent execution and is running.  The paused groups and
+     * blocked jobs are looked up once, and remembered in the given maps.
+     * </p>
+     */
+    private String getNewTriggerState(Connection conn, OperableTrigger trigger, JobDetail job,
+            boolean allGroupsPaused, Map<String, Boolean> pausedGroups, Map<JobKey, Boolean> blockedJobs)
+        throws JobPersistenceException, SQLException {
+        String group = trigger.getKey().getGroup();
+        Boolean paused = pausedGroups.get(group);
+        if (paused == null) {
+            paused = getDelegate().isTriggerGroupPaused(conn, group);
+            if (!paused && allGroupsPaused) {
+                getDelegate().insertPausedTriggerGroup(conn, group);
+                paused = Boolean.TRUE;
+            }
+            pausedGroups.put(group, paused);
+        }
+        String state = paused ? STATE_PAUSED : STATE_WAITING;
+
+        if (job.isConcurrentExectionDisallowed()) {
+            Boolean blocked = blockedJobs.get(job.getKey());
+            if (blocked == null) {
+                blocked = STATE_BLOCKED.equals(checkBlockedState(conn, job.getKey(), STATE_WAITING));
+                blockedJobs.put(job.getKey(), blocked);
+            }
+            if (blocked) {
+                state = paused ? STATE_PAUSED_BLOCKED : STATE_BLOCKED;
+            }
+        }
+        return state;
+    }
+
     /**
      * <p>
      * Insert or update a trigger.
@@ -1262,7 +2046,7 @@ public abstract class JobStoreSupport implements JobStore, Constants {
      *         group was found and removed from the store.
      */
     public boolean removeJob(final JobKey jobKey) throws JobPersistenceException {
-        return (Boolean) executeInLock(
+        return (Boolean) executeWriteInLock(
                 LOCK_TRIGGER_ACCESS,
                 new TransactionCallback() {
                     public Object execute(Connection conn) throws JobPersistenceException {
@@ -1290,7 +2074,7 @@ public abstract class JobStoreSupport implements JobStore, Constants {
 
     public boolean removeJobs(final List<JobKey> jobKeys) throws JobPersistenceException {
 
-        return (Boolean) executeInLock(
+        return (Boolean) executeWriteInLock(
                 LOCK_TRIGGER_ACCESS,
                 new TransactionCallback() {
                     public Object execute(Connection conn) throws JobPersistenceException {
@@ -1307,7 +2091,7 @@ public abstract class JobStoreSupport implements JobStore, Constants {
         
     public boolean removeTriggers(final List<TriggerKey> triggerKeys)
             throws JobPersistenceException {
-        return (Boolean) executeInLock(
+        return (Boolean) executeWriteInLock(
                 LOCK_TRIGGER_ACCESS,
                 new TransactionCallback() {
                     public Object execute(Connection conn) throws JobPersistenceException {
@@ -1326,22 +2110,104 @@ public abstract class JobStoreSupport implements JobStore, Constants {
             final Map<JobDetail, Set<? extends Trigger>> triggersAndJobs, final boolean replace)
             throws JobPersistenceException {
 
-        executeInLock(
+        executeWriteInLock(
                 (isLockOnInsert() || replace) ? LOCK_TRIGGER_ACCESS : null,
                 new VoidTransactionCallback() {
                     public void executeVoid(Connection conn) throws JobPersistenceException {
-                        
-                        // FUTURE_TODO: make this more efficient with a true bulk operation...
-                        for(JobDetail job: triggersAndJobs.keySet()) {
-                            storeJob(conn, job, replace);
-                            for(Trigger trigger: triggersAndJobs.get(job)) {
-                                storeTrigger(conn, (OperableTrigger) trigger, job, replace,
-                                        Constants.STATE_WAITING, false, false);
-                            }
-                        }
+                        storeJobsAndTriggers(conn, triggersAndJobs, replace);
                     }
                 });
     }    
+
+    /**
+     * <p>
+     * Insert or update the given jobs and their triggers in bulk.
+     * </p>
+     * 
+     * <p>
+     * Jobs and triggers are written sorted by key. Which of them already
+     * exist is found with a few multi-row queries rather than one query per
+     * job and trigger (jobs being replaced are upserted, which for some
+     * delegates needs no query at all), and the rows are written with JDBC
+     * batches. The paused and blocked states of the triggers are looked up
+     * once per group and per job.
+     * </p>
+     */
+    protected void storeJobsAndTriggers(Connection conn,
+            Map<JobDetail, Set<? extends Trigger>> triggersAndJobs, boolean replace)
+        throws JobPersistenceException {
+
+        TreeMap<JobKey, JobDetail> jobs = new TreeMap<JobKey, JobDetail>();
+        TreeMap<TriggerKey, OperableTrigger> triggers = new TreeMap<TriggerKey, OperableTrigger>();
+        Map<TriggerKey, JobDetail> triggerJobs = new HashMap<TriggerKey, JobDetail>();
+        for (Map.Entry<JobDetail, Set<? extends Trigger>> entry : triggersAndJobs.entrySet()) {
+            JobDetail job = entry.getKey();
+            if (jobs.put(job.getKey(), job) != null && !replace) {
+                throw new ObjectAlreadyExistsException(job);
+            }
+            for (Trigger trigger : entry.getValue()) {
+                if (triggers.put(trigger.getKey(), (OperableTrigger) trigger) != null && !replace) {
+                    throw new ObjectAlreadyExistsException(trigger);
+                }
+                triggerJobs.put(trigger.getKey(), job);
+            }
+        }
+
+        try {
+            List<JobDetail> jobList = new ArrayList<JobDetail>(jobs.values());
+            if (replace) {
+                getDelegate().upsertJobDetails(conn, jobList);
+            } else {
+                Set<JobKey> existingJobs = getDelegate().selectExistingJobKeys(conn,
+                        new ArrayList<JobKey>(jobs.keySet()));
+                if (!existingJobs.isEmpty()) {
+                    throw new ObjectAlreadyExistsException(jobs.get(existingJobs.iterator().next()));
+                }
+                getDelegate().insertJobDetails(conn, jobList);
+            }
+
+            Set<TriggerKey> existingTriggers = getDelegate().selectExistingTriggerKeys(conn,
+                    new ArrayList<TriggerKey>(triggers.keySet()));
+            if (!existingTriggers.isEmpty() && !replace) {
+                throw new ObjectAlreadyExistsException(triggers.get(existingTriggers.iterator().next()));
+            }
+
+            boolean allGroupsPaused = getDelegate().isTriggerGroupPaused(conn, ALL_GROUPS_PAUSED);
+            Map<String, Boolean> pausedGroups = new HashMap<String, Boolean>();
+            Map<JobKey, Boolean> blockedJobs = new HashMap<JobKey, Boolean>();
+
+            List<OperableTrigger> inserts = new ArrayList<OperableTrigger>();
+            List<String> insertStates = new ArrayList<String>();
+            List<JobDetail> insertJobs = new ArrayList<JobDetail>();
+            List<OperableTrigger> updates = new ArrayList<OperableTrigger>();
+            List<String> updateStates = new ArrayList<String>();
+            List<JobDetail> updateJobs = new ArrayList<JobDetail>();
+
+            for (OperableTrigger trigger : triggers.values()) {
+                JobDetail job = triggerJobs.get(trigger.getKey());
+                String state = getNewTriggerState(conn, trigger, job, allGroupsPaused, pausedGroups, blockedJobs);
+
+                if (existingTriggers.contains(trigger.getKey())) {
+                    updates.add(trigger);
+                    updateStates.add(state);
+                    updateJobs.add(job);
+                } else {
+                    inserts.add(trigger);
+                    insertStates.add(state);
+                    insertJobs.add(job);
+                }
+            }
+
+            getDelegate().updateTriggers(conn, updates, updateStates, updateJobs);
+            getDelegate().insertTriggers(conn, inserts, insertStates, insertJobs);
+        } catch (IOException e) {
+            throw new JobPersistenceException("Couldn't store jobs and triggers: "
+                    + e.getMessage(), e);
+        } catch (SQLException e) {
+            throw new JobPersistenceException("Couldn't store jobs and triggers: "
+                    + e.getMessage(), e);
+        }
+    }
     
     /**
      * Delete a job and its listeners.
@@ -1377,7 +2243,8 @@ public abstract class JobStoreSupport implements JobStore, Constants {
      * @return The desired <code>Job</code>, or null if there is no match.
      */
     public JobDetail retrieveJob(final JobKey jobKey) throws JobPersistenceException {
-        return (JobDetail)executeWithoutLock( // no locks necessary for read...
+        return (JobDetail)executeCachedRead( // no locks necessary for read...
+            SchedulingDataCache.key("job", jobKey),
             new TransactionCallback() {
                 public Object execute(Connection conn) throws JobPersistenceException {
                     return retrieveJob(conn, jobKey);
@@ -1426,7 +2293,7 @@ public abstract class JobStoreSupport implements JobStore, Constants {
      *         name and group was found and removed from the store.
      */
     public boolean removeTrigger(final TriggerKey triggerKey) throws JobPersistenceException {
-        return (Boolean) executeInLock(
+        return (Boolean) executeWriteInLock(
                 LOCK_TRIGGER_ACCESS,
                 new TransactionCallback() {
                     public Object execute(Connection conn) throws JobPersistenceException {
@@ -1472,7 +2339,7 @@ public abstract class JobStoreSupport implements JobStore, Constants {
      */
     public boolean replaceTrigger(final TriggerKey triggerKey, 
             final OperableTrigger newTrigger) throws JobPersistenceException {
-        return (Boolean) executeInLock(
+        return (Boolean) executeWriteInLock(
                 LOCK_TRIGGER_ACCESS,
                 new TransactionCallback() {
                     public Object execute(Connection conn) throws JobPersistenceException {
@@ -1522,7 +2389,8 @@ public abstract class JobStoreSupport implements JobStore, Constants {
      *         match.
      */
     public OperableTrigger retrieveTrigger(final TriggerKey triggerKey) throws JobPersistenceException {
-        return (OperableTrigger)executeWithoutLock( // no locks necessary for read...
+        return (OperableTrigger)executeCachedRead( // no locks necessary for read...
+            SchedulingDataCache.key("trigger", triggerKey),
             new TransactionCallback() {
                 public Object execute(Connection conn) throws JobPersistenceException {
                     return retrieveTrigger(conn, triggerKey);
@@ -1553,7 +2421,8 @@ public abstract class JobStoreSupport implements JobStore, Constants {
      * @see TriggerState#NONE
      */
     public TriggerState getTriggerState(final TriggerKey triggerKey) throws JobPersistenceException {
-        return (TriggerState)executeWithoutLock( // no locks necessary for read...
+        return (TriggerState)executeCachedRead( // no locks necessary for read...
+                SchedulingDataCache.key("triggerState", triggerKey),
                 new TransactionCallback() {
                     public Object execute(Connection conn) throws JobPersistenceException {
                         return getTriggerState(conn, triggerKey);
@@ -1615,7 +2484,7 @@ public abstract class JobStoreSupport implements JobStore, Constants {
      * case it will go into the PAUSED state.</p>
      */
     public void resetTriggerFromErrorState(final TriggerKey triggerKey) throws JobPersistenceException {
-        executeInLock(
+        executeWriteInLock(
                 LOCK_TRIGGER_ACCESS,
                 new VoidTransactionCallback() {
                     public void executeVoid(Connection conn) throws JobPersistenceException {
@@ -1663,7 +2532,7 @@ public abstract class JobStoreSupport implements JobStore, Constants {
     public void storeCalendar(final String calName,
         final Calendar calendar, final boolean replaceExisting, final boolean updateTriggers)
         throws JobPersistenceException {
-        executeInLock(
+        executeWriteInLock(
             (isLockOnInsert() || updateTriggers) ? LOCK_TRIGGER_ACCESS : null,
             new VoidTransactionCallback() {
                 public void executeVoid(Connection conn) throws JobPersistenceException {
@@ -1682,6 +2551,15 @@ public abstract class JobStoreSupport implements JobStore, Constants {
                     "Calendar with name '" + calName + "' already exists."); 
             }
 
+            long version = 0L;
+            if (isUseCalendarVersions()) {
+                Long previousVersion = existingCal ? getDelegate().selectCalendarVersion(conn, calName) : null;
+                version = System.currentTimeMillis();
+                if (previousVersion != null && previousVersion >= version) {
+                    version = previousVersion + 1;
+                }
+            }
+
             if (existingCal) {
                 if (getDelegate().updateCalendar(conn, calName, calendar) < 1) { 
                     throw new JobPersistenceException(
@@ -1703,8 +2581,15 @@ public abstract class JobStoreSupport implements JobStore, Constants {
                 }
             }
 
+            if (isUseCalendarVersions()) {
+                getDelegate().updateCalendarVersion(conn, calName, version);
+            }
+
             if (!isClustered) {
                 calendarCache.put(calName, calendar); // lazy-cache
+            } else {
+                // re-read (after commit) on next use
+                versionedCalendarCache.remove(calName);
             }
 
         } catch (IOException e) {
@@ -1748,7 +2633,7 @@ public abstract class JobStoreSupport implements JobStore, Constants {
      */
     public boolean removeCalendar(final String calName)
         throws JobPersistenceException {
-        return (Boolean) executeInLock(
+        return (Boolean) executeWriteInLock(
                 LOCK_TRIGGER_ACCESS,
                 new TransactionCallback() {
                     public Object execute(Connection conn) throws JobPersistenceException {
@@ -1768,6 +2653,8 @@ public abstract class JobStoreSupport implements JobStore, Constants {
 
             if (!isClustered) {
                 calendarCache.remove(calName);
+            } else {
+                versionedCalendarCache.remove(calName);
             }
 
             return (getDelegate().deleteCalendar(conn, calName) > 0);
@@ -1802,6 +2689,12 @@ public abstract class JobStoreSupport implements JobStore, Constants {
         throws JobPersistenceException {
         // all calendars are persistent, but we can lazy-cache them during run
         // time as long as we aren't running clustered.
+        // When clustered, calendars carrying a version may be cached too, as
+        // long as the version is checked before a cached one is used.
+        if (isCalendarCacheVersioned()) {
+            return retrieveVersionedCalendar(conn, calName);
+        }
+
         Calendar cal = (isClustered) ? null : calendarCache.get(calName);
         if (cal != null) {
             return cal;
@@ -1827,6 +2720,48 @@ public abstract class JobStoreSupport implements JobStore, Constants {
         }
     }
 
+    private Calendar retrieveVersionedCalendar(Connection conn, String calName)
+        throws JobPersistenceException {
+        long now = System.currentTimeMillis();
+        VersionedCalendar cached = versionedCalendarCache.get(calName);
+        if (cached != null && now - cached.validatedAt < getCalendarCacheMaxStaleness()) {
+            return cached.calendar;
+        }
+
+        try {
+            // select the version before the calendar, so that a concurrent
+            // change can only make the cached version look older than it is
+            Long version = getDelegate().selectCalendarVersion(conn, calName);
+            if (version == null) {
+                versionedCalendarCache.remove(calName);
+                return null;
+            }
+            if (cached != null && cached.version == version) {
+                cached.validatedAt = now;
+                return cached.calendar;
+            }
+
+            Calendar cal = getDelegate().selectCalendar(conn, calName);
+            if (cal != null) {
+                versionedCalendarCache.put(calName, new VersionedCalendar(cal, version, now));
+            } else {
+                versionedCalendarCache.remove(calName);
+            }
+            return cal;
+        } catch (ClassNotFoundException e) {
+            throw new JobPersistenceException(
+                    "Couldn't retrieve calendar because a required class was not found: "
+                            + e.getMessage(), e);
+        } catch (IOException e) {
+            throw new JobPersistenceException(
+                    "Couldn't retrieve calendar because the BLOB couldn't be deserialized: "
+                            + e.getMessage(), e);
+        } catch (SQLException e) {
+            throw new JobPersistenceException("Couldn't retrieve calendar: "
+                    + e.getMessage(), e);
+        }
+    }
+
     /**
      * <p>
      * Get the number of <code>{@link org.quartz.Job}</code> s that are
@@ -1835,7 +2770,8 @@ public abstract class JobStoreSupport implements JobStore, Constants {
      */
     public int getNumberOfJobs()
         throws JobPersistenceException {
-        return (Integer) executeWithoutLock( // no locks necessary for read...
+        return (Integer) executeCachedRead( // no locks necessary for read...
+                SchedulingDataCache.key("numberOfJobs", null),
                 new TransactionCallback() {
                     public Object execute(Connection conn) throws JobPersistenceException {
                         return getNumberOfJobs(conn);
@@ -1861,7 +2797,8 @@ public abstract class JobStoreSupport implements JobStore, Constants {
      */
     public int getNumberOfTriggers()
         throws JobPersistenceException {
-        return (Integer) executeWithoutLock( // no locks necessary for read...
+        return (Integer) executeCachedRead( // no locks necessary for read...
+                SchedulingDataCache.key("numberOfTriggers", null),
                 new TransactionCallback() {
                     public Object execute(Connection conn) throws JobPersistenceException {
                         return getNumberOfTriggers(conn);
@@ -1887,7 +2824,8 @@ public abstract class JobStoreSupport implements JobStore, Constants {
      */
     public int getNumberOfCalendars()
         throws JobPersistenceException {
-        return (Integer) executeWithoutLock( // no locks necessary for read...
+        return (Integer) executeCachedRead( // no locks necessary for read...
+                SchedulingDataCache.key("numberOfCalendars", null),
                 new TransactionCallback() {
                     public Object execute(Connection conn) throws JobPersistenceException {
                         return getNumberOfCalendars(conn);
@@ -1918,7 +2856,8 @@ public abstract class JobStoreSupport implements JobStore, Constants {
     @SuppressWarnings("unchecked")
     public Set<JobKey> getJobKeys(final GroupMatcher<JobKey> matcher)
         throws JobPersistenceException {
-        return (Set<JobKey>)executeWithoutLock( // no locks necessary for read...
+        return (Set<JobKey>)executeCachedRead( // no locks necessary for read...
+            SchedulingDataCache.key("jobKeys", matcher),
             new TransactionCallback() {
                 public Object execute(Connection conn) throws JobPersistenceException {
                     return getJobNames(conn, matcher);
@@ -1950,7 +2889,8 @@ public abstract class JobStoreSupport implements JobStore, Constants {
      * @throws JobPersistenceException
      */
     public boolean checkExists(final JobKey jobKey) throws JobPersistenceException {
-        return (Boolean)executeWithoutLock( // no locks necessary for read...
+        return (Boolean)executeCachedRead( // no locks necessary for read...
+                SchedulingDataCache.key("jobExists", jobKey),
                 new TransactionCallback() {
                     public Object execute(Connection conn) throws JobPersistenceException {
                         return checkExists(conn, jobKey);
@@ -1976,7 +2916,8 @@ public abstract class JobStoreSupport implements JobStore, Constants {
      * @throws JobPersistenceException
      */
     public boolean checkExists(final TriggerKey triggerKey) throws JobPersistenceException {
-        return (Boolean)executeWithoutLock( // no locks necessary for read...
+        return (Boolean)executeCachedRead( // no locks necessary for read...
+                SchedulingDataCache.key("triggerExists", triggerKey),
                 new TransactionCallback() {
                     public Object execute(Connection conn) throws JobPersistenceException {
                         return checkExists(conn, triggerKey);
@@ -2000,7 +2941,7 @@ public abstract class JobStoreSupport implements JobStore, Constants {
      * @throws JobPersistenceException
      */
     public void clearAllSchedulingData() throws JobPersistenceException {
-        executeInLock(
+        executeWriteInLock(
                 LOCK_TRIGGER_ACCESS,
                 new VoidTransactionCallback() {
                     public void executeVoid(Connection conn) throws JobPersistenceException {
@@ -2012,6 +2953,7 @@ public abstract class JobStoreSupport implements JobStore, Constants {
     protected void clearAllSchedulingData(Connection conn) throws JobPersistenceException {
         try {
             getDelegate().clearData(conn);
+            versionedCalendarCache.clear();
         } catch (SQLException e) {
             throw new JobPersistenceException("Error clearing scheduling data: " + e.getMessage(), e);
         }
@@ -2031,7 +2973,8 @@ public abstract class JobStoreSupport implements JobStore, Constants {
     @SuppressWarnings("unchecked")
     public Set<TriggerKey> getTriggerKeys(final GroupMatcher<TriggerKey> matcher)
         throws JobPersistenceException {
-        return (Set<TriggerKey>)executeWithoutLock( // no locks necessary for read...
+        return (Set<TriggerKey>)executeCachedRead( // no locks necessary for read...
+            SchedulingDataCache.key("triggerKeys", matcher),
             new TransactionCallback() {
                 public Object execute(Connection conn) throws JobPersistenceException {
                     return getTriggerNames(conn, matcher);
@@ -2069,7 +3012,8 @@ public abstract class JobStoreSupport implements JobStore, Constants {
     @SuppressWarnings("unchecked")
     public List<String> getJobGroupNames()
         throws JobPersistenceException {
-        return (List<String>)executeWithoutLock( // no locks necessary for read...
+        return (List<String>)executeCachedRead( // no locks necessary for read...
+            SchedulingDataCache.key("jobGroupNames", null),
             new TransactionCallback() {
                 public Object execute(Connection conn) throws JobPersistenceException {
                     return getJobGroupNames(conn);
@@ -2106,7 +3050,8 @@ public abstract class JobStoreSupport implements JobStore, Constants {
     @SuppressWarnings("unchecked")
     public List<String> getTriggerGroupNames()
         throws JobPersistenceException {
-        return (List<String>)executeWithoutLock( // no locks necessary for read...
+        return (List<String>)executeCachedRead( // no locks necessary for read...
+            SchedulingDataCache.key("triggerGroupNames", null),
             new TransactionCallback() {
                 public Object execute(Connection conn) throws JobPersistenceException {
                     return getTriggerGroupNames(conn);
@@ -2142,7 +3087,8 @@ public abstract class JobStoreSupport implements JobStore, Constants {
     @SuppressWarnings("unchecked")
     public List<String> getCalendarNames()
         throws JobPersistenceException {
-        return (List<String>)executeWithoutLock( // no locks necessary for read...
+        return (List<String>)executeCachedRead( // no locks necessary for read...
+            SchedulingDataCache.key("calendarNames", null),
             new TransactionCallback() {
                 public Object execute(Connection conn) throws JobPersistenceException {
                     return getCalendarNames(conn);
@@ -2171,7 +3117,8 @@ public abstract class JobStoreSupport implements JobStore, Constants {
      */
     @SuppressWarnings("unchecked")
     public List<OperableTrigger> getTriggersForJob(final JobKey jobKey) throws JobPersistenceException {
-        return (List<OperableTrigger>)executeWithoutLock( // no locks necessary for read...
+        return (List<OperableTrigger>)executeCachedRead( // no locks necessary for read...
+            SchedulingDataCache.key("triggersForJob", jobKey),
             new TransactionCallback() {
                 public Object execute(Connection conn) throws JobPersistenceException {
                     return getTriggersForJob(conn, jobKey);
@@ -2203,7 +3150,7 @@ public abstract class JobStoreSupport implements JobStore, Constants {
      * @see #resumeTrigger(TriggerKey)
      */
     public void pauseTrigger(final TriggerKey triggerKey) throws JobPersistenceException {
-        executeInLock(
+        executeWriteInLock(
             LOCK_TRIGGER_ACCESS,
             new VoidTransactionCallback() {
                 public void executeVoid(Connection conn) throws JobPersistenceException {
@@ -2251,7 +3198,7 @@ public abstract class JobStoreSupport implements JobStore, Constants {
      * @see #resumeJob(JobKey)
      */
     public void pauseJob(final JobKey jobKey) throws JobPersistenceException {
-        executeInLock(
+        executeWriteInLock(
             LOCK_TRIGGER_ACCESS,
             new VoidTransactionCallback() {
                 public void executeVoid(Connection conn) throws JobPersistenceException {
@@ -2274,7 +3221,7 @@ public abstract class JobStoreSupport implements JobStore, Constants {
     @SuppressWarnings("unchecked")
     public Set<String> pauseJobs(final GroupMatcher<JobKey> matcher)
         throws JobPersistenceException {
-        return (Set<String>) executeInLock(
+        return (Set<String>) executeWriteInLock(
             LOCK_TRIGGER_ACCESS,
             new TransactionCallback() {
                 public Set<String> execute(final Connection conn) throws JobPersistenceException {
@@ -2347,7 +3294,7 @@ public abstract class JobStoreSupport implements JobStore, Constants {
      * @see #pauseTrigger(TriggerKey)
      */
     public void resumeTrigger(final TriggerKey triggerKey) throws JobPersistenceException {
-        executeInLock(
+        executeWriteInLock(
             LOCK_TRIGGER_ACCESS,
             new VoidTransactionCallback() {
                 public void executeVoid(Connection conn) throws JobPersistenceException {
@@ -2426,7 +3373,7 @@ public abstract class JobStoreSupport implements JobStore, Constants {
      * @see #pauseJob(JobKey)
      */
     public void resumeJob(final JobKey jobKey) throws JobPersistenceException {
-        executeInLock(
+        executeWriteInLock(
             LOCK_TRIGGER_ACCESS,
             new VoidTransactionCallback() {
                 public void executeVoid(Connection conn) throws JobPersistenceException {
@@ -2455,7 +3402,7 @@ public abstract class JobStoreSupport implements JobStore, Constants {
     @SuppressWarnings("unchecked")
     public Set<String> resumeJobs(final GroupMatcher<JobKey> matcher)
         throws JobPersistenceException {
-        return (Set<String>) executeInLock(
+        return (Set<String>) executeWriteInLock(
             LOCK_TRIGGER_ACCESS,
             new TransactionCallback() {
                 public Set<String> execute(Connection conn) throws JobPersistenceException {
@@ -2485,7 +3432,7 @@ public abstract class JobStoreSupport implements JobStore, Constants {
     @SuppressWarnings("unchecked")
     public Set<String> pauseTriggers(final GroupMatcher<TriggerKey> matcher)
         throws JobPersistenceException {
-        return (Set<String>) executeInLock(
+        return (Set<String>) executeWriteInLock(
             LOCK_TRIGGER_ACCESS,
             new TransactionCallback() {
                 public Set<String> execute(Connection conn) throws JobPersistenceException {
@@ -2539,7 +3486,8 @@ public abstract class JobStoreSupport implements JobStore, Constants {
     @SuppressWarnings("unchecked")
     public Set<String> getPausedTriggerGroups() 
         throws JobPersistenceException {
-        return (Set<String>)executeWithoutLock( // no locks necessary for read...
+        return (Set<String>)executeCachedRead( // no locks necessary for read...
+            SchedulingDataCache.key("pausedTriggerGroups", null),
             new TransactionCallback() {
                 public Object execute(Connection conn) throws JobPersistenceException {
                     return getPausedTriggerGroups(conn);
@@ -2582,7 +3530,7 @@ public abstract class JobStoreSupport implements JobStore, Constants {
     @SuppressWarnings("unchecked")
     public Set<String> resumeTriggers(final GroupMatcher<TriggerKey> matcher)
         throws JobPersistenceException {
-        return (Set<String>) executeInLock(
+        return (Set<String>) executeWriteInLock(
             LOCK_TRIGGER_ACCESS,
             new TransactionCallback() {
                 public Set<String> execute(Connection conn) throws JobPersistenceException {
@@ -2677,7 +3625,7 @@ public abstract class JobStoreSupport implements JobStore, Constants {
      * @see #pauseTriggerGroup(java.sql.Connection, org.quartz.impl.matchers.GroupMatcher)
      */
     public void pauseAll() throws JobPersistenceException {
-        executeInLock(
+        executeWriteInLock(
             LOCK_TRIGGER_ACCESS,
             new VoidTransactionCallback() {
                 public void executeVoid(Connection conn) throws JobPersistenceException {
@@ -2736,7 +3684,7 @@ public abstract class JobStoreSupport implements JobStore, Constants {
      */
     public void resumeAll()
         throws JobPersistenceException {
-        executeInLock(
+        executeWriteInLock(
             LOCK_TRIGGER_ACCESS,
             new VoidTransactionCallback() {
                 public void executeVoid(Connection conn) throws JobPersistenceException {
@@ -2793,62 +3741,337 @@ public abstract class JobStoreSupport implements JobStore, Constants {
     @SuppressWarnings("unchecked")
     public List<OperableTrigger> acquireNextTriggers(final long noLaterThan, final int maxCount, final long timeWindow)
         throws JobPersistenceException {
+        return acquireNextTriggers(noLaterThan, maxCount, timeWindow, null);
+    }
+
+    /**
+     * <p>
+     * Get a handle to the next triggers of the given shard to be fired, and
+     * mark them as 'reserved' by the calling scheduler.  A <code>null</code>
+     * shard considers all triggers.
+     * </p>
+     * 
+     * <p>
+     * The triggers of other shards are filtered out of the candidates read
+     * from the database, so as many more candidates are read as there are
+     * shards.
+     * </p>
+     */
+    public List<OperableTrigger> acquireNextTriggers(final long noLaterThan, final int maxCount, final long timeWindow,
+            final TriggerShard shard) throws JobPersistenceException {
+        long start = System.nanoTime();
+        try {
+            return doAcquireNextTriggers(noLaterThan, maxCount, timeWindow, shard);
+        } finally {
+            statistics.operationCompleted(JobStoreStatistics.ACQUIRE_NEXT_TRIGGERS, System.nanoTime() - start);
+        }
+    }
+
+    private List<OperableTrigger> doAcquireNextTriggers(final long noLaterThan, final int maxCount, final long timeWindow,
+            final TriggerShard shard) throws JobPersistenceException {
         
+        if (isSkipLockedAcquisition()) {
+            return acquireNextTriggers(null, noLaterThan, maxCount, timeWindow, -1, shard);
+        }
+
         String lockName;
         if(isAcquireTriggersWithinLock() || maxCount > 1) { 
             lockName = LOCK_TRIGGER_ACCESS;
         } else {
             lockName = null;
         }
-        return executeInNonManagedTXLock(lockName, 
-                new TransactionCallback<List<OperableTrigger>>() {
-                    public List<OperableTrigger> execute(Connection conn) throws JobPersistenceException {
-                        return acquireNextTrigger(conn, noLaterThan, maxCount, timeWindow);
-                    }
-                },
-                new TransactionValidator<List<OperableTrigger>>() {
-                    public Boolean validate(Connection conn, List<OperableTrigger> result) throws JobPersistenceException {
-                        try {
-                            List<FiredTriggerRecord> acquired = getDelegate().selectInstancesFiredTriggerRecords(conn, getInstanceId());
-                            Set<String> fireInstanceIds = new HashSet<String>();
-                            for (FiredTriggerRecord ft : acquired) {
-                                fireInstanceIds.add(ft.getFireInstanceId());
-                            }
-                            for (OperableTrigger tr : result) {
-                                if (fireInstanceIds.contains(tr.getFireInstanceId())) {
-                                    return true;
-                                }
+        if (lockName != null && isTriggerAccessPartitioned()) {
+            int partition = selectTriggerAccessPartitionToAcquire(noLaterThan + timeWindow, maxCount, shard);
+            if (partition < 0) {
+                return new ArrayList<OperableTrigger>();
+            }
+            return acquireNextTriggers(getTriggerAccessLockName(partition), noLaterThan, maxCount, timeWindow,
+                    partition, shard);
+        }
+        return acquireNextTriggers(lockName, noLaterThan, maxCount, timeWindow, -1, shard);
+    }
+
+    /**
+     * <p>
+     * Whether triggers are acquired with <code>SKIP LOCKED</code>: it is
+     * enabled, and the delegate supports it for the database, which is
+     * checked once.
+     * </p>
+     */
+    protected boolean isSkipLockedAcquisition() throws JobPersistenceException {
+        if (!isAcquireTriggersSkipLocked()) {
+            return false;
+        }
+        if (skipLockedAcquisition == null) {
+            skipLockedAcquisition = executeInNonManagedTXLock(null,
+                    new TransactionCallback<Boolean>() {
+                        public Boolean execute(Connection conn) throws JobPersistenceException {
+                            try {
+                                return getDelegate().supportsSkipLocked(conn);
+                            } catch (SQLException e) {
+                                throw new JobPersistenceException(
+                                        "Couldn't check support for SKIP LOCKED: " + e.getMessage(), e);
                             }
-                            return false;
-                        } catch (SQLException e) {
-                            throw new JobPersistenceException("error validating trigger acquisition", e);
                         }
-                    }
-                });
+                    }, null);
+            if (skipLockedAcquisition) {
+                getLog().info("Acquiring triggers with SELECT ... FOR UPDATE SKIP LOCKED.");
+            } else {
+                getLog().warn("acquireTriggersSkipLocked is set, but the database or driver delegate "
+                        + "does not support SKIP LOCKED; acquiring triggers as usual.");
+            }
+        }
+        return skipLockedAcquisition;
     }
-    
-    // FUTURE_TODO: this really ought to return something like a FiredTriggerBundle,
-    // so that the fireInstanceId doesn't have to be on the trigger...
-    protected List<OperableTrigger> acquireNextTrigger(Connection conn, long noLaterThan, int maxCount, long timeWindow)
-        throws JobPersistenceException {
-        if (timeWindow < 0) {
+
+    /**
+     * <p>
+     * Pick the trigger access partition to acquire triggers from next, among
+     * the partitions that have triggers due before <code>noLaterThan</code>.
+     * This only peeks at the triggers table, without taking any lock.
+     * </p>
+     * 
+     * @return the partition, or -1 if no trigger is due.
+     */
+    protected int selectTriggerAccessPartitionToAcquire(final long noLaterThan, final int maxCount)
+        throws JobPersistenceException {
+        return selectTriggerAccessPartitionToAcquire(noLaterThan, maxCount, null);
+    }
+
+    /**
+     * <p>
+     * Pick the trigger access partition to acquire triggers from next as
+     * {@link #selectTriggerAccessPartitionToAcquire(long, int)} does,
+     * considering only the triggers of the given shard.
+     * </p>
+     */
+    protected int selectTriggerAccessPartitionToAcquire(final long noLaterThan, final int maxCount,
+            final TriggerShard shard) throws JobPersistenceException {
+        Map<TriggerKey, JobKey> candidates = executeInNonManagedTXLock(null,
+                new TransactionCallback<Map<TriggerKey, JobKey>>() {
+                    public Map<TriggerKey, JobKey> execute(Connection conn) throws JobPersistenceException {
+                        try {
+                            return selectTriggerJobKeysToAcquire(conn, noLaterThan,
+                                    maxCount * triggerAccessPartitions, -1, shard);
+                        } catch (SQLException e) {
+                            throw new JobPersistenceException(
+                                    "Couldn't select triggers to acquire: " + e.getMessage(), e);
+                        }
+                    }
+                }, null);
+
+        // the candidates come in fire time order, so the first is the most urgent
+        int earliest = -1;
+        Set<Integer> due = new HashSet<Integer>();
+        for (Map.Entry<TriggerKey, JobKey> candidate : candidates.entrySet()) {
+            int partition = getTriggerAccessPartition(candidate.getValue());
+            if (earliest < 0) {
+                earliest = partition;
+            }
+            due.add(partition);
+        }
+        if (earliest < 0) {
+            return -1;
+        }
+
+        if (isTriggerAccessPartitionAffinity()) {
+            int home = (getInstanceId().hashCode() & Integer.MAX_VALUE) % triggerAccessPartitions;
+            return due.contains(home) ? home : earliest;
+        }
+
+        int start = nextAcquirePartition.get();
+        for (int i = 0; i < triggerAccessPartitions; i++) {
+            int partition = (start + i) % triggerAccessPartitions;
+            if (due.contains(partition)) {
+                nextAcquirePartition.set((partition + 1) % triggerAccessPartitions);
+                return partition;
+            }
+        }
+        return earliest;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<OperableTrigger> acquireNextTriggers(String lockName, final long noLaterThan,
+            final int maxCount, final long timeWindow, final int partition, final TriggerShard shard)
+        throws JobPersistenceException {
+        return executeInNonManagedTXLock(lockName, 
+                new TransactionCallback<List<OperableTrigger>>() {
+                    public List<OperableTrigger> execute(Connection conn) throws JobPersistenceException {
+                        return acquireNextTrigger(conn, noLaterThan, maxCount, timeWindow, partition, shard);
+                    }
+                },
+                new TransactionValidator<List<OperableTrigger>>() {
+                    public Boolean validate(Connection conn, List<OperableTrigger> result) throws JobPersistenceException {
+                        return isAnyTriggerAcquired(conn, result);
+                    }
+                });
+    }
+
+    /**
+     * <p>
+     * Acquire the next triggers, and fire them in the same transaction if
+     * the first of them is due no later than <code>fireNoLaterThan</code>.
+     * </p>
+     * 
+     * @see #setFuseAcquireAndFire(boolean)
+     */
+    public AcquiredTriggers acquireAndFireNextTriggers(final long noLaterThan, final int maxCount,
+            final long timeWindow, final long fireNoLaterThan, final TriggerShard shard) throws JobPersistenceException {
+        if (isSkipLockedAcquisition()) {
+            // the rows are claimed without taking a lock, so leave the firing
+            // to triggersFired()
+            return new AcquiredTriggers(acquireNextTriggers(noLaterThan, maxCount, timeWindow, shard), null);
+        }
+
+        long start = System.nanoTime();
+        try {
+            String lockName = LOCK_TRIGGER_ACCESS;
+            int partition = -1;
+            if (isTriggerAccessPartitioned()) {
+                partition = selectTriggerAccessPartitionToAcquire(noLaterThan + timeWindow, maxCount, shard);
+                if (partition < 0) {
+                    return new AcquiredTriggers(new ArrayList<OperableTrigger>(), null);
+                }
+                lockName = getTriggerAccessLockName(partition);
+            }
+
+            final int acquirePartition = partition;
+            return executeInNonManagedTXLock(lockName,
+                    new TransactionCallback<AcquiredTriggers>() {
+                        public AcquiredTriggers execute(Connection conn) throws JobPersistenceException {
+                            List<OperableTrigger> triggers = acquireNextTrigger(conn, noLaterThan, maxCount,
+                                    timeWindow, acquirePartition, shard);
+                            if (triggers.isEmpty()
+                                    || triggers.get(0).getNextFireTime().getTime() > fireNoLaterThan) {
+                                return new AcquiredTriggers(triggers, null);
+                            }
+                            return new AcquiredTriggers(triggers, triggersFired(conn, triggers));
+                        }
+                    },
+                    new TransactionValidator<AcquiredTriggers>() {
+                        public Boolean validate(Connection conn, AcquiredTriggers result) throws JobPersistenceException {
+                            return result.isFired()
+                                ? isAnyTriggerExecuting(conn, result.getFiredResults())
+                                : isAnyTriggerAcquired(conn, result.getTriggers());
+                        }
+                    });
+        } finally {
+            statistics.operationCompleted(JobStoreStatistics.ACQUIRE_AND_FIRE_NEXT_TRIGGERS, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Whether any of the given triggers is recorded as fired (acquired) by
+     * this instance, to validate a transaction whose commit failed.
+     */
+    private boolean isAnyTriggerAcquired(Connection conn, List<OperableTrigger> triggers)
+        throws JobPersistenceException {
+        try {
+            List<FiredTriggerRecord> acquired = getDelegate().selectInstancesFiredTriggerRecords(conn, getInstanceId());
+            Set<String> fireInstanceIds = new HashSet<String>();
+            for (FiredTriggerRecord ft : acquired) {
+                fireInstanceIds.add(ft.getFireInstanceId());
+            }
+            for (OperableTrigger tr : triggers) {
+                if (fireInstanceIds.contains(tr.getFireInstanceId())) {
+                    return true;
+                }
+            }
+            return false;
+        } catch (SQLException e) {
+            throw new JobPersistenceException("error validating trigger acquisition", e);
+        }
+    }
+
+    /**
+     * Whether any of the given fired triggers is recorded as executing by
+     * this instance, to validate a transaction whose commit failed.
+     */
+    private boolean isAnyTriggerExecuting(Connection conn, List<TriggerFiredResult> results)
+        throws JobPersistenceException {
+        try {
+            List<FiredTriggerRecord> acquired = getDelegate().selectInstancesFiredTriggerRecords(conn, getInstanceId());
+            Set<String> executingTriggers = new HashSet<String>();
+            for (FiredTriggerRecord ft : acquired) {
+                if (STATE_EXECUTING.equals(ft.getFireInstanceState())) {
+                    executingTriggers.add(ft.getFireInstanceId());
+                }
+            }
+            for (TriggerFiredResult tr : results) {
+                if (tr.getTriggerFiredBundle() != null && executingTriggers.contains(tr.getTriggerFiredBundle().getTrigger().getFireInstanceId())) {
+                    return true;
+                }
+            }
+            return false;
+        } catch (SQLException e) {
+            throw new JobPersistenceException("error validating trigger acquisition", e);
+        }
+    }
+    
+    // FUTURE_TODO: this really ought to return something like a FiredTriggerBundle,
+    // so that the fireInstanceId doesn't have to be on the trigger...
+    protected List<OperableTrigger> acquireNextTrigger(Connection conn, long noLaterThan, int maxCount, long timeWindow)
+        throws JobPersistenceException {
+        return acquireNextTrigger(conn, noLaterThan, maxCount, timeWindow, -1);
+    }
+
+    /**
+     * <p>
+     * Acquire the next triggers as {@link #acquireNextTrigger(Connection, long, int, long)}
+     * does, considering only the triggers of the given trigger access partition,
+     * whose lock must be held.  A negative partition considers all triggers.
+     * </p>
+     */
+    protected List<OperableTrigger> acquireNextTrigger(Connection conn, long noLaterThan, int maxCount, long timeWindow,
+            int partition) throws JobPersistenceException {
+        return acquireNextTrigger(conn, noLaterThan, maxCount, timeWindow, partition, null);
+    }
+
+    /**
+     * <p>
+     * Acquire the next triggers as {@link #acquireNextTrigger(Connection, long, int, long, int)}
+     * does, considering only the triggers of the given shard.  A
+     * <code>null</code> shard considers all triggers.
+     * </p>
+     */
+    protected List<OperableTrigger> acquireNextTrigger(Connection conn, long noLaterThan, int maxCount, long timeWindow,
+            int partition, TriggerShard shard) throws JobPersistenceException {
+        if (timeWindow < 0) {
           throw new IllegalArgumentException();
         }
         
         List<OperableTrigger> acquiredTriggers = new ArrayList<OperableTrigger>();
         Set<JobKey> acquiredJobKeysForNoConcurrentExec = new HashSet<JobKey>();
+        // more than one trigger is only ever acquired within the TRIGGER_ACCESS
+        // lock (or the lock of their partition), or with their rows claimed by
+        // SKIP LOCKED, so the writes can be deferred and sent as JDBC batches
+        boolean batched = maxCount > 1;
+        Map<JobKey, JobDetail> retrievedJobs = new HashMap<JobKey, JobDetail>();
         final int MAX_DO_LOOP_RETRY = 3;
         int currentLoopCount = 0;
         do {
             currentLoopCount ++;
             try {
-                List<TriggerKey> keys = getDelegate().selectTriggerToAcquire(conn, noLaterThan + timeWindow, getMisfireTime(), maxCount);
+                List<TriggerKey> keys;
+                if (partition >= 0 || (shard != null && !isSkipLockedAcquisition())) {
+                    keys = new ArrayList<TriggerKey>(selectTriggerJobKeysToAcquire(conn, noLaterThan + timeWindow,
+                            maxCount, partition, shard).keySet());
+                } else if (shard != null) {
+                    keys = selectTriggerToAcquireSkipLocked(conn, noLaterThan + timeWindow, maxCount, shard);
+                } else if (isSkipLockedAcquisition()) {
+                    keys = getDelegate().selectTriggerToAcquireSkipLocked(conn, noLaterThan + timeWindow,
+                            getMisfireTime(), maxCount);
+                } else {
+                    keys = getDelegate().selectTriggerToAcquire(conn, noLaterThan + timeWindow,
+                            getMisfireTime(), maxCount);
+                }
                 
                 // No trigger is ready to fire yet.
                 if (keys == null || keys.size() == 0)
                     return acquiredTriggers;
 
                 long batchEnd = noLaterThan;
+                List<OperableTrigger> batchedTriggers = new ArrayList<OperableTrigger>();
 
                 for(TriggerKey triggerKey: keys) {
                     // If our trigger is no longer available, try a new one.
@@ -2860,9 +4083,12 @@ public abstract class JobStoreSupport implements JobStore, Constants {
                     // If trigger's job is set as @DisallowConcurrentExecution, and it has already been added to result, then
                     // put it back into the timeTriggers set and continue to search for next trigger.
                     JobKey jobKey = nextTrigger.getJobKey();
-                    JobDetail job;
+                    JobDetail job = retrievedJobs.get(jobKey);
                     try {
-                        job = retrieveJob(conn, jobKey);
+                        if (job == null) {
+                            job = retrieveJob(conn, jobKey);
+                            retrievedJobs.put(jobKey, job);
+                        }
                     } catch (JobPersistenceException jpe) {
                         try {
                             getLog().error("Error retrieving job, setting trigger state to ERROR.", jpe);
@@ -2897,6 +4123,13 @@ public abstract class JobStoreSupport implements JobStore, Constants {
                     if (nextFireTime.getTime() > batchEnd) {
                       break;
                     }
+                    if (batched) {
+                        if (batchedTriggers.isEmpty()) {
+                            batchEnd = Math.max(nextFireTime.getTime(), System.currentTimeMillis()) + timeWindow;
+                        }
+                        batchedTriggers.add(nextTrigger);
+                        continue;
+                    }
                     // We now have a acquired trigger, let's add to return list.
                     // If our trigger was no longer in the expected state, try a new one.
                     int rowsUpdated = getDelegate().updateTriggerStateFromOtherState(conn, triggerKey, STATE_ACQUIRED, STATE_WAITING);
@@ -2912,6 +4145,10 @@ public abstract class JobStoreSupport implements JobStore, Constants {
                     acquiredTriggers.add(nextTrigger);
                 }
 
+                if (!batchedTriggers.isEmpty()) {
+                    acquiredTriggers.addAll(acquireTriggersInBatch(conn, batchedTriggers));
+                }
+
                 // if we didn't end up with any trigger to fire from that first
                 // batch, try again for another batch. We allow with a max retry count.
                 if(acquiredTriggers.size() == 0 && currentLoopCount < MAX_DO_LOOP_RETRY) {
@@ -2929,6 +4166,110 @@ public abstract class JobStoreSupport implements JobStore, Constants {
         // Return the acquired trigger list
         return acquiredTriggers;
     }
+
+    /**
+     * Select up to <code>maxCount</code> of the next triggers to acquire that
+     * belong to the given shard and, unless it is negative, to the given
+     * trigger access partition, in fire time order, with the key of their job.
+     * Shards and partitions are defined by matchers and hashes the SQL cannot
+     * express, so the candidates are filtered here, reading twice as many of
+     * them each time until enough match or there are no more: a backlog of
+     * triggers due in other shards cannot hide the triggers of this one.
+     */
+    private Map<TriggerKey, JobKey> selectTriggerJobKeysToAcquire(Connection conn, long noLaterThan,
+            int maxCount, int partition, TriggerShard shard) throws JobPersistenceException, SQLException {
+        // start from the count needed if the shards and partitions are about evenly loaded
+        long candidateCount = maxCount;
+        if (shard != null) {
+            candidateCount *= shard.getShardCount();
+        }
+        if (partition >= 0) {
+            candidateCount *= triggerAccessPartitions;
+        }
+        while (true) {
+            int count = (int) Math.min(candidateCount, Integer.MAX_VALUE);
+            Map<TriggerKey, JobKey> candidates = getDelegate().selectTriggerJobKeysToAcquire(conn,
+                    noLaterThan, getMisfireTime(), count);
+            Map<TriggerKey, JobKey> matches = new LinkedHashMap<TriggerKey, JobKey>();
+            for (Map.Entry<TriggerKey, JobKey> candidate : candidates.entrySet()) {
+                if (shard != null && !shard.contains(candidate.getKey(), candidate.getValue())) {
+                    continue;
+                }
+                if (partition >= 0 && getTriggerAccessPartition(candidate.getValue()) != partition) {
+                    continue;
+                }
+                matches.put(candidate.getKey(), candidate.getValue());
+                if (matches.size() == maxCount) {
+                    return matches;
+                }
+            }
+            if (candidates.size() < count || count == Integer.MAX_VALUE) {
+                return matches;
+            }
+            candidateCount *= 2;
+        }
+    }
+
+    /**
+     * Claim up to <code>maxCount</code> of the next triggers to acquire that
+     * belong to the given shard with <code>SKIP LOCKED</code>.  The shard's
+     * candidates are selected without locking first, so that only their rows
+     * get locked, and claimed one by one, reading more of them as long as
+     * other transactions hold the locks of the ones read.
+     */
+    private List<TriggerKey> selectTriggerToAcquireSkipLocked(Connection conn, long noLaterThan,
+            int maxCount, TriggerShard shard) throws JobPersistenceException, SQLException {
+        List<TriggerKey> claimed = new ArrayList<TriggerKey>(maxCount);
+        Set<TriggerKey> tried = new HashSet<TriggerKey>();
+        long candidateCount = maxCount;
+        while (true) {
+            int count = (int) Math.min(candidateCount, Integer.MAX_VALUE);
+            Map<TriggerKey, JobKey> candidates = selectTriggerJobKeysToAcquire(conn, noLaterThan, count, -1, shard);
+            for (TriggerKey key : candidates.keySet()) {
+                if (tried.add(key) && getDelegate().selectTriggerToAcquireSkipLocked(conn, key)) {
+                    claimed.add(key);
+                    if (claimed.size() == maxCount) {
+                        return claimed;
+                    }
+                }
+            }
+            if (candidates.size() < count || count == Integer.MAX_VALUE) {
+                return claimed;
+            }
+            candidateCount *= 2;
+        }
+    }
+
+    /**
+     * <p>
+     * Move the given <code>WAITING</code> triggers to <code>ACQUIRED</code>
+     * and insert their fired trigger records, with one JDBC batch each.
+     * </p>
+     */
+    private List<OperableTrigger> acquireTriggersInBatch(Connection conn,
+            List<OperableTrigger> triggers) throws JobPersistenceException, SQLException {
+        List<TriggerKey> triggerKeys = new ArrayList<TriggerKey>(triggers.size());
+        for (OperableTrigger trigger : triggers) {
+            triggerKeys.add(trigger.getKey());
+        }
+
+        int[] rowsUpdated = getDelegate().updateTriggerStatesFromOtherState(conn,
+                triggerKeys, STATE_ACQUIRED, STATE_WAITING);
+
+        List<OperableTrigger> acquired = new ArrayList<OperableTrigger>(triggers.size());
+        for (int i = 0; i < triggers.size(); i++) {
+            // SUCCESS_NO_INFO counts as updated, as we hold the lock (or the rows)
+            if (rowsUpdated[i] <= 0 && rowsUpdated[i] != Statement.SUCCESS_NO_INFO) {
+                continue;
+            }
+            OperableTrigger trigger = triggers.get(i);
+            trigger.setFireInstanceId(getFiredTriggerRecordId());
+            acquired.add(trigger);
+        }
+
+        getDelegate().insertFiredTriggers(conn, acquired, STATE_ACQUIRED, null);
+        return acquired;
+    }
     
     /**
      * <p>
@@ -2938,13 +4279,18 @@ public abstract class JobStoreSupport implements JobStore, Constants {
      * </p>
      */
     public void releaseAcquiredTrigger(final OperableTrigger trigger) {
-        retryExecuteInNonManagedTXLock(
-            LOCK_TRIGGER_ACCESS,
-            new VoidTransactionCallback() {
-                public void executeVoid(Connection conn) throws JobPersistenceException {
-                    releaseAcquiredTrigger(conn, trigger);
-                }
-            });
+        long start = System.nanoTime();
+        try {
+            retryExecuteInNonManagedTXLock(
+                getTriggerAccessLockName(trigger.getJobKey()),
+                new VoidTransactionCallback() {
+                    public void executeVoid(Connection conn) throws JobPersistenceException {
+                        releaseAcquiredTrigger(conn, trigger);
+                    }
+                });
+        } finally {
+            statistics.operationCompleted(JobStoreStatistics.RELEASE_ACQUIRED_TRIGGER, System.nanoTime() - start);
+        }
     }
     
     protected void releaseAcquiredTrigger(Connection conn,
@@ -2975,49 +4321,47 @@ public abstract class JobStoreSupport implements JobStore, Constants {
      */
     @SuppressWarnings("unchecked")
     public List<TriggerFiredResult> triggersFired(final List<OperableTrigger> triggers) throws JobPersistenceException {
-        return executeInNonManagedTXLock(LOCK_TRIGGER_ACCESS,
-                new TransactionCallback<List<TriggerFiredResult>>() {
-                    public List<TriggerFiredResult> execute(Connection conn) throws JobPersistenceException {
-                        List<TriggerFiredResult> results = new ArrayList<TriggerFiredResult>();
-
-                        TriggerFiredResult result;
-                        for (OperableTrigger trigger : triggers) {
-                            try {
-                              TriggerFiredBundle bundle = triggerFired(conn, trigger);
-                              result = new TriggerFiredResult(bundle);
-                            } catch (JobPersistenceException jpe) {
-                                result = new TriggerFiredResult(jpe);
-                            } catch(RuntimeException re) {
-                                result = new TriggerFiredResult(re);
-                            }
-                            results.add(result);
+        long start = System.nanoTime();
+        try {
+            return executeInNonManagedTXLock(getTriggerAccessLockName(triggers),
+                    new TransactionCallback<List<TriggerFiredResult>>() {
+                        public List<TriggerFiredResult> execute(Connection conn) throws JobPersistenceException {
+                            return triggersFired(conn, triggers);
                         }
-
-                        return results;
-                    }
-                },
-                new TransactionValidator<List<TriggerFiredResult>>() {
-                    @Override
-                    public Boolean validate(Connection conn, List<TriggerFiredResult> result) throws JobPersistenceException {
-                        try {
-                            List<FiredTriggerRecord> acquired = getDelegate().selectInstancesFiredTriggerRecords(conn, getInstanceId());
-                            Set<String> executingTriggers = new HashSet<String>();
-                            for (FiredTriggerRecord ft : acquired) {
-                                if (STATE_EXECUTING.equals(ft.getFireInstanceState())) {
-                                    executingTriggers.add(ft.getFireInstanceId());
-                                }
-                            }
-                            for (TriggerFiredResult tr : result) {
-                                if (tr.getTriggerFiredBundle() != null && executingTriggers.contains(tr.getTriggerFiredBundle().getTrigger().getFireInstanceId())) {
-                                    return true;
-                                }
-                            }
-                            return false;
-                        } catch (SQLException e) {
-                            throw new JobPersistenceException("error validating trigger acquisition", e);
+                    },
+                    new TransactionValidator<List<TriggerFiredResult>>() {
+                        @Override
+                        public Boolean validate(Connection conn, List<TriggerFiredResult> result) throws JobPersistenceException {
+                            return isAnyTriggerExecuting(conn, result);
                         }
-                    }
-                });
+                    });
+        } finally {
+            statistics.operationCompleted(JobStoreStatistics.TRIGGERS_FIRED, System.nanoTime() - start);
+        }
+    }
+
+    protected List<TriggerFiredResult> triggersFired(Connection conn,
+            List<OperableTrigger> triggers) throws JobPersistenceException {
+        if (triggers.size() > 1) {
+            return triggersFiredInBatch(conn, triggers);
+        }
+
+        List<TriggerFiredResult> results = new ArrayList<TriggerFiredResult>();
+
+        TriggerFiredResult result;
+        for (OperableTrigger trigger : triggers) {
+            try {
+              TriggerFiredBundle bundle = triggerFired(conn, trigger);
+              result = new TriggerFiredResult(bundle);
+            } catch (JobPersistenceException jpe) {
+                result = new TriggerFiredResult(jpe);
+            } catch(RuntimeException re) {
+                result = new TriggerFiredResult(re);
+            }
+            results.add(result);
+        }
+
+        return results;
     }
 
     protected TriggerFiredBundle triggerFired(Connection conn,
@@ -3038,19 +4382,8 @@ public abstract class JobStoreSupport implements JobStore, Constants {
                     + e.getMessage(), e);
         }
 
-        try {
-            job = retrieveJob(conn, trigger.getJobKey());
-            if (job == null) { return null; }
-        } catch (JobPersistenceException jpe) {
-            try {
-                getLog().error("Error retrieving job, setting trigger state to ERROR.", jpe);
-                getDelegate().updateTriggerState(conn, trigger.getKey(),
-                        STATE_ERROR);
-            } catch (SQLException sqle) {
-                getLog().error("Unable to set trigger state to ERROR.", sqle);
-            }
-            throw jpe;
-        }
+        job = retrieveJobToFire(conn, trigger);
+        if (job == null) { return null; }
 
         if (trigger.getCalendarName() != null) {
             cal = retrieveCalendar(conn, trigger.getCalendarName());
@@ -3064,6 +4397,130 @@ public abstract class JobStoreSupport implements JobStore, Constants {
                     + e.getMessage(), e);
         }
 
+        return completeTriggerFired(conn, trigger, job, cal);
+    }
+
+    /**
+     * <p>
+     * Fire several acquired triggers like <code>{@link #triggerFired(Connection, OperableTrigger)}</code>
+     * does one at a time, but selecting their states with one statement and
+     * updating their fired trigger records with one JDBC batch.
+     * </p>
+     */
+    protected List<TriggerFiredResult> triggersFiredInBatch(Connection conn,
+            List<OperableTrigger> triggers) throws JobPersistenceException {
+        TriggerFiredResult[] results = new TriggerFiredResult[triggers.size()];
+
+        List<TriggerKey> triggerKeys = new ArrayList<TriggerKey>(triggers.size());
+        for (OperableTrigger trigger : triggers) {
+            triggerKeys.add(trigger.getKey());
+        }
+
+        // Make sure the triggers weren't deleted, paused, or completed...
+        Map<TriggerKey, String> states;
+        try {
+            states = getDelegate().selectTriggerStates(conn, triggerKeys);
+        } catch (SQLException e) {
+            JobPersistenceException jpe = new JobPersistenceException(
+                    "Couldn't select trigger states: " + e.getMessage(), e);
+            Arrays.fill(results, new TriggerFiredResult(jpe));
+            return Arrays.asList(results);
+        }
+
+        List<Integer> firingIndexes = new ArrayList<Integer>(triggers.size());
+        List<OperableTrigger> firingTriggers = new ArrayList<OperableTrigger>(triggers.size());
+        List<JobDetail> firingJobs = new ArrayList<JobDetail>(triggers.size());
+        List<Calendar> firingCalendars = new ArrayList<Calendar>(triggers.size());
+        Set<JobKey> firingNonConcurrentJobs = new HashSet<JobKey>();
+
+        for (int i = 0; i < triggers.size(); i++) {
+            OperableTrigger trigger = triggers.get(i);
+            results[i] = new TriggerFiredResult((TriggerFiredBundle) null);
+            try {
+                if (!STATE_ACQUIRED.equals(states.get(trigger.getKey()))) {
+                    continue;
+                }
+
+                JobDetail job = retrieveJobToFire(conn, trigger);
+                if (job == null) {
+                    continue;
+                }
+
+                Calendar cal = null;
+                if (trigger.getCalendarName() != null) {
+                    cal = retrieveCalendar(conn, trigger.getCalendarName());
+                    if (cal == null) {
+                        continue;
+                    }
+                }
+
+                // firing an earlier trigger of this batch blocks the job
+                if (job.isConcurrentExectionDisallowed() && !firingNonConcurrentJobs.add(job.getKey())) {
+                    continue;
+                }
+
+                firingIndexes.add(i);
+                firingTriggers.add(trigger);
+                firingJobs.add(job);
+                firingCalendars.add(cal);
+            } catch (JobPersistenceException jpe) {
+                results[i] = new TriggerFiredResult(jpe);
+            } catch (RuntimeException re) {
+                results[i] = new TriggerFiredResult(re);
+            }
+        }
+
+        try {
+            getDelegate().updateFiredTriggers(conn, firingTriggers, STATE_EXECUTING, firingJobs);
+        } catch (SQLException e) {
+            JobPersistenceException jpe = new JobPersistenceException(
+                    "Couldn't insert fired triggers: " + e.getMessage(), e);
+            for (int index : firingIndexes) {
+                results[index] = new TriggerFiredResult(jpe);
+            }
+            return Arrays.asList(results);
+        }
+
+        for (int k = 0; k < firingIndexes.size(); k++) {
+            int index = firingIndexes.get(k);
+            try {
+                results[index] = new TriggerFiredResult(completeTriggerFired(conn,
+                        firingTriggers.get(k), firingJobs.get(k), firingCalendars.get(k)));
+            } catch (JobPersistenceException jpe) {
+                results[index] = new TriggerFiredResult(jpe);
+            } catch (RuntimeException re) {
+                results[index] = new TriggerFiredResult(re);
+            }
+        }
+
+        return Arrays.asList(results);
+    }
+
+    private JobDetail retrieveJobToFire(Connection conn, OperableTrigger trigger)
+        throws JobPersistenceException {
+        try {
+            return retrieveJob(conn, trigger.getJobKey());
+        } catch (JobPersistenceException jpe) {
+            try {
+                getLog().error("Error retrieving job, setting trigger state to ERROR.", jpe);
+                getDelegate().updateTriggerState(conn, trigger.getKey(),
+                        STATE_ERROR);
+            } catch (SQLException sqle) {
+                getLog().error("Unable to set trigger state to ERROR.", sqle);
+            }
+            throw jpe;
+        }
+    }
+
+    /**
+     * <p>
+     * Advance a trigger whose fired trigger record is already marked as
+     * executing, block the other triggers of its job if need be, and store it.
+     * </p>
+     */
+    private TriggerFiredBundle completeTriggerFired(Connection conn,
+            OperableTrigger trigger, JobDetail job, Calendar cal)
+        throws JobPersistenceException {
         Date prevFireTime = trigger.getPreviousFireTime();
 
         // call triggered - to update the trigger's next-fire-time state...
@@ -3114,15 +4571,70 @@ public abstract class JobStoreSupport implements JobStore, Constants {
      */
     public void triggeredJobComplete(final OperableTrigger trigger,
             final JobDetail jobDetail, final CompletedExecutionInstruction triggerInstCode) {
-        retryExecuteInNonManagedTXLock(
-            LOCK_TRIGGER_ACCESS,
-            new VoidTransactionCallback() {
-                public void executeVoid(Connection conn) throws JobPersistenceException {
-                    triggeredJobComplete(conn, trigger, jobDetail,triggerInstCode);
-                }
-            });    
+        long start = System.nanoTime();
+        try {
+            retryExecuteInNonManagedTXLock(
+                getTriggerAccessLockName(trigger.getJobKey()),
+                new VoidTransactionCallback() {
+                    public void executeVoid(Connection conn) throws JobPersistenceException {
+                        triggeredJobComplete(conn, trigger, jobDetail,triggerInstCode);
+                    }
+                });
+        } finally {
+            if (changesSchedulingData(jobDetail, triggerInstCode)) {
+                schedulingDataChanged();
+            }
+            statistics.operationCompleted(JobStoreStatistics.TRIGGERED_JOB_COMPLETE, System.nanoTime() - start);
+        }
     }
     
+    /**
+     * <p>
+     * Inform the <code>JobStore</code> that the given jobs have completed
+     * execution, in a single transaction.
+     * </p>
+     */
+    public void triggeredJobsComplete(final List<TriggeredJobCompletion> completions)
+        throws JobPersistenceException {
+        List<OperableTrigger> triggers = new ArrayList<OperableTrigger>(completions.size());
+        for (TriggeredJobCompletion completion : completions) {
+            triggers.add(completion.getTrigger());
+        }
+        long start = System.nanoTime();
+        try {
+            executeInNonManagedTXLock(
+                getTriggerAccessLockName(triggers),
+                new VoidTransactionCallback() {
+                    public void executeVoid(Connection conn) throws JobPersistenceException {
+                        for (TriggeredJobCompletion completion : completions) {
+                            triggeredJobComplete(conn, completion.getTrigger(),
+                                    completion.getJobDetail(), completion.getTriggerInstCode());
+                        }
+                    }
+                }, null);
+        } finally {
+            for (TriggeredJobCompletion completion : completions) {
+                if (changesSchedulingData(completion.getJobDetail(), completion.getTriggerInstCode())) {
+                    schedulingDataChanged();
+                    break;
+                }
+            }
+            statistics.operationCompleted(JobStoreStatistics.TRIGGERED_JOBS_COMPLETE, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Whether completing the given job's execution changes what the read
+     * cache may hold: its stored job data, the triggers it deletes or
+     * changes the state of, or those of its triggers it unblocks.
+     */
+    private static boolean changesSchedulingData(JobDetail jobDetail,
+            CompletedExecutionInstruction triggerInstCode) {
+        return triggerInstCode != CompletedExecutionInstruction.NOOP
+            || jobDetail.isPersistJobDataAfterExecution()
+            || jobDetail.isConcurrentExectionDisallowed();
+    }
+
     protected void triggeredJobComplete(Connection conn,
             OperableTrigger trigger, JobDetail jobDetail,
             CompletedExecutionInstruction triggerInstCode) throws JobPersistenceException {
@@ -3213,7 +4725,12 @@ public abstract class JobStoreSupport implements JobStore, Constants {
 
                     delegate = delegateClass.newInstance();
                     
-                    delegate.initialize(getLog(), tablePrefix, instanceName, instanceId, getClassLoadHelper(), canUseProperties(), getDriverDelegateInitString());
+                    String initString = getDriverDelegateInitString();
+                    if (getJobDataMapCodec() != null) {
+                        initString = ((initString == null) ? "" : initString + "|")
+                            + "jobDataMapCodec=" + getJobDataMapCodec();
+                    }
+                    delegate.initialize(getLog(), tablePrefix, instanceName, instanceId, getClassLoadHelper(), canUseProperties(), initString);
                     
                 } catch (InstantiationException e) {
                     throw new NoSuchDelegateException("Couldn't create delegate: "
@@ -3243,6 +4760,7 @@ public abstract class JobStoreSupport implements JobStore, Constants {
     //---------------------------------------------------------------------------
 
     protected RecoverMisfiredJobsResult doRecoverMisfires() throws JobPersistenceException {
+        long start = System.nanoTime();
         boolean transOwner = false;
         Connection conn = getNonManagedTXConnection();
         try {
@@ -3256,16 +4774,23 @@ public abstract class JobStoreSupport implements JobStore, Constants {
                     conn, STATE_WAITING, getMisfireTime()) : 
                 Integer.MAX_VALUE;
             
+            if (getDoubleCheckLockMisfireHandler()) {
+                misfireRecoveryStatistics.setPendingTriggerCount(misfireCount);
+            }
+
             if (misfireCount == 0) {
                 getLog().debug(
                     "Found 0 triggers that missed their scheduled fire-time.");
             } else {
-                transOwner = getLockHandler().obtainLock(conn, LOCK_TRIGGER_ACCESS);
+                transOwner = obtainLock(conn, LOCK_TRIGGER_ACCESS);
                 
                 result = recoverMisfiredJobs(conn, false);
             }
             
             commitConnection(conn);
+            if (result.getProcessedMisfiredTriggerCount() > 0) {
+                schedulingDataChanged();
+            }
             return result;
         } catch (JobPersistenceException e) {
             rollbackConnection(conn);
@@ -3282,6 +4807,7 @@ public abstract class JobStoreSupport implements JobStore, Constants {
                 releaseLock(LOCK_TRIGGER_ACCESS, transOwner);
             } finally {
                 cleanupConnection(conn);
+                statistics.operationCompleted(JobStoreStatistics.RECOVER_MISFIRES, System.nanoTime() - start);
             }
         }
     }
@@ -3316,9 +4842,11 @@ public abstract class JobStoreSupport implements JobStore, Constants {
     protected long lastCheckin = System.currentTimeMillis();
     
     protected boolean doCheckin() throws JobPersistenceException {
+        long start = System.nanoTime();
         boolean transOwner = false;
         boolean transStateOwner = false;
         boolean recovered = false;
+        List<Integer> lockedPartitions = new ArrayList<Integer>();
 
         Connection conn = getNonManagedTXConnection();
         try {
@@ -3341,27 +4869,44 @@ public abstract class JobStoreSupport implements JobStore, Constants {
                 failedRecords = (firstCheckIn) ? clusterCheckIn(conn) : findFailedInstances(conn);
     
                 if (failedRecords.size() > 0) {
-                    getLockHandler().obtainLock(conn, LOCK_TRIGGER_ACCESS);
-                    //getLockHandler().obtainLock(conn, LOCK_JOB_ACCESS);
-                    transOwner = true;
+                    if (isTriggerAccessPartitioned()) {
+                        // only lock the partitions the failed instances fired triggers in
+                        Set<Integer> partitions = selectFiredTriggerPartitions(conn, failedRecords);
+                        for (Integer partition : partitions) {
+                            getLockHandler().obtainLock(conn, getTriggerAccessLockName(partition));
+                            lockedPartitions.add(partition);
+                        }
+                        clusterRecover(conn, failedRecords, partitions);
+                    } else {
+                        getLockHandler().obtainLock(conn, LOCK_TRIGGER_ACCESS);
+                        //getLockHandler().obtainLock(conn, LOCK_JOB_ACCESS);
+                        transOwner = true;
     
-                    clusterRecover(conn, failedRecords);
+                        clusterRecover(conn, failedRecords);
+                    }
                     recovered = true;
                 }
             }
             
             commitConnection(conn);
+            if (recovered) {
+                schedulingDataChanged();
+            }
         } catch (JobPersistenceException e) {
             rollbackConnection(conn);
             throw e;
         } finally {
             try {
                 releaseLock(LOCK_TRIGGER_ACCESS, transOwner);
+                for (int i = lockedPartitions.size() - 1; i >= 0; i--) {
+                    releaseLock(getTriggerAccessLockName(lockedPartitions.get(i)), true);
+                }
             } finally {
                 try {
                     releaseLock(LOCK_STATE_ACCESS, transStateOwner);
                 } finally {
                     cleanupConnection(conn);
+                    statistics.operationCompleted(JobStoreStatistics.CLUSTER_CHECKIN, System.nanoTime() - start);
                 }
             }
         }
@@ -3488,9 +5033,45 @@ public abstract class JobStoreSupport implements JobStore, Constants {
         return failedInstances;
     }
 
-    @SuppressWarnings("ConstantConditions")
+    /**
+     * Get the trigger access partitions, in ascending order, that the given
+     * instances have fired trigger records in.
+     */
+    private Set<Integer> selectFiredTriggerPartitions(Connection conn, List<SchedulerStateRecord> instances)
+        throws JobPersistenceException {
+        try {
+            Set<Integer> partitions = new TreeSet<Integer>();
+            for (SchedulerStateRecord rec : instances) {
+                for (FiredTriggerRecord ftRec : getDelegate().selectInstancesFiredTriggerRecords(
+                        conn, rec.getSchedulerInstanceId())) {
+                    partitions.add(getTriggerAccessPartition(ftRec.getJobKey()));
+                }
+            }
+            return partitions;
+        } catch (SQLException e) {
+            throw new JobPersistenceException("Failure selecting fired triggers of failed instances: "
+                    + e.getMessage(), e);
+        }
+    }
+
     protected void clusterRecover(Connection conn, List<SchedulerStateRecord> failedInstances)
         throws JobPersistenceException {
+        clusterRecover(conn, failedInstances, null);
+    }
+
+    /**
+     * <p>
+     * Recover the fired triggers of the given failed instances that belong to
+     * the given trigger access partitions, whose locks must be held.  Fired
+     * triggers of other partitions are left for a later check-in, and so is
+     * the state record of their instance.  With <code>null</code> partitions
+     * all fired triggers are recovered, which requires
+     * <code>TRIGGER_ACCESS</code>.
+     * </p>
+     */
+    @SuppressWarnings("ConstantConditions")
+    protected void clusterRecover(Connection conn, List<SchedulerStateRecord> failedInstances,
+            Set<Integer> partitions) throws JobPersistenceException {
 
         if (failedInstances.size() > 0) {
 
@@ -3513,6 +5094,7 @@ public abstract class JobStoreSupport implements JobStore, Constants {
                     int acquiredCount = 0;
                     int recoveredCount = 0;
                     int otherCount = 0;
+                    int deferredCount = 0;
 
                     Set<TriggerKey> triggerKeys = new HashSet<TriggerKey>();
 
@@ -3521,6 +5103,11 @@ public abstract class JobStoreSupport implements JobStore, Constants {
                         TriggerKey tKey = ftRec.getTriggerKey();
                         JobKey jKey = ftRec.getJobKey();
 
+                        if (partitions != null && !partitions.contains(getTriggerAccessPartition(jKey))) {
+                            deferredCount++;
+                            continue;
+                        }
+
                         triggerKeys.add(tKey);
 
                         // release blocked triggers..
@@ -3592,10 +5179,16 @@ public abstract class JobStoreSupport implements JobStore, Constants {
                                             conn, jKey,
                                             STATE_PAUSED, STATE_PAUSED_BLOCKED);
                         }
+
+                        if (partitions != null) {
+                            getDelegate().deleteFiredTrigger(conn, ftRec.getFireInstanceId());
+                        }
                     }
 
-                    getDelegate().deleteFiredTriggers(conn,
-                            rec.getSchedulerInstanceId());
+                    if (partitions == null) {
+                        getDelegate().deleteFiredTriggers(conn,
+                                rec.getSchedulerInstanceId());
+                    }
 
                     // Check if any of the fired triggers we just deleted were the last fired trigger
                     // records of a COMPLETE trigger.
@@ -3627,8 +5220,11 @@ public abstract class JobStoreSupport implements JobStore, Constants {
                     logWarnIfNonZero(otherCount,
                             "ClusterManager: ......Cleaned-up " + otherCount
                                     + " other failed job(s).");
+                    logWarnIfNonZero(deferredCount,
+                            "ClusterManager: ......Left " + deferredCount
+                                    + " fired trigger(s) of unlocked partitions for the next check-in.");
 
-                    if (!rec.getSchedulerInstanceId().equals(getInstanceId())) {
+                    if (deferredCount == 0 && !rec.getSchedulerInstanceId().equals(getInstanceId())) {
                         getDelegate().deleteSchedulerState(conn,
                                 rec.getSchedulerInstanceId());
                     }
@@ -3785,6 +5381,71 @@ public abstract class JobStoreSupport implements JobStore, Constants {
         abstract void executeVoid(Connection conn) throws JobPersistenceException;
     }
 
+    /**
+     * Applies the misfire instructions of a range of misfired triggers,
+     * splitting it in halves until the ranges are small.
+     */
+    private static final class MisfireUpdateTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        static final int THRESHOLD = 64;
+
+        private final List<OperableTrigger> triggers;
+        private final Map<String, Calendar> calendars;
+        private final int from;
+        private final int to;
+
+        MisfireUpdateTask(List<OperableTrigger> triggers, Map<String, Calendar> calendars,
+                int from, int to) {
+            this.triggers = triggers;
+            this.calendars = calendars;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= THRESHOLD) {
+                // calendars are not thread-safe, so each task uses its own copies
+                Map<String, Calendar> copies = new HashMap<String, Calendar>();
+                for (int i = from; i < to; i++) {
+                    OperableTrigger trig = triggers.get(i);
+                    String calName = trig.getCalendarName();
+                    Calendar cal = null;
+                    if (calName != null) {
+                        cal = copies.get(calName);
+                        if (cal == null && calendars.get(calName) != null) {
+                            cal = (Calendar) calendars.get(calName).clone();
+                            copies.put(calName, cal);
+                        }
+                    }
+                    trig.updateAfterMisfire(cal);
+                }
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new MisfireUpdateTask(triggers, calendars, from, middle),
+                    new MisfireUpdateTask(triggers, calendars, middle, to));
+            }
+        }
+    }
+
+    /**
+     * A deserialized calendar held by a clustered node, with the version it
+     * was read at and when that version was last confirmed.
+     */
+    private static final class VersionedCalendar {
+        final Calendar calendar;
+        final long version;
+        volatile long validatedAt;
+
+        VersionedCalendar(Calendar calendar, long version, long validatedAt) {
+            this.calendar = calendar;
+            this.version = version;
+            this.validatedAt = validatedAt;
+        }
+    }
+
     /**
      * Execute the given callback in a transaction. Depending on the JobStore, 
      * the surrounding transaction may be assumed to be already present 
@@ -3801,6 +5462,107 @@ public abstract class JobStoreSupport implements JobStore, Constants {
         return executeInLock(null, txCallback);
     }
 
+    /**
+     * Execute the given read-only callback like
+     * {@link #executeWithoutLock(TransactionCallback)}, unless the read
+     * cache holds a result for the given key.  Jobs and triggers are cached
+     * (and returned) as copies, so callers may change what they get.
+     */
+    @SuppressWarnings("unchecked")
+    protected <T> T executeCachedRead(Object cacheKey,
+        TransactionCallback<T> txCallback) throws JobPersistenceException {
+        SchedulingDataCache cache = readCache;
+        if (cache == null) {
+            return executeWithoutLock(txCallback);
+        }
+
+        checkSchedulingDataChangeToken(cache);
+
+        Object cached = cache.get(cacheKey);
+        if (cached != SchedulingDataCache.MISS) {
+            return (T) copyCachedValue(cached);
+        }
+
+        long generation = cache.getGeneration();
+        T result = executeWithoutLock(txCallback);
+        cache.put(cacheKey, copyCachedValue(result), generation);
+        return result;
+    }
+
+    /**
+     * Execute the given callback, which changes jobs, triggers or calendars,
+     * having acquired the given lock, and then drop the read cache.
+     * 
+     * @see #executeInLock(String, TransactionCallback)
+     */
+    protected <T> T executeWriteInLock(
+        String lockName, 
+        TransactionCallback<T> txCallback) throws JobPersistenceException {
+        try {
+            return executeInLock(lockName, txCallback);
+        } finally {
+            schedulingDataChanged();
+        }
+    }
+
+    /**
+     * Drop the read cache, as jobs, triggers or calendars have changed.
+     */
+    protected void schedulingDataChanged() {
+        SchedulingDataCache cache = readCache;
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    private void checkSchedulingDataChangeToken(SchedulingDataCache cache)
+        throws JobPersistenceException {
+        long interval = getReadCacheChangeCheckInterval();
+        if (interval <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long lastCheck = lastChangeTokenCheck.get();
+        if (now - lastCheck < interval || !lastChangeTokenCheck.compareAndSet(lastCheck, now)) {
+            return;
+        }
+
+        String token = executeWithoutLock( // no locks necessary for read...
+            new TransactionCallback<String>() {
+                public String execute(Connection conn) throws JobPersistenceException {
+                    try {
+                        return getDelegate().selectSchedulingDataChangeToken(conn);
+                    } catch (SQLException e) {
+                        throw new JobPersistenceException(
+                            "Couldn't check for changes: " + e.getMessage(), e);
+                    }
+                }
+            });
+        String previousToken = changeToken;
+        changeToken = token;
+        if (previousToken != null && !previousToken.equals(token)) {
+            getLog().debug("Scheduling data changed; dropping the read cache.");
+            cache.clear();
+        }
+    }
+
+    private static Object copyCachedValue(Object value) {
+        if (value instanceof JobDetail) {
+            return ((JobDetail) value).clone();
+        } else if (value instanceof OperableTrigger) {
+            return ((OperableTrigger) value).clone();
+        } else if (value instanceof List) {
+            List<Object> copy = new ArrayList<Object>(((List<?>) value).size());
+            for (Object element : (List<?>) value) {
+                copy.add(copyCachedValue(element));
+            }
+            return copy;
+        } else if (value instanceof Set) {
+            return new HashSet<Object>((Set<?>) value);
+        }
+        return value;
+    }
+
     /**
      * Execute the given callback having acquired the given lock.
      * Depending on the JobStore, the surrounding transaction may be 
@@ -3825,6 +5587,7 @@ public abstract class JobStoreSupport implements JobStore, Constants {
             } catch (RuntimeException e) {
                 getLog().error("retryExecuteInNonManagedTXLock: RuntimeException " + e.getMessage(), e);
             }
+            statistics.transactionRetried();
             try {
                 Thread.sleep(getDbRetryInterval()); // retry every N seconds (the db connection must be failed)
             } catch (InterruptedException e) {
@@ -3855,7 +5618,7 @@ public abstract class JobStoreSupport implements JobStore, Constants {
                     conn = getNonManagedTXConnection();
                 }
                 
-                transOwner = getLockHandler().obtainLock(conn, lockName);
+                transOwner = obtainLock(conn, lockName);
             }
             
             if (conn == null) {
@@ -0,0 +1,118 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright Super iPaaS Integration LLC, an IBM Company 2024
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.quartz.impl.jdbcjobstore;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>
+ * Progress of the bulk misfire recovery of a {@link JobStoreSupport}: how
+ * many misfired triggers have been recovered, in how many batches and how
+ * much time, and roughly how many are still waiting to be recovered.
+ * </p>
+ * 
+ * @see JobStoreSupport#setBulkMisfireRecovery(boolean)
+ */
+public class MisfireRecoveryStatistics {
+
+    private final AtomicLong recoveredTriggers = new AtomicLong();
+
+    private final AtomicLong batches = new AtomicLong();
+
+    private final AtomicLong recoveryTime = new AtomicLong();
+
+    private volatile long pendingTriggers = -1L;
+
+    private volatile long lastBatchSize;
+
+    private volatile long lastBatchTime;
+
+    void setPendingTriggerCount(long pendingTriggers) {
+        this.pendingTriggers = pendingTriggers;
+    }
+
+    void batchRecovered(int triggerCount, long millis) {
+        recoveredTriggers.addAndGet(triggerCount);
+        batches.incrementAndGet();
+        recoveryTime.addAndGet(millis);
+        lastBatchSize = triggerCount;
+        lastBatchTime = millis;
+
+        long pending = pendingTriggers;
+        if (pending >= 0) {
+            pendingTriggers = Math.max(0L, pending - triggerCount);
+        }
+    }
+
+    /**
+     * The total number of misfired triggers recovered in bulk.
+     */
+    public long getRecoveredTriggerCount() {
+        return recoveredTriggers.get();
+    }
+
+    /**
+     * The number of batches the misfired triggers were recovered in.
+     */
+    public long getBatchCount() {
+        return batches.get();
+    }
+
+    /**
+     * The total number of milliseconds spent recovering batches.
+     */
+    public long getRecoveryTime() {
+        return recoveryTime.get();
+    }
+
+    /**
+     * The number of misfired triggers found by the last scan of the misfire
+     * handler, less those recovered since, or -1 if unknown (the count is
+     * only taken when <code>doubleCheckLockMisfireHandler</code> is set).
+     */
+    public long getPendingTriggerCount() {
+        return pendingTriggers;
+    }
+
+    /**
+     * The number of triggers recovered by the last batch.
+     */
+    public long getLastBatchSize() {
+        return lastBatchSize;
+    }
+
+    /**
+     * The number of milliseconds the last batch took.
+     */
+    public long getLastBatchTime() {
+        return lastBatchTime;
+    }
+
+    /**
+     * The average number of misfired triggers recovered per second.
+     */
+    public double getTriggersPerSecond() {
+        long millis = recoveryTime.get();
+        return (millis > 0) ? recoveredTriggers.get() * 1000.0 / millis : 0.0;
+    }
+
+    @Override
+    public String toString() {
+        return "recovered " + getRecoveredTriggerCount() + " misfired trigger(s) in "
+            + getBatchCount() + " batch(es), " + getPendingTriggerCount() + " pending";
+    }
+}
@@ -0,0 +1,65 @@
+/* 
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright Super iPaaS Integration LLC, an IBM Company 2024
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not 
+ * use this file except in compliance with the License. You may obtain a copy 
+ * of the License at 
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0 
+ *   
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations 
+ * under the License.
+ * 
+ */
+
+package org.quartz.impl.jdbcjobstore;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Locale;
+
+import org.quartz.TriggerKey;
+
+/**
+ * <p>
+ * This is a driver delegate for MySQL (and MariaDB).  It behaves like the
+ * {@link StdJDBCDelegate}, except that on MySQL 8 and MariaDB 10.6 or later
+ * it can claim the triggers to acquire with
+ * <code>SELECT ... FOR UPDATE SKIP LOCKED</code>.
+ * </p>
+ * 
+ * @see JobStoreSupport#setAcquireTriggersSkipLocked(boolean)
+ */
+public class MySQLDelegate extends StdJDBCDelegate {
+
+    private Boolean supportsSkipLocked = null;
+
+    @Override
+    public boolean supportsSkipLocked(Connection conn) throws SQLException {
+        if (supportsSkipLocked == null) {
+            DatabaseMetaData metaData = conn.getMetaData();
+            int major = metaData.getDatabaseMajorVersion();
+            if (metaData.getDatabaseProductName().toLowerCase(Locale.ENGLISH).contains("mariadb")) {
+                supportsSkipLocked = major > 10 || (major == 10 && metaData.getDatabaseMinorVersion() >= 6);
+            } else {
+                supportsSkipLocked = major >= 8;
+            }
+        }
+        return supportsSkipLocked;
+    }
+
+    @Override
+    public List<TriggerKey> selectTriggerToAcquireSkipLocked(Connection conn, long noLaterThan, long noEarlierThan, int maxCount)
+        throws SQLException {
+        return selectTriggerToAcquireSkipLocked(conn, SELECT_NEXT_TRIGGER_TO_ACQUIRE_LIMIT_SKIP_LOCKED,
+                noLaterThan, noEarlierThan, maxCount, true);
+    }
+}
+
+// EOF
@@ -384,6 +384,17 @@ public class PointbaseDelegate extends StdJDBCDelegate {
     // protected methods that can be overridden by subclasses
     //---------------------------------------------------------------------------
 
+    /**
+     * <p>
+     * This delegate binds BLOBs as streams when writing job details and
+     * triggers, so bulk writes store them row by row.
+     * </p>
+     */
+    @Override
+    protected boolean canBatchJobAndTriggerWrites(Connection conn) {
+        return false;
+    }
+
     /**
      * <p>
      * This method should be overridden by any delegate subclasses that need
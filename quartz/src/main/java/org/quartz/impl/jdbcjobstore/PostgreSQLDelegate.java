@@ -22,9 +22,15 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.ObjectInputStream;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.List;
 
+import org.quartz.JobDetail;
+import org.quartz.TriggerKey;
 import org.quartz.spi.ClassLoadHelper;
 import org.slf4j.Logger;
 
@@ -37,6 +43,87 @@ import org.slf4j.Logger;
  */
 public class PostgreSQLDelegate extends StdJDBCDelegate {
 
+    public static final String UPSERT_JOB_DETAIL = INSERT_JOB_DETAIL
+            + " ON CONFLICT (" + COL_SCHEDULER_NAME + ", " + COL_JOB_NAME + ", "
+            + COL_JOB_GROUP + ") DO UPDATE SET "
+            + COL_DESCRIPTION + " = EXCLUDED." + COL_DESCRIPTION + ", "
+            + COL_JOB_CLASS + " = EXCLUDED." + COL_JOB_CLASS + ", "
+            + COL_IS_DURABLE + " = EXCLUDED." + COL_IS_DURABLE + ", "
+            + COL_IS_NONCONCURRENT + " = EXCLUDED." + COL_IS_NONCONCURRENT + ", "
+            + COL_IS_UPDATE_DATA + " = EXCLUDED." + COL_IS_UPDATE_DATA + ", "
+            + COL_REQUESTS_RECOVERY + " = EXCLUDED." + COL_REQUESTS_RECOVERY + ", "
+            + COL_JOB_DATAMAP + " = EXCLUDED." + COL_JOB_DATAMAP;
+
+    private Boolean supportsOnConflict = null;
+
+    /**
+     * <p>
+     * Insert or update the job detail records of the given jobs with
+     * <code>INSERT ... ON CONFLICT DO UPDATE</code>, so that no existence
+     * check is needed.  Falls back to the standard implementation on
+     * PostgreSQL versions older than 9.5.
+     * </p>
+     */
+    @Override
+    public int[] upsertJobDetails(Connection conn, List<JobDetail> jobs)
+        throws IOException, SQLException {
+        if (jobs.isEmpty() || !supportsOnConflict(conn)) {
+            return super.upsertJobDetails(conn, jobs);
+        }
+
+        int[] counts = new int[jobs.size()];
+        boolean batch = canBatchJobAndTriggerWrites(conn);
+        PreparedStatement ps = null;
+
+        try {
+            ps = conn.prepareStatement(rtp(UPSERT_JOB_DETAIL));
+            int from = 0;
+            for (int i = 0; i < counts.length; i++) {
+                setInsertJobDetailParameters(ps, jobs.get(i));
+                if (!batch) {
+                    counts[i] = ps.executeUpdate();
+                    continue;
+                }
+                ps.addBatch();
+                if (i + 1 - from == maxRowsPerBatch || i + 1 == counts.length) {
+                    executeBatch(ps, counts, from, i + 1);
+                    from = i + 1;
+                }
+            }
+        } finally {
+            closeStatement(ps);
+        }
+
+        return counts;
+    }
+
+    /**
+     * <p>
+     * <code>SKIP LOCKED</code> came with PostgreSQL 9.5, as did
+     * <code>ON CONFLICT</code>.
+     * </p>
+     */
+    @Override
+    public boolean supportsSkipLocked(Connection conn) throws SQLException {
+        return supportsOnConflict(conn);
+    }
+
+    @Override
+    public List<TriggerKey> selectTriggerToAcquireSkipLocked(Connection conn, long noLaterThan, long noEarlierThan, int maxCount)
+        throws SQLException {
+        return selectTriggerToAcquireSkipLocked(conn, SELECT_NEXT_TRIGGER_TO_ACQUIRE_LIMIT_SKIP_LOCKED,
+                noLaterThan, noEarlierThan, maxCount, true);
+    }
+
+    protected boolean supportsOnConflict(Connection conn) throws SQLException {
+        if (supportsOnConflict == null) {
+            DatabaseMetaData metaData = conn.getMetaData();
+            int major = metaData.getDatabaseMajorVersion();
+            supportsOnConflict = major > 9 || (major == 9 && metaData.getDatabaseMinorVersion() >= 5);
+        }
+        return supportsOnConflict;
+    }
+
     //---------------------------------------------------------------------------
     // protected methods that can be overridden by subclasses
     //---------------------------------------------------------------------------
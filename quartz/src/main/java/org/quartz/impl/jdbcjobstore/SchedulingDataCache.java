@@ -0,0 +1,145 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright Super iPaaS Integration LLC, an IBM Company 2024
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.quartz.impl.jdbcjobstore;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * <p>
+ * A size-bounded cache of the results of read-only <code>JobStore</code>
+ * queries, used by {@link JobStoreSupport} when its read cache is enabled.
+ * Entries expire after a fixed time to live, and the least recently used
+ * entries are evicted once the cache is full.
+ * </p>
+ * 
+ * <p>
+ * Each call to {@link #clear()} starts a new generation, and a result is only
+ * cached if no clear happened since the read that produced it began, so a
+ * read racing a write cannot put stale data back into the cache.
+ * </p>
+ */
+class SchedulingDataCache {
+
+    /**
+     * Returned by {@link #get(Object)} when there is no live entry for a key
+     * (<code>null</code> being a value that can be cached).
+     */
+    static final Object MISS = new Object();
+
+    private final long timeToLive;
+
+    private final LinkedHashMap<Object, CachedValue> entries;
+
+    private long generation = 0L;
+
+    private long hits = 0L;
+
+    private long misses = 0L;
+
+    SchedulingDataCache(final int maxEntries, long timeToLive) {
+        this.timeToLive = timeToLive;
+        this.entries = new LinkedHashMap<Object, CachedValue>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, CachedValue> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    static Object key(String kind, Object argument) {
+        return new Key(kind, argument);
+    }
+
+    synchronized Object get(Object key) {
+        CachedValue entry = entries.get(key);
+        if (entry != null && System.currentTimeMillis() - entry.created >= timeToLive) {
+            entries.remove(key);
+            entry = null;
+        }
+        if (entry == null) {
+            misses++;
+            return MISS;
+        }
+        hits++;
+        return entry.value;
+    }
+
+    synchronized long getGeneration() {
+        return generation;
+    }
+
+    synchronized void put(Object key, Object value, long readGeneration) {
+        if (readGeneration == generation) {
+            entries.put(key, new CachedValue(value, System.currentTimeMillis()));
+        }
+    }
+
+    synchronized void clear() {
+        generation++;
+        entries.clear();
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized long getHitCount() {
+        return hits;
+    }
+
+    synchronized long getMissCount() {
+        return misses;
+    }
+
+    private static final class CachedValue {
+        final Object value;
+        final long created;
+
+        CachedValue(Object value, long created) {
+            this.value = value;
+            this.created = created;
+        }
+    }
+
+    private static final class Key {
+        private final String kind;
+        private final Object argument;
+
+        Key(String kind, Object argument) {
+            this.kind = kind;
+            this.argument = argument;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * kind.hashCode() + ((argument == null) ? 0 : argument.hashCode());
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return kind.equals(other.kind)
+                && ((argument == null) ? other.argument == null : argument.equals(other.argument));
+        }
+    }
+}
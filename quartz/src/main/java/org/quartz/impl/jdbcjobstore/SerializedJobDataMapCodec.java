@@ -0,0 +1,60 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright Super iPaaS Integration LLC, an IBM Company 2024
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.quartz.impl.jdbcjobstore;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.util.Map;
+
+/**
+ * <p>
+ * A <code>{@link JobDataMapCodec}</code> that writes the map with
+ * <code>java.io</code> serialization, the way JobDataMaps were always
+ * stored, but behind the codec header.  Use it to keep the serialized form
+ * while being able to read BLOBs written by other codecs.
+ * </p>
+ */
+public class SerializedJobDataMapCodec implements JobDataMapCodec {
+
+    public static final int FORMAT_ID = 1;
+
+    public int getFormatId() {
+        return FORMAT_ID;
+    }
+
+    public int getFormatVersion() {
+        return 1;
+    }
+
+    public void encode(Map<?, ?> data, OutputStream out) throws IOException {
+        ObjectOutputStream oos = new ObjectOutputStream(out);
+        oos.writeObject(data);
+        oos.flush();
+    }
+
+    public Map<?, ?> decode(InputStream in, int formatVersion) throws IOException, ClassNotFoundException {
+        ObjectInputStream ois = new ObjectInputStream(in);
+        try {
+            return (Map<?, ?>) ois.readObject();
+        } finally {
+            ois.close();
+        }
+    }
+}
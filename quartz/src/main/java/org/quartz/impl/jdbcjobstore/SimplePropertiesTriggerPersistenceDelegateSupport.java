@@ -21,6 +21,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.List;
 
 import org.quartz.JobDetail;
 import org.quartz.ScheduleBuilder;
@@ -38,7 +39,7 @@ import org.quartz.spi.OperableTrigger;
  * 
  * @author jhouse
  */
-public abstract class SimplePropertiesTriggerPersistenceDelegateSupport implements TriggerPersistenceDelegate, StdJDBCConstants {
+public abstract class SimplePropertiesTriggerPersistenceDelegateSupport implements BatchTriggerPersistenceDelegate, StdJDBCConstants {
 
     protected static final String TABLE_SIMPLE_PROPERTIES_TRIGGERS = "SIMPROP_TRIGGERS";
     
@@ -115,25 +116,11 @@ public abstract class SimplePropertiesTriggerPersistenceDelegateSupport implemen
 
     public int insertExtendedTriggerProperties(Connection conn, OperableTrigger trigger, String state, JobDetail jobDetail) throws SQLException, IOException {
 
-        SimplePropertiesTriggerProperties properties = getTriggerProperties(trigger);
-        
         PreparedStatement ps = null;
         
         try {
             ps = conn.prepareStatement(Util.rtp(INSERT_SIMPLE_PROPS_TRIGGER, tablePrefix, schedNameLiteral));
-            ps.setString(1, trigger.getKey().getName());
-            ps.setString(2, trigger.getKey().getGroup());
-            ps.setString(3, properties.getString1());
-            ps.setString(4, properties.getString2());
-            ps.setString(5, properties.getString3());
-            ps.setInt(6, properties.getInt1());
-            ps.setInt(7, properties.getInt2());
-            ps.setLong(8, properties.getLong1());
-            ps.setLong(9, properties.getLong2());
-            ps.setBigDecimal(10, properties.getDecimal1());
-            ps.setBigDecimal(11, properties.getDecimal2());
-            ps.setBoolean(12, properties.isBoolean1());
-            ps.setBoolean(13, properties.isBoolean2());
+            setInsertParameters(ps, trigger);
 
             return ps.executeUpdate();
         } finally {
@@ -141,6 +128,42 @@ public abstract class SimplePropertiesTriggerPersistenceDelegateSupport implemen
         }
     }
 
+    public int[] insertExtendedTriggerProperties(Connection conn, List<OperableTrigger> triggers, List<String> states, List<JobDetail> jobDetails) throws SQLException, IOException {
+
+        PreparedStatement ps = null;
+        
+        try {
+            ps = conn.prepareStatement(Util.rtp(INSERT_SIMPLE_PROPS_TRIGGER, tablePrefix, schedNameLiteral));
+            for (OperableTrigger trigger : triggers) {
+                setInsertParameters(ps, trigger);
+                ps.addBatch();
+            }
+
+            return ps.executeBatch();
+        } finally {
+            Util.closeStatement(ps);
+        }
+    }
+
+    private void setInsertParameters(PreparedStatement ps, OperableTrigger trigger) throws SQLException {
+
+        SimplePropertiesTriggerProperties properties = getTriggerProperties(trigger);
+
+        ps.setString(1, trigger.getKey().getName());
+        ps.setString(2, trigger.getKey().getGroup());
+        ps.setString(3, properties.getString1());
+        ps.setString(4, properties.getString2());
+        ps.setString(5, properties.getString3());
+        ps.setInt(6, properties.getInt1());
+        ps.setInt(7, properties.getInt2());
+        ps.setLong(8, properties.getLong1());
+        ps.setLong(9, properties.getLong2());
+        ps.setBigDecimal(10, properties.getDecimal1());
+        ps.setBigDecimal(11, properties.getDecimal2());
+        ps.setBoolean(12, properties.isBoolean1());
+        ps.setBoolean(13, properties.isBoolean2());
+    }
+
     public TriggerPropertyBundle loadExtendedTriggerProperties(Connection conn, TriggerKey triggerKey) throws SQLException {
 
         PreparedStatement ps = null;
@@ -179,25 +202,11 @@ public abstract class SimplePropertiesTriggerPersistenceDelegateSupport implemen
 
     public int updateExtendedTriggerProperties(Connection conn, OperableTrigger trigger, String state, JobDetail jobDetail) throws SQLException, IOException {
 
-        SimplePropertiesTriggerProperties properties = getTriggerProperties(trigger);
-        
         PreparedStatement ps = null;
-
+        
         try {
             ps = conn.prepareStatement(Util.rtp(UPDATE_SIMPLE_PROPS_TRIGGER, tablePrefix, schedNameLiteral));
-            ps.setString(1, properties.getString1());
-            ps.setString(2, properties.getString2());
-            ps.setString(3, properties.getString3());
-            ps.setInt(4, properties.getInt1());
-            ps.setInt(5, properties.getInt2());
-            ps.setLong(6, properties.getLong1());
-            ps.setLong(7, properties.getLong2());
-            ps.setBigDecimal(8, properties.getDecimal1());
-            ps.setBigDecimal(9, properties.getDecimal2());
-            ps.setBoolean(10, properties.isBoolean1());
-            ps.setBoolean(11, properties.isBoolean2());
-            ps.setString(12, trigger.getKey().getName());
-            ps.setString(13, trigger.getKey().getGroup());
+            setUpdateParameters(ps, trigger);
 
             return ps.executeUpdate();
         } finally {
@@ -205,4 +214,40 @@ public abstract class SimplePropertiesTriggerPersistenceDelegateSupport implemen
         }
     }
 
+    public int[] updateExtendedTriggerProperties(Connection conn, List<OperableTrigger> triggers, List<String> states, List<JobDetail> jobDetails) throws SQLException, IOException {
+
+        PreparedStatement ps = null;
+        
+        try {
+            ps = conn.prepareStatement(Util.rtp(UPDATE_SIMPLE_PROPS_TRIGGER, tablePrefix, schedNameLiteral));
+            for (OperableTrigger trigger : triggers) {
+                setUpdateParameters(ps, trigger);
+                ps.addBatch();
+            }
+
+            return ps.executeBatch();
+        } finally {
+            Util.closeStatement(ps);
+        }
+    }
+
+    private void setUpdateParameters(PreparedStatement ps, OperableTrigger trigger) throws SQLException {
+
+        SimplePropertiesTriggerProperties properties = getTriggerProperties(trigger);
+
+        ps.setString(1, properties.getString1());
+        ps.setString(2, properties.getString2());
+        ps.setString(3, properties.getString3());
+        ps.setInt(4, properties.getInt1());
+        ps.setInt(5, properties.getInt2());
+        ps.setLong(6, properties.getLong1());
+        ps.setLong(7, properties.getLong2());
+        ps.setBigDecimal(8, properties.getDecimal1());
+        ps.setBigDecimal(9, properties.getDecimal2());
+        ps.setBoolean(10, properties.isBoolean1());
+        ps.setBoolean(11, properties.isBoolean2());
+        ps.setString(12, trigger.getKey().getName());
+        ps.setString(13, trigger.getKey().getGroup());
+    }
+
 }
@@ -173,6 +173,15 @@ public interface StdJDBCConstants extends Constants {
             + " AND " + COL_JOB_NAME
             + " = ? AND " + COL_JOB_GROUP + " = ?";
 
+    // completed with one JOB_KEY_PREDICATE per key, joined with OR, and ")"
+    String SELECT_JOB_KEYS_PREFIX = "SELECT "
+            + COL_JOB_NAME + ", " + COL_JOB_GROUP + " FROM " + TABLE_PREFIX_SUBST
+            + TABLE_JOB_DETAILS + " WHERE " + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST
+            + " AND (";
+
+    String JOB_KEY_PREDICATE = "(" + COL_JOB_NAME + " = ? AND "
+            + COL_JOB_GROUP + " = ?)";
+
     String UPDATE_JOB_DATA = "UPDATE " + TABLE_PREFIX_SUBST
             + TABLE_JOB_DETAILS + " SET " + COL_JOB_DATAMAP + " = ? "
             + " WHERE " 
@@ -409,6 +418,22 @@ public interface StdJDBCConstants extends Constants {
             + " AND " + COL_TRIGGER_NAME + " = ? AND "
             + COL_TRIGGER_GROUP + " = ?";
 
+    // completed with one TRIGGER_KEY_PREDICATE per key, joined with OR, and ")"
+    String SELECT_TRIGGER_STATES_PREFIX = "SELECT "
+            + COL_TRIGGER_NAME + ", " + COL_TRIGGER_GROUP + ", "
+            + COL_TRIGGER_STATE + " FROM " + TABLE_PREFIX_SUBST
+            + TABLE_TRIGGERS + " WHERE " + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST
+            + " AND (";
+
+    String TRIGGER_KEY_PREDICATE = "(" + COL_TRIGGER_NAME + " = ? AND "
+            + COL_TRIGGER_GROUP + " = ?)";
+
+    // completed with one TRIGGER_KEY_PREDICATE per key, joined with OR, and ")"
+    String SELECT_TRIGGER_KEYS_PREFIX = "SELECT "
+            + COL_TRIGGER_NAME + ", " + COL_TRIGGER_GROUP + " FROM " + TABLE_PREFIX_SUBST
+            + TABLE_TRIGGERS + " WHERE " + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST
+            + " AND (";
+
     String SELECT_TRIGGER_STATUS = "SELECT "
             + COL_TRIGGER_STATE + ", " + COL_NEXT_FIRE_TIME + ", "
             + COL_JOB_NAME + ", " + COL_JOB_GROUP + " FROM "
@@ -435,6 +460,11 @@ public interface StdJDBCConstants extends Constants {
             + COL_TRIGGER_NAME + ") " + " FROM " + TABLE_PREFIX_SUBST
             + TABLE_TRIGGERS + " WHERE " + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST;
 
+    String SELECT_TRIGGERS_CHANGE_TOKEN = "SELECT COUNT("
+            + COL_TRIGGER_NAME + "), SUM(CASE WHEN " + COL_TRIGGER_STATE
+            + " IN (?, ?, ?) THEN 1 ELSE 0 END) FROM " + TABLE_PREFIX_SUBST
+            + TABLE_TRIGGERS + " WHERE " + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST;
+
     String SELECT_NUM_TRIGGERS_IN_GROUP = "SELECT COUNT("
             + COL_TRIGGER_NAME + ") " + " FROM " + TABLE_PREFIX_SUBST
             + TABLE_TRIGGERS + " WHERE " + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST
@@ -477,6 +507,16 @@ public interface StdJDBCConstants extends Constants {
             + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST
             + " AND " + COL_CALENDAR_NAME + " = ?";
 
+    String SELECT_CALENDAR_VERSION = "SELECT "
+            + COL_CALENDAR_VERSION + " FROM " + TABLE_PREFIX_SUBST
+            + TABLE_CALENDARS + " WHERE " + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST
+            + " AND " + COL_CALENDAR_NAME + " = ?";
+
+    String UPDATE_CALENDAR_VERSION = "UPDATE " + TABLE_PREFIX_SUBST
+            + TABLE_CALENDARS + " SET " + COL_CALENDAR_VERSION + " = ? " + " WHERE "
+            + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST
+            + " AND " + COL_CALENDAR_NAME + " = ?";
+
     String SELECT_REFERENCED_CALENDAR = "SELECT "
             + COL_CALENDAR_NAME + " FROM " + TABLE_PREFIX_SUBST
             + TABLE_TRIGGERS + " WHERE " + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST
@@ -516,6 +556,29 @@ public interface StdJDBCConstants extends Constants {
         + "AND (" + COL_MISFIRE_INSTRUCTION + " = -1 OR (" +COL_MISFIRE_INSTRUCTION+ " <> -1 AND "+ COL_NEXT_FIRE_TIME + " >= ?)) "
         + "ORDER BY "+ COL_NEXT_FIRE_TIME + " ASC, " + COL_PRIORITY + " DESC";
     
+    String SELECT_NEXT_TRIGGER_TO_ACQUIRE_SKIP_LOCKED = SELECT_NEXT_TRIGGER_TO_ACQUIRE
+        + " FOR UPDATE SKIP LOCKED";
+
+    String SELECT_NEXT_TRIGGER_TO_ACQUIRE_LIMIT_SKIP_LOCKED = SELECT_NEXT_TRIGGER_TO_ACQUIRE
+        + " LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    String SELECT_TRIGGER_TO_ACQUIRE_SKIP_LOCKED = "SELECT "
+        + COL_TRIGGER_NAME + " FROM "
+        + TABLE_PREFIX_SUBST + TABLE_TRIGGERS + " WHERE "
+        + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST
+        + " AND " + COL_TRIGGER_NAME + " = ? AND " + COL_TRIGGER_GROUP + " = ? AND "
+        + COL_TRIGGER_STATE + " = ? FOR UPDATE SKIP LOCKED";
+
+    String SELECT_NEXT_TRIGGER_JOB_KEYS_TO_ACQUIRE = "SELECT "
+        + COL_TRIGGER_NAME + ", " + COL_TRIGGER_GROUP + ", "
+        + COL_JOB_NAME + ", " + COL_JOB_GROUP + ", "
+        + COL_NEXT_FIRE_TIME + ", " + COL_PRIORITY + " FROM "
+        + TABLE_PREFIX_SUBST + TABLE_TRIGGERS + " WHERE "
+        + COL_SCHEDULER_NAME + " = " + SCHED_NAME_SUBST
+        + " AND " + COL_TRIGGER_STATE + " = ? AND " + COL_NEXT_FIRE_TIME + " <= ? " 
+        + "AND (" + COL_MISFIRE_INSTRUCTION + " = -1 OR (" +COL_MISFIRE_INSTRUCTION+ " <> -1 AND "+ COL_NEXT_FIRE_TIME + " >= ?)) "
+        + "ORDER BY "+ COL_NEXT_FIRE_TIME + " ASC, " + COL_PRIORITY + " DESC";
+    
     
     String INSERT_FIRED_TRIGGER = "INSERT INTO "
             + TABLE_PREFIX_SUBST + TABLE_FIRED_TRIGGERS + " (" + COL_SCHEDULER_NAME + ", " + COL_ENTRY_ID
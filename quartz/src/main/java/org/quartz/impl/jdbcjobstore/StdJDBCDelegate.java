@@ -29,6 +29,7 @@ import java.io.InputStream;
 import java.io.NotSerializableException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.PushbackInputStream;
 import java.math.BigDecimal;
 import java.sql.Blob;
 import java.sql.Connection;
@@ -36,10 +37,12 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -101,6 +104,26 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
 
     protected List<TriggerPersistenceDelegate> triggerPersistenceDelegates = new LinkedList<TriggerPersistenceDelegate>();
 
+    // the most trigger keys bound into a single multi-row select
+    protected int maxKeysPerSelect = 100;
+
+    // the most rows sent in a single JDBC batch by the bulk writes
+    protected int maxRowsPerBatch = 1000;
+
+    private Boolean supportsBatchUpdates = null;
+
+    // writes the JobDataMap BLOBs when set, behind the codec header
+    protected JobDataMapCodec jobDataMapCodec;
+
+    // the codec header: these two bytes, then the codec's format id and version
+    private static final int JOB_DATA_CODEC_MAGIC_0 = 'Q';
+    private static final int JOB_DATA_CODEC_MAGIC_1 = 'J';
+    private static final int JOB_DATA_CODEC_HEADER_LENGTH = 4;
+
+    private static final JobDataMapCodec[] BUILT_IN_JOB_DATA_MAP_CODECS = {
+        new CompactJobDataMapCodec(), new SerializedJobDataMapCodec()
+    };
+
     
     /*
      * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
@@ -164,6 +187,14 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
                     } 
                 }
             }
+            else if(name.equals("jobDataMapCodec")) {
+                try {
+                    Class<?> codecClass = classLoadHelper.loadClass(parts[1]);
+                    setJobDataMapCodec((JobDataMapCodec) codecClass.newInstance());
+                } catch (Exception e) {
+                    throw new NoSuchDelegateException("Error instantiating JobDataMapCodec of type: " + parts[1], e);
+                }
+            }
             else
                 throw new NoSuchDelegateException("Unknown setting: '" + name + "'");
         }
@@ -176,8 +207,25 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
         addTriggerPersistenceDelegate(new DailyTimeIntervalTriggerPersistenceDelegate());
     }
 
+    /**
+     * Whether JobDataMap BLOBs are read as raw streams rather than as
+     * serialized objects, which is the case with <code>useProperties</code>
+     * and whenever a <code>{@link JobDataMapCodec}</code> is set.
+     */
     protected boolean canUseProperties() {
-        return useProperties;
+        return useProperties || jobDataMapCodec != null;
+    }
+
+    public JobDataMapCodec getJobDataMapCodec() {
+        return jobDataMapCodec;
+    }
+
+    /**
+     * Set the codec used to write JobDataMaps.  BLOBs written by any of the
+     * codecs shipped with Quartz, or without a codec, remain readable.
+     */
+    public void setJobDataMapCodec(JobDataMapCodec jobDataMapCodec) {
+        this.jobDataMapCodec = jobDataMapCodec;
     }
     
     public void addTriggerPersistenceDelegate(TriggerPersistenceDelegate delegate) {
@@ -347,11 +395,41 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
      */
     public boolean hasMisfiredTriggersInState(Connection conn, String state1, 
         long ts, int count, List<TriggerKey> resultList) throws SQLException {
+        return hasMisfiredTriggersInState(conn, state1, ts, count, 0, resultList);
+    }
+
+    /**
+     * <p>
+     * Get the names of the triggers in the given state that have misfired -
+     * according to the given timestamp - reading them through a cursor that
+     * fetches at most <code>fetchSize</code> rows from the database at a time
+     * and stops after the row beyond <code>count</code>, rather than letting
+     * the driver materialize every misfired trigger.
+     * </p>
+     * 
+     * @param conn The DB Connection
+     * @param count The most misfired triggers to return, negative for all
+     * @param fetchSize The number of rows to fetch at a time, or 0 for the
+     *      driver's default
+     * @param resultList Output parameter.  A List of 
+     *      <code>{@link org.quartz.utils.Key}</code> objects.  Must not be null.
+     *          
+     * @return Whether there are more misfired triggers left to find beyond
+     *         the given count.
+     */
+    public boolean hasMisfiredTriggersInState(Connection conn, String state1, 
+        long ts, int count, int fetchSize, List<TriggerKey> resultList) throws SQLException {
         PreparedStatement ps = null;
         ResultSet rs = null;
 
         try {
             ps = conn.prepareStatement(rtp(SELECT_HAS_MISFIRED_TRIGGERS_IN_STATE));
+            if (fetchSize > 0) {
+                ps.setFetchSize(fetchSize);
+                if (count >= 0) {
+                    ps.setMaxRows(count + 1);
+                }
+            }
             ps.setBigDecimal(1, new BigDecimal(String.valueOf(ts)));
             ps.setString(2, state1);
             rs = ps.executeQuery();
@@ -604,23 +682,13 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
      */
     public int insertJobDetail(Connection conn, JobDetail job)
         throws IOException, SQLException {
-        ByteArrayOutputStream baos = serializeJobData(job.getJobDataMap());
-
         PreparedStatement ps = null;
 
         int insertResult = 0;
 
         try {
             ps = conn.prepareStatement(rtp(INSERT_JOB_DETAIL));
-            ps.setString(1, job.getKey().getName());
-            ps.setString(2, job.getKey().getGroup());
-            ps.setString(3, job.getDescription());
-            ps.setString(4, job.getJobClass().getName());
-            setBoolean(ps, 5, job.isDurable());
-            setBoolean(ps, 6, job.isConcurrentExectionDisallowed());
-            setBoolean(ps, 7, job.isPersistJobDataAfterExecution());
-            setBoolean(ps, 8, job.requestsRecovery());
-            setBytes(ps, 9, baos);
+            setInsertJobDetailParameters(ps, job);
 
             insertResult = ps.executeUpdate();
         } finally {
@@ -630,6 +698,61 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
         return insertResult;
     }
 
+    /**
+     * <p>
+     * Set the parameters of <code>INSERT_JOB_DETAIL</code>, or of any insert
+     * statement binding the same columns in the same order.
+     * </p>
+     */
+    protected void setInsertJobDetailParameters(PreparedStatement ps, JobDetail job)
+        throws IOException, SQLException {
+        ByteArrayOutputStream baos = serializeJobData(job.getJobDataMap());
+
+        ps.setString(1, job.getKey().getName());
+        ps.setString(2, job.getKey().getGroup());
+        ps.setString(3, job.getDescription());
+        ps.setString(4, job.getJobClass().getName());
+        setBoolean(ps, 5, job.isDurable());
+        setBoolean(ps, 6, job.isConcurrentExectionDisallowed());
+        setBoolean(ps, 7, job.isPersistJobDataAfterExecution());
+        setBoolean(ps, 8, job.requestsRecovery());
+        setBytes(ps, 9, baos);
+    }
+
+    public int[] insertJobDetails(Connection conn, List<JobDetail> jobs)
+        throws IOException, SQLException {
+        int[] counts = new int[jobs.size()];
+        if (jobs.isEmpty()) {
+            return counts;
+        }
+
+        if (!canBatchJobAndTriggerWrites(conn)) {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = insertJobDetail(conn, jobs.get(i));
+            }
+            return counts;
+        }
+
+        PreparedStatement ps = null;
+
+        try {
+            ps = conn.prepareStatement(rtp(INSERT_JOB_DETAIL));
+            int from = 0;
+            for (int i = 0; i < counts.length; i++) {
+                setInsertJobDetailParameters(ps, jobs.get(i));
+                ps.addBatch();
+                if (i + 1 - from == maxRowsPerBatch || i + 1 == counts.length) {
+                    executeBatch(ps, counts, from, i + 1);
+                    from = i + 1;
+                }
+            }
+        } finally {
+            closeStatement(ps);
+        }
+
+        return counts;
+    }
+
     /**
      * <p>
      * Update the job detail record.
@@ -645,23 +768,13 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
      */
     public int updateJobDetail(Connection conn, JobDetail job)
         throws IOException, SQLException {
-        ByteArrayOutputStream baos = serializeJobData(job.getJobDataMap());
-
         PreparedStatement ps = null;
 
         int insertResult = 0;
 
         try {
             ps = conn.prepareStatement(rtp(UPDATE_JOB_DETAIL));
-            ps.setString(1, job.getDescription());
-            ps.setString(2, job.getJobClass().getName());
-            setBoolean(ps, 3, job.isDurable());
-            setBoolean(ps, 4, job.isConcurrentExectionDisallowed());
-            setBoolean(ps, 5, job.isPersistJobDataAfterExecution());
-            setBoolean(ps, 6, job.requestsRecovery());
-            setBytes(ps, 7, baos);
-            ps.setString(8, job.getKey().getName());
-            ps.setString(9, job.getKey().getGroup());
+            setUpdateJobDetailParameters(ps, job);
 
             insertResult = ps.executeUpdate();
         } finally {
@@ -671,6 +784,98 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
         return insertResult;
     }
 
+    private void setUpdateJobDetailParameters(PreparedStatement ps, JobDetail job)
+        throws IOException, SQLException {
+        ByteArrayOutputStream baos = serializeJobData(job.getJobDataMap());
+
+        ps.setString(1, job.getDescription());
+        ps.setString(2, job.getJobClass().getName());
+        setBoolean(ps, 3, job.isDurable());
+        setBoolean(ps, 4, job.isConcurrentExectionDisallowed());
+        setBoolean(ps, 5, job.isPersistJobDataAfterExecution());
+        setBoolean(ps, 6, job.requestsRecovery());
+        setBytes(ps, 7, baos);
+        ps.setString(8, job.getKey().getName());
+        ps.setString(9, job.getKey().getGroup());
+    }
+
+    public int[] updateJobDetails(Connection conn, List<JobDetail> jobs)
+        throws IOException, SQLException {
+        int[] counts = new int[jobs.size()];
+        if (jobs.isEmpty()) {
+            return counts;
+        }
+
+        if (!canBatchJobAndTriggerWrites(conn)) {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = updateJobDetail(conn, jobs.get(i));
+            }
+            return counts;
+        }
+
+        PreparedStatement ps = null;
+
+        try {
+            ps = conn.prepareStatement(rtp(UPDATE_JOB_DETAIL));
+            int from = 0;
+            for (int i = 0; i < counts.length; i++) {
+                setUpdateJobDetailParameters(ps, jobs.get(i));
+                ps.addBatch();
+                if (i + 1 - from == maxRowsPerBatch || i + 1 == counts.length) {
+                    executeBatch(ps, counts, from, i + 1);
+                    from = i + 1;
+                }
+            }
+        } finally {
+            closeStatement(ps);
+        }
+
+        return counts;
+    }
+
+    /**
+     * <p>
+     * Insert or update the job detail records of the given jobs.  This
+     * implementation selects which of the jobs already exist with as few
+     * statements as possible, then updates those and inserts the others in
+     * batches.  Delegates for databases with an upsert / merge statement may
+     * write each job with a single statement instead.
+     * </p>
+     */
+    public int[] upsertJobDetails(Connection conn, List<JobDetail> jobs)
+        throws IOException, SQLException {
+        int[] counts = new int[jobs.size()];
+        if (jobs.isEmpty()) {
+            return counts;
+        }
+
+        List<JobKey> jobKeys = new ArrayList<JobKey>(jobs.size());
+        for (JobDetail job : jobs) {
+            jobKeys.add(job.getKey());
+        }
+        Set<JobKey> existing = selectExistingJobKeys(conn, jobKeys);
+
+        List<JobDetail> updates = new ArrayList<JobDetail>(existing.size());
+        List<JobDetail> inserts = new ArrayList<JobDetail>(jobs.size() - existing.size());
+        for (JobDetail job : jobs) {
+            if (existing.contains(job.getKey())) {
+                updates.add(job);
+            } else {
+                inserts.add(job);
+            }
+        }
+
+        int[] updateCounts = updateJobDetails(conn, updates);
+        int[] insertCounts = insertJobDetails(conn, inserts);
+
+        int u = 0;
+        int n = 0;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = existing.contains(jobs.get(i).getKey()) ? updateCounts[u++] : insertCounts[n++];
+        }
+        return counts;
+    }
+
     /**
      * <p>
      * Get the names of all of the triggers associated with the given job.
@@ -787,6 +992,38 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
 
     }
 
+    public Set<JobKey> selectExistingJobKeys(Connection conn, List<JobKey> jobKeys)
+        throws SQLException {
+        Set<JobKey> existing = new HashSet<JobKey>();
+
+        for (int from = 0; from < jobKeys.size(); from += maxKeysPerSelect) {
+            List<JobKey> keys = jobKeys.subList(from,
+                    Math.min(from + maxKeysPerSelect, jobKeys.size()));
+
+            PreparedStatement ps = null;
+            ResultSet rs = null;
+
+            try {
+                ps = conn.prepareStatement(keysQuery(SELECT_JOB_KEYS_PREFIX, JOB_KEY_PREDICATE, keys.size()));
+                int index = 1;
+                for (JobKey jobKey : keys) {
+                    ps.setString(index++, jobKey.getName());
+                    ps.setString(index++, jobKey.getGroup());
+                }
+                rs = ps.executeQuery();
+
+                while (rs.next()) {
+                    existing.add(jobKey(rs.getString(COL_JOB_NAME), rs.getString(COL_JOB_GROUP)));
+                }
+            } finally {
+                closeResultSet(rs);
+                closeStatement(ps);
+            }
+        }
+
+        return existing;
+    }
+
     /**
      * <p>
      * Update the job data map for the given job.
@@ -874,25 +1111,77 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
     }
 
     /**
-     * build Map from java.util.Properties encoding.
+     * build Map from java.util.Properties encoding, or from the encoding of
+     * the codec named by the BLOB's codec header.
      */
     private Map<?, ?> getMapFromProperties(ResultSet rs)
         throws ClassNotFoundException, IOException, SQLException {
-        Map<?, ?> map;
         InputStream is = (InputStream) getJobDataFromBlob(rs, COL_JOB_DATAMAP);
         if(is == null) {
             return null;
         }
-        Properties properties = new Properties();
-        if (is != null) {
-            try {
-                properties.load(is);
-            } finally {
-                is.close();
+        try {
+            return readJobData(is);
+        } finally {
+            is.close();
+        }
+    }
+
+    /**
+     * <p>
+     * Read a JobDataMap BLOB.  If it starts with a codec header, the codec
+     * with the header's format id decodes it; otherwise it was written
+     * without a codec, as <code>java.util.Properties</code> if
+     * <code>useProperties</code> is set, or else as a serialized map.
+     * </p>
+     */
+    protected Map<?, ?> readJobData(InputStream is) throws ClassNotFoundException, IOException {
+        PushbackInputStream in = new PushbackInputStream(is, JOB_DATA_CODEC_HEADER_LENGTH);
+        byte[] header = new byte[JOB_DATA_CODEC_HEADER_LENGTH];
+        int read = 0;
+        while (read < header.length) {
+            int n = in.read(header, read, header.length - read);
+            if (n < 0) {
+                break;
+            }
+            read += n;
+        }
+
+        if (read == header.length && header[0] == JOB_DATA_CODEC_MAGIC_0 && header[1] == JOB_DATA_CODEC_MAGIC_1) {
+            return findJobDataMapCodec(header[2] & 0xFF).decode(in, header[3] & 0xFF);
+        }
+        in.unread(header, 0, read);
+
+        if (useProperties) {
+            Properties properties = new Properties();
+            properties.load(in);
+            return convertFromProperty(properties);
+        }
+        if (read == 0) {
+            return null;
+        }
+        ObjectInputStream ois = new ObjectInputStream(in);
+        try {
+            return (Map<?, ?>) ois.readObject();
+        } finally {
+            ois.close();
+        }
+    }
+
+    /**
+     * Find the codec that writes the given format id: the configured codec,
+     * or one of the codecs shipped with Quartz.
+     */
+    protected JobDataMapCodec findJobDataMapCodec(int formatId) throws IOException {
+        if (jobDataMapCodec != null && jobDataMapCodec.getFormatId() == formatId) {
+            return jobDataMapCodec;
+        }
+        for (JobDataMapCodec codec : BUILT_IN_JOB_DATA_MAP_CODECS) {
+            if (codec.getFormatId() == formatId) {
+                return codec;
             }
         }
-        map = convertFromProperty(properties);
-        return map;
+        throw new IOException("No JobDataMapCodec found for format id " + formatId);
     }
 
     /**
@@ -1044,52 +1333,15 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
     public int insertTrigger(Connection conn, OperableTrigger trigger, String state,
             JobDetail jobDetail) throws SQLException, IOException {
 
-        ByteArrayOutputStream baos = null;
-        if(trigger.getJobDataMap().size() > 0) {
-            baos = serializeJobData(trigger.getJobDataMap());
-        }
-        
         PreparedStatement ps = null;
 
         int insertResult = 0;
 
         try {
             ps = conn.prepareStatement(rtp(INSERT_TRIGGER));
-            ps.setString(1, trigger.getKey().getName());
-            ps.setString(2, trigger.getKey().getGroup());
-            ps.setString(3, trigger.getJobKey().getName());
-            ps.setString(4, trigger.getJobKey().getGroup());
-            ps.setString(5, trigger.getDescription());
-            if(trigger.getNextFireTime() != null)
-                ps.setBigDecimal(6, new BigDecimal(String.valueOf(trigger
-                        .getNextFireTime().getTime())));
-            else
-                ps.setBigDecimal(6, null);
-            long prevFireTime = -1;
-            if (trigger.getPreviousFireTime() != null) {
-                prevFireTime = trigger.getPreviousFireTime().getTime();
-            }
-            ps.setBigDecimal(7, new BigDecimal(String.valueOf(prevFireTime)));
-            ps.setString(8, state);
             
             TriggerPersistenceDelegate tDel = findTriggerPersistenceDelegate(trigger);
-            
-            String type = TTYPE_BLOB;
-            if(tDel != null)
-                type = tDel.getHandledTriggerTypeDiscriminator();
-            ps.setString(9, type);
-            
-            ps.setBigDecimal(10, new BigDecimal(String.valueOf(trigger
-                    .getStartTime().getTime())));
-            long endTime = 0;
-            if (trigger.getEndTime() != null) {
-                endTime = trigger.getEndTime().getTime();
-            }
-            ps.setBigDecimal(11, new BigDecimal(String.valueOf(endTime)));
-            ps.setString(12, trigger.getCalendarName());
-            ps.setInt(13, trigger.getMisfireInstruction());
-            setBytes(ps, 14, baos);
-            ps.setInt(15, trigger.getPriority());
+            setInsertTriggerParameters(ps, trigger, state, tDel);
             
             insertResult = ps.executeUpdate();
             
@@ -1105,6 +1357,153 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
         return insertResult;
     }
 
+    private void setInsertTriggerParameters(PreparedStatement ps, OperableTrigger trigger,
+            String state, TriggerPersistenceDelegate tDel) throws SQLException, IOException {
+
+        ByteArrayOutputStream baos = null;
+        if(trigger.getJobDataMap().size() > 0) {
+            baos = serializeJobData(trigger.getJobDataMap());
+        }
+
+        ps.setString(1, trigger.getKey().getName());
+        ps.setString(2, trigger.getKey().getGroup());
+        ps.setString(3, trigger.getJobKey().getName());
+        ps.setString(4, trigger.getJobKey().getGroup());
+        ps.setString(5, trigger.getDescription());
+        if(trigger.getNextFireTime() != null)
+            ps.setBigDecimal(6, new BigDecimal(String.valueOf(trigger
+                    .getNextFireTime().getTime())));
+        else
+            ps.setBigDecimal(6, null);
+        long prevFireTime = -1;
+        if (trigger.getPreviousFireTime() != null) {
+            prevFireTime = trigger.getPreviousFireTime().getTime();
+        }
+        ps.setBigDecimal(7, new BigDecimal(String.valueOf(prevFireTime)));
+        ps.setString(8, state);
+
+        String type = TTYPE_BLOB;
+        if(tDel != null)
+            type = tDel.getHandledTriggerTypeDiscriminator();
+        ps.setString(9, type);
+
+        ps.setBigDecimal(10, new BigDecimal(String.valueOf(trigger
+                .getStartTime().getTime())));
+        long endTime = 0;
+        if (trigger.getEndTime() != null) {
+            endTime = trigger.getEndTime().getTime();
+        }
+        ps.setBigDecimal(11, new BigDecimal(String.valueOf(endTime)));
+        ps.setString(12, trigger.getCalendarName());
+        ps.setInt(13, trigger.getMisfireInstruction());
+        setBytes(ps, 14, baos);
+        ps.setInt(15, trigger.getPriority());
+    }
+
+    public int[] insertTriggers(Connection conn, List<OperableTrigger> triggers,
+            List<String> states, List<JobDetail> jobDetails) throws SQLException, IOException {
+        int[] counts = new int[triggers.size()];
+        if (triggers.isEmpty()) {
+            return counts;
+        }
+
+        if (!canBatchJobAndTriggerWrites(conn)) {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = insertTrigger(conn, triggers.get(i), states.get(i), jobDetails.get(i));
+            }
+            return counts;
+        }
+
+        List<TriggerPersistenceDelegate> tDels = new ArrayList<TriggerPersistenceDelegate>(counts.length);
+        for (OperableTrigger trigger : triggers) {
+            tDels.add(findTriggerPersistenceDelegate(trigger));
+        }
+
+        PreparedStatement ps = null;
+
+        try {
+            ps = conn.prepareStatement(rtp(INSERT_TRIGGER));
+            int from = 0;
+            for (int i = 0; i < counts.length; i++) {
+                setInsertTriggerParameters(ps, triggers.get(i), states.get(i), tDels.get(i));
+                ps.addBatch();
+                if (i + 1 - from == maxRowsPerBatch || i + 1 == counts.length) {
+                    executeBatch(ps, counts, from, i + 1);
+                    from = i + 1;
+                }
+            }
+        } finally {
+            closeStatement(ps);
+        }
+
+        writeExtendedTriggerProperties(conn, triggers, states, jobDetails, tDels, true);
+
+        return counts;
+    }
+
+    /**
+     * Write the type specific properties of the given triggers, in batches
+     * for the persistence delegates that support it, or else one at a time.
+     */
+    private void writeExtendedTriggerProperties(Connection conn, List<OperableTrigger> triggers,
+            List<String> states, List<JobDetail> jobDetails, List<TriggerPersistenceDelegate> tDels,
+            boolean insert) throws SQLException, IOException {
+
+        // group the triggers by persistence delegate, a null key is a BLOB trigger
+        Map<TriggerPersistenceDelegate, List<Integer>> byDelegate =
+            new LinkedHashMap<TriggerPersistenceDelegate, List<Integer>>();
+        for (int i = 0; i < tDels.size(); i++) {
+            List<Integer> indexes = byDelegate.get(tDels.get(i));
+            if (indexes == null) {
+                indexes = new ArrayList<Integer>();
+                byDelegate.put(tDels.get(i), indexes);
+            }
+            indexes.add(i);
+        }
+
+        for (Map.Entry<TriggerPersistenceDelegate, List<Integer>> entry : byDelegate.entrySet()) {
+            TriggerPersistenceDelegate tDel = entry.getKey();
+            List<Integer> indexes = entry.getValue();
+
+            if (tDel instanceof BatchTriggerPersistenceDelegate) {
+                BatchTriggerPersistenceDelegate batchDel = (BatchTriggerPersistenceDelegate) tDel;
+                for (int from = 0; from < indexes.size(); from += maxRowsPerBatch) {
+                    int to = Math.min(from + maxRowsPerBatch, indexes.size());
+                    List<OperableTrigger> batchTriggers = new ArrayList<OperableTrigger>(to - from);
+                    List<String> batchStates = new ArrayList<String>(to - from);
+                    List<JobDetail> batchJobs = new ArrayList<JobDetail>(to - from);
+                    for (int i = from; i < to; i++) {
+                        int index = indexes.get(i);
+                        batchTriggers.add(triggers.get(index));
+                        batchStates.add(states.get(index));
+                        batchJobs.add(jobDetails.get(index));
+                    }
+                    if (insert) {
+                        batchDel.insertExtendedTriggerProperties(conn, batchTriggers, batchStates, batchJobs);
+                    } else {
+                        batchDel.updateExtendedTriggerProperties(conn, batchTriggers, batchStates, batchJobs);
+                    }
+                }
+                continue;
+            }
+
+            for (int index : indexes) {
+                OperableTrigger trigger = triggers.get(index);
+                if (tDel == null) {
+                    if (insert) {
+                        insertBlobTrigger(conn, trigger);
+                    } else {
+                        updateBlobTrigger(conn, trigger);
+                    }
+                } else if (insert) {
+                    tDel.insertExtendedTriggerProperties(conn, trigger, states.get(index), jobDetails.get(index));
+                } else {
+                    tDel.updateExtendedTriggerProperties(conn, trigger, states.get(index), jobDetails.get(index));
+                }
+            }
+        }
+    }
+
     /**
      * <p>
      * Insert the blob trigger data.
@@ -1160,10 +1559,6 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
 
         // save some clock cycles by unnecessarily writing job data blob ...
         boolean updateJobData = trigger.getJobDataMap().isDirty();
-        ByteArrayOutputStream baos = null;
-        if(updateJobData) {
-            baos = serializeJobData(trigger.getJobDataMap());
-        }
                 
         PreparedStatement ps = null;
 
@@ -1176,49 +1571,9 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
             } else {
                 ps = conn.prepareStatement(rtp(UPDATE_TRIGGER_SKIP_DATA));
             }
-                
-            ps.setString(1, trigger.getJobKey().getName());
-            ps.setString(2, trigger.getJobKey().getGroup());
-            ps.setString(3, trigger.getDescription());
-            long nextFireTime = -1;
-            if (trigger.getNextFireTime() != null) {
-                nextFireTime = trigger.getNextFireTime().getTime();
-            }
-            ps.setBigDecimal(4, new BigDecimal(String.valueOf(nextFireTime)));
-            long prevFireTime = -1;
-            if (trigger.getPreviousFireTime() != null) {
-                prevFireTime = trigger.getPreviousFireTime().getTime();
-            }
-            ps.setBigDecimal(5, new BigDecimal(String.valueOf(prevFireTime)));
-            ps.setString(6, state);
             
             TriggerPersistenceDelegate tDel = findTriggerPersistenceDelegate(trigger);
-            
-            String type = TTYPE_BLOB;
-            if(tDel != null)
-                type = tDel.getHandledTriggerTypeDiscriminator();
-
-            ps.setString(7, type);
-            
-            ps.setBigDecimal(8, new BigDecimal(String.valueOf(trigger
-                    .getStartTime().getTime())));
-            long endTime = 0;
-            if (trigger.getEndTime() != null) {
-                endTime = trigger.getEndTime().getTime();
-            }
-            ps.setBigDecimal(9, new BigDecimal(String.valueOf(endTime)));
-            ps.setString(10, trigger.getCalendarName());
-            ps.setInt(11, trigger.getMisfireInstruction());
-            ps.setInt(12, trigger.getPriority());
-
-            if(updateJobData) {
-                setBytes(ps, 13, baos);
-                ps.setString(14, trigger.getKey().getName());
-                ps.setString(15, trigger.getKey().getGroup());
-            } else {
-                ps.setString(13, trigger.getKey().getName());
-                ps.setString(14, trigger.getKey().getGroup());
-            }
+            setUpdateTriggerParameters(ps, trigger, state, tDel, updateJobData);
 
             insertResult = ps.executeUpdate();
             
@@ -1234,6 +1589,120 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
         return insertResult;
     }
 
+    private void setUpdateTriggerParameters(PreparedStatement ps, OperableTrigger trigger,
+            String state, TriggerPersistenceDelegate tDel, boolean updateJobData)
+        throws SQLException, IOException {
+
+        ByteArrayOutputStream baos = null;
+        if(updateJobData) {
+            baos = serializeJobData(trigger.getJobDataMap());
+        }
+
+        ps.setString(1, trigger.getJobKey().getName());
+        ps.setString(2, trigger.getJobKey().getGroup());
+        ps.setString(3, trigger.getDescription());
+        long nextFireTime = -1;
+        if (trigger.getNextFireTime() != null) {
+            nextFireTime = trigger.getNextFireTime().getTime();
+        }
+        ps.setBigDecimal(4, new BigDecimal(String.valueOf(nextFireTime)));
+        long prevFireTime = -1;
+        if (trigger.getPreviousFireTime() != null) {
+            prevFireTime = trigger.getPreviousFireTime().getTime();
+        }
+        ps.setBigDecimal(5, new BigDecimal(String.valueOf(prevFireTime)));
+        ps.setString(6, state);
+
+        String type = TTYPE_BLOB;
+        if(tDel != null)
+            type = tDel.getHandledTriggerTypeDiscriminator();
+
+        ps.setString(7, type);
+
+        ps.setBigDecimal(8, new BigDecimal(String.valueOf(trigger
+                .getStartTime().getTime())));
+        long endTime = 0;
+        if (trigger.getEndTime() != null) {
+            endTime = trigger.getEndTime().getTime();
+        }
+        ps.setBigDecimal(9, new BigDecimal(String.valueOf(endTime)));
+        ps.setString(10, trigger.getCalendarName());
+        ps.setInt(11, trigger.getMisfireInstruction());
+        ps.setInt(12, trigger.getPriority());
+
+        if(updateJobData) {
+            setBytes(ps, 13, baos);
+            ps.setString(14, trigger.getKey().getName());
+            ps.setString(15, trigger.getKey().getGroup());
+        } else {
+            ps.setString(13, trigger.getKey().getName());
+            ps.setString(14, trigger.getKey().getGroup());
+        }
+    }
+
+    public int[] updateTriggers(Connection conn, List<OperableTrigger> triggers,
+            List<String> states, List<JobDetail> jobDetails) throws SQLException, IOException {
+        int[] counts = new int[triggers.size()];
+        if (triggers.isEmpty()) {
+            return counts;
+        }
+
+        if (!canBatchJobAndTriggerWrites(conn)) {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = updateTrigger(conn, triggers.get(i), states.get(i), jobDetails.get(i));
+            }
+            return counts;
+        }
+
+        List<TriggerPersistenceDelegate> tDels = new ArrayList<TriggerPersistenceDelegate>(counts.length);
+        for (OperableTrigger trigger : triggers) {
+            tDels.add(findTriggerPersistenceDelegate(trigger));
+        }
+
+        // triggers with a modified job data map use a different statement
+        PreparedStatement psData = null;
+        PreparedStatement psSkipData = null;
+
+        try {
+            for (int from = 0; from < counts.length; from += maxRowsPerBatch) {
+                int to = Math.min(from + maxRowsPerBatch, counts.length);
+                List<Integer> withData = new ArrayList<Integer>();
+                List<Integer> skipData = new ArrayList<Integer>();
+
+                for (int i = from; i < to; i++) {
+                    OperableTrigger trigger = triggers.get(i);
+                    boolean updateJobData = trigger.getJobDataMap().isDirty();
+                    PreparedStatement ps;
+                    if (updateJobData) {
+                        if (psData == null) {
+                            psData = conn.prepareStatement(rtp(UPDATE_TRIGGER));
+                        }
+                        ps = psData;
+                        withData.add(i);
+                    } else {
+                        if (psSkipData == null) {
+                            psSkipData = conn.prepareStatement(rtp(UPDATE_TRIGGER_SKIP_DATA));
+                        }
+                        ps = psSkipData;
+                        skipData.add(i);
+                    }
+                    setUpdateTriggerParameters(ps, trigger, states.get(i), tDels.get(i), updateJobData);
+                    ps.addBatch();
+                }
+
+                executeBatch(psData, counts, withData);
+                executeBatch(psSkipData, counts, skipData);
+            }
+        } finally {
+            closeStatement(psData);
+            closeStatement(psSkipData);
+        }
+
+        writeExtendedTriggerProperties(conn, triggers, states, jobDetails, tDels, false);
+
+        return counts;
+    }
+
     /**
      * <p>
      * Update the blob trigger data.
@@ -1304,6 +1773,38 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
         }
     }
 
+    public Set<TriggerKey> selectExistingTriggerKeys(Connection conn, List<TriggerKey> triggerKeys)
+        throws SQLException {
+        Set<TriggerKey> existing = new HashSet<TriggerKey>();
+
+        for (int from = 0; from < triggerKeys.size(); from += maxKeysPerSelect) {
+            List<TriggerKey> keys = triggerKeys.subList(from,
+                    Math.min(from + maxKeysPerSelect, triggerKeys.size()));
+
+            PreparedStatement ps = null;
+            ResultSet rs = null;
+
+            try {
+                ps = conn.prepareStatement(keysQuery(SELECT_TRIGGER_KEYS_PREFIX, TRIGGER_KEY_PREDICATE, keys.size()));
+                int index = 1;
+                for (TriggerKey triggerKey : keys) {
+                    ps.setString(index++, triggerKey.getName());
+                    ps.setString(index++, triggerKey.getGroup());
+                }
+                rs = ps.executeQuery();
+
+                while (rs.next()) {
+                    existing.add(triggerKey(rs.getString(COL_TRIGGER_NAME), rs.getString(COL_TRIGGER_GROUP)));
+                }
+            } finally {
+                closeResultSet(rs);
+                closeStatement(ps);
+            }
+        }
+
+        return existing;
+    }
+
     /**
      * <p>
      * Update the state for a given trigger.
@@ -1443,6 +1944,38 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
         }
     }
 
+    public int[] updateTriggerStatesFromOtherState(Connection conn,
+            List<TriggerKey> triggerKeys, String newState, String oldState) throws SQLException {
+        int[] counts = new int[triggerKeys.size()];
+        if (triggerKeys.isEmpty()) {
+            return counts;
+        }
+
+        if (!supportsBatchUpdates(conn)) {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = updateTriggerStateFromOtherState(conn, triggerKeys.get(i), newState, oldState);
+            }
+            return counts;
+        }
+
+        PreparedStatement ps = null;
+
+        try {
+            ps = conn.prepareStatement(rtp(UPDATE_TRIGGER_STATE_FROM_STATE));
+            for (TriggerKey triggerKey : triggerKeys) {
+                ps.setString(1, newState);
+                ps.setString(2, triggerKey.getName());
+                ps.setString(3, triggerKey.getGroup());
+                ps.setString(4, oldState);
+                ps.addBatch();
+            }
+
+            return ps.executeBatch();
+        } finally {
+            closeStatement(ps);
+        }
+    }
+
     /**
      * <p>
      * Update all of the triggers of the given group to the given new state, if
@@ -1955,12 +2488,51 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
                 state = STATE_DELETED;
             }
 
-            return state.intern();
-        } finally {
-            closeResultSet(rs);
-            closeStatement(ps);
+            return state.intern();
+        } finally {
+            closeResultSet(rs);
+            closeStatement(ps);
+        }
+
+    }
+
+    public Map<TriggerKey, String> selectTriggerStates(Connection conn,
+            List<TriggerKey> triggerKeys) throws SQLException {
+        Map<TriggerKey, String> states = new HashMap<TriggerKey, String>();
+
+        for (int from = 0; from < triggerKeys.size(); from += maxKeysPerSelect) {
+            List<TriggerKey> keys = triggerKeys.subList(from,
+                    Math.min(from + maxKeysPerSelect, triggerKeys.size()));
+
+            PreparedStatement ps = null;
+            ResultSet rs = null;
+
+            try {
+                ps = conn.prepareStatement(keysQuery(SELECT_TRIGGER_STATES_PREFIX, TRIGGER_KEY_PREDICATE, keys.size()));
+                int index = 1;
+                for (TriggerKey triggerKey : keys) {
+                    ps.setString(index++, triggerKey.getName());
+                    ps.setString(index++, triggerKey.getGroup());
+                }
+                rs = ps.executeQuery();
+
+                while (rs.next()) {
+                    states.put(triggerKey(rs.getString(COL_TRIGGER_NAME), rs.getString(COL_TRIGGER_GROUP)),
+                            rs.getString(COL_TRIGGER_STATE).intern());
+                }
+            } finally {
+                closeResultSet(rs);
+                closeStatement(ps);
+            }
+        }
+
+        for (TriggerKey triggerKey : triggerKeys) {
+            if (!states.containsKey(triggerKey)) {
+                states.put(triggerKey, STATE_DELETED);
+            }
         }
 
+        return states;
     }
 
     /**
@@ -2365,6 +2937,66 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
         }
     }
 
+    /**
+     * <p>
+     * Select the version stamp of a calendar, without reading (or
+     * deserializing) the calendar itself.
+     * </p>
+     * 
+     * @param conn
+     *          the DB Connection
+     * @param calendarName
+     *          the name of the calendar
+     * @return the version of the calendar, or <code>null</code> if no
+     *         calendar with the given name exists
+     */
+    public Long selectCalendarVersion(Connection conn, String calendarName)
+        throws SQLException {
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        try {
+            ps = conn.prepareStatement(rtp(SELECT_CALENDAR_VERSION));
+            ps.setString(1, calendarName);
+            rs = ps.executeQuery();
+
+            if (rs.next()) {
+                return rs.getLong(COL_CALENDAR_VERSION);
+            }
+            return null;
+        } finally {
+            closeResultSet(rs);
+            closeStatement(ps);
+        }
+    }
+
+    /**
+     * <p>
+     * Update the version stamp of a calendar.
+     * </p>
+     * 
+     * @param conn
+     *          the DB Connection
+     * @param calendarName
+     *          the name of the calendar
+     * @param version
+     *          the new version of the calendar
+     * @return the number of rows updated
+     */
+    public int updateCalendarVersion(Connection conn, String calendarName,
+        long version) throws SQLException {
+        PreparedStatement ps = null;
+
+        try {
+            ps = conn.prepareStatement(rtp(UPDATE_CALENDAR_VERSION));
+            ps.setLong(1, version);
+            ps.setString(2, calendarName);
+
+            return ps.executeUpdate();
+        } finally {
+            closeStatement(ps);
+        }
+    }
+
     /**
      * <p>
      * Check whether or not a calendar is referenced by any triggers.
@@ -2451,6 +3083,46 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
         }
     }
 
+    /**
+     * <p>
+     * Select a token that changes whenever jobs, triggers, calendars or
+     * paused trigger groups are added or removed, or triggers are paused,
+     * resumed or put in the error state.  Trigger state changes caused by
+     * firing triggers (and other changes, such as replacing a job) do not
+     * change the token.
+     * </p>
+     * 
+     * @param conn
+     *          the DB Connection
+     * @return the change token
+     */
+    public String selectSchedulingDataChangeToken(Connection conn) throws SQLException {
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+
+        try {
+            ps = conn.prepareStatement(rtp(SELECT_TRIGGERS_CHANGE_TOKEN));
+            ps.setString(1, STATE_PAUSED);
+            ps.setString(2, STATE_PAUSED_BLOCKED);
+            ps.setString(3, STATE_ERROR);
+            rs = ps.executeQuery();
+
+            long numTriggers = 0;
+            long numHeldTriggers = 0;
+            if (rs.next()) {
+                numTriggers = rs.getLong(1);
+                numHeldTriggers = rs.getLong(2);
+            }
+            Set<String> pausedGroups = selectPausedTriggerGroups(conn);
+
+            return numTriggers + ":" + numHeldTriggers + ":" + selectNumJobs(conn) + ":"
+                + selectNumCalendars(conn) + ":" + pausedGroups.size() + ":" + pausedGroups.hashCode();
+        } finally {
+            closeResultSet(rs);
+            closeStatement(ps);
+        }
+    }
+
     /**
      * <p>
      * Select all of the stored calendars.
@@ -2628,6 +3300,135 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
         }      
     }
 
+    /**
+     * <p>
+     * Whether the database can claim triggers with <code>SKIP LOCKED</code>.
+     * The standard delegate makes no assumption about the database, so this
+     * is false unless overridden.
+     * </p>
+     */
+    public boolean supportsSkipLocked(Connection conn) throws SQLException {
+        return false;
+    }
+
+    /**
+     * <p>
+     * Claim the next triggers to acquire with
+     * <code>SELECT ... FOR UPDATE SKIP LOCKED</code>, limiting the claimed
+     * rows through the JDBC max rows and fetch size, as some databases do not
+     * allow row limiting clauses in a locking select.
+     * </p>
+     */
+    public List<TriggerKey> selectTriggerToAcquireSkipLocked(Connection conn, long noLaterThan, long noEarlierThan, int maxCount)
+        throws SQLException {
+        return selectTriggerToAcquireSkipLocked(conn, SELECT_NEXT_TRIGGER_TO_ACQUIRE_SKIP_LOCKED,
+                noLaterThan, noEarlierThan, maxCount, false);
+    }
+
+    /**
+     * <p>
+     * Claim the given trigger to acquire with
+     * <code>SELECT ... FOR UPDATE SKIP LOCKED</code>.
+     * </p>
+     */
+    public boolean selectTriggerToAcquireSkipLocked(Connection conn, TriggerKey triggerKey)
+        throws SQLException {
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        try {
+            ps = conn.prepareStatement(rtp(SELECT_TRIGGER_TO_ACQUIRE_SKIP_LOCKED));
+            ps.setString(1, triggerKey.getName());
+            ps.setString(2, triggerKey.getGroup());
+            ps.setString(3, STATE_WAITING);
+            rs = ps.executeQuery();
+            
+            return rs.next();
+        } finally {
+            closeResultSet(rs);
+            closeStatement(ps);
+        }      
+    }
+
+    /**
+     * <p>
+     * Claim the next triggers to acquire with the given locking select, which
+     * takes the state and the fire time bounds as its parameters, followed by
+     * the row limit if <code>limitParameter</code>.
+     * </p>
+     */
+    protected List<TriggerKey> selectTriggerToAcquireSkipLocked(Connection conn, String sql, long noLaterThan,
+            long noEarlierThan, int maxCount, boolean limitParameter) throws SQLException {
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        List<TriggerKey> nextTriggers = new ArrayList<TriggerKey>();
+        try {
+            ps = conn.prepareStatement(rtp(sql));
+            
+            if (maxCount < 1)
+                maxCount = 1;
+            ps.setMaxRows(maxCount);
+            ps.setFetchSize(maxCount);
+            
+            ps.setString(1, STATE_WAITING);
+            ps.setBigDecimal(2, new BigDecimal(String.valueOf(noLaterThan)));
+            ps.setBigDecimal(3, new BigDecimal(String.valueOf(noEarlierThan)));
+            if (limitParameter) {
+                ps.setInt(4, maxCount);
+            }
+            rs = ps.executeQuery();
+            
+            // rows are locked as they are fetched, so stop at maxCount
+            while (nextTriggers.size() < maxCount && rs.next()) {
+                nextTriggers.add(triggerKey(
+                        rs.getString(COL_TRIGGER_NAME),
+                        rs.getString(COL_TRIGGER_GROUP)));
+            }
+            
+            return nextTriggers;
+        } finally {
+            closeResultSet(rs);
+            closeStatement(ps);
+        }      
+    }
+
+    /**
+     * <p>
+     * Select the next triggers which will fire between the two given timestamps,
+     * in the same order as <code>selectTriggerToAcquire</code>, together with the
+     * key of the job each of them fires.
+     * </p>
+     */
+    public Map<TriggerKey, JobKey> selectTriggerJobKeysToAcquire(Connection conn, long noLaterThan, long noEarlierThan, int maxCount)
+        throws SQLException {
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        Map<TriggerKey, JobKey> nextTriggers = new LinkedHashMap<TriggerKey, JobKey>();
+        try {
+            ps = conn.prepareStatement(rtp(SELECT_NEXT_TRIGGER_JOB_KEYS_TO_ACQUIRE));
+            
+            if (maxCount < 1)
+                maxCount = 1;
+            ps.setMaxRows(maxCount);
+            ps.setFetchSize(maxCount);
+            
+            ps.setString(1, STATE_WAITING);
+            ps.setBigDecimal(2, new BigDecimal(String.valueOf(noLaterThan)));
+            ps.setBigDecimal(3, new BigDecimal(String.valueOf(noEarlierThan)));
+            rs = ps.executeQuery();
+            
+            while (rs.next() && nextTriggers.size() < maxCount) {
+                nextTriggers.put(
+                        triggerKey(rs.getString(COL_TRIGGER_NAME), rs.getString(COL_TRIGGER_GROUP)),
+                        jobKey(rs.getString(COL_JOB_NAME), rs.getString(COL_JOB_GROUP)));
+            }
+            
+            return nextTriggers;
+        } finally {
+            closeResultSet(rs);
+            closeStatement(ps);
+        }      
+    }
+
     /**
      * <p>
      * Insert a fired trigger.
@@ -2646,25 +3447,7 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
         PreparedStatement ps = null;
         try {
             ps = conn.prepareStatement(rtp(INSERT_FIRED_TRIGGER));
-            ps.setString(1, trigger.getFireInstanceId());
-            ps.setString(2, trigger.getKey().getName());
-            ps.setString(3, trigger.getKey().getGroup());
-            ps.setString(4, instanceId);
-            ps.setBigDecimal(5, new BigDecimal(String.valueOf(System.currentTimeMillis())));
-            ps.setBigDecimal(6, new BigDecimal(String.valueOf(trigger.getNextFireTime().getTime())));
-            ps.setString(7, state);
-            if (job != null) {
-                ps.setString(8, trigger.getJobKey().getName());
-                ps.setString(9, trigger.getJobKey().getGroup());
-                setBoolean(ps, 10, job.isConcurrentExectionDisallowed());
-                setBoolean(ps, 11, job.requestsRecovery());
-            } else {
-                ps.setString(8, null);
-                ps.setString(9, null);
-                setBoolean(ps, 10, false);
-                setBoolean(ps, 11, false);
-            }
-            ps.setInt(12, trigger.getPriority());
+            setInsertFiredTriggerParameters(ps, trigger, state, job);
 
             return ps.executeUpdate();
         } finally {
@@ -2672,6 +3455,57 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
         }
     }
 
+    public int[] insertFiredTriggers(Connection conn, List<OperableTrigger> triggers,
+            String state, List<JobDetail> jobs) throws SQLException {
+        int[] counts = new int[triggers.size()];
+        if (triggers.isEmpty()) {
+            return counts;
+        }
+
+        if (!supportsBatchUpdates(conn)) {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = insertFiredTrigger(conn, triggers.get(i), state, jobs == null ? null : jobs.get(i));
+            }
+            return counts;
+        }
+
+        PreparedStatement ps = null;
+        try {
+            ps = conn.prepareStatement(rtp(INSERT_FIRED_TRIGGER));
+            for (int i = 0; i < counts.length; i++) {
+                setInsertFiredTriggerParameters(ps, triggers.get(i), state, jobs == null ? null : jobs.get(i));
+                ps.addBatch();
+            }
+
+            return ps.executeBatch();
+        } finally {
+            closeStatement(ps);
+        }
+    }
+
+    private void setInsertFiredTriggerParameters(PreparedStatement ps, OperableTrigger trigger,
+            String state, JobDetail job) throws SQLException {
+        ps.setString(1, trigger.getFireInstanceId());
+        ps.setString(2, trigger.getKey().getName());
+        ps.setString(3, trigger.getKey().getGroup());
+        ps.setString(4, instanceId);
+        ps.setBigDecimal(5, new BigDecimal(String.valueOf(System.currentTimeMillis())));
+        ps.setBigDecimal(6, new BigDecimal(String.valueOf(trigger.getNextFireTime().getTime())));
+        ps.setString(7, state);
+        if (job != null) {
+            ps.setString(8, trigger.getJobKey().getName());
+            ps.setString(9, trigger.getJobKey().getGroup());
+            setBoolean(ps, 10, job.isConcurrentExectionDisallowed());
+            setBoolean(ps, 11, job.requestsRecovery());
+        } else {
+            ps.setString(8, null);
+            ps.setString(9, null);
+            setBoolean(ps, 10, false);
+            setBoolean(ps, 11, false);
+        }
+        ps.setInt(12, trigger.getPriority());
+    }
+
     /**
      * <p>
      * Update a fired trigger.
@@ -2690,33 +3524,64 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
         PreparedStatement ps = null;
         try {
             ps = conn.prepareStatement(rtp(UPDATE_FIRED_TRIGGER));
-            
-            ps.setString(1, instanceId);
+            setUpdateFiredTriggerParameters(ps, trigger, state, job);
 
-            ps.setBigDecimal(2, new BigDecimal(String.valueOf(System.currentTimeMillis())));
-            ps.setBigDecimal(3, new BigDecimal(String.valueOf(trigger.getNextFireTime().getTime())));
-            ps.setString(4, state);
+            return ps.executeUpdate();
+        } finally {
+            closeStatement(ps);
+        }
+    }
 
-            if (job != null) {
-                ps.setString(5, trigger.getJobKey().getName());
-                ps.setString(6, trigger.getJobKey().getGroup());
-                setBoolean(ps, 7, job.isConcurrentExectionDisallowed());
-                setBoolean(ps, 8, job.requestsRecovery());
-            } else {
-                ps.setString(5, null);
-                ps.setString(6, null);
-                setBoolean(ps, 7, false);
-                setBoolean(ps, 8, false);
-            }
+    public int[] updateFiredTriggers(Connection conn, List<OperableTrigger> triggers,
+            String state, List<JobDetail> jobs) throws SQLException {
+        int[] counts = new int[triggers.size()];
+        if (triggers.isEmpty()) {
+            return counts;
+        }
 
-            ps.setString(9, trigger.getFireInstanceId());
+        if (!supportsBatchUpdates(conn)) {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = updateFiredTrigger(conn, triggers.get(i), state, jobs == null ? null : jobs.get(i));
+            }
+            return counts;
+        }
 
+        PreparedStatement ps = null;
+        try {
+            ps = conn.prepareStatement(rtp(UPDATE_FIRED_TRIGGER));
+            for (int i = 0; i < counts.length; i++) {
+                setUpdateFiredTriggerParameters(ps, triggers.get(i), state, jobs == null ? null : jobs.get(i));
+                ps.addBatch();
+            }
 
-            return ps.executeUpdate();
+            return ps.executeBatch();
         } finally {
             closeStatement(ps);
         }
     }
+
+    private void setUpdateFiredTriggerParameters(PreparedStatement ps, OperableTrigger trigger,
+            String state, JobDetail job) throws SQLException {
+        ps.setString(1, instanceId);
+
+        ps.setBigDecimal(2, new BigDecimal(String.valueOf(System.currentTimeMillis())));
+        ps.setBigDecimal(3, new BigDecimal(String.valueOf(trigger.getNextFireTime().getTime())));
+        ps.setString(4, state);
+
+        if (job != null) {
+            ps.setString(5, trigger.getJobKey().getName());
+            ps.setString(6, trigger.getJobKey().getGroup());
+            setBoolean(ps, 7, job.isConcurrentExectionDisallowed());
+            setBoolean(ps, 8, job.requestsRecovery());
+        } else {
+            ps.setString(5, null);
+            ps.setString(6, null);
+            setBoolean(ps, 7, false);
+            setBoolean(ps, 8, false);
+        }
+
+        ps.setString(9, trigger.getFireInstanceId());
+    }
     
     /**
      * <p>
@@ -3014,6 +3879,70 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
 
     }
 
+    /**
+     * <p>
+     * Whether the driver supports JDBC batch updates, the batched operations
+     * fall back to one statement per row if not.
+     * </p>
+     */
+    protected boolean supportsBatchUpdates(Connection conn) throws SQLException {
+        if (supportsBatchUpdates == null) {
+            supportsBatchUpdates = conn.getMetaData().supportsBatchUpdates();
+        }
+        return supportsBatchUpdates;
+    }
+
+    /**
+     * <p>
+     * Whether job details and triggers can be written with JDBC batches.
+     * Delegates that override the single row inserts and updates, for
+     * instance to write BLOBs in a driver specific way, return
+     * <code>false</code> so that the bulk writes use those row by row.
+     * </p>
+     */
+    protected boolean canBatchJobAndTriggerWrites(Connection conn) throws SQLException {
+        return supportsBatchUpdates(conn);
+    }
+
+    /**
+     * <p>
+     * Execute the statements added to the batch for the rows
+     * <code>from</code> (inclusive) to <code>to</code> (exclusive), copying
+     * their update counts into <code>counts</code>.
+     * </p>
+     */
+    protected void executeBatch(PreparedStatement ps, int[] counts, int from, int to)
+        throws SQLException {
+        int[] batchCounts = ps.executeBatch();
+        for (int i = from; i < to; i++) {
+            counts[i] = (i - from < batchCounts.length) ? batchCounts[i - from] : Statement.SUCCESS_NO_INFO;
+        }
+    }
+
+    private void executeBatch(PreparedStatement ps, int[] counts, List<Integer> indexes)
+        throws SQLException {
+        if (indexes.isEmpty()) {
+            return;
+        }
+        int[] batchCounts = ps.executeBatch();
+        for (int i = 0; i < indexes.size(); i++) {
+            counts[indexes.get(i)] = (i < batchCounts.length) ? batchCounts[i] : Statement.SUCCESS_NO_INFO;
+        }
+    }
+
+    // a query selecting the given number of keys, OR'ing one predicate per key
+    private String keysQuery(String prefix, String keyPredicate, int keyCount) {
+        StringBuilder sql = new StringBuilder(prefix);
+        for (int i = 0; i < keyCount; i++) {
+            if (i > 0) {
+                sql.append(" OR ");
+            }
+            sql.append(keyPredicate);
+        }
+        sql.append(")");
+        return rtp(sql.toString());
+    }
+
     //---------------------------------------------------------------------------
     // protected methods that can be overridden by subclasses
     //---------------------------------------------------------------------------
@@ -3076,12 +4005,12 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
      */
     protected ByteArrayOutputStream serializeJobData(JobDataMap data)
         throws IOException {
-        if (canUseProperties()) {
+        if (jobDataMapCodec == null && canUseProperties()) {
             return serializeProperties(data);
         }
 
         try {
-            return serializeObject(data);
+            return (jobDataMapCodec != null) ? encodeJobData(data) : serializeObject(data);
         } catch (NotSerializableException e) {
             throw new NotSerializableException(
                 "Unable to serialize JobDataMap for insertion into " + 
@@ -3091,6 +4020,21 @@ public class StdJDBCDelegate implements DriverDelegate, StdJDBCConstants {
         }
     }
 
+    /**
+     * Encode the JobDataMap with the configured codec, behind the codec header.
+     */
+    private ByteArrayOutputStream encodeJobData(JobDataMap data) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        if (null != data) {
+            baos.write(JOB_DATA_CODEC_MAGIC_0);
+            baos.write(JOB_DATA_CODEC_MAGIC_1);
+            baos.write(jobDataMapCodec.getFormatId());
+            baos.write(jobDataMapCodec.getFormatVersion());
+            jobDataMapCodec.encode(data, baos);
+        }
+        return baos;
+    }
+
     /**
      * Find the key of the first non-serializable value in the given Map.
      * 
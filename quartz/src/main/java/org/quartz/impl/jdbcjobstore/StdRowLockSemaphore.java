@@ -137,6 +137,7 @@ public class StdRowLockSemaphore extends DBSemaphore {
                     
                     if(res != 1) {
                         if(count < maxRetryLocal) {
+                            lockRetried(lockName);
                             // pause a bit to give another thread some time to commit the insert of the new lock row
                             try {
                                 Thread.sleep(retryPeriodLocal);
@@ -178,6 +179,7 @@ public class StdRowLockSemaphore extends DBSemaphore {
                         getLog().error(
                                 "Couldn't rollback jdbc connection. "+e.getMessage(), e);
                     }
+                    lockRetried(lockName);
                     // pause a bit to give another thread some time to commit the insert of the new lock row
                     try {
                         Thread.sleep(retryPeriodLocal);
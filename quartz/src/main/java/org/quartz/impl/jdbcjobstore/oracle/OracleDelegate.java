@@ -130,6 +130,35 @@ public class OracleDelegate extends StdJDBCDelegate {
     // protected methods that can be overridden by subclasses
     //---------------------------------------------------------------------------
 
+    private Boolean supportsSkipLocked = null;
+
+    /**
+     * <p>
+     * Oracle supports <code>SKIP LOCKED</code> from 11g on.  As it does not allow
+     * row limiting in a <code>FOR UPDATE</code> select, the standard statement is
+     * used, which limits the rows fetched (and so locked) through JDBC.
+     * </p>
+     */
+    @Override
+    public boolean supportsSkipLocked(Connection conn) throws SQLException {
+        if (supportsSkipLocked == null) {
+            supportsSkipLocked = conn.getMetaData().getDatabaseMajorVersion() >= 11;
+        }
+        return supportsSkipLocked;
+    }
+
+    /**
+     * <p>
+     * This delegate writes the BLOBs of job details and triggers with a
+     * select for update after the insert, so bulk writes store them row by
+     * row.
+     * </p>
+     */
+    @Override
+    protected boolean canBatchJobAndTriggerWrites(Connection conn) {
+        return false;
+    }
+
     @Override
     protected Object getObjectFromBlob(ResultSet rs, String colName)
         throws ClassNotFoundException, IOException, SQLException {
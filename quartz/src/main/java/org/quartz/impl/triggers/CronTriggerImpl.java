@@ -24,6 +24,7 @@ import java.util.Date;
 import java.util.TimeZone;
 
 import org.quartz.CronExpression;
+import org.quartz.CronExpressionCache;
 import org.quartz.CronScheduleBuilder;
 import org.quartz.CronTrigger;
 import org.quartz.JobExecutionContext;
@@ -349,8 +350,7 @@ public class CronTriggerImpl extends AbstractTrigger<CronTrigger> implements Cro
 
     public void setCronExpression(String cronExpression) throws ParseException {
         TimeZone origTz = getTimeZone();
-        this.cronEx = new CronExpression(cronExpression);
-        this.cronEx.setTimeZone(origTz);
+        this.cronEx = CronExpressionCache.getCronExpression(cronExpression, origTz);
     }
 
     /* (non-Javadoc)
@@ -814,8 +814,7 @@ public class CronTriggerImpl extends AbstractTrigger<CronTrigger> implements Cro
     @Override
     public ScheduleBuilder<CronTrigger> getScheduleBuilder() {
         
-        CronScheduleBuilder cb = CronScheduleBuilder.cronSchedule(getCronExpression())
-                .inTimeZone(getTimeZone());
+        CronScheduleBuilder cb = CronScheduleBuilder.cronSchedule(getCronExpression(), getTimeZone());
 
         int misfireInstruction = getMisfireInstruction();
         switch(misfireInstruction) {
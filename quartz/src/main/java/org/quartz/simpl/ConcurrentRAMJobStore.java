@@ -0,0 +1,1299 @@
+/* 
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright Super iPaaS Integration LLC, an IBM Company 2024
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not 
+ * use this file except in compliance with the License. You may obtain a copy 
+ * of the License at 
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0 
+ *   
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations 
+ * under the License.
+ * 
+ */
+
+package org.quartz.simpl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.quartz.Calendar;
+import org.quartz.Job;
+import org.quartz.JobDataMap;
+import org.quartz.JobDetail;
+import org.quartz.JobKey;
+import org.quartz.JobPersistenceException;
+import org.quartz.ObjectAlreadyExistsException;
+import org.quartz.Trigger;
+import org.quartz.TriggerKey;
+import org.quartz.Trigger.CompletedExecutionInstruction;
+import org.quartz.Trigger.TriggerState;
+import org.quartz.impl.matchers.GroupMatcher;
+import org.quartz.impl.matchers.StringMatcher;
+import org.quartz.spi.ClassLoadHelper;
+import org.quartz.spi.JobStore;
+import org.quartz.spi.OperableTrigger;
+import org.quartz.spi.SchedulerSignaler;
+import org.quartz.spi.TriggerFiredBundle;
+import org.quartz.spi.TriggerFiredResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * A variant of <code>{@link RAMJobStore}</code> for schedulers whose store is
+ * queried or modified by many client threads while the scheduler is busy
+ * firing triggers.
+ * </p>
+ * 
+ * <p>
+ * Where <code>RAMJobStore</code> guards every operation with a single
+ * monitor, this store uses three levels of locking:
+ * </p>
+ * <ul>
+ * <li>Lookups (<code>retrieveJob</code>, <code>getTriggerKeys</code>,
+ * <code>getTriggerState</code>, ...) take no lock at all, they read from
+ * <code>ConcurrentHashMap</code>s.</li>
+ * <li>Adding, replacing and removing jobs and triggers is serialized per job
+ * group, by one of <code>lockStripes</code> striped locks.  A job and all of
+ * its triggers are guarded by the stripe of the job's group.</li>
+ * <li>Only the time-ordered index of waiting triggers and the state of
+ * triggers are guarded by a single lock, which is held by
+ * <code>acquireNextTriggers</code>, <code>triggersFired</code> and
+ * <code>triggeredJobComplete</code>, and only briefly by other operations.</li>
+ * </ul>
+ * 
+ * <p>
+ * Lookups are weakly consistent: a lookup that runs while a trigger is being
+ * fired may see its fire times from just before or just after it fired, and
+ * operations spanning several groups (e.g. <code>pauseAll()</code>) are not
+ * atomic with respect to concurrent lookups.
+ * </p>
+ * 
+ * <p>
+ * The scheduler's <code>JobStore</code> is set to this class with:
+ * </p>
+ * <pre>
+ * org.quartz.jobStore.class = org.quartz.simpl.ConcurrentRAMJobStore
+ * </pre>
+ * 
+ * @see RAMJobStore
+ */
+public class ConcurrentRAMJobStore implements JobStore {
+
+    /*
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     * 
+     * Data members.
+     * 
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     */
+
+    protected final ConcurrentHashMap<JobKey, JobWrapper> jobsByKey = new ConcurrentHashMap<JobKey, JobWrapper>(1000);
+
+    protected final ConcurrentHashMap<TriggerKey, TriggerWrapper> triggersByKey = new ConcurrentHashMap<TriggerKey, TriggerWrapper>(1000);
+
+    protected final ConcurrentHashMap<String, ConcurrentHashMap<JobKey, JobWrapper>> jobsByGroup = new ConcurrentHashMap<String, ConcurrentHashMap<JobKey, JobWrapper>>(25);
+
+    protected final ConcurrentHashMap<String, ConcurrentHashMap<TriggerKey, TriggerWrapper>> triggersByGroup = new ConcurrentHashMap<String, ConcurrentHashMap<TriggerKey, TriggerWrapper>>(25);
+
+    protected final ConcurrentHashMap<JobKey, List<TriggerWrapper>> triggersByJob = new ConcurrentHashMap<JobKey, List<TriggerWrapper>>(1000);
+
+    protected final ConcurrentHashMap<String, Calendar> calendarsByName = new ConcurrentHashMap<String, Calendar>(25);
+
+    protected final Set<String> pausedTriggerGroups = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    protected final Set<String> pausedJobGroups = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    protected final Set<JobKey> blockedJobs = Collections.newSetFromMap(new ConcurrentHashMap<JobKey, Boolean>());
+
+    /** Guards <code>timeTriggers</code>, and the state and fire times of all triggers. */
+    protected final Object acquisitionLock = new Object();
+
+    private TimeTriggerIndex timeTriggers = new TreeSetTimeTriggerIndex();
+
+    private Object[] groupLocks = createGroupLocks(64);
+
+    protected long misfireThreshold = 5000l;
+
+    protected String timeIndex = RAMJobStore.TIME_INDEX_TREE_SET;
+
+    protected long timingWheelTickMillis = TimingWheelTimeTriggerIndex.DEFAULT_TICK_MILLIS;
+
+    protected SchedulerSignaler signaler;
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private static final AtomicLong ftrCtr = new AtomicLong(System.currentTimeMillis());
+
+    /*
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     * 
+     * Constructors.
+     * 
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     */
+
+    /**
+     * <p>
+     * Create a new <code>ConcurrentRAMJobStore</code>.
+     * </p>
+     */
+    public ConcurrentRAMJobStore() {
+    }
+
+    /*
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     * 
+     * Interface.
+     * 
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     */
+
+    protected Logger getLog() {
+        return log;
+    }
+
+    public void initialize(ClassLoadHelper loadHelper, SchedulerSignaler schedSignaler) {
+
+        this.signaler = schedSignaler;
+
+        synchronized (acquisitionLock) {
+            if (timeTriggers.size() == 0) {
+                timeTriggers = RAMJobStore.createTimeIndex(timeIndex, timingWheelTickMillis);
+            }
+        }
+
+        getLog().info("ConcurrentRAMJobStore initialized with " + groupLocks.length + " lock stripes.");
+    }
+
+    public void schedulerStarted() {
+        // nothing to do
+    }
+
+    public void schedulerPaused() {
+        // nothing to do
+    }
+
+    public void schedulerResumed() {
+        // nothing to do
+    }
+
+    public long getMisfireThreshold() {
+        return misfireThreshold;
+    }
+
+    /**
+     * The number of milliseconds by which a trigger must have missed its
+     * next-fire-time, in order for it to be considered "misfired" and thus
+     * have its misfire instruction applied.
+     * 
+     * @param misfireThreshold the new misfire threshold
+     */
+    @SuppressWarnings("UnusedDeclaration")
+    public void setMisfireThreshold(long misfireThreshold) {
+        if (misfireThreshold < 1) {
+            throw new IllegalArgumentException("Misfire threshold must be larger than 0");
+        }
+        this.misfireThreshold = misfireThreshold;
+    }
+
+    public int getLockStripes() {
+        return groupLocks.length;
+    }
+
+    /**
+     * The number of locks that job groups are striped over.  Rounded up to a
+     * power of two, defaults to 64.  Must be set before jobs are stored.
+     * 
+     * @param lockStripes the number of group locks
+     */
+    @SuppressWarnings("UnusedDeclaration")
+    public void setLockStripes(int lockStripes) {
+        if (lockStripes < 1) {
+            throw new IllegalArgumentException("Lock stripes must be larger than 0");
+        }
+        this.groupLocks = createGroupLocks(lockStripes);
+    }
+
+    public String getTimeIndex() {
+        return timeIndex;
+    }
+
+    /**
+     * @see RAMJobStore#setTimeIndex(String)
+     */
+    @SuppressWarnings("UnusedDeclaration")
+    public void setTimeIndex(String timeIndex) {
+        RAMJobStore.validateTimeIndex(timeIndex);
+        this.timeIndex = timeIndex;
+    }
+
+    public long getTimingWheelTickMillis() {
+        return timingWheelTickMillis;
+    }
+
+    /**
+     * @see RAMJobStore#setTimingWheelTickMillis(long)
+     */
+    @SuppressWarnings("UnusedDeclaration")
+    public void setTimingWheelTickMillis(long timingWheelTickMillis) {
+        if (timingWheelTickMillis < 1) {
+            throw new IllegalArgumentException("Timing wheel tick must be larger than 0");
+        }
+        this.timingWheelTickMillis = timingWheelTickMillis;
+    }
+
+    public void shutdown() {
+    }
+
+    public boolean supportsPersistence() {
+        return false;
+    }
+
+    /**
+     * Clear (delete!) all scheduling data - all {@link Job}s, {@link Trigger}s
+     * {@link Calendar}s.
+     */
+    public void clearAllSchedulingData() throws JobPersistenceException {
+        for (TriggerKey key : new ArrayList<TriggerKey>(triggersByKey.keySet())) {
+            removeTrigger(key);
+        }
+        for (JobKey key : new ArrayList<JobKey>(jobsByKey.keySet())) {
+            removeJob(key);
+        }
+        for (String name : getCalendarNames()) {
+            removeCalendar(name);
+        }
+    }
+
+    public void storeJobAndTrigger(JobDetail newJob,
+            OperableTrigger newTrigger) throws JobPersistenceException {
+        storeJob(newJob, false);
+        storeTrigger(newTrigger, false);
+    }
+
+    public void storeJob(JobDetail newJob,
+            boolean replaceExisting) throws ObjectAlreadyExistsException {
+        JobWrapper jw = new JobWrapper((JobDetail)newJob.clone());
+
+        synchronized (groupLock(jw.key)) {
+            JobWrapper orig = jobsByKey.get(jw.key);
+            if (orig != null) {
+                if (!replaceExisting) {
+                    throw new ObjectAlreadyExistsException(newJob);
+                }
+                // update job detail
+                orig.jobDetail = jw.jobDetail; // already cloned
+                return;
+            }
+
+            ConcurrentHashMap<JobKey, JobWrapper> grpMap = jobsByGroup.get(jw.key.getGroup());
+            if (grpMap == null) {
+                grpMap = new ConcurrentHashMap<JobKey, JobWrapper>(100);
+                jobsByGroup.put(jw.key.getGroup(), grpMap);
+            }
+            grpMap.put(jw.key, jw);
+            jobsByKey.put(jw.key, jw);
+        }
+    }
+
+    public boolean removeJob(JobKey jobKey) {
+        boolean found = false;
+
+        synchronized (groupLock(jobKey)) {
+            for (TriggerWrapper tw : getTriggerWrappersForJob(jobKey)) {
+                found = removeTrigger(tw, true) | found;
+            }
+
+            JobWrapper jw = jobsByKey.remove(jobKey);
+            if (jw != null) {
+                found = true;
+                ConcurrentHashMap<JobKey, JobWrapper> grpMap = jobsByGroup.get(jobKey.getGroup());
+                if (grpMap != null) {
+                    grpMap.remove(jobKey);
+                    if (grpMap.isEmpty()) {
+                        jobsByGroup.remove(jobKey.getGroup());
+                    }
+                }
+            }
+        }
+
+        return found;
+    }
+
+    public boolean removeJobs(List<JobKey> jobKeys)
+            throws JobPersistenceException {
+        boolean allFound = true;
+
+        for (JobKey key : jobKeys) {
+            allFound = removeJob(key) && allFound;
+        }
+
+        return allFound;
+    }
+
+    public boolean removeTriggers(List<TriggerKey> triggerKeys)
+            throws JobPersistenceException {
+        boolean allFound = true;
+
+        for (TriggerKey key : triggerKeys) {
+            allFound = removeTrigger(key) && allFound;
+        }
+
+        return allFound;
+    }
+
+    public void storeJobsAndTriggers(
+            Map<JobDetail, Set<? extends Trigger>> triggersAndJobs, boolean replace)
+            throws JobPersistenceException {
+
+        // make sure there are no collisions...
+        if (!replace) {
+            for (Map.Entry<JobDetail, Set<? extends Trigger>> e : triggersAndJobs.entrySet()) {
+                if (checkExists(e.getKey().getKey())) {
+                    throw new ObjectAlreadyExistsException(e.getKey());
+                }
+                for (Trigger trigger : e.getValue()) {
+                    if (checkExists(trigger.getKey())) {
+                        throw new ObjectAlreadyExistsException(trigger);
+                    }
+                }
+            }
+        }
+        // do bulk add...
+        for (Map.Entry<JobDetail, Set<? extends Trigger>> e : triggersAndJobs.entrySet()) {
+            storeJob(e.getKey(), true);
+            for (Trigger trigger : e.getValue()) {
+                storeTrigger((OperableTrigger) trigger, true);
+            }
+        }
+    }
+
+    public void storeTrigger(OperableTrigger newTrigger,
+            boolean replaceExisting) throws JobPersistenceException {
+        TriggerWrapper tw = new TriggerWrapper((OperableTrigger)newTrigger.clone());
+
+        while (true) {
+            TriggerWrapper existing = triggersByKey.get(tw.key);
+            if (existing != null && !replaceExisting) {
+                throw new ObjectAlreadyExistsException(newTrigger);
+            }
+
+            // a replaced trigger may belong to a job of another group, lock both in order
+            int newStripe = stripe(tw.jobKey);
+            int oldStripe = (existing == null) ? newStripe : stripe(existing.jobKey);
+
+            synchronized (groupLocks[Math.min(newStripe, oldStripe)]) {
+                synchronized (groupLocks[Math.max(newStripe, oldStripe)]) {
+                    if (jobsByKey.get(tw.jobKey) == null) {
+                        throw new JobPersistenceException("The job ("
+                                + newTrigger.getJobKey()
+                                + ") referenced by the trigger does not exist.");
+                    }
+
+                    if (existing == null) {
+                        if (triggersByKey.putIfAbsent(tw.key, tw) != null) {
+                            continue; // raced with another store, look again
+                        }
+                    } else {
+                        // wrappers are equal by key, so compare identities
+                        if (triggersByKey.get(tw.key) != existing) {
+                            continue;
+                        }
+                        triggersByKey.put(tw.key, tw);
+                        unlinkTrigger(existing);
+                    }
+
+                    linkTrigger(tw);
+                    return;
+                }
+            }
+        }
+    }
+
+    public boolean removeTrigger(TriggerKey triggerKey) {
+        return removeTrigger(triggerKey, true);
+    }
+
+    private boolean removeTrigger(TriggerKey key, boolean removeOrphanedJob) {
+        while (true) {
+            TriggerWrapper tw = triggersByKey.get(key);
+            if (tw == null) {
+                return false;
+            }
+            synchronized (groupLock(tw.jobKey)) {
+                if (triggersByKey.get(key) != tw) {
+                    continue;
+                }
+                return removeTrigger(tw, removeOrphanedJob);
+            }
+        }
+    }
+
+    /**
+     * Remove the given trigger, if it is still the one stored under its key.
+     * The caller must hold the lock of the trigger's job group.
+     */
+    private boolean removeTrigger(TriggerWrapper tw, boolean removeOrphanedJob) {
+        if (triggersByKey.get(tw.key) != tw) {
+            return false;
+        }
+        triggersByKey.remove(tw.key);
+        unlinkTrigger(tw);
+
+        if (removeOrphanedJob) {
+            JobWrapper jw = jobsByKey.get(tw.jobKey);
+            if (jw != null && !triggersByJob.containsKey(tw.jobKey) && !jw.jobDetail.isDurable()) {
+                if (removeJob(jw.key)) {
+                    signaler.notifySchedulerListenersJobDeleted(jw.key);
+                }
+            }
+        }
+        return true;
+    }
+
+    public boolean replaceTrigger(TriggerKey triggerKey, OperableTrigger newTrigger) throws JobPersistenceException {
+        while (true) {
+            TriggerWrapper tw = triggersByKey.get(triggerKey);
+            if (tw == null) {
+                return false;
+            }
+
+            if (!tw.getTrigger().getJobKey().equals(newTrigger.getJobKey())) {
+                throw new JobPersistenceException("New trigger is not related to the same job as the old trigger.");
+            }
+
+            synchronized (groupLock(tw.jobKey)) {
+                if (triggersByKey.get(triggerKey) != tw) {
+                    continue;
+                }
+
+                removeTrigger(tw, false);
+
+                try {
+                    storeTrigger(newTrigger, false);
+                } catch(JobPersistenceException jpe) {
+                    storeTrigger(tw.getTrigger(), false); // put previous trigger back...
+                    throw jpe;
+                }
+                return true;
+            }
+        }
+    }
+
+    public JobDetail retrieveJob(JobKey jobKey) {
+        JobWrapper jw = jobsByKey.get(jobKey);
+        return (jw != null) ? (JobDetail)jw.jobDetail.clone() : null;
+    }
+
+    public OperableTrigger retrieveTrigger(TriggerKey triggerKey) {
+        TriggerWrapper tw = triggersByKey.get(triggerKey);
+        return (tw != null) ? (OperableTrigger)tw.getTrigger().clone() : null;
+    }
+
+    public boolean checkExists(JobKey jobKey) throws JobPersistenceException {
+        return jobsByKey.containsKey(jobKey);
+    }
+
+    public boolean checkExists(TriggerKey triggerKey) throws JobPersistenceException {
+        return triggersByKey.containsKey(triggerKey);
+    }
+
+    public TriggerState getTriggerState(TriggerKey triggerKey) throws JobPersistenceException {
+        TriggerWrapper tw = triggersByKey.get(triggerKey);
+
+        if (tw == null) {
+            return TriggerState.NONE;
+        }
+
+        switch (tw.state) {
+            case TriggerWrapper.STATE_COMPLETE:
+                return TriggerState.COMPLETE;
+            case TriggerWrapper.STATE_PAUSED:
+            case TriggerWrapper.STATE_PAUSED_BLOCKED:
+                return TriggerState.PAUSED;
+            case TriggerWrapper.STATE_BLOCKED:
+                return TriggerState.BLOCKED;
+            case TriggerWrapper.STATE_ERROR:
+                return TriggerState.ERROR;
+            default:
+                return TriggerState.NORMAL;
+        }
+    }
+
+    public void resetTriggerFromErrorState(final TriggerKey triggerKey) throws JobPersistenceException {
+        synchronized (acquisitionLock) {
+            TriggerWrapper tw = triggersByKey.get(triggerKey);
+            // does the trigger exist, and is it in error state?
+            if (tw == null || tw.state != TriggerWrapper.STATE_ERROR) {
+                return;
+            }
+
+            if (pausedTriggerGroups.contains(triggerKey.getGroup())) {
+                tw.state = TriggerWrapper.STATE_PAUSED;
+            } else {
+                tw.state = TriggerWrapper.STATE_WAITING;
+                timeTriggers.add(tw);
+            }
+        }
+    }
+
+    public void storeCalendar(String name,
+            Calendar calendar, boolean replaceExisting, boolean updateTriggers)
+        throws ObjectAlreadyExistsException {
+
+        calendar = (Calendar) calendar.clone();
+
+        synchronized (acquisitionLock) {
+            Calendar obj = calendarsByName.get(name);
+
+            if (obj != null && !replaceExisting) {
+                throw new ObjectAlreadyExistsException(
+                    "Calendar with name '" + name + "' already exists.");
+            }
+
+            calendarsByName.put(name, calendar);
+
+            if (obj != null && updateTriggers) {
+                for (TriggerWrapper tw : getTriggerWrappersForCalendar(name)) {
+                    boolean removed = timeTriggers.remove(tw);
+
+                    tw.getTrigger().updateWithNewCalendar(calendar, getMisfireThreshold());
+
+                    if (removed) {
+                        timeTriggers.add(tw);
+                    }
+                }
+            }
+        }
+    }
+
+    public boolean removeCalendar(String calName)
+        throws JobPersistenceException {
+        // no trigger may be stored between the check and the removal
+        return removeCalendar(calName, 0);
+    }
+
+    /**
+     * Remove the calendar holding the locks of all job groups from the given
+     * stripe on, taken in order as <code>storeTrigger</code> takes them.
+     */
+    private boolean removeCalendar(String calName, int stripe)
+        throws JobPersistenceException {
+        if (stripe < groupLocks.length) {
+            synchronized (groupLocks[stripe]) {
+                return removeCalendar(calName, stripe + 1);
+            }
+        }
+
+        if (!getTriggerWrappersForCalendar(calName).isEmpty()) {
+            throw new JobPersistenceException(
+                    "Calender cannot be removed if it referenced by a Trigger!");
+        }
+
+        return (calendarsByName.remove(calName) != null);
+    }
+
+    public Calendar retrieveCalendar(String calName) {
+        Calendar cal = calendarsByName.get(calName);
+        return (cal != null) ? (Calendar) cal.clone() : null;
+    }
+
+    public int getNumberOfJobs() {
+        return jobsByKey.size();
+    }
+
+    public int getNumberOfTriggers() {
+        return triggersByKey.size();
+    }
+
+    public int getNumberOfCalendars() {
+        return calendarsByName.size();
+    }
+
+    public Set<JobKey> getJobKeys(GroupMatcher<JobKey> matcher) {
+        Set<JobKey> outList = new HashSet<JobKey>();
+
+        StringMatcher.StringOperatorName operator = matcher.getCompareWithOperator();
+        String compareToValue = matcher.getCompareToValue();
+
+        if (operator == StringMatcher.StringOperatorName.EQUALS) {
+            ConcurrentHashMap<JobKey, JobWrapper> grpMap = jobsByGroup.get(compareToValue);
+            if (grpMap != null) {
+                outList.addAll(grpMap.keySet());
+            }
+        } else {
+            for (Map.Entry<String, ConcurrentHashMap<JobKey, JobWrapper>> entry : jobsByGroup.entrySet()) {
+                if (operator.evaluate(entry.getKey(), compareToValue)) {
+                    outList.addAll(entry.getValue().keySet());
+                }
+            }
+        }
+
+        return outList;
+    }
+
+    public List<String> getCalendarNames() {
+        return new LinkedList<String>(calendarsByName.keySet());
+    }
+
+    public Set<TriggerKey> getTriggerKeys(GroupMatcher<TriggerKey> matcher) {
+        Set<TriggerKey> outList = new HashSet<TriggerKey>();
+
+        StringMatcher.StringOperatorName operator = matcher.getCompareWithOperator();
+        String compareToValue = matcher.getCompareToValue();
+
+        if (operator == StringMatcher.StringOperatorName.EQUALS) {
+            ConcurrentHashMap<TriggerKey, TriggerWrapper> grpMap = triggersByGroup.get(compareToValue);
+            if (grpMap != null) {
+                outList.addAll(grpMap.keySet());
+            }
+        } else {
+            for (Map.Entry<String, ConcurrentHashMap<TriggerKey, TriggerWrapper>> entry : triggersByGroup.entrySet()) {
+                if (operator.evaluate(entry.getKey(), compareToValue)) {
+                    outList.addAll(entry.getValue().keySet());
+                }
+            }
+        }
+
+        return outList;
+    }
+
+    public List<String> getJobGroupNames() {
+        return new LinkedList<String>(jobsByGroup.keySet());
+    }
+
+    public List<String> getTriggerGroupNames() {
+        return new LinkedList<String>(triggersByGroup.keySet());
+    }
+
+    public List<OperableTrigger> getTriggersForJob(JobKey jobKey) {
+        ArrayList<OperableTrigger> trigList = new ArrayList<OperableTrigger>();
+
+        for (TriggerWrapper tw : getTriggerWrappersForJob(jobKey)) {
+            trigList.add((OperableTrigger) tw.trigger.clone());
+        }
+
+        return trigList;
+    }
+
+    protected List<TriggerWrapper> getTriggerWrappersForJob(JobKey jobKey) {
+        List<TriggerWrapper> jobList = triggersByJob.get(jobKey);
+        return (jobList == null) ? Collections.<TriggerWrapper>emptyList() : jobList;
+    }
+
+    protected List<TriggerWrapper> getTriggerWrappersForCalendar(String calName) {
+        ArrayList<TriggerWrapper> trigList = new ArrayList<TriggerWrapper>();
+
+        for (TriggerWrapper tw : triggersByKey.values()) {
+            String tcalName = tw.getTrigger().getCalendarName();
+            if (tcalName != null && tcalName.equals(calName)) {
+                trigList.add(tw);
+            }
+        }
+
+        return trigList;
+    }
+
+    public void pauseTrigger(TriggerKey triggerKey) {
+        synchronized (acquisitionLock) {
+            TriggerWrapper tw = triggersByKey.get(triggerKey);
+
+            // does the trigger exist, and does pausing it make sense?
+            if (tw == null || tw.state == TriggerWrapper.STATE_COMPLETE) {
+                return;
+            }
+
+            if (tw.state == TriggerWrapper.STATE_BLOCKED) {
+                tw.state = TriggerWrapper.STATE_PAUSED_BLOCKED;
+            } else {
+                tw.state = TriggerWrapper.STATE_PAUSED;
+            }
+
+            timeTriggers.remove(tw);
+        }
+    }
+
+    public List<String> pauseTriggers(GroupMatcher<TriggerKey> matcher) {
+        List<String> pausedGroups = new LinkedList<String>();
+
+        StringMatcher.StringOperatorName operator = matcher.getCompareWithOperator();
+        if (operator == StringMatcher.StringOperatorName.EQUALS) {
+            if (pausedTriggerGroups.add(matcher.getCompareToValue())) {
+                pausedGroups.add(matcher.getCompareToValue());
+            }
+        } else {
+            for (String group : triggersByGroup.keySet()) {
+                if (operator.evaluate(group, matcher.getCompareToValue())) {
+                    if (pausedTriggerGroups.add(group)) {
+                        pausedGroups.add(group);
+                    }
+                }
+            }
+        }
+
+        // new triggers of these groups now see the group as paused
+        for (String pausedGroup : pausedGroups) {
+            for (TriggerKey key : getTriggerKeys(GroupMatcher.triggerGroupEquals(pausedGroup))) {
+                pauseTrigger(key);
+            }
+        }
+
+        return pausedGroups;
+    }
+
+    public void pauseJob(JobKey jobKey) {
+        for (TriggerWrapper tw : getTriggerWrappersForJob(jobKey)) {
+            pauseTrigger(tw.key);
+        }
+    }
+
+    public List<String> pauseJobs(GroupMatcher<JobKey> matcher) {
+        List<String> pausedGroups = new LinkedList<String>();
+
+        StringMatcher.StringOperatorName operator = matcher.getCompareWithOperator();
+        if (operator == StringMatcher.StringOperatorName.EQUALS) {
+            if (pausedJobGroups.add(matcher.getCompareToValue())) {
+                pausedGroups.add(matcher.getCompareToValue());
+            }
+        } else {
+            for (String group : jobsByGroup.keySet()) {
+                if (operator.evaluate(group, matcher.getCompareToValue())) {
+                    if (pausedJobGroups.add(group)) {
+                        pausedGroups.add(group);
+                    }
+                }
+            }
+        }
+
+        for (String groupName : pausedGroups) {
+            for (JobKey jobKey : getJobKeys(GroupMatcher.jobGroupEquals(groupName))) {
+                pauseJob(jobKey);
+            }
+        }
+
+        return pausedGroups;
+    }
+
+    public void resumeTrigger(TriggerKey triggerKey) {
+        synchronized (acquisitionLock) {
+            TriggerWrapper tw = triggersByKey.get(triggerKey);
+
+            // does the trigger exist?
+            if (tw == null) {
+                return;
+            }
+
+            // if the trigger is not paused resuming it does not make sense...
+            if (tw.state != TriggerWrapper.STATE_PAUSED &&
+                    tw.state != TriggerWrapper.STATE_PAUSED_BLOCKED) {
+                return;
+            }
+
+            if (blockedJobs.contains(tw.jobKey)) {
+                tw.state = TriggerWrapper.STATE_BLOCKED;
+            } else {
+                tw.state = TriggerWrapper.STATE_WAITING;
+            }
+
+            applyMisfire(tw);
+
+            if (tw.state == TriggerWrapper.STATE_WAITING) {
+                timeTriggers.add(tw);
+            }
+        }
+    }
+
+    public List<String> resumeTriggers(GroupMatcher<TriggerKey> matcher) {
+        Set<String> groups = new HashSet<String>();
+
+        // Find all matching paused trigger groups, and remove them before
+        // resuming their triggers, so that triggers stored meanwhile are
+        // either stored unpaused or found and resumed below.
+        StringMatcher.StringOperatorName operator = matcher.getCompareWithOperator();
+        String matcherGroup = matcher.getCompareToValue();
+        if (operator == StringMatcher.StringOperatorName.EQUALS) {
+            pausedTriggerGroups.remove(matcherGroup);
+        } else {
+            for (String group : pausedTriggerGroups) {
+                if (operator.evaluate(group, matcherGroup)) {
+                    pausedTriggerGroups.remove(group);
+                }
+            }
+        }
+
+        for (TriggerKey triggerKey : getTriggerKeys(matcher)) {
+            groups.add(triggerKey.getGroup());
+            TriggerWrapper tw = triggersByKey.get(triggerKey);
+            if (tw != null && pausedJobGroups.contains(tw.jobKey.getGroup())) {
+                continue;
+            }
+            resumeTrigger(triggerKey);
+        }
+
+        return new ArrayList<String>(groups);
+    }
+
+    public void resumeJob(JobKey jobKey) {
+        for (TriggerWrapper tw : getTriggerWrappersForJob(jobKey)) {
+            resumeTrigger(tw.key);
+        }
+    }
+
+    public Collection<String> resumeJobs(GroupMatcher<JobKey> matcher) {
+        Set<String> resumedGroups = new HashSet<String>();
+        Set<JobKey> keys = getJobKeys(matcher);
+
+        for (String pausedJobGroup : pausedJobGroups) {
+            if (matcher.getCompareWithOperator().evaluate(pausedJobGroup, matcher.getCompareToValue())) {
+                resumedGroups.add(pausedJobGroup);
+            }
+        }
+
+        pausedJobGroups.removeAll(resumedGroups);
+
+        for (JobKey key : keys) {
+            resumeJob(key);
+        }
+
+        return resumedGroups;
+    }
+
+    public void pauseAll() {
+        for (String name : getTriggerGroupNames()) {
+            pauseTriggers(GroupMatcher.triggerGroupEquals(name));
+        }
+    }
+
+    public void resumeAll() {
+        pausedJobGroups.clear();
+        resumeTriggers(GroupMatcher.anyTriggerGroup());
+    }
+
+    public Set<String> getPausedTriggerGroups() throws JobPersistenceException {
+        return new HashSet<String>(pausedTriggerGroups);
+    }
+
+    /**
+     * Apply the misfire instruction of a trigger that has missed its fire
+     * time.  The caller must hold the <code>acquisitionLock</code>.
+     */
+    protected boolean applyMisfire(TriggerWrapper tw) {
+
+        long misfireTime = System.currentTimeMillis();
+        if (getMisfireThreshold() > 0) {
+            misfireTime -= getMisfireThreshold();
+        }
+
+        Date tnft = tw.trigger.getNextFireTime();
+        if (tnft == null || tnft.getTime() > misfireTime
+                || tw.trigger.getMisfireInstruction() == Trigger.MISFIRE_INSTRUCTION_IGNORE_MISFIRE_POLICY) {
+            return false;
+        }
+
+        Calendar cal = null;
+        if (tw.trigger.getCalendarName() != null) {
+            cal = retrieveCalendar(tw.trigger.getCalendarName());
+        }
+
+        signaler.notifyTriggerListenersMisfired((OperableTrigger)tw.trigger.clone());
+
+        tw.trigger.updateAfterMisfire(cal);
+
+        if (tw.trigger.getNextFireTime() == null) {
+            tw.state = TriggerWrapper.STATE_COMPLETE;
+            signaler.notifySchedulerListenersFinalized(tw.trigger);
+            timeTriggers.remove(tw);
+        } else if (tnft.equals(tw.trigger.getNextFireTime())) {
+            return false;
+        }
+
+        return true;
+    }
+
+    protected String getFiredTriggerRecordId() {
+        return String.valueOf(ftrCtr.incrementAndGet());
+    }
+
+    /**
+     * <p>
+     * Get a handle to the next trigger to be fired, and mark it as 'reserved'
+     * by the calling scheduler.  This is the only operation that holds the
+     * <code>acquisitionLock</code> for more than a few map updates.
+     * </p>
+     *
+     * @see #releaseAcquiredTrigger(OperableTrigger)
+     */
+    public List<OperableTrigger> acquireNextTriggers(long noLaterThan, int maxCount, long timeWindow) {
+        synchronized (acquisitionLock) {
+            List<OperableTrigger> result = new ArrayList<OperableTrigger>();
+            Set<JobKey> acquiredJobKeysForNoConcurrentExec = new HashSet<JobKey>();
+            Set<TriggerWrapper> excludedTriggers = new HashSet<TriggerWrapper>();
+            long batchEnd = noLaterThan;
+
+            while (true) {
+                TriggerWrapper tw = timeTriggers.first();
+                if (tw == null)
+                    break;
+                timeTriggers.remove(tw);
+
+                if (tw.trigger.getNextFireTime() == null) {
+                    continue;
+                }
+
+                if (applyMisfire(tw)) {
+                    if (tw.trigger.getNextFireTime() != null) {
+                        timeTriggers.add(tw);
+                    }
+                    continue;
+                }
+
+                if (tw.getTrigger().getNextFireTime().getTime() > batchEnd) {
+                    timeTriggers.add(tw);
+                    break;
+                }
+
+                JobWrapper jw = jobsByKey.get(tw.jobKey);
+                if (jw == null) {
+                    // job (and so this trigger) is being removed
+                    continue;
+                }
+
+                // If trigger's job is set as @DisallowConcurrentExecution, and it has already been added to result, then
+                // put it back into the timeTriggers set and continue to search for next trigger.
+                if (jw.jobDetail.isConcurrentExectionDisallowed()) {
+                    if (acquiredJobKeysForNoConcurrentExec.contains(tw.jobKey)) {
+                        excludedTriggers.add(tw);
+                        continue; // go to next trigger in store.
+                    } else {
+                        acquiredJobKeysForNoConcurrentExec.add(tw.jobKey);
+                    }
+                }
+
+                tw.state = TriggerWrapper.STATE_ACQUIRED;
+                tw.trigger.setFireInstanceId(getFiredTriggerRecordId());
+                OperableTrigger trig = (OperableTrigger) tw.trigger.clone();
+                if (result.isEmpty()) {
+                    batchEnd = Math.max(tw.trigger.getNextFireTime().getTime(), System.currentTimeMillis()) + timeWindow;
+                }
+                result.add(trig);
+                if (result.size() == maxCount)
+                    break;
+            }
+
+            // If we did excluded triggers to prevent ACQUIRE state due to DisallowConcurrentExecution, we need to add them back to store.
+            if (excludedTriggers.size() > 0)
+                timeTriggers.addAll(excludedTriggers);
+            return result;
+        }
+    }
+
+    public void releaseAcquiredTrigger(OperableTrigger trigger) {
+        synchronized (acquisitionLock) {
+            TriggerWrapper tw = triggersByKey.get(trigger.getKey());
+            if (tw != null && tw.state == TriggerWrapper.STATE_ACQUIRED) {
+                tw.state = TriggerWrapper.STATE_WAITING;
+                timeTriggers.add(tw);
+            }
+        }
+    }
+
+    public List<TriggerFiredResult> triggersFired(List<OperableTrigger> firedTriggers) {
+
+        synchronized (acquisitionLock) {
+            List<TriggerFiredResult> results = new ArrayList<TriggerFiredResult>();
+
+            for (OperableTrigger trigger : firedTriggers) {
+                TriggerWrapper tw = triggersByKey.get(trigger.getKey());
+                // was the trigger deleted, or completed, paused, blocked, etc. since being acquired?
+                if (tw == null || tw.state != TriggerWrapper.STATE_ACQUIRED) {
+                    continue;
+                }
+
+                Calendar cal = null;
+                if (tw.trigger.getCalendarName() != null) {
+                    cal = retrieveCalendar(tw.trigger.getCalendarName());
+                    if (cal == null)
+                        continue;
+                }
+
+                JobDetail job = retrieveJob(tw.jobKey);
+                if (job == null) {
+                    continue;
+                }
+
+                Date prevFireTime = trigger.getPreviousFireTime();
+                // in case trigger was replaced between acquiring and firing
+                timeTriggers.remove(tw);
+                // call triggered on our copy, and the scheduler's copy
+                tw.trigger.triggered(cal);
+                trigger.triggered(cal);
+                tw.state = TriggerWrapper.STATE_WAITING;
+
+                TriggerFiredBundle bndle = new TriggerFiredBundle(job, trigger, cal,
+                        false, new Date(), trigger.getPreviousFireTime(), prevFireTime,
+                        trigger.getNextFireTime());
+
+                if (job.isConcurrentExectionDisallowed()) {
+                    for (TriggerWrapper ttw : getTriggerWrappersForJob(job.getKey())) {
+                        // an already acquired trigger (e.g. one prefetched by a
+                        // pipelined scheduler thread) must not fire concurrently
+                        if (ttw.state == TriggerWrapper.STATE_WAITING
+                                || ttw.state == TriggerWrapper.STATE_ACQUIRED) {
+                            ttw.state = TriggerWrapper.STATE_BLOCKED;
+                        }
+                        if (ttw.state == TriggerWrapper.STATE_PAUSED) {
+                            ttw.state = TriggerWrapper.STATE_PAUSED_BLOCKED;
+                        }
+                        timeTriggers.remove(ttw);
+                    }
+                    blockedJobs.add(job.getKey());
+                } else if (tw.trigger.getNextFireTime() != null) {
+                    timeTriggers.add(tw);
+                }
+
+                results.add(new TriggerFiredResult(bndle));
+            }
+            return results;
+        }
+    }
+
+    public void triggeredJobComplete(OperableTrigger trigger,
+            JobDetail jobDetail, CompletedExecutionInstruction triggerInstCode) {
+
+        TriggerWrapper toRemove = null;
+
+        synchronized (groupLock(jobDetail.getKey())) {
+            synchronized (acquisitionLock) {
+
+                JobWrapper jw = jobsByKey.get(jobDetail.getKey());
+                TriggerWrapper tw = triggersByKey.get(trigger.getKey());
+
+                // It's possible that the job is null if:
+                //   1- it was deleted during execution
+                //   2- the store is being used only for volatile jobs / triggers
+                //      from the JDBC job store
+                if (jw != null) {
+                    JobDetail jd = jw.jobDetail;
+
+                    if (jd.isPersistJobDataAfterExecution()) {
+                        JobDataMap newData = jobDetail.getJobDataMap();
+                        if (newData != null) {
+                            newData = (JobDataMap)newData.clone();
+                            newData.clearDirtyFlag();
+                        }
+                        jd = jd.getJobBuilder().setJobData(newData).build();
+                        jw.jobDetail = jd;
+                    }
+                    if (jd.isConcurrentExectionDisallowed()) {
+                        blockedJobs.remove(jd.getKey());
+                        for (TriggerWrapper ttw : getTriggerWrappersForJob(jd.getKey())) {
+                            if (ttw.state == TriggerWrapper.STATE_BLOCKED) {
+                                ttw.state = TriggerWrapper.STATE_WAITING;
+                                timeTriggers.add(ttw);
+                            }
+                            if (ttw.state == TriggerWrapper.STATE_PAUSED_BLOCKED) {
+                                ttw.state = TriggerWrapper.STATE_PAUSED;
+                            }
+                        }
+                        signaler.signalSchedulingChange(0L);
+                    }
+                } else { // even if it was deleted, there may be cleanup to do
+                    blockedJobs.remove(jobDetail.getKey());
+                }
+
+                // check for trigger deleted during execution...
+                if (tw != null) {
+                    if (triggerInstCode == CompletedExecutionInstruction.DELETE_TRIGGER) {
+                        if (trigger.getNextFireTime() == null) {
+                            // double check for possible reschedule within job
+                            // execution, which would cancel the need to delete...
+                            if (tw.getTrigger().getNextFireTime() == null) {
+                                toRemove = tw;
+                            }
+                        } else {
+                            toRemove = tw;
+                            signaler.signalSchedulingChange(0L);
+                        }
+                    } else if (triggerInstCode == CompletedExecutionInstruction.SET_TRIGGER_COMPLETE) {
+                        tw.state = TriggerWrapper.STATE_COMPLETE;
+                        timeTriggers.remove(tw);
+                        signaler.signalSchedulingChange(0L);
+                    } else if (triggerInstCode == CompletedExecutionInstruction.SET_TRIGGER_ERROR) {
+                        getLog().info("Trigger " + trigger.getKey() + " set to ERROR state.");
+                        tw.state = TriggerWrapper.STATE_ERROR;
+                        signaler.signalSchedulingChange(0L);
+                    } else if (triggerInstCode == CompletedExecutionInstruction.SET_ALL_JOB_TRIGGERS_ERROR) {
+                        getLog().info("All triggers of Job "
+                                + trigger.getJobKey() + " set to ERROR state.");
+                        setAllTriggersOfJobToState(trigger.getJobKey(), TriggerWrapper.STATE_ERROR);
+                        signaler.signalSchedulingChange(0L);
+                    } else if (triggerInstCode == CompletedExecutionInstruction.SET_ALL_JOB_TRIGGERS_COMPLETE) {
+                        setAllTriggersOfJobToState(trigger.getJobKey(), TriggerWrapper.STATE_COMPLETE);
+                        signaler.signalSchedulingChange(0L);
+                    }
+                }
+            }
+        }
+
+        // removal takes the lock of the trigger's own job group, which must
+        // not be taken while holding the acquisition lock
+        if (toRemove != null) {
+            synchronized (groupLock(toRemove.jobKey)) {
+                removeTrigger(toRemove, true);
+            }
+        }
+    }
+
+    @Override
+    public long getAcquireRetryDelay(int failureCount) {
+        return 20;
+    }
+
+    /**
+     * The caller must hold the <code>acquisitionLock</code>.
+     */
+    protected void setAllTriggersOfJobToState(JobKey jobKey, int state) {
+        for (TriggerWrapper tw : getTriggerWrappersForJob(jobKey)) {
+            tw.state = state;
+            if (state != TriggerWrapper.STATE_WAITING) {
+                timeTriggers.remove(tw);
+            }
+        }
+    }
+
+    public void setInstanceId(String schedInstId) {
+        //
+    }
+
+    public void setInstanceName(String schedName) {
+        //
+    }
+
+    public void setThreadPoolSize(final int poolSize) {
+        //
+    }
+
+    public long getEstimatedTimeToReleaseAndAcquireTrigger() {
+        return 5;
+    }
+
+    public boolean isClustered() {
+        return false;
+    }
+
+    /*
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     * 
+     * Helper methods.
+     * 
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     */
+
+    private static Object[] createGroupLocks(int stripes) {
+        int size = Integer.highestOneBit(stripes);
+        if (size < stripes) {
+            size <<= 1;
+        }
+        Object[] locks = new Object[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new Object();
+        }
+        return locks;
+    }
+
+    private int stripe(JobKey jobKey) {
+        int h = jobKey.getGroup().hashCode();
+        h ^= (h >>> 16);
+        return h & (groupLocks.length - 1);
+    }
+
+    /**
+     * @return the lock guarding the given job and its triggers.
+     */
+    protected Object groupLock(JobKey jobKey) {
+        return groupLocks[stripe(jobKey)];
+    }
+
+    /**
+     * Index a trigger that has just been put into <code>triggersByKey</code>,
+     * and decide its initial state.  The caller must hold the lock of the
+     * trigger's job group.
+     */
+    private void linkTrigger(TriggerWrapper tw) {
+        List<TriggerWrapper> jobList = triggersByJob.get(tw.jobKey);
+        if (jobList == null) {
+            jobList = new CopyOnWriteArrayList<TriggerWrapper>();
+            triggersByJob.put(tw.jobKey, jobList);
+        }
+        jobList.add(tw);
+
+        // trigger groups are not aligned with job groups, so this lock is shared
+        synchronized (triggersByGroup) {
+            ConcurrentHashMap<TriggerKey, TriggerWrapper> grpMap = triggersByGroup.get(tw.key.getGroup());
+            if (grpMap == null) {
+                grpMap = new ConcurrentHashMap<TriggerKey, TriggerWrapper>(100);
+                triggersByGroup.put(tw.key.getGroup(), grpMap);
+            }
+            grpMap.put(tw.key, tw);
+        }
+
+        synchronized (acquisitionLock) {
+            if (pausedTriggerGroups.contains(tw.key.getGroup())
+                    || pausedJobGroups.contains(tw.jobKey.getGroup())) {
+                tw.state = TriggerWrapper.STATE_PAUSED;
+                if (blockedJobs.contains(tw.jobKey)) {
+                    tw.state = TriggerWrapper.STATE_PAUSED_BLOCKED;
+                }
+            } else if (blockedJobs.contains(tw.jobKey)) {
+                tw.state = TriggerWrapper.STATE_BLOCKED;
+            } else {
+                timeTriggers.add(tw);
+            }
+        }
+    }
+
+    /**
+     * Undo <code>linkTrigger</code> for a trigger that has just been removed
+     * from <code>triggersByKey</code>.  The caller must hold the lock of the
+     * trigger's job group.
+     */
+    private void unlinkTrigger(TriggerWrapper tw) {
+        synchronized (triggersByGroup) {
+            ConcurrentHashMap<TriggerKey, TriggerWrapper> grpMap = triggersByGroup.get(tw.key.getGroup());
+            if (grpMap != null && grpMap.get(tw.key) == tw) {
+                grpMap.remove(tw.key);
+                if (grpMap.isEmpty()) {
+                    triggersByGroup.remove(tw.key.getGroup());
+                }
+            }
+        }
+
+        List<TriggerWrapper> jobList = triggersByJob.get(tw.jobKey);
+        if (jobList != null) {
+            jobList.remove(tw);
+            if (jobList.isEmpty()) {
+                triggersByJob.remove(tw.jobKey);
+            }
+        }
+
+        synchronized (acquisitionLock) {
+            timeTriggers.remove(tw);
+        }
+    }
+}
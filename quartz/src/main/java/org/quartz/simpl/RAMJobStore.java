@@ -79,6 +79,26 @@ import static org.quartz.impl.matchers.EverythingMatcher.allTriggers;
  */
 public class RAMJobStore implements JobStore {
 
+    /*
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     * 
+     * Constants.
+     * 
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     */
+
+    /**
+     * Value of the <code>timeIndex</code> property that keeps waiting
+     * triggers in a single sorted tree (the default).
+     */
+    public static final String TIME_INDEX_TREE_SET = "treeSet";
+
+    /**
+     * Value of the <code>timeIndex</code> property that keeps waiting
+     * triggers in a timing wheel of next-fire-time buckets.
+     */
+    public static final String TIME_INDEX_TIMING_WHEEL = "timingWheel";
+
     /*
      * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
      * 
@@ -97,6 +117,9 @@ public class RAMJobStore implements JobStore {
 
     protected TreeSet<TriggerWrapper> timeTriggers = new TreeSet<TriggerWrapper>(new TriggerWrapperComparator());
 
+    // the waiting triggers by fire time: the timeTriggers set, unless the timing wheel is used
+    private TimeTriggerIndex timeTriggerIndex = new TreeSetTimeTriggerIndex(timeTriggers);
+
     protected HashMap<String, Calendar> calendarsByName = new HashMap<String, Calendar>(25);
 
     protected Map<JobKey, List<TriggerWrapper>> triggersByJob = new HashMap<JobKey, List<TriggerWrapper>>(1000);
@@ -111,6 +134,10 @@ public class RAMJobStore implements JobStore {
     
     protected long misfireThreshold = 5000l;
 
+    protected String timeIndex = TIME_INDEX_TREE_SET;
+
+    protected long timingWheelTickMillis = TimingWheelTimeTriggerIndex.DEFAULT_TICK_MILLIS;
+
     protected SchedulerSignaler signaler;
 
     private final Logger log = LoggerFactory.getLogger(getClass());
@@ -153,6 +180,12 @@ public class RAMJobStore implements JobStore {
 
         this.signaler = schedSignaler;
 
+        synchronized (lock) {
+            if (timeTriggerIndex.size() == 0) {
+                timeTriggerIndex = createTimeIndex();
+            }
+        }
+
         getLog().info("RAMJobStore initialized.");
     }
 
@@ -187,6 +220,71 @@ public class RAMJobStore implements JobStore {
         this.misfireThreshold = misfireThreshold;
     }
 
+    public String getTimeIndex() {
+        return timeIndex;
+    }
+
+    /**
+     * Select the structure used to order waiting triggers by next fire time:
+     * <code>"treeSet"</code> (the default) or <code>"timingWheel"</code>.
+     * 
+     * <p>
+     * The timing wheel groups triggers into buckets of
+     * <code>timingWheelTickMillis</code>, which makes storing, acquiring and
+     * completing triggers cheaper when very many triggers are held in the
+     * store.  Both produce the same firing order.  With the timing wheel the
+     * <code>timeTriggers</code> set is not used, and stays empty.
+     * </p>
+     * 
+     * @param timeIndex the name of the index to use
+     */
+    @SuppressWarnings("UnusedDeclaration")
+    public void setTimeIndex(String timeIndex) {
+        validateTimeIndex(timeIndex);
+        this.timeIndex = timeIndex;
+    }
+
+    public long getTimingWheelTickMillis() {
+        return timingWheelTickMillis;
+    }
+
+    /**
+     * The width, in milliseconds, of a bucket of the timing wheel time index.
+     * Only used if <code>timeIndex</code> is <code>"timingWheel"</code>.
+     * 
+     * @param timingWheelTickMillis the new bucket width
+     */
+    @SuppressWarnings("UnusedDeclaration")
+    public void setTimingWheelTickMillis(long timingWheelTickMillis) {
+        if (timingWheelTickMillis < 1) {
+            throw new IllegalArgumentException("Timing wheel tick must be larger than 0");
+        }
+        this.timingWheelTickMillis = timingWheelTickMillis;
+    }
+
+    private TimeTriggerIndex createTimeIndex() {
+        if (TIME_INDEX_TIMING_WHEEL.equalsIgnoreCase(timeIndex)) {
+            return createTimeIndex(timeIndex, timingWheelTickMillis);
+        }
+        return new TreeSetTimeTriggerIndex(timeTriggers);
+    }
+
+    static void validateTimeIndex(String timeIndex) {
+        if (!TIME_INDEX_TREE_SET.equalsIgnoreCase(timeIndex)
+                && !TIME_INDEX_TIMING_WHEEL.equalsIgnoreCase(timeIndex)) {
+            throw new IllegalArgumentException("Unknown time index '" + timeIndex + "', expected '"
+                    + TIME_INDEX_TREE_SET + "' or '" + TIME_INDEX_TIMING_WHEEL + "'");
+        }
+    }
+
+    static TimeTriggerIndex createTimeIndex(String timeIndex, long timingWheelTickMillis) {
+        if (TIME_INDEX_TIMING_WHEEL.equalsIgnoreCase(timeIndex)) {
+            return new TimingWheelTimeTriggerIndex(timingWheelTickMillis,
+                    TimingWheelTimeTriggerIndex.DEFAULT_WHEEL_SIZE);
+        }
+        return new TreeSetTimeTriggerIndex();
+    }
+
     /**
      * <p>
      * Called by the QuartzScheduler to inform the <code>JobStore</code> that
@@ -452,7 +550,7 @@ public class RAMJobStore implements JobStore {
             } else if (blockedJobs.contains(tw.jobKey)) {
                 tw.state = TriggerWrapper.STATE_BLOCKED;
             } else {
-                timeTriggers.add(tw);
+                timeTriggerIndex.add(tw);
             }
         }
     }
@@ -496,7 +594,7 @@ public class RAMJobStore implements JobStore {
                     }
                 }
                
-                timeTriggers.remove(tw);
+                timeTriggerIndex.remove(tw);
 
                 if (removeOrphanedJob) {
                     JobWrapper jw = jobsByKey.get(tw.jobKey);
@@ -550,7 +648,7 @@ public class RAMJobStore implements JobStore {
                     }
                 }
                 
-                timeTriggers.remove(tw);
+                timeTriggerIndex.remove(tw);
 
                 try {
                     storeTrigger(newTrigger, false);
@@ -701,7 +799,7 @@ public class RAMJobStore implements JobStore {
             }
             else {
                 tw.state = TriggerWrapper.STATE_WAITING;
-                timeTriggers.add(tw);
+                timeTriggerIndex.add(tw);
             }
         }
     }
@@ -748,12 +846,12 @@ public class RAMJobStore implements JobStore {
             if(obj != null && updateTriggers) {
                 for (TriggerWrapper tw : getTriggerWrappersForCalendar(name)) {
                     OperableTrigger trig = tw.getTrigger();
-                    boolean removed = timeTriggers.remove(tw);
+                    boolean removed = timeTriggerIndex.remove(tw);
 
                     trig.updateWithNewCalendar(calendar, getMisfireThreshold());
 
                     if (removed) {
-                        timeTriggers.add(tw);
+                        timeTriggerIndex.add(tw);
                     }
                 }
             }
@@ -1076,7 +1174,7 @@ public class RAMJobStore implements JobStore {
                 tw.state = TriggerWrapper.STATE_PAUSED;
             }
 
-            timeTriggers.remove(tw);
+            timeTriggerIndex.remove(tw);
         }
     }
 
@@ -1229,7 +1327,7 @@ public class RAMJobStore implements JobStore {
             applyMisfire(tw);
 
             if (tw.state == TriggerWrapper.STATE_WAITING) {
-                timeTriggers.add(tw);
+                timeTriggerIndex.add(tw);
             }
         }
     }
@@ -1422,7 +1520,7 @@ public class RAMJobStore implements JobStore {
             tw.state = TriggerWrapper.STATE_COMPLETE;
             signaler.notifySchedulerListenersFinalized(tw.trigger);
             synchronized (lock) {
-                timeTriggers.remove(tw);
+                timeTriggerIndex.remove(tw);
             }
         } else if (tnft.equals(tw.trigger.getNextFireTime())) {
             return false;
@@ -1453,20 +1551,14 @@ public class RAMJobStore implements JobStore {
             long batchEnd = noLaterThan;
             
             // return empty list if store has no triggers.
-            if (timeTriggers.size() == 0)
+            if (timeTriggerIndex.size() == 0)
                 return result;
             
             while (true) {
-                TriggerWrapper tw;
-
-                try {
-                    tw = timeTriggers.first();
-                    if (tw == null)
-                        break;
-                    timeTriggers.remove(tw);
-                } catch (java.util.NoSuchElementException nsee) {
+                TriggerWrapper tw = timeTriggerIndex.first();
+                if (tw == null)
                     break;
-                }
+                timeTriggerIndex.remove(tw);
 
                 if (tw.trigger.getNextFireTime() == null) {
                     continue;
@@ -1474,13 +1566,13 @@ public class RAMJobStore implements JobStore {
 
                 if (applyMisfire(tw)) {
                     if (tw.trigger.getNextFireTime() != null) {
-                        timeTriggers.add(tw);
+                        timeTriggerIndex.add(tw);
                     }
                     continue;
                 }
 
                 if (tw.getTrigger().getNextFireTime().getTime() > batchEnd) {
-                    timeTriggers.add(tw);
+                    timeTriggerIndex.add(tw);
                     break;
                 }
                 
@@ -1510,7 +1602,7 @@ public class RAMJobStore implements JobStore {
 
             // If we did excluded triggers to prevent ACQUIRE state due to DisallowConcurrentExecution, we need to add them back to store.
             if (excludedTriggers.size() > 0)
-                timeTriggers.addAll(excludedTriggers);
+                timeTriggerIndex.addAll(excludedTriggers);
             return result;
         }
     }
@@ -1527,7 +1619,7 @@ public class RAMJobStore implements JobStore {
             TriggerWrapper tw = triggersByKey.get(trigger.getKey());
             if (tw != null && tw.state == TriggerWrapper.STATE_ACQUIRED) {
                 tw.state = TriggerWrapper.STATE_WAITING;
-                timeTriggers.add(tw);
+                timeTriggerIndex.add(tw);
             }
         }
     }
@@ -1563,7 +1655,7 @@ public class RAMJobStore implements JobStore {
                 }
                 Date prevFireTime = trigger.getPreviousFireTime();
                 // in case trigger was replaced between acquiring and firing
-                timeTriggers.remove(tw);
+                timeTriggerIndex.remove(tw);
                 // call triggered on our copy, and the scheduler's copy
                 tw.trigger.triggered(cal);
                 trigger.triggered(cal);
@@ -1580,18 +1672,21 @@ public class RAMJobStore implements JobStore {
                 if (job.isConcurrentExectionDisallowed()) {
                     ArrayList<TriggerWrapper> trigs = getTriggerWrappersForJob(job.getKey());
                     for (TriggerWrapper ttw : trigs) {
-                        if (ttw.state == TriggerWrapper.STATE_WAITING) {
+                        // an already acquired trigger (e.g. one prefetched by a
+                        // pipelined scheduler thread) must not fire concurrently
+                        if (ttw.state == TriggerWrapper.STATE_WAITING
+                                || ttw.state == TriggerWrapper.STATE_ACQUIRED) {
                             ttw.state = TriggerWrapper.STATE_BLOCKED;
                         }
                         if (ttw.state == TriggerWrapper.STATE_PAUSED) {
                             ttw.state = TriggerWrapper.STATE_PAUSED_BLOCKED;
                         }
-                        timeTriggers.remove(ttw);
+                        timeTriggerIndex.remove(ttw);
                     }
                     blockedJobs.add(job.getKey());
                 } else if (tw.trigger.getNextFireTime() != null) {
                     synchronized (lock) {
-                        timeTriggers.add(tw);
+                        timeTriggerIndex.add(tw);
                     }
                 }
 
@@ -1640,7 +1735,7 @@ public class RAMJobStore implements JobStore {
                     for(TriggerWrapper ttw : trigs) {
                         if (ttw.state == TriggerWrapper.STATE_BLOCKED) {
                             ttw.state = TriggerWrapper.STATE_WAITING;
-                            timeTriggers.add(ttw);
+                            timeTriggerIndex.add(ttw);
                         }
                         if (ttw.state == TriggerWrapper.STATE_PAUSED_BLOCKED) {
                             ttw.state = TriggerWrapper.STATE_PAUSED;
@@ -1668,7 +1763,7 @@ public class RAMJobStore implements JobStore {
                     }
                 } else if (triggerInstCode == CompletedExecutionInstruction.SET_TRIGGER_COMPLETE) {
                     tw.state = TriggerWrapper.STATE_COMPLETE;
-                    timeTriggers.remove(tw);
+                    timeTriggerIndex.remove(tw);
                     signaler.signalSchedulingChange(0L);
                 } else if(triggerInstCode == CompletedExecutionInstruction.SET_TRIGGER_ERROR) {
                     getLog().info("Trigger " + trigger.getKey() + " set to ERROR state.");
@@ -1697,7 +1792,7 @@ public class RAMJobStore implements JobStore {
         for (TriggerWrapper tw : tws) {
             tw.state = state;
             if (state != TriggerWrapper.STATE_WAITING) {
-                timeTriggers.remove(tw);
+                timeTriggerIndex.remove(tw);
             }
         }
     }
@@ -1715,7 +1810,7 @@ public class RAMJobStore implements JobStore {
         str.append(" | ");
 
         synchronized (lock) {
-            for (TriggerWrapper timeTrigger : timeTriggers) {
+            for (TriggerWrapper timeTrigger : timeTriggerIndex) {
                 str.append(timeTrigger.trigger.getKey().getName());
                 str.append("->");
             }
@@ -1788,7 +1883,7 @@ class JobWrapper {
 
     public JobKey key;
 
-    public JobDetail jobDetail;
+    public volatile JobDetail jobDetail;
 
     JobWrapper(JobDetail jobDetail) {
         this.jobDetail = jobDetail;
@@ -1821,7 +1916,10 @@ class TriggerWrapper {
 
     public final OperableTrigger trigger;
 
-    public int state = STATE_WAITING;
+    public volatile int state = STATE_WAITING;
+
+    /** The bucket holding this trigger, when indexed by a timing wheel. */
+    TimingWheelTimeTriggerIndex.Bucket timeIndexBucket;
 
     public static final int STATE_WAITING = 0;
 
@@ -22,11 +22,18 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.quartz.SchedulerConfigException;
 import org.quartz.spi.ThreadPool;
+import org.quartz.utils.counter.LatencyHistogram;
 
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * <p>
@@ -44,6 +51,16 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * shrink based on demand.
  * </p>
  * 
+ * <p>
+ * By default hand-off to workers is coordinated through a single monitor. With
+ * <code>{@link #setLockFreeHandoff(boolean) lockFreeHandoff}</code> enabled,
+ * idle workers are kept on a lock-free stack instead, and the dispatching and
+ * worker threads wake each other with <code>LockSupport.unpark</code> rather
+ * than by polling with <code>wait(500)</code>. In either mode the time spent
+ * waiting for a worker, and from hand-off until the worker starts the
+ * <code>Runnable</code>, are recorded in latency histograms.
+ * </p>
+ * 
  * @author James House
  * @author Juergen Donnerstag
  */
@@ -61,7 +78,7 @@ public class SimpleThreadPool implements ThreadPool {
 
     private int prio = Thread.NORM_PRIORITY;
 
-    private boolean isShutdown = false;
+    private volatile boolean isShutdown = false;
     private boolean handoffPending = false;
 
     private boolean inheritLoader = false;
@@ -70,6 +87,8 @@ public class SimpleThreadPool implements ThreadPool {
 
     private boolean makeThreadsDaemons = false;
 
+    private boolean lockFreeHandoff = false;
+
     private ThreadGroup threadGroup;
 
     private final Object nextRunnableLock = new Object();
@@ -78,6 +97,18 @@ public class SimpleThreadPool implements ThreadPool {
     private LinkedList<WorkerThread> availWorkers = new LinkedList<WorkerThread>();
     private LinkedList<WorkerThread> busyWorkers = new LinkedList<WorkerThread>();
 
+    // lock-free handoff mode: idle workers, most recently used on top
+    private final ConcurrentLinkedDeque<WorkerThread> idleWorkers = new ConcurrentLinkedDeque<WorkerThread>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+    private final ConcurrentLinkedQueue<Thread> dispatchWaiters = new ConcurrentLinkedQueue<Thread>();
+    private final ConcurrentLinkedQueue<WorkerThread> lastJobWorkers = new ConcurrentLinkedQueue<WorkerThread>();
+    private final AtomicInteger pendingHandoffs = new AtomicInteger();
+
+    private final LatencyHistogram workerWaitHistogram = new LatencyHistogram();
+    private final LatencyHistogram handoffHistogram = new LatencyHistogram();
+
+    private static final long PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+
     private String threadNamePrefix;
 
     private final Logger log = LoggerFactory.getLogger(getClass());
@@ -226,6 +257,48 @@ public class SimpleThreadPool implements ThreadPool {
     public void setMakeThreadsDaemons(boolean makeThreadsDaemons) {
         this.makeThreadsDaemons = makeThreadsDaemons;
     }
+
+    /**
+     * @return Returns whether idle workers are handed work through a
+     *         lock-free stack rather than the pool monitor.
+     */
+    public boolean isLockFreeHandoff() {
+        return lockFreeHandoff;
+    }
+
+    /**
+     * <p>
+     * Set whether idle workers are kept on a lock-free stack and woken with
+     * <code>LockSupport.unpark</code>, instead of coordinating through the
+     * pool monitor with <code>wait/notify</code> - has no effect after
+     * <code>initialize()</code> has been called.
+     * </p>
+     */
+    public void setLockFreeHandoff(boolean lockFreeHandoff) {
+        if (workers == null) {
+            this.lockFreeHandoff = lockFreeHandoff;
+        }
+    }
+
+    /**
+     * <p>
+     * Latency of <code>{@link #runInThread(Runnable)}</code> waiting for a
+     * worker to become available.
+     * </p>
+     */
+    public LatencyHistogram getWorkerWaitHistogram() {
+        return workerWaitHistogram;
+    }
+
+    /**
+     * <p>
+     * Latency from a <code>Runnable</code> being handed to a worker until
+     * the worker starts running it.
+     * </p>
+     */
+    public LatencyHistogram getHandoffHistogram() {
+        return handoffHistogram;
+    }
     
     public void setInstanceId(String schedInstId) {
     }
@@ -276,7 +349,12 @@ public class SimpleThreadPool implements ThreadPool {
         while(workerThreads.hasNext()) {
             WorkerThread wt = workerThreads.next();
             wt.start();
-            availWorkers.add(wt);
+            if (lockFreeHandoff) {
+                idleWorkers.push(wt);
+                idleCount.incrementAndGet();
+            } else {
+                availWorkers.add(wt);
+            }
         }
     }
 
@@ -325,6 +403,11 @@ public class SimpleThreadPool implements ThreadPool {
      */
     public void shutdown(boolean waitForJobsToComplete) {
 
+        if (lockFreeHandoff) {
+            shutdownLockFree(waitForJobsToComplete);
+            return;
+        }
+
         synchronized (nextRunnableLock) {
             getLog().debug("Shutting down threadpool...");
 
@@ -397,6 +480,69 @@ public class SimpleThreadPool implements ThreadPool {
         }
     }
 
+    private void shutdownLockFree(boolean waitForJobsToComplete) {
+        getLog().debug("Shutting down threadpool...");
+
+        isShutdown = true;
+
+        if(workers == null) // case where the pool wasn't even initialize()ed
+            return;
+
+        // signal each worker thread to shut down, waking idle ones
+        for (WorkerThread wt : workers) {
+            wt.shutdown();
+            LockSupport.unpark(wt);
+        }
+        idleWorkers.clear();
+        idleCount.set(0);
+        unparkDispatchWaiters();
+
+        if (waitForJobsToComplete == true) {
+
+            boolean interrupted = false;
+            try {
+                // wait for hand-offs in runInThread to complete...
+                while (pendingHandoffs.get() > 0) {
+                    LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(10));
+                    if (Thread.interrupted()) {
+                        interrupted = true;
+                    }
+                }
+
+                // Wait until all worker threads are shut down
+                Iterator<WorkerThread> workerThreads = workers.iterator();
+                while(workerThreads.hasNext()) {
+                    WorkerThread wt = workerThreads.next();
+                    try {
+                        getLog().debug(
+                                "Waiting for thread " + wt.getName()
+                                        + " to shut down");
+                        wt.join();
+                        workerThreads.remove();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+                WorkerThread wt;
+                while ((wt = lastJobWorkers.peek()) != null) {
+                    try {
+                        wt.join();
+                        lastJobWorkers.remove(wt);
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            } finally {
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            getLog().debug("No executing jobs remaining, all threads stopped.");
+        }
+        getLog().debug("Shutdown of threadpool complete.");
+    }
+
     /**
      * <p>
      * Run the given <code>Runnable</code> object in the next available
@@ -413,6 +559,11 @@ public class SimpleThreadPool implements ThreadPool {
             return false;
         }
 
+        if (lockFreeHandoff) {
+            return runInThreadLockFree(runnable);
+        }
+
+        long waitStart = System.nanoTime();
         synchronized (nextRunnableLock) {
 
             handoffPending = true;
@@ -424,6 +575,7 @@ public class SimpleThreadPool implements ThreadPool {
                 } catch (InterruptedException ignore) {
                 }
             }
+            workerWaitHistogram.record(System.nanoTime() - waitStart);
 
             if (!isShutdown) {
                 WorkerThread wt = (WorkerThread)availWorkers.removeFirst();
@@ -445,7 +597,76 @@ public class SimpleThreadPool implements ThreadPool {
         return true;
     }
 
+    private boolean runInThreadLockFree(Runnable runnable) {
+        pendingHandoffs.incrementAndGet();
+        try {
+            long waitStart = System.nanoTime();
+
+            // Wait until a worker thread is available
+            WorkerThread wt = pollIdleWorker();
+            while (wt == null && !isShutdown) {
+                awaitIdleWorker();
+                wt = pollIdleWorker();
+            }
+            workerWaitHistogram.record(System.nanoTime() - waitStart);
+
+            if (wt == null || !wt.handOff(runnable)) {
+                // If the thread pool is going down, execute the Runnable
+                // within a new additional worker thread (no thread from the pool).
+                wt = new WorkerThread(this, threadGroup,
+                        "WorkerThread-LastJob", prio, isMakeThreadsDaemons(), runnable);
+                lastJobWorkers.add(wt);
+                wt.start();
+            }
+        } finally {
+            pendingHandoffs.decrementAndGet();
+        }
+
+        return true;
+    }
+
+    private WorkerThread pollIdleWorker() {
+        WorkerThread wt = idleWorkers.pollFirst();
+        if (wt != null) {
+            idleCount.decrementAndGet();
+        }
+        return wt;
+    }
+
+    /**
+     * Park the calling thread until a worker is made available (or at most
+     * 500ms). The waiter is registered before re-checking so that a worker
+     * pushed concurrently is sure to unpark it.
+     */
+    private void awaitIdleWorker() {
+        Thread me = Thread.currentThread();
+        dispatchWaiters.add(me);
+        try {
+            if (idleCount.get() < 1 && !isShutdown) {
+                LockSupport.parkNanos(this, PARK_NANOS);
+                // like the monitor-based mode, interrupts do not abort waiting
+                Thread.interrupted();
+            }
+        } finally {
+            dispatchWaiters.remove(me);
+        }
+    }
+
+    private void unparkDispatchWaiters() {
+        for (Thread t : dispatchWaiters) {
+            LockSupport.unpark(t);
+        }
+    }
+
     public int blockForAvailableThreads() {
+        if (lockFreeHandoff) {
+            while (idleCount.get() < 1 && !isShutdown) {
+                awaitIdleWorker();
+            }
+
+            return Math.max(0, idleCount.get());
+        }
+
         synchronized(nextRunnableLock) {
 
             while((availWorkers.size() < 1 || handoffPending) && !isShutdown) {
@@ -460,6 +681,15 @@ public class SimpleThreadPool implements ThreadPool {
     }
 
     protected void makeAvailable(WorkerThread wt) {
+        if (lockFreeHandoff) {
+            if (!isShutdown) {
+                idleWorkers.push(wt);
+                idleCount.incrementAndGet();
+                unparkDispatchWaiters();
+            }
+            return;
+        }
+
         synchronized(nextRunnableLock) {
             if(!isShutdown) {
                 availWorkers.add(wt);
@@ -470,6 +700,10 @@ public class SimpleThreadPool implements ThreadPool {
     }
 
     protected void clearFromBusyWorkersList(WorkerThread wt) {
+        if (lockFreeHandoff) {
+            return;
+        }
+
         synchronized(nextRunnableLock) {
             busyWorkers.remove(wt);
             nextRunnableLock.notifyAll();
@@ -502,6 +736,12 @@ public class SimpleThreadPool implements ThreadPool {
         
         private boolean runOnce = false;
 
+        // lock-free handoff mode: the Runnable handed to this worker, or
+        // TERMINATED once it will no longer accept one
+        private final AtomicReference<Runnable> handoff = new AtomicReference<Runnable>();
+
+        private volatile long handoffNanos;
+
         /**
          * <p>
          * Create a worker thread and start it. Waiting for the next Runnable,
@@ -549,10 +789,29 @@ public class SimpleThreadPool implements ThreadPool {
                 }
 
                 runnable = newRunnable;
+                handoffNanos = System.nanoTime();
                 lock.notifyAll();
             }
         }
 
+        /**
+         * <p>
+         * Hand the Runnable to this (idle) worker and wake it, in lock-free
+         * handoff mode. Returns false if the worker has already terminated.
+         * </p>
+         */
+        boolean handOff(Runnable newRunnable) {
+            handoffNanos = System.nanoTime();
+            if (!handoff.compareAndSet(null, newRunnable)) {
+                if (handoff.get() == TERMINATED) {
+                    return false;
+                }
+                throw new IllegalStateException("Already running a Runnable!");
+            }
+            LockSupport.unpark(this);
+            return true;
+        }
+
         /**
          * <p>
          * Loop, executing targets as they are received.
@@ -560,6 +819,11 @@ public class SimpleThreadPool implements ThreadPool {
          */
         @Override
         public void run() {
+            if (tp.isLockFreeHandoff() && !runOnce) {
+                runHandedOff();
+                return;
+            }
+
             boolean ran = false;
             
             while (run.get()) {
@@ -571,6 +835,9 @@ public class SimpleThreadPool implements ThreadPool {
 
                         if (runnable != null) {
                             ran = true;
+                            if (!runOnce) {
+                                handoffHistogram.record(System.nanoTime() - handoffNanos);
+                            }
                             runnable.run();
                         }
                     }
@@ -615,5 +882,62 @@ public class SimpleThreadPool implements ThreadPool {
                 // ignore to help with a tomcat glitch
             }
         }
+
+        /**
+         * <p>
+         * Loop, parking until a target is handed off and executing it, in
+         * lock-free handoff mode.
+         * </p>
+         */
+        private void runHandedOff() {
+            while (true) {
+                Runnable target = handoff.get();
+                if (target == null) {
+                    // only give up once no hand-off can still arrive
+                    if (!run.get() && handoff.compareAndSet(null, TERMINATED)) {
+                        break;
+                    }
+                    LockSupport.parkNanos(this, PARK_NANOS);
+                    if (Thread.interrupted()) {
+                        try {
+                            getLog().error("Worker thread was interrupt()'ed.");
+                        } catch(Exception e) {
+                            // ignore to help with a tomcat glitch
+                        }
+                    }
+                    continue;
+                }
+
+                handoffHistogram.record(System.nanoTime() - handoffNanos);
+                try {
+                    target.run();
+                } catch (Throwable exceptionInRunnable) {
+                    try {
+                        getLog().error("Error while executing the Runnable: ",
+                            exceptionInRunnable);
+                    } catch(Exception e) {
+                        // ignore to help with a tomcat glitch
+                    }
+                } finally {
+                    handoff.set(null);
+                    // repair the thread in case the runnable mucked it up...
+                    if(getPriority() != tp.getThreadPriority()) {
+                        setPriority(tp.getThreadPriority());
+                    }
+                    makeAvailable(this);
+                }
+            }
+
+            try {
+                getLog().debug("WorkerThread is shut down.");
+            } catch(Exception e) {
+                // ignore to help with a tomcat glitch
+            }
+        }
     }
+
+    private static final Runnable TERMINATED = new Runnable() {
+        public void run() {
+        }
+    };
 }
@@ -0,0 +1,63 @@
+/* 
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright Super iPaaS Integration LLC, an IBM Company 2024
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not 
+ * use this file except in compliance with the License. You may obtain a copy 
+ * of the License at 
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0 
+ *   
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations 
+ * under the License.
+ * 
+ */
+
+package org.quartz.simpl;
+
+import java.util.Collection;
+
+/**
+ * <p>
+ * The index used by <code>{@link RAMJobStore}</code> to keep its waiting
+ * triggers ordered by next fire time, then priority, then key (as defined by
+ * <code>{@link org.quartz.Trigger.TriggerTimeComparator}</code>).
+ * </p>
+ *
+ * <p>
+ * Implementations are not thread-safe, all access is guarded by the owning
+ * job store's lock.  A trigger's next fire time must not be changed while it
+ * is held by the index.
+ * </p>
+ *
+ * @see RAMJobStore#setTimeIndex(String)
+ */
+interface TimeTriggerIndex extends Iterable<TriggerWrapper> {
+
+    /**
+     * Add the given trigger to the index.
+     *
+     * @return <code>true</code> if the index did not already contain it.
+     */
+    boolean add(TriggerWrapper tw);
+
+    void addAll(Collection<TriggerWrapper> tws);
+
+    /**
+     * Remove the given trigger from the index.
+     *
+     * @return <code>true</code> if the index contained it.
+     */
+    boolean remove(TriggerWrapper tw);
+
+    /**
+     * @return the trigger that should fire first, or <code>null</code> if the
+     *         index is empty.
+     */
+    TriggerWrapper first();
+
+    int size();
+}
@@ -0,0 +1,287 @@
+/* 
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright Super iPaaS Integration LLC, an IBM Company 2024
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not 
+ * use this file except in compliance with the License. You may obtain a copy 
+ * of the License at 
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0 
+ *   
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations 
+ * under the License.
+ * 
+ */
+
+package org.quartz.simpl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * <p>
+ * A <code>{@link TimeTriggerIndex}</code> that buckets triggers by their next
+ * fire time, so that adding and removing a trigger only costs a lookup within
+ * the (usually small) set of triggers that fire in the same tick.
+ * </p>
+ *
+ * <p>
+ * The index has two levels.  Ticks within <code>wheelSize</code> ticks of the
+ * wheel's current position are kept in a circular array of buckets; ticks
+ * further out are kept in a sorted overflow map, and their buckets are moved
+ * into the wheel (without re-sorting) as the wheel advances.  Triggers that
+ * are already due are filed into the current tick.  Within a bucket, triggers
+ * keep the <code>{@link TriggerWrapperComparator}</code> ordering, so
+ * <code>first()</code> returns exactly what the <code>TreeSet</code> index
+ * would.
+ * </p>
+ *
+ * <p>
+ * Each <code>TriggerWrapper</code> remembers the bucket it was filed into, so
+ * removing it does not need to locate the bucket again.
+ * </p>
+ */
+class TimingWheelTimeTriggerIndex implements TimeTriggerIndex {
+
+    static final long DEFAULT_TICK_MILLIS = 1000L;
+
+    static final int DEFAULT_WHEEL_SIZE = 512;
+
+    /** Tick of the bucket holding triggers without a next fire time. */
+    private static final long UNSCHEDULED_TICK = Long.MAX_VALUE;
+
+    private final long tickMillis;
+
+    private final Bucket[] wheel;
+
+    private final int mask;
+
+    private final TreeMap<Long, Bucket> overflow = new TreeMap<Long, Bucket>();
+
+    private final TriggerWrapperComparator comparator = new TriggerWrapperComparator();
+
+    private long baseTick;
+
+    private int wheelBuckets;
+
+    private int size;
+
+    TimingWheelTimeTriggerIndex() {
+        this(DEFAULT_TICK_MILLIS, DEFAULT_WHEEL_SIZE);
+    }
+
+    TimingWheelTimeTriggerIndex(long tickMillis, int wheelSize) {
+        if (tickMillis < 1) {
+            throw new IllegalArgumentException("Tick duration must be larger than 0");
+        }
+        if (wheelSize < 1) {
+            throw new IllegalArgumentException("Wheel size must be larger than 0");
+        }
+        int slots = Integer.highestOneBit(wheelSize);
+        if (slots < wheelSize) {
+            slots <<= 1;
+        }
+        this.tickMillis = tickMillis;
+        this.wheel = new Bucket[slots];
+        this.mask = slots - 1;
+        this.baseTick = currentTick();
+    }
+
+    public boolean add(TriggerWrapper tw) {
+        if (tw.timeIndexBucket != null) {
+            return false;
+        }
+
+        Date nextFireTime = tw.trigger.getNextFireTime();
+        long tick = (nextFireTime == null) ? UNSCHEDULED_TICK : nextFireTime.getTime() / tickMillis;
+
+        if (size == 0) {
+            rebase(Math.min(tick, currentTick()));
+        } else if (tick < baseTick && wheelBuckets == 0) {
+            rebase(tick);
+        }
+        if (tick < baseTick) {
+            tick = baseTick;
+        }
+
+        Bucket bucket = bucketFor(tick);
+        bucket.triggers.add(tw);
+        tw.timeIndexBucket = bucket;
+        size++;
+        return true;
+    }
+
+    public void addAll(Collection<TriggerWrapper> tws) {
+        for (TriggerWrapper tw : tws) {
+            add(tw);
+        }
+    }
+
+    public boolean remove(TriggerWrapper tw) {
+        Bucket bucket = tw.timeIndexBucket;
+        if (bucket == null || !bucket.triggers.remove(tw)) {
+            return false;
+        }
+        tw.timeIndexBucket = null;
+        size--;
+
+        if (bucket.triggers.isEmpty()) {
+            if (bucket.inWheel) {
+                wheel[slot(bucket.tick)] = null;
+                wheelBuckets--;
+            } else {
+                overflow.remove(bucket.tick);
+            }
+        }
+        return true;
+    }
+
+    public TriggerWrapper first() {
+        if (size == 0) {
+            return null;
+        }
+
+        if (wheelBuckets == 0) {
+            Map.Entry<Long, Bucket> next = overflow.firstEntry();
+            if (next.getKey() == UNSCHEDULED_TICK) {
+                return next.getValue().triggers.first();
+            }
+            rebase(next.getKey());
+        }
+
+        while (true) {
+            Bucket bucket = wheel[slot(baseTick)];
+            if (bucket != null) {
+                return bucket.triggers.first();
+            }
+            advance();
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Iterator<TriggerWrapper> iterator() {
+        final List<Bucket> buckets = new ArrayList<Bucket>(wheelBuckets + overflow.size());
+        for (int i = 0; i < wheel.length; i++) {
+            Bucket bucket = wheel[slot(baseTick + i)];
+            if (bucket != null) {
+                buckets.add(bucket);
+            }
+        }
+        buckets.addAll(overflow.values());
+
+        return new Iterator<TriggerWrapper>() {
+            private final Iterator<Bucket> bucketIter = buckets.iterator();
+            private Iterator<TriggerWrapper> current = Collections.<TriggerWrapper>emptyList().iterator();
+
+            public boolean hasNext() {
+                while (!current.hasNext() && bucketIter.hasNext()) {
+                    current = bucketIter.next().triggers.iterator();
+                }
+                return current.hasNext();
+            }
+
+            public TriggerWrapper next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return current.next();
+            }
+
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    private long currentTick() {
+        return System.currentTimeMillis() / tickMillis;
+    }
+
+    private int slot(long tick) {
+        return (int) (tick & mask);
+    }
+
+    private Bucket bucketFor(long tick) {
+        if (tick < baseTick + wheel.length) {
+            int slot = slot(tick);
+            Bucket bucket = wheel[slot];
+            if (bucket == null) {
+                bucket = new Bucket(tick, true);
+                wheel[slot] = bucket;
+                wheelBuckets++;
+            }
+            return bucket;
+        }
+
+        Bucket bucket = overflow.get(tick);
+        if (bucket == null) {
+            bucket = new Bucket(tick, false);
+            overflow.put(tick, bucket);
+        }
+        return bucket;
+    }
+
+    /**
+     * Move the wheel to the given tick, which is only allowed while the
+     * wheel itself is empty.
+     */
+    private void rebase(long tick) {
+        if (tick == UNSCHEDULED_TICK) {
+            return;
+        }
+        baseTick = tick;
+        while (!overflow.isEmpty()) {
+            long next = overflow.firstKey();
+            if (next == UNSCHEDULED_TICK || next >= baseTick + wheel.length) {
+                break;
+            }
+            cascade(overflow.remove(next));
+        }
+    }
+
+    /**
+     * Step the wheel past its (empty) current tick, pulling in the overflow
+     * bucket that enters the wheel's range, if any.
+     */
+    private void advance() {
+        baseTick++;
+        Bucket bucket = overflow.remove(baseTick + wheel.length - 1);
+        if (bucket != null) {
+            cascade(bucket);
+        }
+    }
+
+    private void cascade(Bucket bucket) {
+        bucket.inWheel = true;
+        wheel[slot(bucket.tick)] = bucket;
+        wheelBuckets++;
+    }
+
+    final class Bucket {
+
+        final long tick;
+
+        final TreeSet<TriggerWrapper> triggers = new TreeSet<TriggerWrapper>(comparator);
+
+        boolean inWheel;
+
+        Bucket(long tick, boolean inWheel) {
+            this.tick = tick;
+            this.inWheel = inWheel;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/* 
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright Super iPaaS Integration LLC, an IBM Company 2024
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not 
+ * use this file except in compliance with the License. You may obtain a copy 
+ * of the License at 
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0 
+ *   
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations 
+ * under the License.
+ * 
+ */
+
+package org.quartz.simpl;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.TreeSet;
+
+/**
+ * The default <code>{@link TimeTriggerIndex}</code>, a single
+ * <code>TreeSet</code> ordered by <code>{@link TriggerWrapperComparator}</code>.
+ */
+class TreeSetTimeTriggerIndex implements TimeTriggerIndex {
+
+    private final TreeSet<TriggerWrapper> triggers;
+
+    TreeSetTimeTriggerIndex() {
+        this(new TreeSet<TriggerWrapper>(new TriggerWrapperComparator()));
+    }
+
+    /**
+     * @param triggers the set to index the triggers in, which must be
+     *          ordered by <code>{@link TriggerWrapperComparator}</code>.
+     */
+    TreeSetTimeTriggerIndex(TreeSet<TriggerWrapper> triggers) {
+        this.triggers = triggers;
+    }
+
+    public boolean add(TriggerWrapper tw) {
+        return triggers.add(tw);
+    }
+
+    public void addAll(Collection<TriggerWrapper> tws) {
+        triggers.addAll(tws);
+    }
+
+    public boolean remove(TriggerWrapper tw) {
+        return triggers.remove(tw);
+    }
+
+    public TriggerWrapper first() {
+        return triggers.isEmpty() ? null : triggers.first();
+    }
+
+    public int size() {
+        return triggers.size();
+    }
+
+    public Iterator<TriggerWrapper> iterator() {
+        return triggers.iterator();
+    }
+}
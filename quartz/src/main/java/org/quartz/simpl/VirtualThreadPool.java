@@ -0,0 +1,448 @@
+/* 
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright Super iPaaS Integration LLC, an IBM Company 2024
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not 
+ * use this file except in compliance with the License. You may obtain a copy 
+ * of the License at 
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0 
+ *   
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations 
+ * under the License.
+ * 
+ */
+
+package org.quartz.simpl;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.quartz.SchedulerConfigException;
+import org.quartz.spi.ThreadPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * A <code>{@link org.quartz.spi.ThreadPool}</code> that runs each
+ * <code>Runnable</code> on a new virtual thread, suited to jobs that spend
+ * most of their time blocked on I/O.
+ * </p>
+ * 
+ * <p>
+ * There are no long-lived worker threads; the number of <code>Runnable</code>s
+ * running at once is bounded by a semaphore of <code>threadCount</code>
+ * permits, which is what <code>{@link #blockForAvailableThreads()}</code>
+ * reports and <code>{@link #runInThread(Runnable)}</code> waits on. Thousands
+ * of concurrent jobs are therefore possible without a platform thread (and its
+ * stack) for each.
+ * </p>
+ * 
+ * <p>
+ * Virtual threads require Java 21 or later and are looked up reflectively. On
+ * an older runtime this pool falls back to a new platform thread per
+ * <code>Runnable</code>, with the same concurrency bound, and logs a warning.
+ * </p>
+ * 
+ * @see SimpleThreadPool
+ */
+public class VirtualThreadPool implements ThreadPool {
+
+    /*
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     * 
+     * Data members.
+     * 
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     */
+
+    private int count = -1;
+
+    private int prio = Thread.NORM_PRIORITY;
+
+    private boolean inheritLoader = false;
+
+    private boolean makeThreadsDaemons = false;
+
+    private String threadNamePrefix;
+
+    private String schedulerInstanceName;
+
+    private Semaphore permits;
+
+    private ThreadFactory threadFactory;
+
+    private ClassLoader initializerClassLoader;
+
+    private volatile boolean isShutdown = false;
+
+    private final Set<Thread> busyThreads = Collections.newSetFromMap(new ConcurrentHashMap<Thread, Boolean>());
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    /*
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     * 
+     * Constructors.
+     * 
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     */
+
+    /**
+     * <p>
+     * Create a new (unconfigured) <code>VirtualThreadPool</code>.
+     * </p>
+     * 
+     * @see #setThreadCount(int)
+     */
+    public VirtualThreadPool() {
+    }
+
+    /**
+     * <p>
+     * Create a new <code>VirtualThreadPool</code> that runs at most the given
+     * number of <code>Runnable</code>s at once.
+     * </p>
+     */
+    public VirtualThreadPool(int threadCount) {
+        setThreadCount(threadCount);
+    }
+
+    /*
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     * 
+     * Interface.
+     * 
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     */
+
+    public Logger getLog() {
+        return log;
+    }
+
+    public int getPoolSize() {
+        return getThreadCount();
+    }
+
+    /**
+     * <p>
+     * Set the maximum number of <code>Runnable</code>s running at once - has
+     * no effect after <code>initialize()</code> has been called.
+     * </p>
+     */
+    public void setThreadCount(int count) {
+        this.count = count;
+    }
+
+    /**
+     * <p>
+     * Get the maximum number of <code>Runnable</code>s running at once.
+     * </p>
+     */
+    public int getThreadCount() {
+        return count;
+    }
+
+    /**
+     * <p>
+     * Set the thread priority used if the pool falls back to platform
+     * threads. Virtual threads always have normal priority.
+     * </p>
+     */
+    public void setThreadPriority(int prio) {
+        this.prio = prio;
+    }
+
+    public int getThreadPriority() {
+        return prio;
+    }
+
+    public void setThreadNamePrefix(String prfx) {
+        this.threadNamePrefix = prfx;
+    }
+
+    public String getThreadNamePrefix() {
+        return threadNamePrefix;
+    }
+
+    public boolean isThreadsInheritContextClassLoaderOfInitializingThread() {
+        return inheritLoader;
+    }
+
+    public void setThreadsInheritContextClassLoaderOfInitializingThread(
+            boolean inheritLoader) {
+        this.inheritLoader = inheritLoader;
+    }
+
+    /**
+     * <p>
+     * Whether platform threads created by the fallback are daemons. Virtual
+     * threads are always daemon threads.
+     * </p>
+     */
+    public boolean isMakeThreadsDaemons() {
+        return makeThreadsDaemons;
+    }
+
+    public void setMakeThreadsDaemons(boolean makeThreadsDaemons) {
+        this.makeThreadsDaemons = makeThreadsDaemons;
+    }
+
+    /**
+     * <p>
+     * Whether <code>Runnable</code>s are run on virtual threads, false if
+     * the pool fell back to platform threads (or is not initialized yet).
+     * </p>
+     */
+    public boolean isUsingVirtualThreads() {
+        return threadFactory != null && !(threadFactory instanceof PlatformThreadFactory);
+    }
+
+    public void setInstanceId(String schedInstId) {
+    }
+
+    public void setInstanceName(String schedName) {
+        schedulerInstanceName = schedName;
+    }
+
+    public void initialize() throws SchedulerConfigException {
+
+        if (permits != null) // already initialized...
+            return;
+
+        if (count <= 0) {
+            throw new SchedulerConfigException(
+                    "Thread count must be > 0");
+        }
+        if (prio <= 0 || prio > 9) {
+            throw new SchedulerConfigException(
+                    "Thread priority must be > 0 and <= 9");
+        }
+
+        String threadPrefix = getThreadNamePrefix();
+        if (threadPrefix == null) {
+            threadPrefix = schedulerInstanceName + "_Worker";
+        }
+
+        if (isThreadsInheritContextClassLoaderOfInitializingThread()) {
+            initializerClassLoader = Thread.currentThread().getContextClassLoader();
+            getLog().info(
+                    "Job execution threads will use class loader of thread: "
+                            + Thread.currentThread().getName());
+        }
+
+        threadFactory = createVirtualThreadFactory(threadPrefix + "-");
+        if (threadFactory == null) {
+            getLog().warn("Virtual threads are not available on this Java runtime ("
+                    + System.getProperty("java.version")
+                    + "), falling back to a platform thread per job.");
+            threadFactory = new PlatformThreadFactory(threadPrefix + "-", prio, isMakeThreadsDaemons());
+        }
+
+        permits = new Semaphore(count);
+    }
+
+    /**
+     * <p>
+     * Obtain a factory of virtual threads named with the given prefix and a
+     * counter, or <code>null</code> if the runtime has no virtual threads.
+     * </p>
+     */
+    static ThreadFactory createVirtualThreadFactory(String namePrefix) {
+        try {
+            // Thread.ofVirtual().name(namePrefix, 1).factory(), from Java 21
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Method name = builderClass.getMethod("name", String.class, long.class);
+            builder = name.invoke(builder, namePrefix, 1L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * <p>
+     * Run the given <code>Runnable</code> on a new thread once fewer than
+     * <code>threadCount</code> are running. If while waiting the thread pool
+     * is asked to shut down, the Runnable is started immediately regardless.
+     * </p>
+     * 
+     * @param runnable
+     *          the <code>Runnable</code> to be added.
+     */
+    public boolean runInThread(Runnable runnable) {
+        if (runnable == null) {
+            return false;
+        }
+
+        boolean permitted = false;
+        while (!permitted && !isShutdown) {
+            try {
+                permitted = permits.tryAcquire(500, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException ignore) {
+            }
+        }
+
+        Thread t;
+        try {
+            t = threadFactory.newThread(new Worker(runnable, permitted));
+            if (initializerClassLoader != null) {
+                t.setContextClassLoader(initializerClassLoader);
+            }
+            busyThreads.add(t);
+            t.start();
+        } catch (RuntimeException e) {
+            if (permitted) {
+                permits.release();
+            }
+            getLog().error("Unable to start a thread for the Runnable: ", e);
+            return false;
+        }
+
+        return true;
+    }
+
+    public int blockForAvailableThreads() {
+        while (!isShutdown) {
+            int available = permits.availablePermits();
+            if (available > 0) {
+                return available;
+            }
+            try {
+                // wait for a permit without keeping it
+                if (permits.tryAcquire(500, TimeUnit.MILLISECONDS)) {
+                    permits.release();
+                }
+            } catch (InterruptedException ignore) {
+            }
+        }
+
+        return permits.availablePermits();
+    }
+
+    /**
+     * <p>
+     * Stop accepting work, optionally waiting for the running
+     * <code>Runnable</code>s to complete.
+     * </p>
+     */
+    public void shutdown() {
+        shutdown(true);
+    }
+
+    public void shutdown(boolean waitForJobsToComplete) {
+        getLog().debug("Shutting down threadpool...");
+
+        isShutdown = true;
+
+        if (permits == null) // case where the pool wasn't even initialize()ed
+            return;
+
+        if (waitForJobsToComplete) {
+            boolean interrupted = false;
+            try {
+                for (Thread t : busyThreads) {
+                    while (true) {
+                        try {
+                            getLog().debug("Waiting for thread " + t.getName() + " to shut down");
+                            t.join();
+                            break;
+                        } catch (InterruptedException e) {
+                            interrupted = true;
+                        }
+                    }
+                }
+            } finally {
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            getLog().debug("No executing jobs remaining, all threads stopped.");
+        }
+        getLog().debug("Shutdown of threadpool complete.");
+    }
+
+    /*
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     * 
+     * Worker Classes.
+     * 
+     * ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+     */
+
+    /**
+     * <p>
+     * Runs one <code>Runnable</code>, then gives back its permit.
+     * </p>
+     */
+    private class Worker implements Runnable {
+
+        private final Runnable runnable;
+
+        private final boolean permitted;
+
+        Worker(Runnable runnable, boolean permitted) {
+            this.runnable = runnable;
+            this.permitted = permitted;
+        }
+
+        public void run() {
+            try {
+                runnable.run();
+            } catch (Throwable exceptionInRunnable) {
+                try {
+                    getLog().error("Error while executing the Runnable: ",
+                        exceptionInRunnable);
+                } catch(Exception e) {
+                    // ignore to help with a tomcat glitch
+                }
+            } finally {
+                busyThreads.remove(Thread.currentThread());
+                if (permitted) {
+                    permits.release();
+                }
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * Creates the platform threads used when virtual threads are unavailable.
+     * </p>
+     */
+    static class PlatformThreadFactory implements ThreadFactory {
+
+        private final String namePrefix;
+
+        private final int prio;
+
+        private final boolean isDaemon;
+
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        PlatformThreadFactory(String namePrefix, int prio, boolean isDaemon) {
+            this.namePrefix = namePrefix;
+            this.prio = prio;
+            this.isDaemon = isDaemon;
+        }
+
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, namePrefix + threadNumber.getAndIncrement());
+            t.setPriority(prio);
+            t.setDaemon(isDaemon);
+            return t;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/* 
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright Super iPaaS Integration LLC, an IBM Company 2024
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not 
+ * use this file except in compliance with the License. You may obtain a copy 
+ * of the License at 
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0 
+ *   
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations 
+ * under the License.
+ * 
+ */
+
+package org.quartz.spi;
+
+import java.util.List;
+
+/**
+ * <p>
+ * A simple class (structure) used for returning the triggers acquired by
+ * <code>{@link FusedFiringJobStore#acquireAndFireNextTriggers(long, int, long, long, TriggerShard)}</code>
+ * to the <code>QuartzSchedulerThread</code>, with the results of firing
+ * them, if they were fired.
+ * </p>
+ */
+public class AcquiredTriggers {
+
+    private final List<OperableTrigger> triggers;
+
+    private final List<TriggerFiredResult> firedResults;
+
+    public AcquiredTriggers(List<OperableTrigger> triggers, List<TriggerFiredResult> firedResults) {
+        this.triggers = triggers;
+        this.firedResults = firedResults;
+    }
+
+    /**
+     * The acquired triggers, in the order they are due.
+     */
+    public List<OperableTrigger> getTriggers() {
+        return triggers;
+    }
+
+    /**
+     * The result of firing each of the acquired triggers, in the same order,
+     * or <code>null</code> if they were only acquired.
+     */
+    public List<TriggerFiredResult> getFiredResults() {
+        return firedResults;
+    }
+
+    public boolean isFired() {
+        return firedResults != null;
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright Super iPaaS Integration LLC, an IBM Company 2024
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package org.quartz.spi;
+
+import java.util.List;
+
+import org.quartz.JobPersistenceException;
+
+/**
+ * <p>
+ * An optional capability of a <code>{@link JobStore}</code>: storing many
+ * writes together, in as few transactions (and lock acquisitions) as
+ * possible, while still reporting the outcome of each one.
+ * </p>
+ * 
+ * <p>
+ * The <code>QuartzScheduler</code> uses it to coalesce concurrent
+ * <code>triggerJob</code> and <code>scheduleJob(Trigger)</code> calls, when
+ * <code>org.quartz.scheduler.triggerWriteCoalescingWindow</code> is set,
+ * and to record the completion of many jobs at once, when
+ * <code>org.quartz.scheduler.jobCompletionBatchWindow</code> is set.
+ * </p>
+ */
+public interface BatchingJobStore {
+
+    /**
+     * Store the given new triggers, each as if by
+     * <code>{@link JobStore#storeTrigger(OperableTrigger, boolean)}</code>
+     * without replacing an existing trigger.
+     * 
+     * @return for each trigger, in order, <code>null</code> if it was stored,
+     *         or the exception storing it failed with, such as an
+     *         <code>ObjectAlreadyExistsException</code>.
+     * @throws JobPersistenceException
+     *           if none of the triggers could be stored.
+     */
+    List<JobPersistenceException> storeTriggers(List<OperableTrigger> newTriggers)
+        throws JobPersistenceException;
+
+    /**
+     * Inform the <code>JobStore</code> that the given jobs have completed
+     * execution, each as if by
+     * <code>{@link JobStore#triggeredJobComplete(OperableTrigger, org.quartz.JobDetail, org.quartz.Trigger.CompletedExecutionInstruction)}</code>,
+     * in order.  Unlike that method, this one does not retry on failure: if
+     * it throws, none of the completions have been recorded.
+     * 
+     * @throws JobPersistenceException
+     *           if the completions could not be recorded.
+     */
+    void triggeredJobsComplete(List<TriggeredJobCompletion> completions)
+        throws JobPersistenceException;
+}
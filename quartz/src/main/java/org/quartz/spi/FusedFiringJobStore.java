@@ -0,0 +1,64 @@
+/* 
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright Super iPaaS Integration LLC, an IBM Company 2024
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not 
+ * use this file except in compliance with the License. You may obtain a copy 
+ * of the License at 
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0 
+ *   
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations 
+ * under the License.
+ * 
+ */
+
+package org.quartz.spi;
+
+import java.util.List;
+
+import org.quartz.JobPersistenceException;
+
+/**
+ * <p>
+ * An optional capability of a <code>{@link JobStore}</code>: acquiring the
+ * next triggers and, if they are already due, firing them in the same
+ * transaction (and acquisition of the trigger lock), rather than in one for
+ * <code>{@link JobStore#acquireNextTriggers(long, int, long)}</code> and
+ * another for <code>{@link JobStore#triggersFired(List)}</code>.
+ * </p>
+ * 
+ * <p>
+ * The <code>QuartzSchedulerThread</code> uses it whenever
+ * <code>{@link #isFusedFiring()}</code> returns <code>true</code>.
+ * </p>
+ */
+public interface FusedFiringJobStore {
+
+    /**
+     * Whether the <code>QuartzSchedulerThread</code> should acquire triggers
+     * through <code>{@link #acquireAndFireNextTriggers(long, int, long, long, TriggerShard)}</code>.
+     */
+    boolean isFusedFiring();
+
+    /**
+     * Acquire the next triggers as
+     * <code>{@link JobStore#acquireNextTriggers(long, int, long)}</code>
+     * does, and if the first of them is due no later than
+     * <code>fireNoLaterThan</code>, fire all of them as
+     * <code>{@link JobStore#triggersFired(List)}</code> does, together.
+     * 
+     * @param fireNoLaterThan the time (in milliseconds) the scheduler would
+     *          fire the acquired triggers at, if it had to wait for none.
+     * @param shard the shard to acquire triggers of, as
+     *          <code>{@link ShardedJobStore#acquireNextTriggers(long, int, long, TriggerShard)}</code>
+     *          does, or <code>null</code> to consider all triggers.
+     * @return the acquired triggers, and the results of firing them if they
+     *         were fired.
+     */
+    AcquiredTriggers acquireAndFireNextTriggers(long noLaterThan, int maxCount, long timeWindow,
+            long fireNoLaterThan, TriggerShard shard) throws JobPersistenceException;
+}
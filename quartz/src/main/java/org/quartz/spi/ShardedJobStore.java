@@ -0,0 +1,48 @@
+/* 
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright Super iPaaS Integration LLC, an IBM Company 2024
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not 
+ * use this file except in compliance with the License. You may obtain a copy 
+ * of the License at 
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0 
+ *   
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations 
+ * under the License.
+ * 
+ */
+
+package org.quartz.spi;
+
+import java.util.List;
+
+import org.quartz.JobPersistenceException;
+
+/**
+ * <p>
+ * An optional capability of a <code>{@link JobStore}</code>: acquiring only
+ * the next triggers of a given <code>{@link TriggerShard}</code>, so that
+ * several scheduling loops of one scheduler can each acquire (and fire) the
+ * triggers of their own trigger groups.
+ * </p>
+ * 
+ * <p>
+ * The <code>QuartzScheduler</code> runs more than one scheduling loop only
+ * if its <code>JobStore</code> has this capability, when
+ * <code>org.quartz.scheduler.schedulingLoops</code> is set.
+ * </p>
+ */
+public interface ShardedJobStore {
+
+    /**
+     * Acquire the next triggers as
+     * <code>{@link JobStore#acquireNextTriggers(long, int, long)}</code>
+     * does, considering only the triggers of the given shard.
+     */
+    List<OperableTrigger> acquireNextTriggers(long noLaterThan, int maxCount, long timeWindow, TriggerShard shard)
+        throws JobPersistenceException;
+}
@@ -0,0 +1,102 @@
+/* 
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright Super iPaaS Integration LLC, an IBM Company 2024
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not 
+ * use this file except in compliance with the License. You may obtain a copy 
+ * of the License at 
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0 
+ *   
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations 
+ * under the License.
+ * 
+ */
+
+package org.quartz.spi;
+
+import org.quartz.JobKey;
+import org.quartz.Matcher;
+import org.quartz.TriggerKey;
+
+/**
+ * <p>
+ * The share of a scheduler's triggers that one of its scheduling loops
+ * acquires and fires: those matched by its trigger <code>Matcher</code>,
+ * whose job is matched by its job <code>Matcher</code>, if it has one.  The
+ * shards of a scheduler's loops are disjoint, and together cover every
+ * trigger.
+ * </p>
+ * 
+ * @see ShardedJobStore
+ */
+public class TriggerShard {
+
+    private final int index;
+
+    private final int shardCount;
+
+    private final Matcher<TriggerKey> matcher;
+
+    private final Matcher<JobKey> jobMatcher;
+
+    public TriggerShard(int index, int shardCount, Matcher<TriggerKey> matcher) {
+        this(index, shardCount, matcher, null);
+    }
+
+    /**
+     * @param jobMatcher the jobs whose triggers belong to the shard, or
+     *          <code>null</code> for the triggers of any job.
+     */
+    public TriggerShard(int index, int shardCount, Matcher<TriggerKey> matcher, Matcher<JobKey> jobMatcher) {
+        if (index < 0 || index >= shardCount) {
+            throw new IllegalArgumentException("Shard " + index + " out of " + shardCount);
+        }
+        if (matcher == null) {
+            throw new IllegalArgumentException("Non-null matcher required!");
+        }
+        this.index = index;
+        this.shardCount = shardCount;
+        this.matcher = matcher;
+        this.jobMatcher = jobMatcher;
+    }
+
+    /**
+     * The index of this shard, from 0 to <code>getShardCount() - 1</code>.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * How many shards the scheduler's triggers are divided into.
+     */
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public Matcher<TriggerKey> getMatcher() {
+        return matcher;
+    }
+
+    public Matcher<JobKey> getJobMatcher() {
+        return jobMatcher;
+    }
+
+    /**
+     * Whether the trigger with the given key, of the job with the given key,
+     * belongs to this shard.
+     */
+    public boolean contains(TriggerKey triggerKey, JobKey jobKey) {
+        return matcher.isMatch(triggerKey) && (jobMatcher == null || jobMatcher.isMatch(jobKey));
+    }
+
+    @Override
+    public String toString() {
+        return "shard " + index + " of " + shardCount + " (" + matcher
+                + ((jobMatcher == null) ? "" : ", jobs " + jobMatcher) + ")";
+    }
+}
@@ -0,0 +1,58 @@
+/* 
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright Super iPaaS Integration LLC, an IBM Company 2024
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not 
+ * use this file except in compliance with the License. You may obtain a copy 
+ * of the License at 
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0 
+ *   
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations 
+ * under the License.
+ * 
+ */
+
+package org.quartz.spi;
+
+import org.quartz.JobDetail;
+import org.quartz.Trigger.CompletedExecutionInstruction;
+
+/**
+ * <p>
+ * A simple class (structure) used for handing the outcome of a job's
+ * execution to a <code>{@link BatchingJobStore}</code>, with the arguments
+ * <code>{@link JobStore#triggeredJobComplete(OperableTrigger, JobDetail, CompletedExecutionInstruction)}</code>
+ * would have been called with.
+ * </p>
+ */
+public class TriggeredJobCompletion {
+
+    private final OperableTrigger trigger;
+
+    private final JobDetail jobDetail;
+
+    private final CompletedExecutionInstruction triggerInstCode;
+
+    public TriggeredJobCompletion(OperableTrigger trigger, JobDetail jobDetail,
+            CompletedExecutionInstruction triggerInstCode) {
+        this.trigger = trigger;
+        this.jobDetail = jobDetail;
+        this.triggerInstCode = triggerInstCode;
+    }
+
+    public OperableTrigger getTrigger() {
+        return trigger;
+    }
+
+    public JobDetail getJobDetail() {
+        return jobDetail;
+    }
+
+    public CompletedExecutionInstruction getTriggerInstCode() {
+        return triggerInstCode;
+    }
+}
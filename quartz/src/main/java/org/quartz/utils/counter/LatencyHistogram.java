@@ -0,0 +1,148 @@
+/**
+ *  All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.quartz.utils.counter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free histogram of latencies, with power-of-two nanosecond buckets.
+ * <p>
+ * Recording is a couple of atomic increments, so it is cheap enough to leave
+ * enabled on hot paths. Percentiles are reported as the upper bound of the
+ * bucket they fall in, so are accurate to within a factor of two.
+ * 
+ * @since 2.5.0
+ */
+public class LatencyHistogram {
+
+    private static final int BUCKETS = 64;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+    private final AtomicLong count = new AtomicLong();
+
+    private final AtomicLong total = new AtomicLong();
+
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Record one latency, in nanoseconds. Negative values are recorded as zero.
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        buckets.incrementAndGet(bucketFor(nanos));
+        count.incrementAndGet();
+        total.addAndGet(nanos);
+        long m = max.get();
+        while (nanos > m && !max.compareAndSet(m, nanos)) {
+            m = max.get();
+        }
+    }
+
+    /**
+     * Number of latencies recorded.
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Mean recorded latency in the given unit, or zero if nothing was recorded.
+     */
+    public long getMean(TimeUnit unit) {
+        long c = count.get();
+        return c == 0 ? 0 : unit.convert(total.get() / c, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Largest recorded latency in the given unit.
+     */
+    public long getMax(TimeUnit unit) {
+        return unit.convert(max.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * The latency at or below which the given fraction (0.0 - 1.0) of
+     * recordings fall, in the given unit, rounded up to a bucket boundary.
+     */
+    public long getPercentile(double fraction, TimeUnit unit) {
+        long c = 0;
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = buckets.get(i);
+            c += snapshot[i];
+        }
+        if (c == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(c * Math.min(Math.max(fraction, 0.0), 1.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank && snapshot[i] > 0) {
+                return unit.convert(Math.min(upperBound(i), max.get()), TimeUnit.NANOSECONDS);
+            }
+        }
+        return getMax(unit);
+    }
+
+    /**
+     * Number of recordings in each bucket; bucket <code>i</code> holds
+     * latencies below <code>2^i</code> nanoseconds (and at least
+     * <code>2^(i-1)</code>).
+     */
+    public long[] getBucketCounts() {
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = buckets.get(i);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Discard everything recorded so far.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+        count.set(0);
+        total.set(0);
+        max.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return "count=" + getCount()
+            + ", mean=" + getMean(TimeUnit.MICROSECONDS) + "us"
+            + ", p50=" + getPercentile(0.5, TimeUnit.MICROSECONDS) + "us"
+            + ", p99=" + getPercentile(0.99, TimeUnit.MICROSECONDS) + "us"
+            + ", max=" + getMax(TimeUnit.MICROSECONDS) + "us";
+    }
+
+    private static int bucketFor(long nanos) {
+        return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos));
+    }
+
+    private static long upperBound(int bucket) {
+        return bucket >= 63 ? Long.MAX_VALUE : (1L << bucket) - 1;
+    }
+}
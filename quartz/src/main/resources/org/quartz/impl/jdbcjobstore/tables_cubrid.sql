@@ -119,6 +119,7 @@ CREATE TABLE QRTZ_CALENDARS
     SCHED_NAME VARCHAR(120) NOT NULL,
     CALENDAR_NAME  VARCHAR(200) NOT NULL,
     CALENDAR BLOB NULL,
+    CALENDAR_VERSION BIGINT DEFAULT 0 NOT NULL,
     PRIMARY KEY (SCHED_NAME,CALENDAR_NAME)
 );
 
@@ -102,6 +102,7 @@ create table qrtz_calendars(
   sched_name varchar(120) not null,
   calendar_name varchar(80) not null,
   calendar blob not null,
+  calendar_version bigint default 0 not null,
     primary key (sched_name,calendar_name)
 )
 
@@ -110,6 +110,7 @@ create table qrtz_calendars(
 sched_name varchar(120) not null,
 calendar_name varchar(80) not null,
 calendar blob(2000) not null,
+calendar_version bigint default 0 not null,
 primary key (calendar_name)
 );
 
@@ -98,6 +98,7 @@ create table qrtz_calendars (
 sched_name varchar(120) not null,
 calendar_name varchar(200) not null,
 calendar blob not null,
+calendar_version bigint default 0 not null,
 primary key (sched_name,calendar_name)
 );
 
@@ -111,6 +111,7 @@ CREATE TABLE QRTZ_CALENDARS (
     SCHED_NAME VARCHAR(120) NOT NULL,
     CALENDAR_NAME  VARCHAR(60) NOT NULL, 
     CALENDAR BLOB NOT NULL,
+    CALENDAR_VERSION BIGINT DEFAULT 0 NOT NULL,
     CONSTRAINT PK_QRTZ_CALENDARS PRIMARY KEY (SCHED_NAME,CALENDAR_NAME)
 );
 
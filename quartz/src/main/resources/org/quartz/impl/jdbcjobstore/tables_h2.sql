@@ -11,7 +11,8 @@
 CREATE TABLE QRTZ_CALENDARS (
   SCHED_NAME VARCHAR(120) NOT NULL,
   CALENDAR_NAME VARCHAR (200)  NOT NULL ,
-  CALENDAR IMAGE NOT NULL
+  CALENDAR IMAGE NOT NULL,
+  CALENDAR_VERSION BIGINT DEFAULT 0 NOT NULL
 );
 
 CREATE TABLE QRTZ_CRON_TRIGGERS (
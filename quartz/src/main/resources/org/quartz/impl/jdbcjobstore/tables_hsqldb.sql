@@ -115,6 +115,7 @@ CREATE TABLE qrtz_calendars
 SCHED_NAME VARCHAR(120) NOT NULL,
 CALENDAR_NAME VARCHAR(200) NOT NULL,
 CALENDAR BLOB NOT NULL,
+CALENDAR_VERSION NUMERIC(13) DEFAULT 0 NOT NULL,
 PRIMARY KEY (SCHED_NAME,CALENDAR_NAME)
 );
 
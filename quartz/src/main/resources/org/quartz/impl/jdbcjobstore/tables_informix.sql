@@ -19,7 +19,8 @@ ADD CONSTRAINT PRIMARY KEY (SCHED_NAME,TRIGGER_NAME, TRIGGER_GROUP);
 CREATE TABLE qcalendars (
 SCHED_NAME VARCHAR(120) NOT NULL,
 CALENDAR_NAME varchar(80) NOT NULL,
-CALENDAR byte in table NOT NULL
+CALENDAR byte in table NOT NULL,
+CALENDAR_VERSION numeric(13) DEFAULT 0 NOT NULL
 );
 
 ALTER TABLE qcalendars
@@ -113,6 +113,7 @@ CREATE TABLE QRTZ_CALENDARS (
 SCHED_NAME VARCHAR(120) NOT NULL,
 CALENDAR_NAME VARCHAR(190) NOT NULL,
 CALENDAR BLOB NOT NULL,
+CALENDAR_VERSION BIGINT(13) DEFAULT 0 NOT NULL,
 PRIMARY KEY (SCHED_NAME,CALENDAR_NAME))
 ENGINE=InnoDB;
 
@@ -127,6 +127,7 @@ CREATE TABLE qrtz_calendars
     SCHED_NAME VARCHAR2(120) NOT NULL,
     CALENDAR_NAME  VARCHAR2(200) NOT NULL, 
     CALENDAR BLOB NOT NULL,
+    CALENDAR_VERSION NUMBER(13) DEFAULT 0 NOT NULL,
     CONSTRAINT QRTZ_CALENDARS_PK PRIMARY KEY (SCHED_NAME,CALENDAR_NAME)
 );
 CREATE TABLE qrtz_paused_trigger_grps
@@ -133,6 +133,7 @@ CREATE TABLE qrtz_calendars
     SCHED_NAME VARCHAR(120) NOT NULL,
     CALENDAR_NAME  VARCHAR2(80) NOT NULL, 
     CALENDAR BLOB(4K) NOT NULL,
+    CALENDAR_VERSION NUMBER(13) DEFAULT 0 NOT NULL,
     PRIMARY KEY (SCHED_NAME,CALENDAR_NAME)
 );
 
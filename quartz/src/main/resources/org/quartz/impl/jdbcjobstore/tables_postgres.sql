@@ -115,6 +115,7 @@ CREATE TABLE QRTZ_CALENDARS
   SCHED_NAME    VARCHAR(120) NOT NULL,
   CALENDAR_NAME VARCHAR(200) NOT NULL,
   CALENDAR      BYTEA        NOT NULL,
+  CALENDAR_VERSION BIGINT       DEFAULT 0 NOT NULL,
   PRIMARY KEY (SCHED_NAME, CALENDAR_NAME)
 );
 
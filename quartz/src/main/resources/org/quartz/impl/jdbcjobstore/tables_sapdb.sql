@@ -102,6 +102,7 @@ CREATE TABLE QRTZ_CALENDARS
     CALENDAR_NAME  VARCHAR(200) NOT NULL,
     DESCRIPTION VARCHAR(250) NULL,
     CALENDAR LONG BYTE NOT NULL,
+    CALENDAR_VERSION FIXED(13) DEFAULT 0 NOT NULL,
     PRIMARY KEY (SCHED_NAME,CALENDAR_NAME)
 );
 
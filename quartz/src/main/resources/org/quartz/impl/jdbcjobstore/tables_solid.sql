@@ -101,6 +101,7 @@ create table qrtz_calendars(
     sched_name varchar(120) not null,
 	calendar_name varchar(80) not null,
 	calendar long varbinary not null,
+	calendar_version numeric(13) default 0 not null,
 primary key (sched_name,calendar_name)
 ); 
 
@@ -94,7 +94,8 @@ GO
 CREATE TABLE [dbo].[QRTZ_CALENDARS] (
   [SCHED_NAME] [VARCHAR] (120)  NOT NULL ,
   [CALENDAR_NAME] [VARCHAR] (200)  NOT NULL ,
-  [CALENDAR] [VARBINARY] (max) NOT NULL
+  [CALENDAR] [VARBINARY] (max) NOT NULL,
+  [CALENDAR_VERSION] [BIGINT] NOT NULL DEFAULT 0
 ) ON [PRIMARY]
 GO
 
@@ -108,7 +108,8 @@ go
 create table QRTZ_CALENDARS (
 SCHED_NAME varchar(120) not null,
 CALENDAR_NAME varchar(200) not null,
-CALENDAR image not null
+CALENDAR image not null,
+CALENDAR_VERSION numeric(13,0) DEFAULT 0 NOT NULL
 )
 go
 
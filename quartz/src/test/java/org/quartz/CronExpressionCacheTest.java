@@ -0,0 +1,105 @@
+/* 
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright Super iPaaS Integration LLC, an IBM Company 2024
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not 
+ * use this file except in compliance with the License. You may obtain a copy 
+ * of the License at 
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0 
+ *   
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations 
+ * under the License.
+ */
+package org.quartz;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.text.ParseException;
+import java.util.Date;
+import java.util.TimeZone;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit test for CronExpressionCache.
+ */
+public class CronExpressionCacheTest extends TestCase {
+
+    private static final TimeZone NEW_YORK = TimeZone.getTimeZone("America/New_York");
+    private static final TimeZone TOKYO = TimeZone.getTimeZone("Asia/Tokyo");
+
+    @Override
+    protected void setUp() throws Exception {
+        CronExpressionCache.clear();
+    }
+
+    public void testSharesParsedState() throws Exception {
+        CronExpression a = CronExpressionCache.getCronExpression("0 0/5 * * * ?", NEW_YORK);
+        CronExpression b = CronExpressionCache.getCronExpression("0 0/5 * * * ?", NEW_YORK);
+
+        assertNotSame(a, b);
+        assertSame(a.getSet(CronExpression.MINUTE), b.getSet(CronExpression.MINUTE));
+        assertEquals(1, CronExpressionCache.size());
+
+        // keys are case insensitive, as the expression itself is
+        CronExpression c = CronExpressionCache.getCronExpression("0 0 12 ? * mon-fri", NEW_YORK);
+        CronExpression d = CronExpressionCache.getCronExpression("0 0 12 ? * MON-FRI", NEW_YORK);
+        assertSame(c.getSet(CronExpression.DAY_OF_WEEK), d.getSet(CronExpression.DAY_OF_WEEK));
+        assertEquals(2, CronExpressionCache.size());
+    }
+
+    public void testTimeZoneIsPerInstance() throws Exception {
+        CronExpression ny = CronExpressionCache.getCronExpression("0 0 12 * * ?", NEW_YORK);
+        CronExpression tokyo = CronExpressionCache.getCronExpression("0 0 12 * * ?", TOKYO);
+        assertEquals(2, CronExpressionCache.size());
+        assertEquals(NEW_YORK.getID(), ny.getTimeZone().getID());
+        assertEquals(TOKYO.getID(), tokyo.getTimeZone().getID());
+
+        CronExpression other = CronExpressionCache.getCronExpression("0 0 12 * * ?", NEW_YORK);
+        other.setTimeZone(TOKYO);
+        assertEquals(NEW_YORK.getID(), ny.getTimeZone().getID());
+
+        Date after = new Date(1700000000000L);
+        CronExpression parsed = new CronExpression("0 0 12 * * ?");
+        parsed.setTimeZone(TOKYO);
+        assertEquals(parsed.getTimeAfter(after), other.getTimeAfter(after));
+        assertEquals(parsed.getTimeAfter(after), tokyo.getTimeAfter(after));
+    }
+
+    public void testInvalidExpressionIsNotCached() {
+        try {
+            CronExpressionCache.getCronExpression("0 0 25 * * ?", null);
+            fail("Expected ParseException");
+        } catch (ParseException e) {
+            // expected
+        }
+        assertEquals(0, CronExpressionCache.size());
+    }
+
+    public void testScheduleBuilderAndSerialization() throws Exception {
+        CronTrigger trigger = TriggerBuilder.newTrigger().withIdentity("test")
+                .withSchedule(CronScheduleBuilder.cronSchedule("0 15 10 * * ?", NEW_YORK))
+                .build();
+        assertEquals(NEW_YORK.getID(), trigger.getTimeZone().getID());
+
+        CronExpression expression = CronExpressionCache.getCronExpression("0 15 10 * * ?", NEW_YORK);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(baos);
+        oos.writeObject(expression);
+        oos.close();
+        ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray()));
+        CronExpression copy = (CronExpression) ois.readObject();
+        ois.close();
+
+        assertNotSame(expression, copy);
+        assertSame(expression.getSet(CronExpression.HOUR), copy.getSet(CronExpression.HOUR));
+        Date after = new Date(1700000000000L);
+        assertEquals(expression.getTimeAfter(after), copy.getTimeAfter(after));
+    }
+}
@@ -477,6 +477,37 @@ public class CronExpressionTest extends SerializationTestSupport {
             assertEquals(e.getMessage(), "'/' must be followed by an integer.");
         }
     }
+
+    public void testDaylightSavingTransitions() throws Exception {
+        TimeZone newYork = TimeZone.getTimeZone("America/New_York");
+
+        // 02:30 does not exist on 2024-03-10, that day is skipped
+        CronExpression cronExpression = new CronExpression("0 30 2 * * ?");
+        cronExpression.setTimeZone(newYork);
+        Date fireTime = cronExpression.getTimeAfter(new Date(1709969400000L)); // 2024-03-09 02:30 EST
+        assertEquals(1710138600000L, fireTime.getTime()); // 2024-03-11 02:30 EDT
+
+        // 01:30 happens twice on 2024-11-03, the standard time one fires
+        cronExpression = new CronExpression("0 30 1 * * ?");
+        cronExpression.setTimeZone(newYork);
+        fireTime = cronExpression.getTimeAfter(new Date(1730525400000L)); // 2024-11-02 01:30 EDT
+        assertEquals(1730615400000L, fireTime.getTime()); // 2024-11-03 01:30 EST
+        assertTrue(cronExpression.isSatisfiedBy(fireTime));
+    }
+
+    public void testNthAndLastDayOfWeekAcrossMonths() throws Exception {
+        CronExpression thirdFriday = new CronExpression("0 15 10 ? * 6#3");
+        thirdFriday.setTimeZone(TimeZone.getTimeZone("UTC"));
+        CronExpression lastFriday = new CronExpression("0 15 10 ? * 6L");
+        lastFriday.setTimeZone(TimeZone.getTimeZone("UTC"));
+
+        Date start = new Date(1704067200000L); // 2024-01-01 00:00 UTC
+        assertEquals(1705659300000L, thirdFriday.getTimeAfter(start).getTime()); // 2024-01-19
+        assertEquals(1706264100000L, lastFriday.getTimeAfter(start).getTime()); // 2024-01-26
+        Date february = new Date(1706264100000L);
+        assertEquals(1708078500000L, thirdFriday.getTimeAfter(february).getTime()); // 2024-02-16
+        assertEquals(1708683300000L, lastFriday.getTimeAfter(february).getTime()); // 2024-02-23
+    }
     
     // execute with version number to generate a new version's serialized form
     public static void main(String[] args) throws Exception {
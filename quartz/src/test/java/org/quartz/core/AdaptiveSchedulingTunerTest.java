@@ -0,0 +1,147 @@
+/* 
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright Super iPaaS Integration LLC, an IBM Company 2024
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not 
+ * use this file except in compliance with the License. You may obtain a copy 
+ * of the License at 
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0 
+ *   
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations 
+ * under the License.
+ */
+package org.quartz.core;
+
+import java.util.Collections;
+
+import org.quartz.simpl.SimpleThreadPool;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests for {@link AdaptiveSchedulingTuner}.
+ */
+public class AdaptiveSchedulingTunerTest extends TestCase {
+
+    private QuartzSchedulerResources resources;
+
+    @Override
+    protected void setUp() throws Exception {
+        resources = new QuartzSchedulerResources();
+        resources.setMaxBatchSize(4);
+        resources.setBatchTimeWindow(100);
+        resources.setAdaptiveTuningInterval(10000);
+        resources.setAdaptiveTuningTargetFireLateness(1000);
+        resources.setAdaptiveTuningMinBatchSize(1);
+        resources.setAdaptiveTuningMaxBatchSize(10);
+        resources.setAdaptiveTuningMinBatchTimeWindow(0);
+        resources.setAdaptiveTuningMaxBatchTimeWindow(500);
+        resources.setAdaptiveTuningMinIdleWaitTime(1000);
+        resources.setAdaptiveTuningMaxIdleWaitTime(30000);
+    }
+
+    private AdaptiveSchedulingTuner newTuner(long idleWaitTime) {
+        return new AdaptiveSchedulingTuner(resources, Collections.<QuartzSchedulerThread>emptyList(), idleWaitTime);
+    }
+
+    public void testLateTriggersGrowBatchesUpToTheirBounds() {
+        AdaptiveSchedulingTuner tuner = newTuner(20000);
+        for (int round = 0; round < 3; round++) {
+            tuner.triggersAcquired(4, 2, 1000000);
+            tuner.triggerFired(3000);
+            tuner.adjust(System.currentTimeMillis());
+        }
+
+        assertEquals(10, resources.getMaxBatchSize());
+        assertTrue(resources.getBatchTimeWindow() > 100);
+        assertTrue(resources.getBatchTimeWindow() <= 500);
+        assertEquals(2500, tuner.getIdleWaitTime());
+        assertEquals(3, tuner.getDecisions().size());
+    }
+
+    public void testSaturatedPoolIsLeftAlone() {
+        long start = System.currentTimeMillis();
+        AdaptiveSchedulingTuner tuner = newTuner(20000);
+        tuner.triggersAcquired(1, 1, 1000000);
+        tuner.waitedForThreads(9000L * 1000000);
+        tuner.triggerFired(5000);
+        tuner.adjust(start + 10000);
+
+        assertEquals(4, resources.getMaxBatchSize());
+        assertEquals(100, resources.getBatchTimeWindow());
+        assertEquals(20000, tuner.getIdleWaitTime());
+        assertTrue(tuner.getDecisions().isEmpty());
+    }
+
+    public void testSaturatedSmallPoolIsLeftAlone() throws Exception {
+        SimpleThreadPool pool = new SimpleThreadPool(2, Thread.NORM_PRIORITY);
+        pool.initialize();
+        try {
+            AdaptiveSchedulingTuner tuner = newTuner(20000);
+            for (int round = 0; round < 3; round++) {
+                // both threads busy, so the loop waits for one of them
+                for (int i = 0; i < 2; i++) {
+                    assertTrue(pool.runInThread(new Runnable() {
+                        public void run() {
+                            try {
+                                Thread.sleep(200);
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                        }
+                    }));
+                }
+                assertTrue(tuner.blockForAvailableThreads(pool) > 0);
+                tuner.triggersAcquired(1, 1, 1000000);
+                tuner.triggerFired(5000);
+            }
+            tuner.adjust(System.currentTimeMillis());
+
+            assertEquals(4, resources.getMaxBatchSize());
+            assertEquals(100, resources.getBatchTimeWindow());
+            assertEquals(20000, tuner.getIdleWaitTime());
+            assertTrue(tuner.getDecisions().isEmpty());
+        } finally {
+            pool.shutdown(true);
+        }
+    }
+
+    public void testLateTriggersGrowBatchesWhileThreadsAreFree() {
+        long start = System.currentTimeMillis();
+        AdaptiveSchedulingTuner tuner = newTuner(20000);
+        tuner.triggersAcquired(1, 1, 1000000);
+        tuner.waitedForThreads(1000L * 1000000);
+        tuner.triggerFired(5000);
+        tuner.adjust(start + 10000);
+
+        assertEquals(8, resources.getMaxBatchSize());
+        assertEquals(10000, tuner.getIdleWaitTime());
+    }
+
+    public void testQuietLoadShrinksBatchesAndPollsLessOften() {
+        AdaptiveSchedulingTuner tuner = newTuner(20000);
+        tuner.triggersAcquired(4, 0, 1000000);
+        tuner.triggersAcquired(4, 0, 1000000);
+        tuner.triggersAcquired(4, 1, 1000000);
+        tuner.triggerFired(10);
+        tuner.adjust(System.currentTimeMillis());
+
+        assertEquals(2, resources.getMaxBatchSize());
+        assertEquals(50, resources.getBatchTimeWindow());
+        assertEquals(30000, tuner.getIdleWaitTime());
+    }
+
+    public void testAdjustsOncePerInterval() {
+        AdaptiveSchedulingTuner tuner = newTuner(20000);
+        tuner.triggersAcquired(4, 4, 1000000);
+        tuner.adjustIfDue(System.currentTimeMillis());
+        assertEquals(4, resources.getMaxBatchSize());
+
+        tuner.adjustIfDue(System.currentTimeMillis() + 10000);
+        assertEquals(8, resources.getMaxBatchSize());
+    }
+}
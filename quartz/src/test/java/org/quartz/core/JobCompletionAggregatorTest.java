@@ -0,0 +1,155 @@
+/* 
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright Super iPaaS Integration LLC, an IBM Company 2024
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not 
+ * use this file except in compliance with the License. You may obtain a copy 
+ * of the License at 
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0 
+ *   
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations 
+ * under the License.
+ */
+package org.quartz.core;
+
+import static org.quartz.TriggerBuilder.newTrigger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.quartz.JobDetail;
+import org.quartz.JobPersistenceException;
+import org.quartz.Trigger.CompletedExecutionInstruction;
+import org.quartz.simpl.RAMJobStore;
+import org.quartz.spi.BatchingJobStore;
+import org.quartz.spi.OperableTrigger;
+import org.quartz.spi.TriggeredJobCompletion;
+
+/**
+ * Tests for {@link JobCompletionAggregator}.
+ */
+public class JobCompletionAggregatorTest extends TestCase {
+
+    private RecordingJobStore jobStore;
+
+    private JobCompletionAggregator aggregator;
+
+    @Override
+    protected void setUp() throws Exception {
+        jobStore = new RecordingJobStore();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        if (aggregator != null) {
+            aggregator.shutdown();
+        }
+    }
+
+    public void testCompletionsAreRecordedTogetherOnceTheBatchIsFull() throws Exception {
+        aggregator = start(60000L, 3);
+        complete("t1", "t2", "t3");
+
+        jobStore.awaitCompletions(3);
+        assertEquals(Arrays.asList("t1", "t2", "t3"), jobStore.completed());
+        assertEquals(Collections.singletonList(3), jobStore.batchSizes());
+    }
+
+    public void testCompletionsAreRecordedOnceTheWindowPasses() throws Exception {
+        aggregator = start(50L, 100);
+        complete("t1", "t2");
+
+        jobStore.awaitCompletions(2);
+        assertEquals(Arrays.asList("t1", "t2"), jobStore.completed());
+        assertEquals(Collections.singletonList(2), jobStore.batchSizes());
+    }
+
+    public void testFailedBatchIsRecordedOneByOneInOrder() throws Exception {
+        jobStore.failBatches = true;
+        aggregator = start(60000L, 3);
+        complete("t1", "t2", "t3");
+
+        jobStore.awaitCompletions(3);
+        assertEquals(Arrays.asList("t1", "t2", "t3"), jobStore.completed());
+        assertEquals(Collections.<Integer>emptyList(), jobStore.batchSizes());
+    }
+
+    public void testShutdownRecordsQueuedCompletions() throws Exception {
+        aggregator = start(60000L, 100);
+        complete("t1", "t2");
+        aggregator.shutdown();
+        assertEquals(Arrays.asList("t1", "t2"), jobStore.completed());
+
+        complete("t3");
+        assertEquals(Arrays.asList("t1", "t2", "t3"), jobStore.completed());
+        aggregator = null;
+    }
+
+    private JobCompletionAggregator start(long windowMillis, int maxBatchSize) {
+        JobCompletionAggregator aggregator = new JobCompletionAggregator(jobStore, "test", windowMillis,
+                maxBatchSize, true);
+        aggregator.start();
+        return aggregator;
+    }
+
+    private void complete(String... names) {
+        for (String name : names) {
+            OperableTrigger trigger = (OperableTrigger) newTrigger().withIdentity(name).forJob("job").build();
+            aggregator.triggeredJobComplete(trigger, null, CompletedExecutionInstruction.NOOP);
+        }
+    }
+
+    static class RecordingJobStore extends RAMJobStore implements BatchingJobStore {
+        private final List<String> completed = new ArrayList<String>();
+        private final List<Integer> batchSizes = new ArrayList<Integer>();
+        volatile boolean failBatches;
+
+        public List<JobPersistenceException> storeTriggers(List<OperableTrigger> newTriggers) {
+            throw new UnsupportedOperationException();
+        }
+
+        public void triggeredJobsComplete(List<TriggeredJobCompletion> completions)
+            throws JobPersistenceException {
+            if (failBatches) {
+                throw new JobPersistenceException("batch failed");
+            }
+            synchronized (this) {
+                batchSizes.add(completions.size());
+            }
+            for (TriggeredJobCompletion completion : completions) {
+                triggeredJobComplete(completion.getTrigger(), completion.getJobDetail(),
+                        completion.getTriggerInstCode());
+            }
+        }
+
+        @Override
+        public synchronized void triggeredJobComplete(OperableTrigger trigger, JobDetail jobDetail,
+                CompletedExecutionInstruction triggerInstCode) {
+            completed.add(trigger.getKey().getName());
+            notifyAll();
+        }
+
+        synchronized void awaitCompletions(int count) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 10000L;
+            while (completed.size() < count && System.currentTimeMillis() < deadline) {
+                wait(100L);
+            }
+        }
+
+        synchronized List<String> completed() {
+            return new ArrayList<String>(completed);
+        }
+
+        synchronized List<Integer> batchSizes() {
+            return new ArrayList<Integer>(batchSizes);
+        }
+    }
+}
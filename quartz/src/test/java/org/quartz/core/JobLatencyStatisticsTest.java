@@ -0,0 +1,71 @@
+/* 
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright Super iPaaS Integration LLC, an IBM Company 2024
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not 
+ * use this file except in compliance with the License. You may obtain a copy 
+ * of the License at 
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0 
+ *   
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations 
+ * under the License.
+ */
+package org.quartz.core;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+
+import junit.framework.TestCase;
+
+import org.quartz.core.jmx.JobLatencyStatisticsSupport;
+
+/**
+ * Tests for {@link JobLatencyStatistics} and its JMX representation.
+ */
+public class JobLatencyStatisticsTest extends TestCase {
+
+    public void testRecordsLatenessDelayAndExecutionTime() {
+        JobLatencyStatistics statistics = new JobLatencyStatistics();
+        long scheduled = 1000000L;
+
+        statistics.recordExecutionStart(new Date(scheduled), new Date(scheduled + 40), scheduled + 50);
+        statistics.recordExecutionTime(200);
+
+        assertEquals(1, statistics.getFireLateness().getCount());
+        assertEquals(40, statistics.getFireLateness().getMax(TimeUnit.MILLISECONDS));
+        assertEquals(10, statistics.getDispatchDelay().getMax(TimeUnit.MILLISECONDS));
+        assertEquals(200, statistics.getExecutionTime().getMax(TimeUnit.MILLISECONDS));
+    }
+
+    public void testJobsThatDidNotRunAreNotRecorded() {
+        JobLatencyStatistics statistics = new JobLatencyStatistics();
+
+        statistics.recordExecutionStart(null, null, System.currentTimeMillis());
+        statistics.recordExecutionTime(-1);
+
+        assertEquals(0, statistics.getDispatchDelay().getCount());
+        assertEquals(0, statistics.getExecutionTime().getCount());
+    }
+
+    public void testTabularDataHasARowPerJobGroup() {
+        JobLatencyStatistics statistics = new JobLatencyStatistics();
+        statistics.recordExecutionTime(5);
+
+        TabularData data = JobLatencyStatisticsSupport.toTabularData(
+                Collections.singletonMap("reports", statistics));
+
+        assertEquals(1, data.size());
+        CompositeData row = data.get(new Object[] { "reports" });
+        assertEquals(1L, row.get("executionTimeCount"));
+        assertEquals(5L, row.get("executionTimeMax"));
+        assertEquals(0L, row.get("fireLatenessCount"));
+    }
+}
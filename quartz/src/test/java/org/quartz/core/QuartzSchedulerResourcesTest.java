@@ -0,0 +1,59 @@
+/* 
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright Super iPaaS Integration LLC, an IBM Company 2024
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not 
+ * use this file except in compliance with the License. You may obtain a copy 
+ * of the License at 
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0 
+ *   
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations 
+ * under the License.
+ */
+package org.quartz.core;
+
+import junit.framework.TestCase;
+
+import org.quartz.JobKey;
+import org.quartz.impl.matchers.GroupMatcher;
+import org.quartz.simpl.SimpleThreadPool;
+import org.quartz.spi.ThreadPool;
+
+/**
+ * Tests the routing of jobs to the named thread pools of
+ * {@link QuartzSchedulerResources}.
+ */
+public class QuartzSchedulerResourcesTest extends TestCase {
+
+    public void testJobsRunInTheFirstThreadPoolTheyAreRoutedTo() {
+        ThreadPool main = new SimpleThreadPool(2, Thread.NORM_PRIORITY);
+        ThreadPool reports = new SimpleThreadPool(1, Thread.NORM_PRIORITY);
+        ThreadPool batch = new SimpleThreadPool(1, Thread.NORM_PRIORITY);
+        QuartzSchedulerResources resources = new QuartzSchedulerResources();
+        resources.setThreadPool(main);
+        resources.addThreadPool("reports", reports, GroupMatcher.jobGroupEquals("reports"));
+        resources.addThreadPool("batch", batch, GroupMatcher.jobGroupStartsWith("re"));
+
+        assertSame(reports, resources.getThreadPool(new JobKey("j", "reports")));
+        assertSame(batch, resources.getThreadPool(new JobKey("j", "rebuild")));
+        assertSame(main, resources.getThreadPool(new JobKey("j", "other")));
+        assertEquals(2, resources.getNamedThreadPools().size());
+        assertEquals("reports", resources.getNamedThreadPools().keySet().iterator().next());
+    }
+
+    public void testThreadPoolNamesAreUnique() {
+        QuartzSchedulerResources resources = new QuartzSchedulerResources();
+        resources.addThreadPool("reports", new SimpleThreadPool(1, Thread.NORM_PRIORITY),
+                GroupMatcher.jobGroupEquals("reports"));
+        try {
+            resources.addThreadPool("reports", new SimpleThreadPool(1, Thread.NORM_PRIORITY),
+                    GroupMatcher.jobGroupEquals("other"));
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/* 
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright Super iPaaS Integration LLC, an IBM Company 2024
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not 
+ * use this file except in compliance with the License. You may obtain a copy 
+ * of the License at 
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0 
+ *   
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations 
+ * under the License.
+ */
+package org.quartz.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.quartz.JobKey;
+import org.quartz.Matcher;
+import org.quartz.TriggerKey;
+import org.quartz.impl.matchers.GroupMatcher;
+import org.quartz.spi.TriggerShard;
+
+/**
+ * Tests for {@link TriggerShards}.
+ */
+public class TriggerShardsTest extends TestCase {
+
+    public void testGroupsAreSpreadOverLoopsByHash() {
+        List<TriggerShard> shards = TriggerShards.create(4, Collections.<Integer, List<String>>emptyMap());
+
+        assertEquals(4, shards.size());
+        int[] counts = new int[4];
+        for (int i = 0; i < 200; i++) {
+            counts[owner(shards, new TriggerKey("t", "group" + i))]++;
+        }
+        for (int count : counts) {
+            assertTrue(count > 0);
+        }
+        // all triggers of a group belong to the same loop
+        assertEquals(owner(shards, new TriggerKey("t1", "group7")), owner(shards, new TriggerKey("t2", "group7")));
+    }
+
+    public void testGivenGroupsBelongToTheirLoop() {
+        Map<Integer, List<String>> groups = new HashMap<Integer, List<String>>();
+        groups.put(1, Arrays.asList("tenantA", "batch*"));
+        List<TriggerShard> shards = TriggerShards.create(3, groups);
+
+        assertEquals(1, owner(shards, new TriggerKey("t", "tenantA")));
+        assertEquals(1, owner(shards, new TriggerKey("t", "batch-nightly")));
+        for (int i = 0; i < 50; i++) {
+            assertTrue(owner(shards, new TriggerKey("t", "group" + i)) != 1);
+        }
+    }
+
+    public void testFirstLoopTakesOtherGroupsWhenEveryLoopIsGivenGroups() {
+        Map<Integer, List<String>> groups = new HashMap<Integer, List<String>>();
+        groups.put(0, Arrays.asList("a"));
+        groups.put(1, Arrays.asList("b", "a"));
+        List<TriggerShard> shards = TriggerShards.create(2, groups);
+
+        assertEquals(0, owner(shards, new TriggerKey("t", "a")));
+        assertEquals(1, owner(shards, new TriggerKey("t", "b")));
+        assertEquals(0, owner(shards, new TriggerKey("t", "c")));
+    }
+
+    public void testGroupsOfUnknownLoopAreRejected() {
+        Map<Integer, List<String>> groups = new HashMap<Integer, List<String>>();
+        groups.put(2, Arrays.asList("a"));
+        try {
+            TriggerShards.create(2, groups);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    public void testEachThreadPoolGetsALoopForItsJobs() {
+        List<Matcher<JobKey>> routes = new ArrayList<Matcher<JobKey>>();
+        routes.add(GroupMatcher.jobGroupEquals("reports"));
+        routes.add(GroupMatcher.jobGroupStartsWith("import"));
+        List<TriggerShard> shards = TriggerShards.create(2, Collections.<Integer, List<String>>emptyMap(), routes);
+
+        assertEquals(4, shards.size());
+        for (TriggerShard shard : shards) {
+            assertEquals(4, shard.getShardCount());
+        }
+        for (int i = 0; i < 50; i++) {
+            TriggerKey key = new TriggerKey("t", "group" + i);
+            assertEquals(2, owner(shards, key, new JobKey("j", "reports")));
+            assertEquals(3, owner(shards, key, new JobKey("j", "import-daily")));
+            assertTrue(owner(shards, key, new JobKey("j", "other")) < 2);
+        }
+    }
+
+    public void testJobRoutedToSeveralThreadPoolsBelongsToTheFirst() {
+        List<Matcher<JobKey>> routes = new ArrayList<Matcher<JobKey>>();
+        routes.add(GroupMatcher.jobGroupStartsWith("batch"));
+        routes.add(GroupMatcher.jobGroupEquals("batch-nightly"));
+        routes.add(GroupMatcher.jobGroupEquals("audit"));
+        List<TriggerShard> shards = TriggerShards.create(1, Collections.<Integer, List<String>>emptyMap(), routes);
+
+        TriggerKey key = new TriggerKey("t", "g");
+        assertEquals(1, owner(shards, key, new JobKey("j", "batch-nightly")));
+        assertEquals(3, owner(shards, key, new JobKey("j", "audit")));
+        assertEquals(0, owner(shards, key, new JobKey("j", "DEFAULT")));
+    }
+
+    /**
+     * The index of the only shard the trigger of a job of the default group
+     * belongs to.
+     */
+    private static int owner(List<TriggerShard> shards, TriggerKey key) {
+        return owner(shards, key, new JobKey("j"));
+    }
+
+    /**
+     * The index of the only shard the trigger belongs to.
+     */
+    private static int owner(List<TriggerShard> shards, TriggerKey key, JobKey jobKey) {
+        int owner = -1;
+        for (TriggerShard shard : shards) {
+            if (shard.contains(key, jobKey)) {
+                assertEquals("more than one shard contains " + key, -1, owner);
+                owner = shard.getIndex();
+            }
+        }
+        assertTrue("no shard contains " + key, owner >= 0);
+        return owner;
+    }
+}
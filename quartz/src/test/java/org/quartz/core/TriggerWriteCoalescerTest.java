@@ -0,0 +1,173 @@
+/* 
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright Super iPaaS Integration LLC, an IBM Company 2024
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not 
+ * use this file except in compliance with the License. You may obtain a copy 
+ * of the License at 
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0 
+ *   
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations 
+ * under the License.
+ */
+package org.quartz.core;
+
+import static org.quartz.JobBuilder.newJob;
+import static org.quartz.TriggerBuilder.newTrigger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobPersistenceException;
+import org.quartz.ObjectAlreadyExistsException;
+import org.quartz.TriggerKey;
+import org.quartz.simpl.CascadingClassLoadHelper;
+import org.quartz.simpl.RAMJobStore;
+import org.quartz.spi.BatchingJobStore;
+import org.quartz.spi.OperableTrigger;
+import org.quartz.spi.TriggeredJobCompletion;
+
+/**
+ * Tests for {@link TriggerWriteCoalescer}.
+ */
+public class TriggerWriteCoalescerTest extends TestCase {
+
+    private BatchingRAMJobStore jobStore;
+
+    @Override
+    protected void setUp() throws Exception {
+        jobStore = new BatchingRAMJobStore();
+        CascadingClassLoadHelper loadHelper = new CascadingClassLoadHelper();
+        loadHelper.initialize();
+        jobStore.initialize(loadHelper, null);
+        jobStore.storeJob(newJob(NoOpJob.class).withIdentity("job").storeDurably().build(), false);
+    }
+
+    public void testConcurrentWritesAreStoredTogether() throws Exception {
+        TriggerWriteCoalescer coalescer = new TriggerWriteCoalescer(jobStore, 10000L, 10);
+        List<Throwable> failures = store(coalescer, names(10));
+
+        assertEquals(Collections.nCopies(10, null), failures);
+        assertEquals(1, jobStore.batches.get());
+        assertEquals(10, jobStore.getNumberOfTriggers());
+    }
+
+    public void testEachCallerGetsItsOwnOutcome() throws Exception {
+        jobStore.storeTrigger(trigger("t3"), false);
+        TriggerWriteCoalescer coalescer = new TriggerWriteCoalescer(jobStore, 10000L, 5);
+        List<Throwable> failures = store(coalescer, names(5));
+
+        for (int i = 0; i < 5; i++) {
+            if (i == 3) {
+                assertTrue(failures.get(i) instanceof ObjectAlreadyExistsException);
+            } else {
+                assertNull(failures.get(i));
+            }
+        }
+        assertEquals(1, jobStore.batches.get());
+    }
+
+    public void testFailedBatchIsStoredOneByOne() throws Exception {
+        jobStore.failBatches = true;
+        TriggerWriteCoalescer coalescer = new TriggerWriteCoalescer(jobStore, 10000L, 4);
+        List<Throwable> failures = store(coalescer, names(4));
+
+        assertEquals(Collections.nCopies(4, null), failures);
+        assertEquals(4, jobStore.getNumberOfTriggers());
+    }
+
+    public void testSingleWriteIsStoredAfterTheWindow() throws Exception {
+        TriggerWriteCoalescer coalescer = new TriggerWriteCoalescer(jobStore, 20L, 10);
+        coalescer.storeTrigger(trigger("t0"));
+
+        assertNotNull(jobStore.retrieveTrigger(new TriggerKey("t0")));
+        assertEquals(0, jobStore.batches.get());
+    }
+
+    private List<Throwable> store(final TriggerWriteCoalescer coalescer, List<String> names)
+        throws InterruptedException {
+        final List<Throwable> failures = new ArrayList<Throwable>(Collections.<Throwable>nCopies(names.size(), null));
+        final CountDownLatch done = new CountDownLatch(names.size());
+        for (int i = 0; i < names.size(); i++) {
+            final int index = i;
+            final OperableTrigger trigger = trigger(names.get(i));
+            new Thread(new Runnable() {
+                public void run() {
+                    try {
+                        coalescer.storeTrigger(trigger);
+                    } catch (Throwable t) {
+                        synchronized (failures) {
+                            failures.set(index, t);
+                        }
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            }).start();
+        }
+        done.await();
+        synchronized (failures) {
+            return failures;
+        }
+    }
+
+    private static List<String> names(int count) {
+        List<String> names = new ArrayList<String>();
+        for (int i = 0; i < count; i++) {
+            names.add("t" + i);
+        }
+        return names;
+    }
+
+    private static OperableTrigger trigger(String name) {
+        return (OperableTrigger) newTrigger().withIdentity(name).forJob("job")
+                .startAt(new Date(System.currentTimeMillis() + 3600000L)).build();
+    }
+
+    static class BatchingRAMJobStore extends RAMJobStore implements BatchingJobStore {
+        final AtomicInteger batches = new AtomicInteger();
+        volatile boolean failBatches;
+
+        public List<JobPersistenceException> storeTriggers(List<OperableTrigger> newTriggers)
+            throws JobPersistenceException {
+            batches.incrementAndGet();
+            if (failBatches) {
+                throw new JobPersistenceException("batch failed");
+            }
+            List<JobPersistenceException> results = new ArrayList<JobPersistenceException>();
+            for (OperableTrigger newTrigger : newTriggers) {
+                try {
+                    storeTrigger(newTrigger, false);
+                    results.add(null);
+                } catch (JobPersistenceException e) {
+                    results.add(e);
+                }
+            }
+            return results;
+        }
+
+        public void triggeredJobsComplete(List<TriggeredJobCompletion> completions) {
+            for (TriggeredJobCompletion completion : completions) {
+                triggeredJobComplete(completion.getTrigger(), completion.getJobDetail(),
+                        completion.getTriggerInstCode());
+            }
+        }
+    }
+
+    public static class NoOpJob implements Job {
+        public void execute(JobExecutionContext context) {
+        }
+    }
+}
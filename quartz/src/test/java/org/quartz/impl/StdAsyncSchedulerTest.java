@@ -0,0 +1,177 @@
+/* 
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright Super iPaaS Integration LLC, an IBM Company 2024
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not 
+ * use this file except in compliance with the License. You may obtain a copy 
+ * of the License at 
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0 
+ *   
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations 
+ * under the License.
+ */
+package org.quartz.impl;
+
+import static org.quartz.JobBuilder.newJob;
+import static org.quartz.TriggerBuilder.newTrigger;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+import org.quartz.AsyncScheduler;
+import org.quartz.Job;
+import org.quartz.JobDetail;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobKey;
+import org.quartz.ObjectAlreadyExistsException;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.Trigger;
+import org.quartz.Trigger.TriggerState;
+import org.quartz.simpl.RAMJobStore;
+import org.quartz.simpl.SimpleThreadPool;
+
+/**
+ * Tests for {@link StdAsyncScheduler}.
+ */
+public class StdAsyncSchedulerTest extends TestCase {
+
+    private Scheduler scheduler;
+    private final ConcurrentHashMap<String, AtomicInteger> calls = new ConcurrentHashMap<String, AtomicInteger>();
+    private final CountDownLatch gate = new CountDownLatch(1);
+    private Scheduler gatedScheduler;
+
+    @Override
+    protected void setUp() throws Exception {
+        SimpleThreadPool threadPool = new SimpleThreadPool(1, Thread.NORM_PRIORITY);
+        threadPool.initialize();
+        DirectSchedulerFactory.getInstance().createScheduler(
+                "AsyncSchedulerTest", "AUTO", threadPool, new RAMJobStore());
+        scheduler = DirectSchedulerFactory.getInstance().getScheduler("AsyncSchedulerTest");
+
+        // counts calls, and holds checkExists() calls until the gate opens
+        gatedScheduler = (Scheduler) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { Scheduler.class }, new InvocationHandler() {
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        calls.putIfAbsent(method.getName(), new AtomicInteger());
+                        calls.get(method.getName()).incrementAndGet();
+                        if (method.getName().equals("checkExists")) {
+                            gate.await(10, TimeUnit.SECONDS);
+                        }
+                        try {
+                            return method.invoke(scheduler, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    }
+                });
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        gate.countDown();
+        scheduler.shutdown();
+    }
+
+    public void testConcurrentSchedulesAreStoredTogether() throws Exception {
+        StdAsyncScheduler async = new StdAsyncScheduler(gatedScheduler, 1, 100, 100);
+        async.checkExists(new JobKey("blocker"));
+
+        List<CompletableFuture<Date>> futures = new ArrayList<CompletableFuture<Date>>();
+        for (int i = 0; i < 10; i++) {
+            futures.add(async.scheduleJob(job("job" + i), trigger("trigger" + i)));
+        }
+        gate.countDown();
+
+        for (int i = 0; i < 10; i++) {
+            assertNotNull(futures.get(i).get(10, TimeUnit.SECONDS));
+            assertTrue(scheduler.checkExists(new JobKey("job" + i)));
+        }
+        assertEquals(1, calls.get("scheduleJobs").get());
+        assertNull(calls.get("scheduleJob"));
+        async.shutdown();
+    }
+
+    public void testFailedBatchIsRetriedOneByOne() throws Exception {
+        scheduler.addJob(newJob(NoOpJob.class).withIdentity("existing").storeDurably().build(), false);
+        StdAsyncScheduler async = new StdAsyncScheduler(gatedScheduler, 1, 100, 100);
+        async.checkExists(new JobKey("blocker"));
+
+        CompletableFuture<Date> duplicate = async.scheduleJob(job("existing"), trigger("trigger1"));
+        CompletableFuture<Date> fresh = async.scheduleJob(job("fresh"), trigger("trigger2"));
+        gate.countDown();
+
+        assertNotNull(fresh.get(10, TimeUnit.SECONDS));
+        try {
+            duplicate.get(10, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof ObjectAlreadyExistsException);
+        }
+        assertEquals(2, calls.get("scheduleJob").get());
+        async.shutdown();
+    }
+
+    public void testFullQueueFailsInsteadOfBlocking() throws Exception {
+        StdAsyncScheduler async = new StdAsyncScheduler(gatedScheduler, 1, 1, 100);
+        async.checkExists(new JobKey("blocker"));
+        // wait for the blocker to leave the queue for the thread
+        while (calls.get("checkExists") == null) {
+            Thread.sleep(1L);
+        }
+        CompletableFuture<TriggerState> queued = async.getTriggerState(trigger("queued").getKey());
+
+        CompletableFuture<TriggerState> rejected = async.getTriggerState(trigger("rejected").getKey());
+        assertTrue(rejected.isCompletedExceptionally());
+        try {
+            rejected.get();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof SchedulerException);
+        }
+
+        gate.countDown();
+        assertEquals(TriggerState.NONE, queued.get(10, TimeUnit.SECONDS));
+        async.shutdown();
+    }
+
+    public void testStdSchedulerShutsDownItsAsyncScheduler() throws Exception {
+        AsyncScheduler async = ((StdScheduler) scheduler).getAsyncScheduler();
+        assertSame(async, ((StdScheduler) scheduler).getAsyncScheduler());
+        assertNotNull(async.scheduleJob(job("job"), trigger("trigger")).get(10, TimeUnit.SECONDS));
+        assertTrue(async.checkExists(new JobKey("job")).get(10, TimeUnit.SECONDS));
+
+        scheduler.shutdown();
+        assertTrue(async.checkExists(new JobKey("job")).isCompletedExceptionally());
+    }
+
+    private static JobDetail job(String name) {
+        return newJob(NoOpJob.class).withIdentity(name).build();
+    }
+
+    private static Trigger trigger(String name) {
+        return newTrigger().withIdentity(name).startAt(new Date(System.currentTimeMillis() + 3600000L)).build();
+    }
+
+    public static class NoOpJob implements Job {
+        public void execute(JobExecutionContext context) {
+        }
+    }
+}
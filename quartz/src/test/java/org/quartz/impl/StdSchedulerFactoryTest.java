@@ -17,10 +17,21 @@
 package org.quartz.impl;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.quartz.JobBuilder.newJob;
+import static org.quartz.TriggerBuilder.newTrigger;
 
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Test;
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerConfigException;
 import org.slf4j.helpers.NOPLogger;
 
 public class StdSchedulerFactoryTest {
@@ -36,4 +47,55 @@ public class StdSchedulerFactoryTest {
 	    assertEquals("boo1", q.get("nonsense1"));
 	    assertEquals(osName, q.get("os.name"));
 	}
+
+	@Test
+	public void testNamedThreadPoolsRunTheJobsOfTheirGroups() throws Exception {
+	    Properties p = new Properties();
+	    p.setProperty("org.quartz.scheduler.instanceName", "namedThreadPoolsTest");
+	    p.setProperty("org.quartz.threadPool.threadCount", "1");
+	    p.setProperty("org.quartz.threadPool.reports.threadCount", "1");
+	    p.setProperty("org.quartz.threadPool.reports.jobGroups", "reports, exports*");
+	    p.setProperty("org.quartz.threadPool.batch.class", "org.quartz.simpl.SimpleThreadPool");
+	    p.setProperty("org.quartz.threadPool.batch.threadCount", "1");
+	    p.setProperty("org.quartz.threadPool.batch.jobGroups", "batch");
+	    Scheduler scheduler = new StdSchedulerFactory(p).getScheduler();
+	    try {
+	        ThreadRecordingJob.threads.clear();
+	        ThreadRecordingJob.done = new CountDownLatch(4);
+	        for (String group : new String[] {"reports", "exportsDaily", "batch", "other"}) {
+	            scheduler.scheduleJob(newJob(ThreadRecordingJob.class).withIdentity("job", group).build(),
+	                    newTrigger().startNow().build());
+	        }
+	        scheduler.start();
+
+	        assertTrue(ThreadRecordingJob.done.await(10, TimeUnit.SECONDS));
+	        assertEquals("namedThreadPoolsTest_reports_Worker-1", ThreadRecordingJob.threads.get("reports"));
+	        assertEquals("namedThreadPoolsTest_reports_Worker-1", ThreadRecordingJob.threads.get("exportsDaily"));
+	        assertEquals("namedThreadPoolsTest_batch_Worker-1", ThreadRecordingJob.threads.get("batch"));
+	        assertEquals("namedThreadPoolsTest_Worker-1", ThreadRecordingJob.threads.get("other"));
+	    } finally {
+	        scheduler.shutdown(true);
+	    }
+	}
+
+	@Test(expected = SchedulerConfigException.class)
+	public void testNamedThreadPoolWithoutJobGroupsIsRejected() throws Exception {
+	    Properties p = new Properties();
+	    p.setProperty("org.quartz.scheduler.instanceName", "namedThreadPoolWithoutJobGroupsTest");
+	    p.setProperty("org.quartz.threadPool.threadCount", "1");
+	    p.setProperty("org.quartz.threadPool.reports.threadCount", "1");
+	    new StdSchedulerFactory(p).getScheduler();
+	}
+
+	public static class ThreadRecordingJob implements Job {
+
+	    static final Map<String, String> threads = new ConcurrentHashMap<String, String>();
+
+	    static volatile CountDownLatch done;
+
+	    public void execute(JobExecutionContext context) {
+	        threads.put(context.getJobDetail().getKey().getGroup(), Thread.currentThread().getName());
+	        done.countDown();
+	    }
+	}
 }
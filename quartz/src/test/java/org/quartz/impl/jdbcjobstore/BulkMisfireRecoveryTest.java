@@ -0,0 +1,304 @@
+/* 
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright Super iPaaS Integration LLC, an IBM Company 2024
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not 
+ * use this file except in compliance with the License. You may obtain a copy 
+ * of the License at 
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0 
+ *   
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations 
+ * under the License.
+ */
+package org.quartz.impl.jdbcjobstore;
+
+import static org.quartz.JobBuilder.newJob;
+import static org.quartz.SimpleScheduleBuilder.simpleSchedule;
+import static org.quartz.TriggerBuilder.newTrigger;
+
+import java.sql.Connection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import junit.framework.TestCase;
+
+import org.quartz.Calendar;
+import org.quartz.Job;
+import org.quartz.JobDetail;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobKey;
+import org.quartz.SchedulerException;
+import org.quartz.Trigger;
+import org.quartz.Trigger.TriggerState;
+import org.quartz.TriggerKey;
+import org.quartz.impl.calendar.BaseCalendar;
+import org.quartz.impl.jdbcjobstore.JobStoreSupport.RecoverMisfiredJobsResult;
+import org.quartz.simpl.CascadingClassLoadHelper;
+import org.quartz.spi.ClassLoadHelper;
+import org.quartz.spi.OperableTrigger;
+import org.quartz.spi.SchedulerSignaler;
+
+/**
+ * Tests for the bulk misfire recovery of {@link JobStoreSupport}.
+ */
+public class BulkMisfireRecoveryTest extends TestCase {
+
+    private static final String DB_NAME = "BulkMisfireRecoveryTest";
+
+    private MisfireDelegate delegate;
+    private CountingSignaler signaler;
+    private JobStoreTX store;
+
+    @Override
+    protected void setUp() throws Exception {
+        delegate = new MisfireDelegate();
+        signaler = new CountingSignaler();
+        store = new JobStoreTX() {
+            @Override
+            protected DriverDelegate getDelegate() {
+                return delegate;
+            }
+
+            @Override
+            protected OperableTrigger retrieveTrigger(Connection conn, TriggerKey key) {
+                return delegate.misfired.get(key);
+            }
+
+            @Override
+            protected JobDetail retrieveJob(Connection conn, JobKey key) {
+                return newJob(NoOpJob.class).withIdentity(key).build();
+            }
+        };
+        store.setDataSource("test");
+        store.setLockHandler(new SimpleSemaphore());
+        store.setBulkMisfireRecovery(true);
+        store.setMisfireRecoveryBatchSize(100);
+        store.setMisfireRecoveryParallelism(4);
+        store.initialize(null, signaler);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        store.shutdown();
+    }
+
+    public void testRecoveringHandlesEveryBatch() throws Exception {
+        addMisfiredTriggers("group", 250);
+
+        RecoverMisfiredJobsResult result = store.recoverMisfiredJobs(null, true);
+
+        assertEquals(250, result.getProcessedMisfiredTriggerCount());
+        assertFalse(result.hasMoreMisfiredTriggers());
+        assertTrue(result.getEarliestNewTime() > System.currentTimeMillis() - 1000L);
+        assertEquals(3, delegate.updateBatches);
+        assertEquals(250, signaler.misfired);
+        assertEquals(3, store.getMisfireRecoveryStatistics().getBatchCount());
+        assertEquals(250, store.getMisfireRecoveryStatistics().getRecoveredTriggerCount());
+        for (OperableTrigger trigger : delegate.updated.keySet()) {
+            assertTrue(trigger.getNextFireTime().getTime() > System.currentTimeMillis() - 1000L);
+            assertEquals(Constants.STATE_WAITING, delegate.updated.get(trigger));
+        }
+    }
+
+    public void testMisfireHandlerHandlesOneBatchPerRun() throws Exception {
+        addMisfiredTriggers("group", 250);
+
+        RecoverMisfiredJobsResult result = store.recoverMisfiredJobs(null, false);
+
+        assertEquals(100, result.getProcessedMisfiredTriggerCount());
+        assertTrue(result.hasMoreMisfiredTriggers());
+        assertEquals(150, delegate.misfired.size());
+    }
+
+    public void testTriggersOfPausedGroupsArePaused() throws Exception {
+        addMisfiredTriggers("paused", 10);
+
+        store.recoverMisfiredJobs(null, false);
+
+        assertEquals(10, delegate.updated.size());
+        for (String state : delegate.updated.values()) {
+            assertEquals(Constants.STATE_PAUSED, state);
+        }
+    }
+
+    public void testParallelUpdatesDoNotShareACalendar() throws Exception {
+        SingleThreadedCalendar.overlapped.set(false);
+        delegate.calendar = new SingleThreadedCalendar();
+        addMisfiredTriggers("group", 250);
+        for (OperableTrigger trigger : delegate.misfired.values()) {
+            trigger.setCalendarName("calendar");
+        }
+
+        RecoverMisfiredJobsResult result = store.recoverMisfiredJobs(null, true);
+
+        assertEquals(250, result.getProcessedMisfiredTriggerCount());
+        assertFalse("a calendar was used by two threads at once", SingleThreadedCalendar.overlapped.get());
+    }
+
+    public void testMisfiredTriggersAreUpdatedInTheDatabase() throws Exception {
+        JdbcQuartzTestUtilities.createDatabase(DB_NAME);
+        JobStoreTX dbStore = JdbcQuartzTestUtilities.createJobStore(DB_NAME, "SINGLE_NODE_TEST");
+        try {
+            dbStore.setBulkMisfireRecovery(true);
+            dbStore.setMisfireRecoveryBatchSize(4);
+            ClassLoadHelper loadHelper = new CascadingClassLoadHelper();
+            loadHelper.initialize();
+            dbStore.initialize(loadHelper, signaler);
+            for (int i = 0; i < 10; i++) {
+                dbStore.storeJob(newJob(NoOpJob.class).withIdentity("job" + i).storeDurably().build(), false);
+                dbStore.storeTrigger(misfiredTrigger(i, "group"), false);
+            }
+
+            int runs = 0;
+            int processed = 0;
+            RecoverMisfiredJobsResult result;
+            do {
+                result = dbStore.doRecoverMisfires();
+                processed += result.getProcessedMisfiredTriggerCount();
+                runs++;
+            } while (result.hasMoreMisfiredTriggers());
+
+            assertEquals(3, runs);
+            assertEquals(10, processed);
+            assertEquals(10, signaler.misfired);
+            assertEquals(3, dbStore.getMisfireRecoveryStatistics().getBatchCount());
+            for (int i = 0; i < 10; i++) {
+                TriggerKey key = TriggerKey.triggerKey("t" + i, "group");
+                assertTrue(dbStore.retrieveTrigger(key).getNextFireTime().getTime()
+                    > System.currentTimeMillis() - 1000L);
+                assertEquals(TriggerState.NORMAL, dbStore.getTriggerState(key));
+            }
+            assertEquals(RecoverMisfiredJobsResult.NO_OP, dbStore.doRecoverMisfires());
+        } finally {
+            dbStore.shutdown();
+            JdbcQuartzTestUtilities.destroyDatabase(DB_NAME);
+        }
+    }
+
+    private void addMisfiredTriggers(String group, int count) {
+        for (int i = 0; i < count; i++) {
+            OperableTrigger trigger = misfiredTrigger(i, group);
+            delegate.misfired.put(trigger.getKey(), trigger);
+        }
+    }
+
+    /**
+     * A trigger that fires every minute and was due to fire an hour ago.
+     */
+    private static OperableTrigger misfiredTrigger(int i, String group) {
+        OperableTrigger trigger = (OperableTrigger) newTrigger()
+            .withIdentity("t" + i, group)
+            .forJob("job" + (i % 10))
+            .startAt(new Date(System.currentTimeMillis() - 3600000L))
+            .withSchedule(simpleSchedule().withIntervalInMinutes(1).repeatForever())
+            .build();
+        trigger.computeFirstFireTime(null);
+        return trigger;
+    }
+
+    public static class NoOpJob implements Job {
+        public void execute(JobExecutionContext context) {
+        }
+    }
+
+    private static class MisfireDelegate extends StdJDBCDelegate {
+        final Map<TriggerKey, OperableTrigger> misfired = new LinkedHashMap<TriggerKey, OperableTrigger>();
+        final Map<OperableTrigger, String> updated = new HashMap<OperableTrigger, String>();
+        Calendar calendar;
+        int updateBatches;
+
+        @Override
+        public boolean hasMisfiredTriggersInState(Connection conn, String state1, long ts,
+                int count, int fetchSize, List<TriggerKey> resultList) {
+            for (TriggerKey key : misfired.keySet()) {
+                if (resultList.size() == count) {
+                    return true;
+                }
+                resultList.add(key);
+            }
+            return false;
+        }
+
+        @Override
+        public Calendar selectCalendar(Connection conn, String calendarName) {
+            return calendar;
+        }
+
+        @Override
+        public boolean isTriggerGroupPaused(Connection conn, String groupName) {
+            return "paused".equals(groupName);
+        }
+
+        @Override
+        public int[] updateTriggers(Connection conn, List<OperableTrigger> triggers,
+                List<String> states, List<JobDetail> jobDetails) {
+            updateBatches++;
+            int[] counts = new int[triggers.size()];
+            for (int i = 0; i < triggers.size(); i++) {
+                misfired.remove(triggers.get(i).getKey());
+                updated.put(triggers.get(i), states.get(i));
+                counts[i] = 1;
+            }
+            return counts;
+        }
+    }
+
+    /**
+     * Notes when an instance is asked about a time by two threads at once.
+     */
+    private static class SingleThreadedCalendar extends BaseCalendar {
+
+        private static final long serialVersionUID = 1L;
+
+        static final AtomicBoolean overlapped = new AtomicBoolean();
+
+        private boolean inUse;
+
+        @Override
+        public boolean isTimeIncluded(long timeStamp) {
+            synchronized (this) {
+                if (inUse) {
+                    overlapped.set(true);
+                }
+                inUse = true;
+            }
+            try {
+                Thread.sleep(1L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            synchronized (this) {
+                inUse = false;
+            }
+            return true;
+        }
+    }
+
+    private static class CountingSignaler implements SchedulerSignaler {
+        int misfired;
+
+        public void notifyTriggerListenersMisfired(Trigger trigger) {
+            misfired++;
+        }
+
+        public void notifySchedulerListenersFinalized(Trigger trigger) {
+        }
+
+        public void notifySchedulerListenersJobDeleted(JobKey jobKey) {
+        }
+
+        public void signalSchedulingChange(long candidateNewNextFireTime) {
+        }
+
+        public void notifySchedulerListenersError(String string, SchedulerException jpe) {
+        }
+    }
+}
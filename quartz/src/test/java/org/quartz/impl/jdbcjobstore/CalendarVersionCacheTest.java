@@ -0,0 +1,167 @@
+/* 
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright Super iPaaS Integration LLC, an IBM Company 2024
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not 
+ * use this file except in compliance with the License. You may obtain a copy 
+ * of the License at 
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0 
+ *   
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations 
+ * under the License.
+ */
+package org.quartz.impl.jdbcjobstore;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import junit.framework.TestCase;
+
+import org.quartz.Calendar;
+import org.quartz.JobPersistenceException;
+import org.quartz.impl.calendar.BaseCalendar;
+import org.quartz.simpl.CascadingClassLoadHelper;
+import org.quartz.spi.ClassLoadHelper;
+
+/**
+ * Tests for the versioned calendar cache of clustered {@link JobStoreSupport}s.
+ */
+public class CalendarVersionCacheTest extends TestCase {
+
+    private static final String DB_NAME = "CalendarVersionCacheTest";
+
+    private CountingDelegate delegate;
+    private JobStoreTX store;
+
+    @Override
+    protected void setUp() throws Exception {
+        delegate = new CountingDelegate();
+        store = new JobStoreTX() {
+            @Override
+            protected DriverDelegate getDelegate() {
+                return delegate;
+            }
+        };
+        store.setIsClustered(true);
+        store.setUseCalendarVersions(true);
+    }
+
+    public void testUnchangedCalendarIsOnlyReadOnce() throws Exception {
+        Calendar first = store.retrieveCalendar(null, "cal");
+        Calendar second = store.retrieveCalendar(null, "cal");
+
+        assertNotNull(first);
+        assertSame(first, second);
+        assertEquals(1, delegate.calendarReads);
+        assertEquals(2, delegate.versionReads);
+    }
+
+    public void testChangedCalendarIsReadAgain() throws Exception {
+        Calendar first = store.retrieveCalendar(null, "cal");
+        delegate.version++;
+        Calendar second = store.retrieveCalendar(null, "cal");
+
+        assertNotSame(first, second);
+        assertEquals(2, delegate.calendarReads);
+    }
+
+    public void testRemovedCalendarIsNotReturned() throws Exception {
+        assertNotNull(store.retrieveCalendar(null, "cal"));
+        delegate.version = null;
+
+        assertNull(store.retrieveCalendar(null, "cal"));
+    }
+
+    public void testVersionIsNotCheckedWithinStalenessWindow() throws Exception {
+        store.setCalendarCacheMaxStaleness(60000L);
+
+        Calendar first = store.retrieveCalendar(null, "cal");
+        delegate.version++;
+        Calendar second = store.retrieveCalendar(null, "cal");
+
+        assertSame(first, second);
+        assertEquals(1, delegate.versionReads);
+    }
+
+    public void testCalendarsAreNotCachedWithoutVersions() throws Exception {
+        store.setUseCalendarVersions(false);
+
+        store.retrieveCalendar(null, "cal");
+        store.retrieveCalendar(null, "cal");
+
+        assertEquals(2, delegate.calendarReads);
+        assertEquals(0, delegate.versionReads);
+    }
+
+    public void testCalendarChangedByAnotherNodeIsReadAgain() throws Exception {
+        JdbcQuartzTestUtilities.createDatabase(DB_NAME);
+        JobStoreTX node1 = createClusteredStore("node1");
+        JobStoreTX node2 = createClusteredStore("node2");
+        try {
+            BaseCalendar calendar = new BaseCalendar();
+            calendar.setDescription("first");
+            node1.storeCalendar("cal", calendar, false, false);
+            long version = versionOf(node1, "cal");
+
+            Calendar first = node2.retrieveCalendar("cal");
+            assertEquals("first", first.getDescription());
+            assertSame(first, node2.retrieveCalendar("cal"));
+
+            calendar.setDescription("second");
+            node1.storeCalendar("cal", calendar, true, false);
+            assertTrue(versionOf(node1, "cal") > version);
+            assertEquals("second", node2.retrieveCalendar("cal").getDescription());
+
+            node1.removeCalendar("cal");
+            assertNull(node2.retrieveCalendar("cal"));
+        } finally {
+            node1.shutdown();
+            node2.shutdown();
+            JdbcQuartzTestUtilities.destroyDatabase(DB_NAME);
+        }
+    }
+
+    private static JobStoreTX createClusteredStore(String instanceId) throws Exception {
+        JobStoreTX node = JdbcQuartzTestUtilities.createJobStore(DB_NAME, instanceId);
+        node.setIsClustered(true);
+        node.setUseCalendarVersions(true);
+        ClassLoadHelper loadHelper = new CascadingClassLoadHelper();
+        loadHelper.initialize();
+        node.initialize(loadHelper, null);
+        return node;
+    }
+
+    private static long versionOf(final JobStoreTX node, final String calName) throws Exception {
+        return node.executeWithoutLock(new JobStoreSupport.TransactionCallback<Long>() {
+            public Long execute(Connection conn) throws JobPersistenceException {
+                try {
+                    return node.getDelegate().selectCalendarVersion(conn, calName);
+                } catch (SQLException e) {
+                    throw new JobPersistenceException(e.getMessage(), e);
+                }
+            }
+        });
+    }
+
+    private static class CountingDelegate extends StdJDBCDelegate {
+        Long version = 1L;
+        int versionReads;
+        int calendarReads;
+
+        @Override
+        public Long selectCalendarVersion(Connection conn, String calendarName) {
+            versionReads++;
+            return version;
+        }
+
+        @Override
+        public Calendar selectCalendar(Connection conn, String calendarName) {
+            calendarReads++;
+            return (version == null) ? null : new BaseCalendar();
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/* 
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright Super iPaaS Integration LLC, an IBM Company 2024
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not 
+ * use this file except in compliance with the License. You may obtain a copy 
+ * of the License at 
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0 
+ *   
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations 
+ * under the License.
+ */
+package org.quartz.impl.jdbcjobstore;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.TreeMap;
+
+import junit.framework.TestCase;
+
+import org.quartz.JobDataMap;
+import org.quartz.simpl.SimpleClassLoadHelper;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Unit tests for the <code>JobDataMapCodec</code>s and how the
+ * <code>StdJDBCDelegate</code> reads and writes JobDataMaps with them.
+ */
+public class CompactJobDataMapCodecTest extends TestCase {
+
+    public void testRoundTripKeepsValuesAndTypes() throws Exception {
+        Map<String, Object> data = new HashMap<String, Object>();
+        data.put("string", "café € \ud800 text");
+        data.put("empty", "");
+        data.put("null", null);
+        data.put("true", Boolean.TRUE);
+        data.put("false", Boolean.FALSE);
+        data.put("int", Integer.MIN_VALUE);
+        data.put("long", Long.MAX_VALUE);
+        data.put("negativeLong", -3L);
+        data.put("double", 1.5d);
+        data.put("float", -2.25f);
+        data.put("short", (short) -7);
+        data.put("byte", (byte) 0x7f);
+        data.put("char", '€');
+        data.put("date", new Date(1234567890123L));
+        data.put("list", new ArrayList<Object>(Arrays.asList("a", 1, null)));
+        data.put("linkedList", new LinkedList<Object>(Arrays.asList(2L, "b")));
+        data.put("set", new LinkedHashSet<Object>(Arrays.asList("x", "y")));
+        LinkedHashMap<Object, Object> nested = new LinkedHashMap<Object, Object>();
+        nested.put("inner", new HashMap<Object, Object>());
+        nested.put(3, "three");
+        data.put("map", nested);
+        data.put("decimal", new BigDecimal("12.50"));
+        data.put("tree", new TreeMap<String, String>());
+
+        Map<?, ?> decoded = roundTrip(new CompactJobDataMapCodec(), data);
+
+        assertEquals(data, decoded);
+        for (Map.Entry<String, Object> entry : data.entrySet()) {
+            if (entry.getValue() != null) {
+                assertSame(entry.getValue().getClass(), decoded.get(entry.getKey()).getClass());
+            }
+        }
+    }
+
+    public void testBytesRoundTrip() throws Exception {
+        Map<String, Object> data = new HashMap<String, Object>();
+        data.put("bytes", new byte[] {1, 2, -3});
+
+        Map<?, ?> decoded = roundTrip(new CompactJobDataMapCodec(), data);
+
+        assertTrue(Arrays.equals(new byte[] {1, 2, -3}, (byte[]) decoded.get("bytes")));
+    }
+
+    public void testCompactIsSmallerThanSerialization() throws Exception {
+        JobDataMap data = new JobDataMap();
+        data.put("customerId", 42L);
+        data.put("region", "eu-west");
+        data.put("retries", 3);
+        data.put("dryRun", false);
+
+        ByteArrayOutputStream compact = new ByteArrayOutputStream();
+        new CompactJobDataMapCodec().encode(data, compact);
+        ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+        new SerializedJobDataMapCodec().encode(data, serialized);
+
+        assertTrue(compact.size() * 4 < serialized.size());
+    }
+
+    public void testDelegateReadsJobDataWrittenBeforeAndWithCodecs() throws Exception {
+        JobDataMap data = new JobDataMap();
+        data.put("key", "value");
+        data.put("count", 7);
+
+        StdJDBCDelegate legacy = delegate(false);
+        byte[] legacyBytes = legacy.serializeJobData(data).toByteArray();
+
+        StdJDBCDelegate serialized = delegate(false);
+        serialized.setJobDataMapCodec(new SerializedJobDataMapCodec());
+        byte[] serializedBytes = serialized.serializeJobData(data).toByteArray();
+
+        StdJDBCDelegate compact = delegate(false);
+        compact.setJobDataMapCodec(new CompactJobDataMapCodec());
+        byte[] compactBytes = compact.serializeJobData(data).toByteArray();
+
+        assertEquals(data.getWrappedMap(), compact.readJobData(new ByteArrayInputStream(legacyBytes)));
+        assertEquals(data.getWrappedMap(), compact.readJobData(new ByteArrayInputStream(serializedBytes)));
+        assertEquals(data.getWrappedMap(), compact.readJobData(new ByteArrayInputStream(compactBytes)));
+        assertEquals(data.getWrappedMap(), serialized.readJobData(new ByteArrayInputStream(compactBytes)));
+        assertNull(compact.readJobData(new ByteArrayInputStream(new byte[0])));
+    }
+
+    public void testDelegateReadsPropertiesWrittenBeforeCodec() throws Exception {
+        JobDataMap data = new JobDataMap();
+        data.put("key", "value");
+
+        byte[] propertiesBytes = delegate(true).serializeJobData(data).toByteArray();
+
+        StdJDBCDelegate compact = delegate(true);
+        compact.setJobDataMapCodec(new CompactJobDataMapCodec());
+
+        assertEquals(data.getWrappedMap(), compact.readJobData(new ByteArrayInputStream(propertiesBytes)));
+        assertEquals(data.getWrappedMap(), compact.readJobData(new ByteArrayInputStream(
+                compact.serializeJobData(data).toByteArray())));
+    }
+
+    public void testCodecIsSelectedByInitString() throws Exception {
+        StdJDBCDelegate delegate = new StdJDBCDelegate();
+        delegate.initialize(LoggerFactory.getLogger(getClass()), "QRTZ_", "TESTSCHED", "INSTANCE",
+                new SimpleClassLoadHelper(), false, "jobDataMapCodec=" + CompactJobDataMapCodec.class.getName());
+
+        assertTrue(delegate.getJobDataMapCodec() instanceof CompactJobDataMapCodec);
+    }
+
+    private static Map<?, ?> roundTrip(JobDataMapCodec codec, Map<String, Object> data) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        codec.encode(data, out);
+        return codec.decode(new ByteArrayInputStream(out.toByteArray()), codec.getFormatVersion());
+    }
+
+    private static StdJDBCDelegate delegate(boolean useProperties) throws Exception {
+        StdJDBCDelegate delegate = new StdJDBCDelegate();
+        delegate.initialize(LoggerFactory.getLogger(CompactJobDataMapCodecTest.class), "QRTZ_", "TESTSCHED",
+                "INSTANCE", new SimpleClassLoadHelper(), useProperties, null);
+        return delegate;
+    }
+}
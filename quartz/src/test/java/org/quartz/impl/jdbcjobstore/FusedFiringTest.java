@@ -0,0 +1,171 @@
+/* 
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright Super iPaaS Integration LLC, an IBM Company 2024
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not 
+ * use this file except in compliance with the License. You may obtain a copy 
+ * of the License at 
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0 
+ *   
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations 
+ * under the License.
+ */
+package org.quartz.impl.jdbcjobstore;
+
+import static org.quartz.JobBuilder.newJob;
+import static org.quartz.TriggerBuilder.newTrigger;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobKey;
+import org.quartz.JobPersistenceException;
+import org.quartz.Trigger.TriggerState;
+import org.quartz.simpl.CascadingClassLoadHelper;
+import org.quartz.spi.AcquiredTriggers;
+import org.quartz.spi.ClassLoadHelper;
+import org.quartz.spi.OperableTrigger;
+import org.quartz.spi.TriggerFiredBundle;
+import org.quartz.spi.TriggerFiredResult;
+import org.quartz.spi.TriggerShard;
+
+/**
+ * Tests for {@link JobStoreSupport#acquireAndFireNextTriggers(long, int, long, long, TriggerShard)}.
+ */
+public class FusedFiringTest extends TestCase {
+
+    private static final String DB_NAME = "FusedFiringTest";
+
+    private final List<String> transactions = new ArrayList<String>();
+    private final List<OperableTrigger> fired = new ArrayList<OperableTrigger>();
+    private List<OperableTrigger> due;
+    private JobStoreTX store;
+
+    @Override
+    protected void setUp() throws Exception {
+        due = new ArrayList<OperableTrigger>();
+        store = new JobStoreTX() {
+            @Override
+            protected <T> T executeInNonManagedTXLock(String lockName,
+                    TransactionCallback<T> txCallback, TransactionValidator<T> txValidator)
+                throws JobPersistenceException {
+                transactions.add(lockName);
+                return txCallback.execute(null);
+            }
+
+            @Override
+            protected List<OperableTrigger> acquireNextTrigger(Connection conn, long noLaterThan,
+                    int maxCount, long timeWindow, int partition, TriggerShard shard) {
+                return due;
+            }
+
+            @Override
+            protected List<TriggerFiredResult> triggersFired(Connection conn, List<OperableTrigger> triggers) {
+                List<TriggerFiredResult> results = new ArrayList<TriggerFiredResult>();
+                for (OperableTrigger trigger : triggers) {
+                    fired.add(trigger);
+                    results.add(new TriggerFiredResult((Exception) null));
+                }
+                return results;
+            }
+        };
+        store.setDataSource("test");
+        store.setLockHandler(new SimpleSemaphore());
+        store.setFuseAcquireAndFire(true);
+        store.initialize(null, null);
+    }
+
+    public void testDueTriggersAreFiredInTheAcquiringTransaction() throws Exception {
+        long now = System.currentTimeMillis();
+        due.add(trigger("t1", now - 1000L));
+        due.add(trigger("t2", now + 5L));
+
+        AcquiredTriggers acquired = store.acquireAndFireNextTriggers(now + 30000L, 2, 10L, now + 2L, null);
+
+        assertTrue(store.isFusedFiring());
+        assertTrue(acquired.isFired());
+        assertEquals(due, acquired.getTriggers());
+        assertEquals(2, acquired.getFiredResults().size());
+        assertEquals(due, fired);
+        assertEquals(1, transactions.size());
+        assertEquals(JobStoreSupport.LOCK_TRIGGER_ACCESS, transactions.get(0));
+        assertEquals(1, store.getStatistics()
+                .getOperationLatency(JobStoreStatistics.ACQUIRE_AND_FIRE_NEXT_TRIGGERS).getCount());
+    }
+
+    public void testTriggersNotDueYetAreOnlyAcquired() throws Exception {
+        long now = System.currentTimeMillis();
+        due.add(trigger("t1", now + 10000L));
+
+        AcquiredTriggers acquired = store.acquireAndFireNextTriggers(now + 30000L, 1, 0L, now + 2L, null);
+
+        assertFalse(acquired.isFired());
+        assertNull(acquired.getFiredResults());
+        assertEquals(due, acquired.getTriggers());
+        assertTrue(fired.isEmpty());
+        assertEquals(1, transactions.size());
+    }
+
+    public void testNothingToAcquire() throws Exception {
+        long now = System.currentTimeMillis();
+
+        AcquiredTriggers acquired = store.acquireAndFireNextTriggers(now + 30000L, 1, 0L, now + 2L, null);
+
+        assertFalse(acquired.isFired());
+        assertTrue(acquired.getTriggers().isEmpty());
+        assertTrue(fired.isEmpty());
+    }
+
+    public void testDueTriggerIsFiredInTheDatabase() throws Exception {
+        JdbcQuartzTestUtilities.createDatabase(DB_NAME);
+        JobStoreTX dbStore = JdbcQuartzTestUtilities.createJobStore(DB_NAME, "SINGLE_NODE_TEST");
+        try {
+            dbStore.setFuseAcquireAndFire(true);
+            ClassLoadHelper loadHelper = new CascadingClassLoadHelper();
+            loadHelper.initialize();
+            dbStore.initialize(loadHelper, null);
+            long now = System.currentTimeMillis();
+            dbStore.storeJob(newJob(NoOpJob.class).withIdentity("job").storeDurably().build(), false);
+            OperableTrigger dueTrigger = trigger("due", now - 1000L);
+            OperableTrigger laterTrigger = trigger("later", now + 20000L);
+            dbStore.storeTrigger(dueTrigger, false);
+            dbStore.storeTrigger(laterTrigger, false);
+
+            AcquiredTriggers acquired = dbStore.acquireAndFireNextTriggers(now + 30000L, 2, 0L, now + 2L, null);
+
+            assertTrue(acquired.isFired());
+            assertEquals(1, acquired.getTriggers().size());
+            assertEquals(dueTrigger.getKey(), acquired.getTriggers().get(0).getKey());
+            assertEquals(1, acquired.getFiredResults().size());
+            TriggerFiredBundle bundle = acquired.getFiredResults().get(0).getTriggerFiredBundle();
+            assertEquals(JobKey.jobKey("job"), bundle.getJobDetail().getKey());
+            assertEquals(TriggerState.COMPLETE, dbStore.getTriggerState(dueTrigger.getKey()));
+            assertEquals(TriggerState.NORMAL, dbStore.getTriggerState(laterTrigger.getKey()));
+        } finally {
+            dbStore.shutdown();
+            JdbcQuartzTestUtilities.destroyDatabase(DB_NAME);
+        }
+    }
+
+    private static OperableTrigger trigger(String name, long fireTime) {
+        OperableTrigger trigger = (OperableTrigger) newTrigger().withIdentity(name).forJob("job")
+                .startAt(new Date(fireTime)).build();
+        trigger.computeFirstFireTime(null);
+        return trigger;
+    }
+
+    public static class NoOpJob implements Job {
+        public void execute(JobExecutionContext context) {
+        }
+    }
+}
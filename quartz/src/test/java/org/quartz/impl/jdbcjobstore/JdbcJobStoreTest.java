@@ -17,10 +17,20 @@
 package org.quartz.impl.jdbcjobstore;
 
 import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 
 import org.quartz.AbstractJobStoreTest;
+import org.quartz.JobPersistenceException;
+import org.quartz.ObjectAlreadyExistsException;
+import org.quartz.Trigger.TriggerState;
+import org.quartz.TriggerKey;
+import org.quartz.impl.matchers.GroupMatcher;
+import org.quartz.impl.triggers.SimpleTriggerImpl;
 import org.quartz.spi.JobStore;
+import org.quartz.spi.OperableTrigger;
 
 public class JdbcJobStoreTest extends AbstractJobStoreTest {
 
@@ -30,6 +40,31 @@ public class JdbcJobStoreTest extends AbstractJobStoreTest {
         // nothing
     }
 
+    public void testStoreTriggersReportsEachTrigger() throws Exception {
+        JobStoreSupport store = stores.get("AbstractJobStoreTest");
+        store.pauseTriggers(GroupMatcher.triggerGroupEquals("pausedGroup"));
+        Date start = new Date(System.currentTimeMillis() + 60000);
+        OperableTrigger stored = new SimpleTriggerImpl("t1", "group", "job1", "jobGroup1", start, null, 0, 0);
+        OperableTrigger paused = new SimpleTriggerImpl("t2", "pausedGroup", "job1", "jobGroup1", start, null, 0, 0);
+        OperableTrigger orphan = new SimpleTriggerImpl("t3", "group", "noSuchJob", "jobGroup1", start, null, 0, 0);
+        OperableTrigger duplicate = new SimpleTriggerImpl("t1", "group", "job1", "jobGroup1", start, null, 0, 0);
+        for (OperableTrigger trigger : Arrays.asList(stored, paused, orphan, duplicate)) {
+            trigger.computeFirstFireTime(null);
+        }
+
+        List<JobPersistenceException> results = store.storeTriggers(
+                Arrays.asList(stored, paused, orphan, duplicate));
+
+        assertEquals(4, results.size());
+        assertNull(results.get(0));
+        assertNull(results.get(1));
+        assertNotNull(results.get(2));
+        assertTrue(results.get(3) instanceof ObjectAlreadyExistsException);
+        assertEquals(TriggerState.NORMAL, store.getTriggerState(TriggerKey.triggerKey("t1", "group")));
+        assertEquals(TriggerState.PAUSED, store.getTriggerState(TriggerKey.triggerKey("t2", "pausedGroup")));
+        assertNull(store.retrieveTrigger(TriggerKey.triggerKey("t3", "group")));
+    }
+
     @Override
     protected JobStore createJobStore(String name) {
         try {
@@ -94,6 +94,21 @@ public final class JdbcQuartzTestUtilities {
         }
     }
 
+    /**
+     * Create a <code>JobStoreTX</code> that takes database locks on the named
+     * database, which must already have been created.  The store still has to
+     * be initialized.
+     */
+    public static JobStoreTX createJobStore(String name, String instanceId) {
+        JobStoreTX store = new JobStoreTX();
+        store.setDataSource(name);
+        store.setTablePrefix("QRTZ_");
+        store.setInstanceId(instanceId);
+        store.setInstanceName(name);
+        store.setUseDBLocks(true);
+        return store;
+    }
+
     public static void shutdownDatabase() throws SQLException {
         try {
             DriverManager.getConnection("jdbc:derby:;shutdown=true").close();
@@ -0,0 +1,159 @@
+/* 
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright Super iPaaS Integration LLC, an IBM Company 2024
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not 
+ * use this file except in compliance with the License. You may obtain a copy 
+ * of the License at 
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0 
+ *   
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations 
+ * under the License.
+ */
+package org.quartz.impl.jdbcjobstore;
+
+import static org.quartz.JobBuilder.newJob;
+import static org.quartz.TriggerBuilder.newTrigger;
+
+import java.sql.Connection;
+
+import junit.framework.TestCase;
+
+import org.quartz.Job;
+import org.quartz.JobDetail;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobPersistenceException;
+import org.quartz.Trigger.CompletedExecutionInstruction;
+import org.quartz.simpl.CascadingClassLoadHelper;
+import org.quartz.spi.ClassLoadHelper;
+import org.quartz.spi.OperableTrigger;
+
+/**
+ * Tests for the operation and lock timings of {@link JobStoreSupport}.
+ */
+public class JobStoreStatisticsTest extends TestCase {
+
+    private static final String DB_NAME = "JobStoreStatisticsTest";
+
+    private int failuresLeft;
+    private JobStoreTX store;
+
+    @Override
+    protected void setUp() throws Exception {
+        store = new JobStoreTX() {
+            @Override
+            protected Object executeInLock(String lockName, TransactionCallback txCallback)
+                throws JobPersistenceException {
+                return txCallback.execute(null);
+            }
+
+            @Override
+            protected <T> T executeInNonManagedTXLock(String lockName,
+                    TransactionCallback<T> txCallback, TransactionValidator<T> txValidator)
+                throws JobPersistenceException {
+                if (failuresLeft > 0) {
+                    failuresLeft--;
+                    throw new JobPersistenceException("connection lost");
+                }
+                return txCallback.execute(null);
+            }
+
+            @Override
+            protected void storeTrigger(Connection conn, OperableTrigger newTrigger, JobDetail job,
+                    boolean replaceExisting, String state, boolean forceState, boolean recovering) {
+            }
+
+            @Override
+            protected void triggeredJobComplete(Connection conn, OperableTrigger trigger,
+                    JobDetail jobDetail, CompletedExecutionInstruction triggerInstCode) {
+            }
+        };
+        store.setDataSource("test");
+        store.setLockHandler(new SimpleSemaphore());
+        store.setDbRetryInterval(1L);
+        store.initialize(null, null);
+    }
+
+    public void testOperationsAreTimed() throws Exception {
+        OperableTrigger trigger = (OperableTrigger) newTrigger().withIdentity("trigger").forJob("job").build();
+
+        store.storeTrigger(trigger, false);
+        store.storeTrigger(trigger, true);
+
+        JobStoreStatistics statistics = store.getStatistics();
+        assertEquals(2, statistics.getOperationLatency(JobStoreStatistics.STORE_TRIGGER).getCount());
+        assertNull(statistics.getOperationLatency(JobStoreStatistics.ACQUIRE_NEXT_TRIGGERS));
+        assertEquals(1, statistics.getOperationLatencies().size());
+
+        statistics.reset();
+        assertTrue(statistics.getOperationLatencies().isEmpty());
+    }
+
+    public void testTransactionRetriesAreCounted() throws Exception {
+        OperableTrigger trigger = (OperableTrigger) newTrigger().withIdentity("trigger").forJob("job").build();
+        JobDetail job = newJob(NoOpJob.class).withIdentity("job").build();
+        failuresLeft = 2;
+
+        store.triggeredJobComplete(trigger, job, CompletedExecutionInstruction.NOOP);
+
+        JobStoreStatistics statistics = store.getStatistics();
+        assertEquals(1, statistics.getOperationLatency(JobStoreStatistics.TRIGGERED_JOB_COMPLETE).getCount());
+        assertEquals(2, statistics.getTransactionRetryCount());
+    }
+
+    public void testDatabaseLockWaitsAndRetriesAreRecorded() throws Exception {
+        DBSemaphore semaphore = new DBSemaphore("QRTZ_", "test", "SELECT", "INSERT") {
+            @Override
+            protected void executeSQL(Connection conn, String lockName, String theExpandedSQL,
+                    String theExpandedInsertSQL) {
+                lockRetried(lockName);
+            }
+        };
+        JobStoreStatistics statistics = new JobStoreStatistics();
+        semaphore.setStatistics(statistics);
+
+        semaphore.obtainLock(null, "TRIGGER_ACCESS");
+        // already owned, so not waited for again
+        semaphore.obtainLock(null, "TRIGGER_ACCESS");
+        semaphore.releaseLock("TRIGGER_ACCESS");
+
+        assertEquals(1, statistics.getLockWaits().get("TRIGGER_ACCESS").getCount());
+        assertEquals(1, statistics.getLockRetryCount());
+    }
+
+    public void testDatabaseOperationsAndRowLocksAreTimed() throws Exception {
+        JdbcQuartzTestUtilities.createDatabase(DB_NAME);
+        JobStoreTX dbStore = JdbcQuartzTestUtilities.createJobStore(DB_NAME, "SINGLE_NODE_TEST");
+        try {
+            ClassLoadHelper loadHelper = new CascadingClassLoadHelper();
+            loadHelper.initialize();
+            dbStore.initialize(loadHelper, null);
+            JobDetail job = newJob(NoOpJob.class).withIdentity("job").storeDurably().build();
+            OperableTrigger trigger = (OperableTrigger) newTrigger().withIdentity("trigger").forJob("job").build();
+            trigger.computeFirstFireTime(null);
+
+            dbStore.storeJob(job, false);
+            dbStore.storeTrigger(trigger, false);
+            dbStore.acquireNextTriggers(System.currentTimeMillis() + 10000L, 1, 0L);
+
+            JobStoreStatistics statistics = dbStore.getStatistics();
+            assertEquals(1, statistics.getOperationLatency(JobStoreStatistics.STORE_TRIGGER).getCount());
+            assertEquals(1, statistics.getOperationLatency(JobStoreStatistics.ACQUIRE_NEXT_TRIGGERS).getCount());
+            // a single node acquires triggers without taking the lock
+            assertEquals(2, statistics.getLockWaits().get("TRIGGER_ACCESS").getCount());
+            assertEquals(0, statistics.getLockRetryCount());
+        } finally {
+            dbStore.shutdown();
+            JdbcQuartzTestUtilities.destroyDatabase(DB_NAME);
+        }
+    }
+
+    public static class NoOpJob implements Job {
+        public void execute(JobExecutionContext context) {
+        }
+    }
+}
@@ -0,0 +1,265 @@
+/* 
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright Super iPaaS Integration LLC, an IBM Company 2024
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not 
+ * use this file except in compliance with the License. You may obtain a copy 
+ * of the License at 
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0 
+ *   
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations 
+ * under the License.
+ */
+package org.quartz.impl.jdbcjobstore;
+
+import static org.quartz.JobBuilder.newJob;
+import static org.quartz.TriggerBuilder.newTrigger;
+
+import java.sql.Connection;
+
+import junit.framework.TestCase;
+
+import org.quartz.Job;
+import org.quartz.JobDetail;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobKey;
+import org.quartz.JobPersistenceException;
+import org.quartz.PersistJobDataAfterExecution;
+import org.quartz.Trigger.CompletedExecutionInstruction;
+import org.quartz.impl.matchers.GroupMatcher;
+import org.quartz.simpl.CascadingClassLoadHelper;
+import org.quartz.spi.ClassLoadHelper;
+import org.quartz.spi.OperableTrigger;
+
+/**
+ * Tests for the read cache of {@link JobStoreSupport}.
+ */
+public class ReadCacheTest extends TestCase {
+
+    private static final String DB_NAME = "ReadCacheTest";
+    private static final JobKey JOB_KEY = JobKey.jobKey("job", "group");
+
+    private CountingDelegate delegate;
+    private JobStoreTX store;
+
+    @Override
+    protected void setUp() throws Exception {
+        delegate = new CountingDelegate();
+        store = new JobStoreTX() {
+            @Override
+            protected DriverDelegate getDelegate() {
+                return delegate;
+            }
+
+            @Override
+            protected Object executeInLock(String lockName, TransactionCallback txCallback)
+                throws JobPersistenceException {
+                return txCallback.execute(null);
+            }
+
+            @Override
+            protected <T> T executeInNonManagedTXLock(String lockName, TransactionCallback<T> txCallback,
+                    TransactionValidator<T> txValidator) throws JobPersistenceException {
+                return txCallback.execute(null);
+            }
+        };
+        store.setDataSource("test");
+        store.setLockHandler(new SimpleSemaphore());
+        store.setReadCacheSize(10);
+        store.setReadCacheChangeCheckInterval(0L);
+    }
+
+    public void testRepeatedReadsAreCachedAsCopies() throws Exception {
+        store.initialize(null, null);
+
+        JobDetail first = store.retrieveJob(JOB_KEY);
+        JobDetail second = store.retrieveJob(JOB_KEY);
+
+        assertEquals(1, delegate.jobReads);
+        assertEquals(first, second);
+        assertNotSame(first, second);
+        assertTrue(store.checkExists(JOB_KEY));
+        assertTrue(store.checkExists(JOB_KEY));
+        assertEquals(1, delegate.existsChecks);
+    }
+
+    public void testWritesDropTheCache() throws Exception {
+        store.initialize(null, null);
+
+        store.retrieveJob(JOB_KEY);
+        store.executeWriteInLock(null, new JobStoreSupport.TransactionCallback<Object>() {
+            public Object execute(Connection conn) {
+                return null;
+            }
+        });
+        store.retrieveJob(JOB_KEY);
+
+        assertEquals(2, delegate.jobReads);
+    }
+
+    public void testCompletingAJobThatPersistsItsDataDropsTheCache() throws Exception {
+        store.initialize(null, null);
+
+        JobDetail job = newJob(PersistingJob.class).withIdentity(JOB_KEY).usingJobData("count", 1).build();
+        OperableTrigger trigger = (OperableTrigger) newTrigger().withIdentity("trigger", "group")
+            .forJob(JOB_KEY).build();
+        store.retrieveJob(JOB_KEY);
+        store.triggeredJobComplete(trigger, job, CompletedExecutionInstruction.NOOP);
+        store.retrieveJob(JOB_KEY);
+
+        assertEquals(1, delegate.jobDataUpdates);
+        assertEquals(2, delegate.jobReads);
+    }
+
+    public void testCompletingAPlainJobKeepsTheCache() throws Exception {
+        store.initialize(null, null);
+
+        JobDetail job = newJob(NoOpJob.class).withIdentity(JOB_KEY).build();
+        OperableTrigger trigger = (OperableTrigger) newTrigger().withIdentity("trigger", "group")
+            .forJob(JOB_KEY).build();
+        store.retrieveJob(JOB_KEY);
+        store.triggeredJobComplete(trigger, job, CompletedExecutionInstruction.NOOP);
+        store.retrieveJob(JOB_KEY);
+
+        assertEquals(1, delegate.jobReads);
+    }
+
+    public void testChangedTokenDropsTheCache() throws Exception {
+        store.setReadCacheChangeCheckInterval(1L);
+        store.initialize(null, null);
+
+        store.retrieveJob(JOB_KEY);
+        Thread.sleep(10L);
+        store.retrieveJob(JOB_KEY);
+        assertEquals(1, delegate.jobReads);
+
+        delegate.token = "changed";
+        Thread.sleep(10L);
+        store.retrieveJob(JOB_KEY);
+        assertEquals(2, delegate.jobReads);
+    }
+
+    public void testChangesOfAnotherSchedulerChangeTheDatabaseToken() throws Exception {
+        JdbcQuartzTestUtilities.createDatabase(DB_NAME);
+        JobStoreTX cached = JdbcQuartzTestUtilities.createJobStore(DB_NAME, "cached");
+        JobStoreTX other = JdbcQuartzTestUtilities.createJobStore(DB_NAME, "other");
+        try {
+            cached.setReadCacheSize(10);
+            cached.setReadCacheChangeCheckInterval(1L);
+            initialize(cached);
+            initialize(other);
+
+            assertFalse(cached.checkExists(JOB_KEY));
+            other.storeJob(newJob(NoOpJob.class).withIdentity(JOB_KEY).storeDurably().build(), false);
+            Thread.sleep(10L);
+            assertTrue(cached.checkExists(JOB_KEY));
+
+            assertTrue(cached.getPausedTriggerGroups().isEmpty());
+            other.pauseTriggers(GroupMatcher.triggerGroupEquals("paused"));
+            Thread.sleep(10L);
+            assertTrue(cached.getPausedTriggerGroups().contains("paused"));
+        } finally {
+            cached.shutdown();
+            other.shutdown();
+            JdbcQuartzTestUtilities.destroyDatabase(DB_NAME);
+        }
+    }
+
+    public void testResultsExpire() throws Exception {
+        store.setReadCacheTimeToLive(1L);
+        store.initialize(null, null);
+
+        store.retrieveJob(JOB_KEY);
+        Thread.sleep(10L);
+        store.retrieveJob(JOB_KEY);
+
+        assertEquals(2, delegate.jobReads);
+    }
+
+    public void testCacheIsDisabledByDefault() throws Exception {
+        store.setReadCacheSize(0);
+        store.initialize(null, null);
+
+        store.retrieveJob(JOB_KEY);
+        store.retrieveJob(JOB_KEY);
+
+        assertEquals(2, delegate.jobReads);
+    }
+
+    public void testLeastRecentlyUsedResultsAreEvicted() {
+        SchedulingDataCache cache = new SchedulingDataCache(2, 60000L);
+        cache.put(SchedulingDataCache.key("job", "a"), "a", cache.getGeneration());
+        cache.put(SchedulingDataCache.key("job", "b"), "b", cache.getGeneration());
+        cache.get(SchedulingDataCache.key("job", "a"));
+        cache.put(SchedulingDataCache.key("job", "c"), "c", cache.getGeneration());
+
+        assertEquals("a", cache.get(SchedulingDataCache.key("job", "a")));
+        assertSame(SchedulingDataCache.MISS, cache.get(SchedulingDataCache.key("job", "b")));
+    }
+
+    public void testReadsRacingAClearAreNotCached() {
+        SchedulingDataCache cache = new SchedulingDataCache(2, 60000L);
+        long generation = cache.getGeneration();
+        cache.clear();
+        cache.put(SchedulingDataCache.key("job", "a"), "a", generation);
+
+        assertSame(SchedulingDataCache.MISS, cache.get(SchedulingDataCache.key("job", "a")));
+    }
+
+    private static void initialize(JobStoreTX store) throws Exception {
+        ClassLoadHelper loadHelper = new CascadingClassLoadHelper();
+        loadHelper.initialize();
+        store.initialize(loadHelper, null);
+    }
+
+    public static class NoOpJob implements Job {
+        public void execute(JobExecutionContext context) {
+        }
+    }
+
+    @PersistJobDataAfterExecution
+    public static class PersistingJob implements Job {
+        public void execute(JobExecutionContext context) {
+        }
+    }
+
+    private static class CountingDelegate extends StdJDBCDelegate {
+        String token = "initial";
+        int jobReads;
+        int existsChecks;
+        int jobDataUpdates;
+
+        @Override
+        public int updateJobData(Connection conn, JobDetail job) {
+            jobDataUpdates++;
+            return 1;
+        }
+
+        @Override
+        public int deleteFiredTrigger(Connection conn, String entryId) {
+            return 1;
+        }
+
+        @Override
+        public JobDetail selectJobDetail(Connection conn, JobKey jobKey,
+                ClassLoadHelper loadHelper) {
+            jobReads++;
+            return newJob(NoOpJob.class).withIdentity(jobKey).build();
+        }
+
+        @Override
+        public boolean jobExists(Connection conn, JobKey jobKey) {
+            existsChecks++;
+            return true;
+        }
+
+        @Override
+        public String selectSchedulingDataChangeToken(Connection conn) {
+            return token;
+        }
+    }
+}
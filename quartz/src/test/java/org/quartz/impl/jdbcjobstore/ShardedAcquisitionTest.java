@@ -0,0 +1,180 @@
+/*
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright Super iPaaS Integration LLC, an IBM Company 2024
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy
+ * of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.quartz.impl.jdbcjobstore;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.quartz.Job;
+import org.quartz.JobBuilder;
+import org.quartz.JobDetail;
+import org.quartz.JobExecutionContext;
+import org.quartz.TriggerBuilder;
+import org.quartz.TriggerKey;
+import org.quartz.impl.matchers.GroupMatcher;
+import org.quartz.impl.matchers.NotMatcher;
+import org.quartz.simpl.CascadingClassLoadHelper;
+import org.quartz.spi.ClassLoadHelper;
+import org.quartz.spi.OperableTrigger;
+import org.quartz.spi.TriggerShard;
+
+/**
+ * Tests acquiring the triggers of one shard through {@link JobStoreSupport},
+ * against an embedded Derby database.
+ */
+public class ShardedAcquisitionTest extends TestCase {
+
+    private static final String DB_NAME = "ShardedAcquisitionTest";
+
+    private JobStoreTX store;
+    private long now;
+
+    @Override
+    protected void setUp() throws Exception {
+        JdbcQuartzTestUtilities.createDatabase(DB_NAME);
+        store = new JobStoreTX();
+        store.setDataSource(DB_NAME);
+        store.setTablePrefix("QRTZ_");
+        store.setInstanceId("SINGLE_NODE_TEST");
+        store.setInstanceName(DB_NAME);
+        store.setUseDBLocks(true);
+        ClaimRecordingDelegate.claims.clear();
+        now = System.currentTimeMillis();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        store.shutdown();
+        JdbcQuartzTestUtilities.destroyDatabase(DB_NAME);
+    }
+
+    public void testBacklogOfAnotherShardDoesNotHideTheShardsTriggers() throws Exception {
+        initialize();
+        storeBacklog();
+        store.storeTrigger(trigger("idle", "idle", "job", "busy", 5000), false);
+
+        List<OperableTrigger> acquired = store.acquireNextTriggers(now + 10000, 1, 0L, idleShard());
+
+        assertEquals(1, acquired.size());
+        assertEquals(TriggerKey.triggerKey("idle", "idle"), acquired.get(0).getKey());
+    }
+
+    public void testShardAcquiresOnlyItsOwnTriggers() throws Exception {
+        initialize();
+        storeBacklog();
+        store.storeTrigger(trigger("idle", "idle", "job", "busy", 5000), false);
+
+        TriggerShard busy = new TriggerShard(0, 2, GroupMatcher.triggerGroupEquals("busy"));
+        List<OperableTrigger> acquired = store.acquireNextTriggers(now + 10000, 5, 10000L, busy);
+
+        assertEquals(5, acquired.size());
+        for (OperableTrigger trigger : acquired) {
+            assertEquals("busy", trigger.getKey().getGroup());
+        }
+    }
+
+    public void testJobRoutedShardSkipsTheTriggersOfOtherJobs() throws Exception {
+        initialize();
+        storeBacklog();
+        store.storeJob(job("routed", "reports"), false);
+        store.storeTrigger(trigger("report", "busy", "routed", "reports", 5000), false);
+
+        TriggerShard pool = new TriggerShard(1, 2, GroupMatcher.anyTriggerGroup(),
+                GroupMatcher.jobGroupEquals("reports"));
+        List<OperableTrigger> acquired = store.acquireNextTriggers(now + 10000, 3, 10000L, pool);
+
+        assertEquals(1, acquired.size());
+        assertEquals(TriggerKey.triggerKey("report", "busy"), acquired.get(0).getKey());
+    }
+
+    public void testSkipLockedOnlyLocksTheShardsTriggers() throws Exception {
+        store.setAcquireTriggersSkipLocked(true);
+        store.setDriverDelegateClass(ClaimRecordingDelegate.class.getName());
+        initialize();
+        storeBacklog();
+        store.storeTrigger(trigger("idle", "idle", "job", "busy", 5000), false);
+
+        List<OperableTrigger> acquired = store.acquireNextTriggers(now + 10000, 1, 0L, idleShard());
+
+        assertEquals(1, acquired.size());
+        assertEquals(Collections.singletonList(TriggerKey.triggerKey("idle", "idle")),
+                ClaimRecordingDelegate.claims);
+    }
+
+    private void initialize() throws Exception {
+        ClassLoadHelper loadHelper = new CascadingClassLoadHelper();
+        loadHelper.initialize();
+        store.initialize(loadHelper, null);
+    }
+
+    /**
+     * Twenty triggers of the "busy" group, all due before any other trigger.
+     */
+    private void storeBacklog() throws Exception {
+        store.storeJob(job("job", "busy"), false);
+        for (int i = 0; i < 20; i++) {
+            store.storeTrigger(trigger("t" + i, "busy", "job", "busy", 1000 + i), false);
+        }
+    }
+
+    private static TriggerShard idleShard() {
+        return new TriggerShard(1, 2, NotMatcher.not(GroupMatcher.triggerGroupEquals("busy")));
+    }
+
+    private static JobDetail job(String name, String group) {
+        return JobBuilder.newJob(NoOpJob.class).withIdentity(name, group).storeDurably().build();
+    }
+
+    private OperableTrigger trigger(String name, String group, String jobName, String jobGroup, long delay) {
+        OperableTrigger trigger = (OperableTrigger) TriggerBuilder.newTrigger()
+                .withIdentity(name, group).forJob(jobName, jobGroup)
+                .startAt(new Date(now + delay)).build();
+        trigger.computeFirstFireTime(null);
+        return trigger;
+    }
+
+    public static class NoOpJob implements Job {
+        public void execute(JobExecutionContext context) {
+        }
+    }
+
+    /**
+     * Records the triggers claimed one by one with <code>SKIP LOCKED</code>,
+     * which Derby cannot do itself.
+     */
+    public static class ClaimRecordingDelegate extends StdJDBCDelegate {
+
+        static final List<TriggerKey> claims = new ArrayList<TriggerKey>();
+
+        @Override
+        public boolean supportsSkipLocked(Connection conn) {
+            return true;
+        }
+
+        @Override
+        public boolean selectTriggerToAcquireSkipLocked(Connection conn, TriggerKey triggerKey) throws SQLException {
+            claims.add(triggerKey);
+            return true;
+        }
+    }
+}
@@ -20,19 +20,32 @@ import static org.hamcrest.collection.IsIterableWithSize.iterableWithSize;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.contains;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
 import java.io.NotSerializableException;
 import java.sql.Connection;
+import java.sql.DatabaseMetaData;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import org.quartz.Job;
+import org.quartz.JobBuilder;
+import org.quartz.JobDetail;
+import org.quartz.JobExecutionContext;
 import org.quartz.JobPersistenceException;
+import org.quartz.TriggerBuilder;
 import org.quartz.TriggerKey;
 import org.quartz.spi.OperableTrigger;
 import org.slf4j.LoggerFactory;
@@ -159,6 +172,205 @@ public class StdJDBCDelegateTest extends TestCase {
         assertThat(triggerKeys, iterableWithSize(10));
     }
 
+    public void testSelectTriggerToAcquireSkipLockedLimitsClaimedRows() throws SQLException {
+
+        MySQLDelegate jdbcDelegate = new MySQLDelegate();
+
+        Connection conn = mock(Connection.class);
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        PreparedStatement preparedStatement = mock(PreparedStatement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+
+        when(conn.getMetaData()).thenReturn(metaData);
+        when(metaData.getDatabaseProductName()).thenReturn("MySQL");
+        when(metaData.getDatabaseMajorVersion()).thenReturn(8);
+        when(conn.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(preparedStatement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getString(anyString())).thenReturn("test");
+
+        assertTrue(jdbcDelegate.supportsSkipLocked(conn));
+        List<TriggerKey> triggerKeys = jdbcDelegate.selectTriggerToAcquireSkipLocked(conn, Long.MAX_VALUE, Long.MIN_VALUE, 5);
+
+        assertThat(triggerKeys, iterableWithSize(5));
+        verify(conn).prepareStatement(contains("LIMIT ? FOR UPDATE SKIP LOCKED"));
+        verify(preparedStatement).setInt(4, 5);
+        verify(resultSet, times(5)).next();
+    }
+
+    public void testSkipLockedNeedsMySQL8() throws SQLException {
+        Connection conn = mock(Connection.class);
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+
+        when(conn.getMetaData()).thenReturn(metaData);
+        when(metaData.getDatabaseProductName()).thenReturn("MySQL");
+        when(metaData.getDatabaseMajorVersion()).thenReturn(5);
+
+        assertFalse(new MySQLDelegate().supportsSkipLocked(conn));
+        assertFalse(new StdJDBCDelegate().supportsSkipLocked(conn));
+    }
+
+    public void testUpdateTriggerStatesFromOtherStateSendsOneBatch() throws SQLException {
+        StdJDBCDelegate jdbcDelegate = new StdJDBCDelegate();
+
+        Connection conn = mock(Connection.class);
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        PreparedStatement preparedStatement = mock(PreparedStatement.class);
+
+        when(conn.getMetaData()).thenReturn(metaData);
+        when(metaData.supportsBatchUpdates()).thenReturn(true);
+        when(conn.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(preparedStatement.executeBatch()).thenReturn(new int[] {1, 0, 1});
+
+        List<TriggerKey> triggerKeys = Arrays.asList(TriggerKey.triggerKey("t1"),
+                TriggerKey.triggerKey("t2"), TriggerKey.triggerKey("t3"));
+        int[] counts = jdbcDelegate.updateTriggerStatesFromOtherState(conn, triggerKeys,
+                Constants.STATE_ACQUIRED, Constants.STATE_WAITING);
+
+        assertTrue(Arrays.equals(new int[] {1, 0, 1}, counts));
+        verify(conn, times(1)).prepareStatement(anyString());
+        verify(preparedStatement, times(3)).addBatch();
+        verify(preparedStatement, times(1)).executeBatch();
+        verify(preparedStatement, never()).executeUpdate();
+    }
+
+    public void testUpdateTriggerStatesFromOtherStateWithoutBatchSupport() throws SQLException {
+        StdJDBCDelegate jdbcDelegate = new StdJDBCDelegate();
+
+        Connection conn = mock(Connection.class);
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        PreparedStatement preparedStatement = mock(PreparedStatement.class);
+
+        when(conn.getMetaData()).thenReturn(metaData);
+        when(metaData.supportsBatchUpdates()).thenReturn(false);
+        when(conn.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(preparedStatement.executeUpdate()).thenReturn(1);
+
+        List<TriggerKey> triggerKeys = Arrays.asList(TriggerKey.triggerKey("t1"), TriggerKey.triggerKey("t2"));
+        int[] counts = jdbcDelegate.updateTriggerStatesFromOtherState(conn, triggerKeys,
+                Constants.STATE_ACQUIRED, Constants.STATE_WAITING);
+
+        assertTrue(Arrays.equals(new int[] {1, 1}, counts));
+        verify(preparedStatement, times(2)).executeUpdate();
+        verify(preparedStatement, never()).executeBatch();
+    }
+
+    public void testSelectTriggerStatesUsesOneStatementPerChunk() throws SQLException {
+        StdJDBCDelegate jdbcDelegate = new StdJDBCDelegate();
+
+        Connection conn = mock(Connection.class);
+        PreparedStatement preparedStatement = mock(PreparedStatement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+
+        when(conn.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(preparedStatement.executeQuery()).thenReturn(resultSet);
+        // only the first key still exists
+        when(resultSet.next()).thenReturn(true).thenReturn(false);
+        when(resultSet.getString(Constants.COL_TRIGGER_NAME)).thenReturn("t0");
+        when(resultSet.getString(Constants.COL_TRIGGER_GROUP)).thenReturn(TriggerKey.DEFAULT_GROUP);
+        when(resultSet.getString(Constants.COL_TRIGGER_STATE)).thenReturn(Constants.STATE_ACQUIRED);
+
+        List<TriggerKey> triggerKeys = new ArrayList<TriggerKey>();
+        for (int i = 0; i < 150; i++) {
+            triggerKeys.add(TriggerKey.triggerKey("t" + i));
+        }
+        Map<TriggerKey, String> states = jdbcDelegate.selectTriggerStates(conn, triggerKeys);
+
+        verify(conn, times(2)).prepareStatement(anyString());
+        assertEquals(150, states.size());
+        assertEquals(Constants.STATE_ACQUIRED, states.get(TriggerKey.triggerKey("t0")));
+        assertEquals(Constants.STATE_DELETED, states.get(TriggerKey.triggerKey("t149")));
+    }
+
+    public void testInsertJobDetailsSendsBatchesOfMaxRows() throws SQLException, IOException, NoSuchDelegateException {
+        StdJDBCDelegate jdbcDelegate = new StdJDBCDelegate();
+        jdbcDelegate.initialize(LoggerFactory.getLogger(getClass()), "QRTZ_", "TESTSCHED", "INSTANCE", new SimpleClassLoadHelper(), false, "");
+        jdbcDelegate.maxRowsPerBatch = 2;
+
+        Connection conn = mock(Connection.class);
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        PreparedStatement preparedStatement = mock(PreparedStatement.class);
+
+        when(conn.getMetaData()).thenReturn(metaData);
+        when(metaData.supportsBatchUpdates()).thenReturn(true);
+        when(conn.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(preparedStatement.executeBatch()).thenReturn(new int[] {1, 1}).thenReturn(new int[] {1, 1}).thenReturn(new int[] {1});
+
+        List<JobDetail> jobs = new ArrayList<JobDetail>();
+        for (int i = 0; i < 5; i++) {
+            jobs.add(JobBuilder.newJob(NoOpJob.class).withIdentity("j" + i).build());
+        }
+        int[] counts = jdbcDelegate.insertJobDetails(conn, jobs);
+
+        assertTrue(Arrays.equals(new int[] {1, 1, 1, 1, 1}, counts));
+        verify(conn, times(1)).prepareStatement(anyString());
+        verify(preparedStatement, times(5)).addBatch();
+        verify(preparedStatement, times(3)).executeBatch();
+        verify(preparedStatement, never()).executeUpdate();
+    }
+
+    public void testInsertTriggersBatchesBaseAndExtendedRows() throws SQLException, IOException, NoSuchDelegateException {
+        StdJDBCDelegate jdbcDelegate = new StdJDBCDelegate();
+        jdbcDelegate.initialize(LoggerFactory.getLogger(getClass()), "QRTZ_", "TESTSCHED", "INSTANCE", new SimpleClassLoadHelper(), false, "");
+
+        Connection conn = mock(Connection.class);
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        PreparedStatement preparedStatement = mock(PreparedStatement.class);
+
+        when(conn.getMetaData()).thenReturn(metaData);
+        when(metaData.supportsBatchUpdates()).thenReturn(true);
+        when(conn.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(preparedStatement.executeBatch()).thenReturn(new int[] {1, 1, 1});
+
+        List<OperableTrigger> triggers = new ArrayList<OperableTrigger>();
+        List<String> states = new ArrayList<String>();
+        List<JobDetail> jobs = new ArrayList<JobDetail>();
+        JobDetail job = JobBuilder.newJob(NoOpJob.class).withIdentity("j").build();
+        for (int i = 0; i < 3; i++) {
+            triggers.add((OperableTrigger) TriggerBuilder.newTrigger().withIdentity("t" + i).forJob(job).startNow().build());
+            states.add(Constants.STATE_WAITING);
+            jobs.add(job);
+        }
+        int[] counts = jdbcDelegate.insertTriggers(conn, triggers, states, jobs);
+
+        assertTrue(Arrays.equals(new int[] {1, 1, 1}, counts));
+        // one statement for QRTZ_TRIGGERS and one for QRTZ_SIMPLE_TRIGGERS
+        verify(conn, times(2)).prepareStatement(anyString());
+        verify(preparedStatement, times(6)).addBatch();
+        verify(preparedStatement, times(2)).executeBatch();
+        verify(preparedStatement, never()).executeUpdate();
+    }
+
+    public void testSelectExistingTriggerKeysUsesOneStatementPerChunk() throws SQLException {
+        StdJDBCDelegate jdbcDelegate = new StdJDBCDelegate();
+
+        Connection conn = mock(Connection.class);
+        PreparedStatement preparedStatement = mock(PreparedStatement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+
+        when(conn.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(preparedStatement.executeQuery()).thenReturn(resultSet);
+        // only the first key exists
+        when(resultSet.next()).thenReturn(true).thenReturn(false);
+        when(resultSet.getString(Constants.COL_TRIGGER_NAME)).thenReturn("t0");
+        when(resultSet.getString(Constants.COL_TRIGGER_GROUP)).thenReturn(TriggerKey.DEFAULT_GROUP);
+
+        List<TriggerKey> triggerKeys = new ArrayList<TriggerKey>();
+        for (int i = 0; i < 250; i++) {
+            triggerKeys.add(TriggerKey.triggerKey("t" + i));
+        }
+        Set<TriggerKey> existing = jdbcDelegate.selectExistingTriggerKeys(conn, triggerKeys);
+
+        verify(conn, times(3)).prepareStatement(anyString());
+        assertEquals(1, existing.size());
+        assertTrue(existing.contains(TriggerKey.triggerKey("t0")));
+    }
+
+    public static class NoOpJob implements Job {
+        public void execute(JobExecutionContext context) {
+        }
+    }
+
     static class TestStdJDBCDelegate extends StdJDBCDelegate {
 
         private final TriggerPersistenceDelegate testDelegate;
@@ -0,0 +1,296 @@
+/* 
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright Super iPaaS Integration LLC, an IBM Company 2024
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not 
+ * use this file except in compliance with the License. You may obtain a copy 
+ * of the License at 
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0 
+ *   
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations 
+ * under the License.
+ */
+package org.quartz.impl.jdbcjobstore;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import junit.framework.TestCase;
+
+import org.quartz.Job;
+import org.quartz.JobBuilder;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobKey;
+import org.quartz.JobPersistenceException;
+import org.quartz.TriggerBuilder;
+import org.quartz.TriggerKey;
+import org.quartz.simpl.CascadingClassLoadHelper;
+import org.quartz.spi.ClassLoadHelper;
+import org.quartz.spi.OperableTrigger;
+
+/**
+ * Tests for the partitioned <code>TRIGGER_ACCESS</code> locks of {@link JobStoreSupport}.
+ */
+public class TriggerAccessPartitionTest extends TestCase {
+
+    private static final String DB_NAME = "TriggerAccessPartitionTest";
+
+    private JobStoreTX store;
+    private RecordingSemaphore semaphore;
+
+    @Override
+    protected void setUp() throws Exception {
+        store = new JobStoreTX();
+        semaphore = new RecordingSemaphore();
+        store.setLockHandler(semaphore);
+        store.setTriggerAccessPartitions(4);
+    }
+
+    public void testJobTriggersShareAPartitionLock() {
+        JobKey jobKey = JobKey.jobKey("job", "group");
+        String lockName = store.getTriggerAccessLockName(jobKey);
+
+        assertTrue(lockName.startsWith("TRIGGER_ACCESS_"));
+        assertEquals(lockName, store.getTriggerAccessLockName(Arrays.asList(
+                trigger("t1", jobKey), trigger("t2", jobKey))));
+        for (int i = 0; i < 100; i++) {
+            int partition = store.getTriggerAccessPartition(JobKey.jobKey("job" + i));
+            assertTrue(partition >= 0 && partition < 4);
+        }
+    }
+
+    public void testTriggersOfSeveralPartitionsUseTriggerAccess() {
+        JobKey first = JobKey.jobKey("job0");
+        JobKey other = null;
+        for (int i = 1; other == null; i++) {
+            JobKey candidate = JobKey.jobKey("job" + i);
+            if (store.getTriggerAccessPartition(candidate) != store.getTriggerAccessPartition(first)) {
+                other = candidate;
+            }
+        }
+
+        assertEquals(JobStoreSupport.LOCK_TRIGGER_ACCESS, store.getTriggerAccessLockName(Arrays.asList(
+                trigger("t1", first), trigger("t2", other))));
+    }
+
+    public void testTriggerAccessObtainsEveryPartitionInOrder() throws Exception {
+        assertTrue(store.obtainLock(null, JobStoreSupport.LOCK_TRIGGER_ACCESS));
+        store.releaseLock(JobStoreSupport.LOCK_TRIGGER_ACCESS, true);
+
+        assertEquals(Arrays.asList(
+                "+TRIGGER_ACCESS_0", "+TRIGGER_ACCESS_1", "+TRIGGER_ACCESS_2", "+TRIGGER_ACCESS_3",
+                "-TRIGGER_ACCESS_3", "-TRIGGER_ACCESS_2", "-TRIGGER_ACCESS_1", "-TRIGGER_ACCESS_0"),
+                semaphore.events);
+    }
+
+    public void testUnpartitionedUsesSingleLock() throws Exception {
+        store.setTriggerAccessPartitions(1);
+
+        assertEquals(JobStoreSupport.LOCK_TRIGGER_ACCESS, store.getTriggerAccessLockName(JobKey.jobKey("job")));
+        assertTrue(store.obtainLock(null, JobStoreSupport.LOCK_TRIGGER_ACCESS));
+        store.releaseLock(JobStoreSupport.LOCK_TRIGGER_ACCESS, true);
+
+        assertEquals(Arrays.asList("+TRIGGER_ACCESS", "-TRIGGER_ACCESS"), semaphore.events);
+    }
+
+    public void testPartitionDueSoonestIsChosenWhenItsOwnIsNotDue() throws Exception {
+        JdbcQuartzTestUtilities.createDatabase(DB_NAME);
+        JobStoreTX dbStore = createPartitionedStore();
+        try {
+            dbStore.setTriggerAccessPartitionAffinity(true);
+            initialize(dbStore);
+            int home = ("SINGLE_NODE_TEST".hashCode() & Integer.MAX_VALUE) % 4;
+            long now = System.currentTimeMillis();
+            storeDueTrigger(dbStore, jobInPartition((home + 2) % 4), now + 2000L);
+            storeDueTrigger(dbStore, jobInPartition((home + 1) % 4), now + 1000L);
+            storeDueTrigger(dbStore, jobInPartition((home + 3) % 4), now + 3000L);
+
+            assertEquals((home + 1) % 4, dbStore.selectTriggerAccessPartitionToAcquire(now + 10000L, 1));
+
+            storeDueTrigger(dbStore, jobInPartition(home), now + 4000L);
+            assertEquals(home, dbStore.selectTriggerAccessPartitionToAcquire(now + 10000L, 1));
+        } finally {
+            dbStore.shutdown();
+            JdbcQuartzTestUtilities.destroyDatabase(DB_NAME);
+        }
+    }
+
+    public void testDuePartitionsAreTakenInTurn() throws Exception {
+        JdbcQuartzTestUtilities.createDatabase(DB_NAME);
+        JobStoreTX dbStore = createPartitionedStore();
+        try {
+            initialize(dbStore);
+            long now = System.currentTimeMillis();
+            assertEquals(-1, dbStore.selectTriggerAccessPartitionToAcquire(now + 10000L, 1));
+
+            storeDueTrigger(dbStore, jobInPartition(3), now + 1000L);
+            storeDueTrigger(dbStore, jobInPartition(1), now + 2000L);
+
+            assertEquals(1, dbStore.selectTriggerAccessPartitionToAcquire(now + 10000L, 1));
+            assertEquals(3, dbStore.selectTriggerAccessPartitionToAcquire(now + 10000L, 1));
+            assertEquals(1, dbStore.selectTriggerAccessPartitionToAcquire(now + 10000L, 1));
+        } finally {
+            dbStore.shutdown();
+            JdbcQuartzTestUtilities.destroyDatabase(DB_NAME);
+        }
+    }
+
+    public void testClusterRecoveryLocksThePartitionsOfTheFailedInstanceInOrder() throws Exception {
+        RecoveringStore recovering = new RecoveringStore(semaphore);
+        recovering.addFiredTrigger(jobInPartition(3));
+        recovering.addFiredTrigger(jobInPartition(1));
+        recovering.addFiredTrigger(jobInPartition(3));
+
+        assertTrue(recovering.doCheckin());
+
+        assertEquals(new TreeSet<Integer>(Arrays.asList(1, 3)), recovering.recoveredPartitions);
+        assertEquals(Arrays.asList(
+                "+STATE_ACCESS", "+TRIGGER_ACCESS_1", "+TRIGGER_ACCESS_3",
+                "-TRIGGER_ACCESS_3", "-TRIGGER_ACCESS_1", "-STATE_ACCESS"),
+                semaphore.events);
+    }
+
+    public void testClusterRecoveryReleasesThePartitionLocksWhenItFails() throws Exception {
+        RecoveringStore recovering = new RecoveringStore(semaphore);
+        recovering.addFiredTrigger(jobInPartition(2));
+        recovering.addFiredTrigger(jobInPartition(0));
+        recovering.failure = new JobPersistenceException("recovery failed");
+
+        try {
+            recovering.doCheckin();
+            fail("the recovery failure should have been rethrown");
+        } catch (JobPersistenceException e) {
+            assertSame(recovering.failure, e);
+        }
+
+        assertEquals(Arrays.asList(
+                "+STATE_ACCESS", "+TRIGGER_ACCESS_0", "+TRIGGER_ACCESS_2",
+                "-TRIGGER_ACCESS_2", "-TRIGGER_ACCESS_0", "-STATE_ACCESS"),
+                semaphore.events);
+    }
+
+    /**
+     * The key of a job whose triggers belong to the given partition (of 4).
+     */
+    private JobKey jobInPartition(int partition) {
+        for (int i = 0; ; i++) {
+            JobKey jobKey = JobKey.jobKey("job" + i);
+            if (store.getTriggerAccessPartition(jobKey) == partition) {
+                return jobKey;
+            }
+        }
+    }
+
+    private static JobStoreTX createPartitionedStore() {
+        JobStoreTX dbStore = JdbcQuartzTestUtilities.createJobStore(DB_NAME, "SINGLE_NODE_TEST");
+        dbStore.setTriggerAccessPartitions(4);
+        return dbStore;
+    }
+
+    private static void initialize(JobStoreTX dbStore) throws Exception {
+        ClassLoadHelper loadHelper = new CascadingClassLoadHelper();
+        loadHelper.initialize();
+        dbStore.initialize(loadHelper, null);
+    }
+
+    private static void storeDueTrigger(JobStoreTX dbStore, JobKey jobKey, long fireTime) throws Exception {
+        dbStore.storeJob(JobBuilder.newJob(NoOpJob.class).withIdentity(jobKey).storeDurably().build(), true);
+        OperableTrigger trigger = (OperableTrigger) TriggerBuilder.newTrigger()
+                .withIdentity("t" + fireTime).forJob(jobKey).startAt(new Date(fireTime)).build();
+        trigger.computeFirstFireTime(null);
+        dbStore.storeTrigger(trigger, false);
+    }
+
+    private static OperableTrigger trigger(String name, JobKey jobKey) {
+        return (OperableTrigger) TriggerBuilder.newTrigger().withIdentity(name).forJob(jobKey).build();
+    }
+
+    public static class NoOpJob implements Job {
+        public void execute(JobExecutionContext context) {
+        }
+    }
+
+    /**
+     * A partitioned store whose first check-in finds one failed instance,
+     * which had fired triggers of the given jobs.
+     */
+    static class RecoveringStore extends JobStoreTX {
+
+        final List<FiredTriggerRecord> firedTriggers = new ArrayList<FiredTriggerRecord>();
+        Set<Integer> recoveredPartitions;
+        JobPersistenceException failure;
+
+        RecoveringStore(Semaphore semaphore) {
+            setLockHandler(semaphore);
+            setTriggerAccessPartitions(4);
+        }
+
+        void addFiredTrigger(JobKey jobKey) {
+            FiredTriggerRecord record = new FiredTriggerRecord();
+            record.setSchedulerInstanceId("failed");
+            record.setJobKey(jobKey);
+            record.setTriggerKey(TriggerKey.triggerKey("t" + firedTriggers.size()));
+            firedTriggers.add(record);
+        }
+
+        @Override
+        protected Connection getNonManagedTXConnection() {
+            return null;
+        }
+
+        @Override
+        protected DriverDelegate getDelegate() {
+            return new StdJDBCDelegate() {
+                @Override
+                public List<FiredTriggerRecord> selectInstancesFiredTriggerRecords(Connection conn,
+                        String instanceName) {
+                    return firedTriggers;
+                }
+            };
+        }
+
+        @Override
+        protected List<SchedulerStateRecord> clusterCheckIn(Connection conn) {
+            SchedulerStateRecord failed = new SchedulerStateRecord();
+            failed.setSchedulerInstanceId("failed");
+            return Collections.singletonList(failed);
+        }
+
+        @Override
+        protected void clusterRecover(Connection conn, List<SchedulerStateRecord> failedInstances,
+                Set<Integer> partitions) throws JobPersistenceException {
+            if (failure != null) {
+                throw failure;
+            }
+            recoveredPartitions = partitions;
+        }
+    }
+
+    static class RecordingSemaphore implements Semaphore {
+
+        final List<String> events = new ArrayList<String>();
+
+        public boolean obtainLock(Connection conn, String lockName) {
+            events.add("+" + lockName);
+            return true;
+        }
+
+        public void releaseLock(String lockName) {
+            events.add("-" + lockName);
+        }
+
+        public boolean requiresConnection() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,227 @@
+/* 
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright Super iPaaS Integration LLC, an IBM Company 2024
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not 
+ * use this file except in compliance with the License. You may obtain a copy 
+ * of the License at 
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0 
+ *   
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations 
+ * under the License.
+ */
+package org.quartz.simpl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.quartz.AbstractJobStoreTest;
+import org.quartz.JobBuilder;
+import org.quartz.JobKey;
+import org.quartz.JobPersistenceException;
+import org.quartz.TriggerBuilder;
+import org.quartz.Trigger.TriggerState;
+import org.quartz.TriggerKey;
+import org.quartz.impl.calendar.BaseCalendar;
+import org.quartz.impl.matchers.GroupMatcher;
+import org.quartz.spi.JobStore;
+import org.quartz.spi.OperableTrigger;
+
+public class ConcurrentRAMJobStoreTest extends AbstractJobStoreTest {
+
+    private static final int THREADS = 8;
+
+    @Override
+    protected JobStore createJobStore(String name) {
+        ConcurrentRAMJobStore rs = new ConcurrentRAMJobStore();
+        return rs;
+    }
+
+    @Override
+    protected void destroyJobStore(String name) {
+
+    }
+
+    public void testConcurrentStoresAndRemovesKeepTheIndexesConsistent() throws Exception {
+        final ConcurrentRAMJobStore store = createInitializedStore();
+        final long start = System.currentTimeMillis() + 1000;
+        for (int t = 0; t < THREADS; t++) {
+            store.storeJob(JobBuilder.newJob(MyJob.class).withIdentity("job" + t, "group" + (t % 3))
+                    .storeDurably().build(), false);
+        }
+
+        runConcurrently(new Task() {
+            public void run(int t) throws Exception {
+                for (int i = 0; i < 200; i++) {
+                    store.storeTrigger(trigger("t" + t + "_" + i, "tg" + (i % 5), "job" + t, "group" + (t % 3),
+                            start + i), false);
+                    if (i % 2 == 1) {
+                        assertTrue(store.removeTrigger(TriggerKey.triggerKey("t" + t + "_" + i, "tg" + (i % 5))));
+                    }
+                }
+            }
+        });
+
+        assertEquals(THREADS * 100, store.getNumberOfTriggers());
+        assertEquals(THREADS * 100, store.getTriggerKeys(GroupMatcher.anyTriggerGroup()).size());
+        for (int t = 0; t < THREADS; t++) {
+            assertEquals(100, store.getTriggersForJob(JobKey.jobKey("job" + t, "group" + (t % 3))).size());
+        }
+        List<OperableTrigger> acquired = store.acquireNextTriggers(start + 60000, THREADS * 200, 60000L);
+        assertEquals(THREADS * 100, acquired.size());
+    }
+
+    public void testConcurrentAcquisitionAcquiresEachTriggerOnce() throws Exception {
+        final ConcurrentRAMJobStore store = createInitializedStore();
+        final long start = System.currentTimeMillis() + 1000;
+        store.storeJob(JobBuilder.newJob(MyJob.class).withIdentity("job", "group").storeDurably().build(), false);
+        for (int i = 0; i < 500; i++) {
+            store.storeTrigger(trigger("t" + i, "tg" + (i % 5), "job", "group", start + i), false);
+        }
+        final List<TriggerKey> acquired = Collections.synchronizedList(new ArrayList<TriggerKey>());
+
+        runConcurrently(new Task() {
+            public void run(int t) throws Exception {
+                while (true) {
+                    List<OperableTrigger> batch = store.acquireNextTriggers(start + 60000, 10, 60000L);
+                    if (batch.isEmpty()) {
+                        return;
+                    }
+                    for (OperableTrigger trigger : batch) {
+                        acquired.add(trigger.getKey());
+                    }
+                }
+            }
+        });
+
+        assertEquals(500, acquired.size());
+        assertEquals(500, new HashSet<TriggerKey>(acquired).size());
+    }
+
+    public void testCalendarIsNotRemovedWhileATriggerUsingItIsStored() throws Exception {
+        final ConcurrentRAMJobStore store = createInitializedStore();
+        store.storeJob(JobBuilder.newJob(MyJob.class).withIdentity("job", "group").storeDurably().build(), false);
+        store.storeCalendar("calendar", new BaseCalendar(), false, false);
+        final List<Exception> failures = Collections.synchronizedList(new ArrayList<Exception>());
+        Thread remover = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    store.removeCalendar("calendar");
+                } catch (Exception e) {
+                    failures.add(e);
+                }
+            }
+        };
+
+        // hold the lock storeTrigger takes, as if it were storing a trigger of the job
+        synchronized (store.groupLock(JobKey.jobKey("job", "group"))) {
+            remover.start();
+            remover.join(200);
+            assertTrue("removeCalendar did not wait for the trigger being stored", remover.isAlive());
+
+            OperableTrigger trigger = trigger("t", "tg", "job", "group", System.currentTimeMillis() + 60000);
+            trigger.setCalendarName("calendar");
+            store.storeTrigger(trigger, false);
+        }
+        remover.join();
+
+        assertEquals(1, failures.size());
+        assertTrue(failures.get(0) instanceof JobPersistenceException);
+        assertNotNull(store.retrieveCalendar("calendar"));
+    }
+
+    public void testTriggersStoredWhileTheirGroupIsResumedAreNotPaused() throws Exception {
+        final long start = System.currentTimeMillis() + 60000;
+        final List<TriggerKey> storedDuringResume = new ArrayList<TriggerKey>();
+        final ConcurrentRAMJobStore store = new ConcurrentRAMJobStore() {
+            @Override
+            public void resumeTrigger(TriggerKey triggerKey) {
+                if (storedDuringResume.isEmpty()) {
+                    // store another trigger of the group while the group is being resumed
+                    OperableTrigger late = trigger("late", "tg", "job", "group", start);
+                    storedDuringResume.add(late.getKey());
+                    try {
+                        storeTrigger(late, false);
+                    } catch (JobPersistenceException e) {
+                        throw new AssertionError(e);
+                    }
+                }
+                super.resumeTrigger(triggerKey);
+            }
+        };
+        store.initialize(null, new SampleSignaler());
+        store.storeJob(JobBuilder.newJob(MyJob.class).withIdentity("job", "group").storeDurably().build(), false);
+        for (int i = 0; i < 3; i++) {
+            store.storeTrigger(trigger("t" + i, "tg", "job", "group", start + i), false);
+        }
+        store.pauseTriggers(GroupMatcher.triggerGroupEquals("tg"));
+
+        store.resumeTriggers(GroupMatcher.triggerGroupEquals("tg"));
+
+        assertEquals(1, storedDuringResume.size());
+        assertTrue(store.getPausedTriggerGroups().isEmpty());
+        for (TriggerKey key : store.getTriggerKeys(GroupMatcher.triggerGroupEquals("tg"))) {
+            assertEquals(key.toString(), TriggerState.NORMAL, store.getTriggerState(key));
+        }
+        assertEquals(4, store.acquireNextTriggers(start + 60000, 10, 60000L).size());
+    }
+
+    private static ConcurrentRAMJobStore createInitializedStore() {
+        ConcurrentRAMJobStore store = new ConcurrentRAMJobStore();
+        store.initialize(null, new SampleSignaler());
+        return store;
+    }
+
+    private static OperableTrigger trigger(String name, String group, String jobName, String jobGroup, long time) {
+        OperableTrigger trigger = (OperableTrigger) TriggerBuilder.newTrigger()
+                .withIdentity(name, group).forJob(jobName, jobGroup).startAt(new Date(time)).build();
+        trigger.computeFirstFireTime(null);
+        return trigger;
+    }
+
+    private interface Task {
+        void run(int thread) throws Exception;
+    }
+
+    /**
+     * Run the task on several threads at once, failing if any of them fails.
+     */
+    private static void runConcurrently(final Task task) throws Exception {
+        final CountDownLatch go = new CountDownLatch(1);
+        final List<Throwable> failures = Collections.synchronizedList(new ArrayList<Throwable>());
+        List<Thread> threads = new ArrayList<Thread>(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            final int thread = t;
+            threads.add(new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        go.await();
+                        task.run(thread);
+                    } catch (Throwable e) {
+                        failures.add(e);
+                    }
+                }
+            });
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        go.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        if (!failures.isEmpty()) {
+            throw new AssertionError(failures.get(0));
+        }
+    }
+}
@@ -17,10 +17,28 @@
 package org.quartz.simpl;
 
 import org.quartz.AbstractJobStoreTest;
+import org.quartz.JobBuilder;
+import org.quartz.JobDetail;
+import org.quartz.TriggerBuilder;
 import org.quartz.spi.JobStore;
+import org.quartz.spi.OperableTrigger;
 
 public class RAMJobStoreTest extends AbstractJobStoreTest {
 
+    public void testTriggersAreIndexedInTheTimeTriggersSetByDefault() throws Exception {
+        RAMJobStore store = new RAMJobStore();
+        store.initialize(null, new SampleSignaler());
+        JobDetail job = JobBuilder.newJob(MyJob.class).withIdentity("job").build();
+        OperableTrigger trigger = (OperableTrigger) TriggerBuilder.newTrigger()
+                .withIdentity("trigger").forJob(job).startNow().build();
+        trigger.computeFirstFireTime(null);
+
+        store.storeJobAndTrigger(job, trigger);
+
+        assertEquals(1, store.timeTriggers.size());
+        assertEquals(trigger.getKey(), store.timeTriggers.first().key);
+    }
+
     @Override
     protected JobStore createJobStore(String name) {
         RAMJobStore rs = new RAMJobStore();
@@ -0,0 +1,132 @@
+/* 
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright Super iPaaS Integration LLC, an IBM Company 2024
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not 
+ * use this file except in compliance with the License. You may obtain a copy 
+ * of the License at 
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0 
+ *   
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations 
+ * under the License.
+ */
+package org.quartz.simpl;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit test for SimpleThreadPool, in both hand-off modes.
+ */
+public class SimpleThreadPoolTest extends TestCase {
+
+    public void testMonitorHandoff() throws Exception {
+        runJobs(createPool(false));
+    }
+
+    public void testLockFreeHandoff() throws Exception {
+        runJobs(createPool(true));
+    }
+
+    public void testLockFreeHandoffBlocksUntilWorkerAvailable() throws Exception {
+        final SimpleThreadPool tp = createPool(true);
+        final CountDownLatch release = new CountDownLatch(1);
+        Runnable blocker = new Runnable() {
+            public void run() {
+                try {
+                    release.await();
+                } catch (InterruptedException ignore) {
+                }
+            }
+        };
+        assertEquals(2, tp.blockForAvailableThreads());
+        tp.runInThread(blocker);
+        tp.runInThread(blocker);
+
+        final CountDownLatch available = new CountDownLatch(1);
+        Thread waiter = new Thread(new Runnable() {
+            public void run() {
+                tp.blockForAvailableThreads();
+                available.countDown();
+            }
+        });
+        waiter.start();
+        assertFalse(available.await(200, TimeUnit.MILLISECONDS));
+
+        release.countDown();
+        assertTrue(available.await(5, TimeUnit.SECONDS));
+        tp.shutdown(true);
+    }
+
+    public void testLockFreeShutdownRunsPendingJob() throws Exception {
+        final SimpleThreadPool tp = createPool(true);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger ran = new AtomicInteger();
+        Runnable job = new Runnable() {
+            public void run() {
+                try {
+                    release.await();
+                } catch (InterruptedException ignore) {
+                }
+                ran.incrementAndGet();
+            }
+        };
+        tp.runInThread(job);
+        tp.runInThread(job);
+
+        // no worker is free, so this hand-off waits until shutdown and then
+        // runs in an extra thread
+        Thread submitter = new Thread(new Runnable() {
+            public void run() {
+                tp.runInThread(new Runnable() {
+                    public void run() {
+                        ran.incrementAndGet();
+                    }
+                });
+            }
+        });
+        submitter.start();
+        Thread.sleep(100);
+
+        release.countDown();
+        tp.shutdown(true);
+        submitter.join();
+        for (int i = 0; i < 50 && ran.get() < 3; i++) {
+            Thread.sleep(100);
+        }
+        assertEquals(3, ran.get());
+    }
+
+    private SimpleThreadPool createPool(boolean lockFree) throws Exception {
+        SimpleThreadPool tp = new SimpleThreadPool(2, Thread.NORM_PRIORITY);
+        tp.setInstanceName("SimpleThreadPoolTest");
+        tp.setLockFreeHandoff(lockFree);
+        tp.initialize();
+        return tp;
+    }
+
+    private void runJobs(SimpleThreadPool tp) throws Exception {
+        final int jobs = 200;
+        final CountDownLatch done = new CountDownLatch(jobs);
+        for (int i = 0; i < jobs; i++) {
+            assertTrue(tp.blockForAvailableThreads() > 0);
+            assertTrue(tp.runInThread(new Runnable() {
+                public void run() {
+                    done.countDown();
+                }
+            }));
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        tp.shutdown(true);
+
+        assertEquals(jobs, tp.getWorkerWaitHistogram().getCount());
+        assertEquals(jobs, tp.getHandoffHistogram().getCount());
+    }
+}
@@ -0,0 +1,93 @@
+/* 
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright Super iPaaS Integration LLC, an IBM Company 2024
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not 
+ * use this file except in compliance with the License. You may obtain a copy 
+ * of the License at 
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0 
+ *   
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations 
+ * under the License.
+ */
+package org.quartz.simpl;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import org.quartz.impl.triggers.SimpleTriggerImpl;
+
+/**
+ * Checks that the timing wheel time index orders triggers exactly like the
+ * default <code>TreeSet</code> based index.
+ */
+public class TimingWheelTimeTriggerIndexTest extends TestCase {
+
+    public void testOrderingMatchesTreeSetIndex() {
+        Random random = new Random(42);
+        long now = System.currentTimeMillis();
+
+        for (int round = 0; round < 20; round++) {
+            TimeTriggerIndex expected = new TreeSetTimeTriggerIndex();
+            TimeTriggerIndex wheel = new TimingWheelTimeTriggerIndex(1 + random.nextInt(1000), 1 + random.nextInt(64));
+
+            List<TriggerWrapper> wrappers = new ArrayList<TriggerWrapper>();
+            for (int i = 0; i < 500; i++) {
+                SimpleTriggerImpl trigger = new SimpleTriggerImpl("t" + i, "g");
+                trigger.setJobName("j");
+                trigger.setPriority(random.nextInt(3));
+                if (random.nextInt(50) != 0) {
+                    // some in the past, most within the wheel, some far out
+                    trigger.setNextFireTime(new Date(now - 100000 + random.nextInt(2000000)));
+                }
+                wrappers.add(new TriggerWrapper(trigger));
+            }
+
+            for (int op = 0; op < 5000; op++) {
+                TriggerWrapper tw = wrappers.get(random.nextInt(wrappers.size()));
+                switch (random.nextInt(4)) {
+                    case 0:
+                    case 1:
+                        assertEquals(expected.add(tw), wheel.add(tw));
+                        break;
+                    case 2:
+                        assertEquals(expected.remove(tw), wheel.remove(tw));
+                        break;
+                    default:
+                        TriggerWrapper first = expected.first();
+                        assertSame(first, wheel.first());
+                        if (first != null && first.trigger.getNextFireTime() != null) {
+                            // simulate firing: take it out, move it on
+                            expected.remove(first);
+                            wheel.remove(first);
+                            ((SimpleTriggerImpl) first.trigger).setNextFireTime(
+                                    new Date(first.trigger.getNextFireTime().getTime() + random.nextInt(100000)));
+                        }
+                }
+                assertEquals(expected.size(), wheel.size());
+            }
+
+            Iterator<TriggerWrapper> wheelIter = wheel.iterator();
+            for (TriggerWrapper tw : expected) {
+                assertSame(tw, wheelIter.next());
+            }
+            assertFalse(wheelIter.hasNext());
+        }
+    }
+
+    public void testEmptyIndex() {
+        TimeTriggerIndex wheel = new TimingWheelTimeTriggerIndex();
+        assertNull(wheel.first());
+        assertEquals(0, wheel.size());
+        assertFalse(wheel.iterator().hasNext());
+    }
+}
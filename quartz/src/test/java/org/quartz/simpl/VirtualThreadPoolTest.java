@@ -0,0 +1,113 @@
+/* 
+ * All content copyright Terracotta, Inc., unless otherwise indicated. All rights reserved.
+ * Copyright Super iPaaS Integration LLC, an IBM Company 2024
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not 
+ * use this file except in compliance with the License. You may obtain a copy 
+ * of the License at 
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0 
+ *   
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations 
+ * under the License.
+ */
+package org.quartz.simpl;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit test for VirtualThreadPool.
+ */
+public class VirtualThreadPoolTest extends TestCase {
+
+    public void testConcurrencyBoundedByThreadCount() throws Exception {
+        final VirtualThreadPool tp = new VirtualThreadPool(2);
+        tp.setInstanceName("VirtualThreadPoolTest");
+        tp.initialize();
+
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        Runnable job = new Runnable() {
+            public void run() {
+                int now = running.incrementAndGet();
+                synchronized (maxRunning) {
+                    maxRunning.set(Math.max(maxRunning.get(), now));
+                }
+                try {
+                    release.await();
+                } catch (InterruptedException ignore) {
+                }
+                running.decrementAndGet();
+            }
+        };
+
+        assertEquals(2, tp.blockForAvailableThreads());
+        assertTrue(tp.runInThread(job));
+        assertTrue(tp.runInThread(job));
+
+        // a third job must wait for a permit
+        final CountDownLatch thirdStarted = new CountDownLatch(1);
+        Thread submitter = new Thread(new Runnable() {
+            public void run() {
+                tp.runInThread(job);
+                thirdStarted.countDown();
+            }
+        });
+        submitter.start();
+        assertFalse(thirdStarted.await(300, TimeUnit.MILLISECONDS));
+
+        release.countDown();
+        assertTrue(thirdStarted.await(5, TimeUnit.SECONDS));
+        tp.shutdown(true);
+
+        assertEquals(2, maxRunning.get());
+        assertEquals(0, running.get());
+    }
+
+    public void testBlockForAvailableThreadsReturnsOnShutdown() throws Exception {
+        final VirtualThreadPool tp = new VirtualThreadPool(1);
+        tp.setInstanceName("VirtualThreadPoolTest");
+        tp.initialize();
+
+        final CountDownLatch release = new CountDownLatch(1);
+        tp.runInThread(new Runnable() {
+            public void run() {
+                try {
+                    release.await();
+                } catch (InterruptedException ignore) {
+                }
+            }
+        });
+
+        final CountDownLatch blocked = new CountDownLatch(1);
+        Thread waiter = new Thread(new Runnable() {
+            public void run() {
+                tp.blockForAvailableThreads();
+                blocked.countDown();
+            }
+        });
+        waiter.start();
+        assertFalse(blocked.await(300, TimeUnit.MILLISECONDS));
+
+        tp.shutdown(false);
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+        release.countDown();
+    }
+
+    public void testInvalidThreadCount() throws Exception {
+        VirtualThreadPool tp = new VirtualThreadPool(0);
+        try {
+            tp.initialize();
+            fail("Expected SchedulerConfigException");
+        } catch (org.quartz.SchedulerConfigException expected) {
+        }
+    }
+}